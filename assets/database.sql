@@ -12,7 +12,10 @@ CREATE TABLE books (
     ) NOT NULL,
     publication_year INT NOT NULL,
     isbn VARCHAR(20) NOT NULL UNIQUE,
-    is_available BOOLEAN DEFAULT TRUE
+    total_copies INT NOT NULL DEFAULT 1,
+    available_copies INT NOT NULL DEFAULT 1,
+    is_available BOOLEAN AS (available_copies > 0) STORED,
+    CHECK (available_copies BETWEEN 0 AND total_copies)
 );
 
 CREATE TABLE users (
@@ -23,7 +26,7 @@ CREATE TABLE users (
 );
 
 CREATE TABLE loans (
-    id BIGINT PRIMARY KEY,
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
     user_id BIGINT NOT NULL,
     book_id BIGINT NOT NULL,
     loan_date DATE NOT NULL,
@@ -33,3 +36,22 @@ CREATE TABLE loans (
     FOREIGN KEY (user_id) REFERENCES users(id),
     FOREIGN KEY (book_id) REFERENCES books(id)
 );
+
+CREATE INDEX idx_books_available ON books (is_available, id);
+
+-- Resumos dos relatórios, mantidos a cada escrita em loans (ver ReportDAO)
+CREATE TABLE book_loan_stats (
+    book_id BIGINT PRIMARY KEY,
+    loan_count BIGINT NOT NULL DEFAULT 0,
+    active_loans BIGINT NOT NULL DEFAULT 0,
+    INDEX idx_book_loan_stats_ranking (loan_count DESC, book_id),
+    FOREIGN KEY (book_id) REFERENCES books(id) ON DELETE CASCADE
+);
+
+CREATE TABLE user_loan_stats (
+    user_id BIGINT PRIMARY KEY,
+    loan_count BIGINT NOT NULL DEFAULT 0,
+    active_loans BIGINT NOT NULL DEFAULT 0,
+    INDEX idx_user_loan_stats_ranking (loan_count DESC, user_id),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
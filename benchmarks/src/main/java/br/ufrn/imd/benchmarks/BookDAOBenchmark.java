@@ -0,0 +1,79 @@
+package br.ufrn.imd.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.ufrn.imd.cache.CacheConfig;
+import br.ufrn.imd.dao.BookDAO;
+import br.ufrn.imd.model.Book;
+
+/**
+ * Leituras do {@link BookDAO} contra o banco embarcado: o custo medido inclui
+ * o empréstimo da conexão, a execução da consulta e a conversão das linhas.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookDAOBenchmark {
+
+    @Param({ "1000", "10000" })
+    private int books;
+
+    @Param({ "false", "true" })
+    private boolean cached;
+
+    private EmbeddedDatabase database;
+    private BookDAO bookDAO;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new EmbeddedDatabase(books, 0);
+        bookDAO = new BookDAO(database.getPool());
+        if (cached) {
+            bookDAO.enableCache(CacheConfig.builder().build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Book findById() {
+        return bookDAO.findById(ThreadLocalRandom.current().nextLong(1, books + 1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Book> findAll() {
+        return bookDAO.findAll();
+    }
+
+    @Benchmark
+    public List<Book> searchBooks() {
+        return bookDAO.searchBooks("Autor " + ThreadLocalRandom.current().nextInt(97));
+    }
+}
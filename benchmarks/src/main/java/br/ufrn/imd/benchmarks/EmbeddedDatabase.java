@@ -0,0 +1,102 @@
+package br.ufrn.imd.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import br.ufrn.imd.database.ConnectionPool;
+import br.ufrn.imd.database.PoolConfig;
+import br.ufrn.imd.model.enums.Genre;
+
+/**
+ * Banco H2 em memória, em modo MySQL, com o esquema da aplicação e um acervo
+ * sintético. Cada instância usa um banco próprio.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+final class EmbeddedDatabase implements AutoCloseable {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+    private static final Genre[] GENRES = Genre.values();
+
+    private final ConnectionPool pool;
+
+    /**
+     * Cria o banco, o esquema e os dados.
+     *
+     * @param books quantidade de livros
+     * @param users quantidade de usuários
+     */
+    EmbeddedDatabase(int books, int users) throws SQLException, IOException {
+        String url = "jdbc:h2:mem:bench" + SEQUENCE.incrementAndGet()
+                + ";MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER";
+        this.pool = new ConnectionPool(PoolConfig.builder().url(url).username("sa").password("").build());
+
+        try (Connection connection = pool.getConnection()) {
+            createSchema(connection);
+            insertBooks(connection, books);
+            insertUsers(connection, users);
+        }
+    }
+
+    ConnectionPool getPool() {
+        return pool;
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+
+    private static void createSchema(Connection connection) throws SQLException, IOException {
+        String script;
+        try (InputStream in = EmbeddedDatabase.class.getResourceAsStream("/schema.sql")) {
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : script.replaceAll("(?m)^--.*$", "").split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    private static void insertBooks(Connection connection, int count) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO book (title, author, genre, publication_year, isbn, total_copies, available_copies) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= count; i++) {
+                ps.setString(1, "Livro " + i + " volume " + (i % 7));
+                ps.setString(2, "Autor " + (i % 97));
+                ps.setString(3, GENRES[i % GENRES.length].name());
+                ps.setInt(4, 1900 + i % 120);
+                ps.setString(5, String.format("978%010d", i));
+                ps.setInt(6, 3);
+                ps.setInt(7, 3);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static void insertUsers(Connection connection, int count) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO user (id, name, email, phone_number) VALUES (?, ?, ?, ?)")) {
+            for (int i = 1; i <= count; i++) {
+                ps.setLong(1, i);
+                ps.setString(2, "Usuário " + i);
+                ps.setString(3, "usuario" + i + "@exemplo.com");
+                ps.setString(4, "84999" + String.format("%06d", i));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package br.ufrn.imd.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.ufrn.imd.model.enums.Genre;
+
+/**
+ * Conversão da coluna {@code genre} em {@link Genre}, feita para cada livro
+ * lido do banco.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenreBenchmark {
+
+    private final String[] names = names();
+    private int next;
+
+    @Benchmark
+    public Genre valueOf() {
+        String name = names[next];
+        next = next + 1 == names.length ? 0 : next + 1;
+        return Genre.valueOf(name);
+    }
+
+    private static String[] names() {
+        Genre[] genres = Genre.values();
+        String[] names = new String[genres.length];
+        for (int i = 0; i < genres.length; i++) {
+            // cópias, como as strings novas que o driver devolve a cada linha
+            names[i] = new String(genres[i].name().toCharArray());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,89 @@
+package br.ufrn.imd.benchmarks;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.ufrn.imd.cache.CacheConfig;
+import br.ufrn.imd.dao.BookDAO;
+import br.ufrn.imd.dao.LoanDAO;
+import br.ufrn.imd.dao.UserDAO;
+import br.ufrn.imd.model.Loan;
+import br.ufrn.imd.service.LoanService;
+
+/**
+ * Validação de empréstimos em {@link LoanService#createLoan(Loan)}: as idas ao
+ * banco que confirmam o usuário e o livro. A gravação do empréstimo é
+ * substituída por um DAO que não acessa o banco.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoanServiceBenchmark {
+
+    private static final int BOOKS = 1000;
+    private static final int USERS = 1000;
+
+    @Param({ "false", "true" })
+    private boolean cached;
+
+    private EmbeddedDatabase database;
+    private LoanService loanService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new EmbeddedDatabase(BOOKS, USERS);
+        BookDAO bookDAO = new BookDAO(database.getPool());
+        UserDAO userDAO = new UserDAO(database.getPool());
+        if (cached) {
+            bookDAO.enableCache(CacheConfig.builder().build());
+            userDAO.enableCache(CacheConfig.builder().build());
+        }
+        LoanDAO loanDAO = new LoanDAO(database.getPool()) {
+            @Override
+            public void checkout(Loan loan) {
+                // apenas a validação é medida
+            }
+        };
+        loanService = new LoanService(loanDAO, bookDAO, userDAO);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Loan validateLoan() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate today = LocalDate.now();
+        Loan loan = Loan.builder()
+                .userId(random.nextLong(1, USERS + 1))
+                .bookId(random.nextLong(1, BOOKS + 1))
+                .loanDate(today)
+                .dueDate(today.plusDays(LoanService.DEFAULT_LOAN_DAYS))
+                .build();
+        loanService.createLoan(loan);
+        return loan;
+    }
+}
@@ -0,0 +1,86 @@
+package br.ufrn.imd.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.ufrn.imd.dao.BookDAO;
+import br.ufrn.imd.dao.LoanDAO;
+import br.ufrn.imd.dao.UserDAO;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.service.SnapshotService;
+import br.ufrn.imd.snapshot.SnapshotData;
+
+/**
+ * Carga do acervo completo em memória: pelo snapshot binário, com as tabelas
+ * decodificadas em paralelo, e pelas consultas {@code SELECT *} no banco
+ * embarcado.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    @Param({ "50000" })
+    private int books;
+
+    @Param({ "5000" })
+    private int users;
+
+    private EmbeddedDatabase database;
+    private BookDAO bookDAO;
+    private UserDAO userDAO;
+    private LoanDAO loanDAO;
+    private SnapshotService snapshotService;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        database = new EmbeddedDatabase(books, users);
+        bookDAO = new BookDAO(database.getPool());
+        userDAO = new UserDAO(database.getPool());
+        loanDAO = new LoanDAO(database.getPool());
+        snapshotService = new SnapshotService(bookDAO, userDAO, loanDAO);
+        file = Files.createTempFile("library", ".snap");
+        snapshotService.export(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        database.close();
+    }
+
+    @Benchmark
+    public SnapshotData loadSnapshot() throws IOException {
+        return snapshotService.load(file);
+    }
+
+    @Benchmark
+    public int loadSql() {
+        List<Book> all = bookDAO.findAll();
+        return all.size() + userDAO.findAll().size() + loanDAO.findAll().size();
+    }
+}
@@ -0,0 +1,115 @@
+package br.ufrn.imd.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.enums.Genre;
+import br.ufrn.imd.storage.FileStorageEngine;
+import br.ufrn.imd.storage.JdbcStorageEngine;
+import br.ufrn.imd.storage.StorageConfig;
+import br.ufrn.imd.storage.StorageEngine;
+
+/**
+ * Leituras de livros nos dois mecanismos de armazenamento, com o mesmo acervo:
+ * o JDBC contra o banco embarcado e o mecanismo em arquivo, que responde da
+ * memória sem passar pela rede nem pelo driver.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageEngineBenchmark {
+
+    private static final Genre[] GENRES = Genre.values();
+
+    @Param({ JdbcStorageEngine.NAME, FileStorageEngine.NAME })
+    private String engineName;
+
+    @Param({ "10000" })
+    private int books;
+
+    private EmbeddedDatabase database;
+    private Path directory;
+    private StorageEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        if (JdbcStorageEngine.NAME.equals(engineName)) {
+            database = new EmbeddedDatabase(books, 0);
+            engine = StorageEngine.open(StorageConfig.builder().engine(engineName).dataSource(database.getPool()).build());
+            return;
+        }
+        directory = Files.createTempDirectory("storage-bench");
+        engine = StorageEngine.open(StorageConfig.builder().engine(engineName).directory(directory).build());
+        List<Book> catalog = new ArrayList<>(books);
+        for (int i = 1; i <= books; i++) {
+            catalog.add(Book.builder()
+                    .title("Livro " + i + " volume " + (i % 7))
+                    .author("Autor " + (i % 97))
+                    .genre(GENRES[i % GENRES.length])
+                    .publicationYear(1900 + i % 120)
+                    .isbn(String.format("978%010d", i))
+                    .totalCopies(3)
+                    .build());
+        }
+        engine.books().createAll(catalog);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        engine.close();
+        if (database != null) {
+            database.close();
+        }
+        if (directory != null) {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Book findById() {
+        return engine.books().findById(ThreadLocalRandom.current().nextLong(1, books + 1));
+    }
+
+    @Benchmark
+    public Book findByIsbn() {
+        return engine.books().findByIsbn(String.format("978%010d", ThreadLocalRandom.current().nextInt(1, books + 1)));
+    }
+
+    @Benchmark
+    public Page<Book> findPage() {
+        return engine.books().findPage(Page.encodeCursor(ThreadLocalRandom.current().nextLong(books)), 50);
+    }
+}
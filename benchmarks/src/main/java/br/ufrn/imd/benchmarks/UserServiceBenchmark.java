@@ -0,0 +1,48 @@
+package br.ufrn.imd.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.ufrn.imd.dao.UserDAO;
+import br.ufrn.imd.model.User;
+import br.ufrn.imd.service.UserService;
+
+/**
+ * Validação de usuários em {@link UserService#createUser(User)}, com um DAO que
+ * não acessa o banco, para medir apenas as regras e as expressões regulares.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private final UserService userService = new UserService(new UserDAO(null) {
+        @Override
+        public void create(User user) {
+            // apenas a validação é medida
+        }
+    });
+
+    private final User user = new User(1L, "Maria da Silva", "maria.silva@exemplo.com.br", "+5584999990000");
+
+    @Benchmark
+    public User validateUser() {
+        userService.createUser(user);
+        return user;
+    }
+}
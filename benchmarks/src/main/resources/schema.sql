@@ -0,0 +1,44 @@
+-- Esquema de assets/database.sql adaptado ao H2 em modo MySQL
+CREATE TABLE book (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    author VARCHAR(255) NOT NULL,
+    genre VARCHAR(32) NOT NULL,
+    publication_year INT NOT NULL,
+    isbn VARCHAR(20) NOT NULL UNIQUE,
+    total_copies INT NOT NULL DEFAULT 1,
+    available_copies INT NOT NULL DEFAULT 1,
+    is_available BOOLEAN AS (available_copies > 0),
+    CHECK (available_copies BETWEEN 0 AND total_copies)
+);
+
+CREATE INDEX idx_book_available ON book (is_available, id);
+
+CREATE TABLE user (
+    id BIGINT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    phone_number VARCHAR(15)
+);
+
+CREATE TABLE loan (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    book_id BIGINT NOT NULL,
+    loan_date DATE NOT NULL,
+    due_date DATE NOT NULL,
+    return_date DATE,
+    is_returned BOOLEAN DEFAULT FALSE
+);
+
+CREATE TABLE book_loan_stats (
+    book_id BIGINT PRIMARY KEY,
+    loan_count BIGINT NOT NULL DEFAULT 0,
+    active_loans BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE user_loan_stats (
+    user_id BIGINT PRIMARY KEY,
+    loan_count BIGINT NOT NULL DEFAULT 0,
+    active_loans BIGINT NOT NULL DEFAULT 0
+);
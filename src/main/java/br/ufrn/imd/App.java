@@ -1,25 +1,99 @@
 package br.ufrn.imd;
 
+import br.ufrn.imd.database.DatabaseConnection;
+import br.ufrn.imd.logging.Logger;
+import br.ufrn.imd.metrics.MetricsRegistry;
+import br.ufrn.imd.startup.ApplicationContext;
+import br.ufrn.imd.startup.StartupConfig;
+import br.ufrn.imd.startup.StartupTimeline;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * JavaFX App
+ * <p>
+ * A janela é exibida sem esperar o banco de dados: as métricas, a primeira
+ * conexão e os serviços são criados em segundo plano pelo
+ * {@link ApplicationContext}. Quando a primeira janela é desenhada e os
+ * serviços ficam prontos, os tempos de cada fase são gravados no relatório de
+ * inicialização.
  */
 public class App extends Application {
 
+    private static final StartupTimeline TIMELINE = new StartupTimeline();
+    private static final Logger LOG = Logger.getLogger(App.class);
+
     private static Scene scene;
+    private static ApplicationContext context;
+
+    private final StartupConfig config = StartupConfig.builder().build();
+    private final AtomicInteger pendingMilestones = new AtomicInteger(2);
+
+    /**
+     * Inicia em segundo plano a publicação das métricas no JMX e a criação
+     * dos serviços.
+     */
+    @Override
+    public void init() {
+        context = new ApplicationContext(config, TIMELINE);
+        context.runInBackground("metrics", () -> {
+            MetricsRegistry metrics = MetricsRegistry.getDefault();
+            metrics.registerPool("DatabaseConnection", DatabaseConnection::getPoolStats);
+            metrics.registerMBeans();
+        });
+        context.start().whenComplete((ready, e) -> {
+            if (e != null) {
+                LOG.error("Erro ao inicializar os serviços", e);
+            }
+            TIMELINE.mark(e == null ? "services-ready" : "services-failed");
+            milestoneReached();
+        });
+    }
 
     @Override
     public void start(Stage stage) throws IOException {
-        scene = new Scene(loadFXML("primary"), 640, 480);
+        Parent root;
+        try (StartupTimeline.Phase phase = TIMELINE.begin("fxml")) {
+            root = loadFXML("primary");
+        }
+        scene = new Scene(root, 640, 480);
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                TIMELINE.mark("first-frame");
+                milestoneReached();
+            }
+        });
         stage.setScene(scene);
-        stage.show();
+        TIMELINE.run("stage-show", stage::show);
+    }
+
+    /**
+     * Fecha os serviços e o pool de conexões.
+     */
+    @Override
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+        DatabaseConnection.closeConnection();
+    }
+
+    /**
+     * Retorna os componentes compartilhados da aplicação.
+     *
+     * @return contexto da aplicação.
+     */
+    public static ApplicationContext getContext() {
+        return context;
     }
 
     static void setRoot(String fxml) throws IOException {
@@ -31,8 +105,31 @@ public class App extends Application {
         return fxmlLoader.load();
     }
 
+    /**
+     * Grava o relatório de inicialização depois do último marco: a primeira
+     * janela desenhada e os serviços prontos. Na execução de treino do
+     * AppCDS, encerra a aplicação em seguida.
+     */
+    private void milestoneReached() {
+        if (pendingMilestones.decrementAndGet() != 0) {
+            return;
+        }
+        context.runInBackground("startup-report", () -> {
+            if (config.getReportFile() != null) {
+                try {
+                    TIMELINE.writeReport(config.getReportFile());
+                } catch (IOException e) {
+                    LOG.error("Erro ao gravar o relatório de inicialização", e);
+                }
+            }
+            if (config.isExitAfterStart()) {
+                Platform.exit();
+            }
+        });
+    }
+
     public static void main(String[] args) {
         launch();
     }
 
-}
\ No newline at end of file
+}
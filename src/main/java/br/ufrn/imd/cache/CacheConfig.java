@@ -0,0 +1,28 @@
+package br.ufrn.imd.cache;
+
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Configuração de um {@link EntityCache}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Getter
+@Builder
+@ToString
+public class CacheConfig {
+
+    /** Quantidade máxima de entradas mantidas no cache. */
+    @Builder.Default
+    private final int maximumSize = 10_000;
+
+    /** Tempo de vida de cada entrada a partir do carregamento. */
+    @Builder.Default
+    private final Duration timeToLive = Duration.ofMinutes(5);
+
+}
@@ -0,0 +1,31 @@
+package br.ufrn.imd.cache;
+
+import lombok.Value;
+
+/**
+ * Fotografia das estatísticas de um {@link EntityCache}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Value
+public class CacheStats {
+
+    long hits;
+    long misses;
+    long loads;
+    long evictions;
+    long invalidations;
+    int size;
+
+    /**
+     * Retorna a proporção de leituras atendidas pelo cache.
+     *
+     * @return valor entre 0 e 1.
+     */
+    public double getHitRatio() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+}
@@ -0,0 +1,249 @@
+package br.ufrn.imd.cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache de leitura (read-through) de entidades por id, limitado por tamanho e
+ * por tempo de vida.
+ * <p>
+ * Quando várias threads pedem ao mesmo tempo uma chave ausente, apenas uma
+ * executa o carregamento e as demais aguardam o mesmo resultado. Uma
+ * invalidação feita durante um carregamento impede que o valor carregado, já
+ * possivelmente desatualizado, seja armazenado. Ao exceder o tamanho máximo,
+ * as entradas inseridas há mais tempo são descartadas primeiro.
+ * <p>
+ * Os valores são copiados na entrada e na saída, de modo que alterações feitas
+ * pelo chamador não afetam o conteúdo do cache.
+ *
+ * @param <K> tipo da chave
+ * @param <V> tipo do valor
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class EntityCache<K, V> {
+
+    private final int maximumSize;
+    private final long ttlNanos;
+    private final UnaryOperator<V> copier;
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Node<K>> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueLength = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Cria o cache.
+     *
+     * @param config configuração de tamanho e tempo de vida.
+     * @param copier cria uma cópia independente de um valor.
+     */
+    public EntityCache(CacheConfig config, UnaryOperator<V> copier) {
+        if (config.getMaximumSize() <= 0 || config.getTimeToLive().isNegative() || config.getTimeToLive().isZero()) {
+            throw new IllegalArgumentException("Configuração de cache inválida: " + config);
+        }
+        this.maximumSize = config.getMaximumSize();
+        this.ttlNanos = config.getTimeToLive().toNanos();
+        this.copier = copier;
+    }
+
+    /**
+     * Retorna o valor da chave, carregando-o caso não esteja no cache ou tenha
+     * expirado. Valores nulos não são armazenados.
+     *
+     * @param key    chave procurada.
+     * @param loader função que busca o valor na origem.
+     * @return cópia do valor, ou null caso a origem não o tenha.
+     */
+    public V get(K key, Function<K, V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null) {
+            if (!entry.isExpired()) {
+                hits.increment();
+                return copier.apply(entry.value);
+            }
+            entries.remove(key, entry);
+        }
+        misses.increment();
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = loading.putIfAbsent(key, future);
+        if (existing != null) {
+            return copyOrNull(await(existing));
+        }
+
+        try {
+            loads.increment();
+            V value = loader.apply(key);
+            finishLoad(key, future, value);
+            future.complete(value);
+            return copyOrNull(value);
+        } catch (Throwable e) {
+            // inclui Errors: o futuro precisa ser concluído e removido, ou os
+            // próximos pedidos da chave aguardariam para sempre
+            loading.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Remove a chave do cache e cancela o armazenamento de um carregamento em
+     * andamento. Deve ser chamado depois de toda escrita na origem.
+     *
+     * @param key chave alterada.
+     */
+    public void invalidate(K key) {
+        loading.remove(key);
+        if (entries.remove(key) != null) {
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Remove todas as entradas.
+     */
+    public void invalidateAll() {
+        loading.clear();
+        entries.clear();
+    }
+
+    /**
+     * Retorna as estatísticas atuais do cache.
+     *
+     * @return fotografia das estatísticas.
+     */
+    public CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), loads.sum(), evictions.sum(), invalidations.sum(),
+                entries.size());
+    }
+
+    /**
+     * Encerra o carregamento da chave e armazena o valor, a menos que uma
+     * invalidação o tenha cancelado. A verificação e o armazenamento são
+     * feitos sob o bloqueio da chave no mapa de carregamentos, o mesmo tomado
+     * por {@link #invalidate(Object)}: ou a invalidação vem antes e o valor é
+     * descartado, ou vem depois e remove o valor armazenado.
+     */
+    private void finishLoad(K key, CompletableFuture<V> future, V value) {
+        loading.computeIfPresent(key, (k, current) -> {
+            if (current != future) {
+                return current;
+            }
+            if (value != null) {
+                store(k, copier.apply(value));
+            }
+            return null;
+        });
+    }
+
+    private void store(K key, V value) {
+        long seq = sequence.incrementAndGet();
+        entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos, seq));
+        enqueue(new Node<>(key, seq));
+
+        while (entries.size() > maximumSize) {
+            Node<K> oldest = dequeue();
+            if (oldest == null) {
+                break;
+            }
+            Entry<V> entry = entries.get(oldest.key);
+            if (entry != null && entry.seq == oldest.seq && entries.remove(oldest.key, entry)) {
+                evictions.increment();
+            }
+        }
+
+        // Descarta da fila os nós de entradas que já expiraram ou foram
+        // substituídas, para que ela não cresça além do dobro do cache.
+        while (queueLength.get() > maximumSize * 2) {
+            Node<K> node = dequeue();
+            if (node == null) {
+                break;
+            }
+            Entry<V> entry = entries.get(node.key);
+            if (entry != null && entry.seq == node.seq) {
+                enqueue(node);
+            }
+        }
+    }
+
+    private void enqueue(Node<K> node) {
+        insertionOrder.offer(node);
+        queueLength.incrementAndGet();
+    }
+
+    private Node<K> dequeue() {
+        Node<K> node = insertionOrder.poll();
+        if (node != null) {
+            queueLength.decrementAndGet();
+        }
+        return node;
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private V copyOrNull(V value) {
+        return value == null ? null : copier.apply(value);
+    }
+
+    /**
+     * Valor armazenado, o instante em que expira e sua ordem de inserção.
+     */
+    private static class Entry<V> {
+
+        private final V value;
+        private final long expiresAt;
+        private final long seq;
+
+        Entry(V value, long expiresAt, long seq) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.seq = seq;
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAt > 0;
+        }
+    }
+
+    /**
+     * Posição de uma inserção na fila de descarte.
+     */
+    private static class Node<K> {
+
+        private final K key;
+        private final long seq;
+
+        Node(K key, long seq) {
+            this.key = key;
+            this.seq = seq;
+        }
+    }
+}
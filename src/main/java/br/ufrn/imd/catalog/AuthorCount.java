@@ -0,0 +1,17 @@
+package br.ufrn.imd.catalog;
+
+import lombok.Value;
+
+/**
+ * Quantidade de livros de um autor em um {@link CatalogSnapshot}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Value
+public class AuthorCount {
+
+    String author;
+
+    long count;
+}
@@ -0,0 +1,601 @@
+package br.ufrn.imd.catalog;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.enums.Genre;
+
+/**
+ * Fotografia imutável e colunar da tabela {@code book}, para consultas
+ * analíticas sobre o acervo inteiro.
+ * <p>
+ * Cada coluna é um array primitivo indexado pela linha, com as linhas
+ * ordenadas por id: ids em {@code long[]}, anos e exemplares em
+ * {@code int[]}, gêneros pelo ordinal em {@code byte[]}, disponibilidade em
+ * um bitset e autores codificados por um dicionário ordenado, de modo que cada
+ * linha guarda apenas o código do autor. Um livro ocupa cerca de 25 bytes, em
+ * vez das centenas de bytes de um {@link Book} com seus campos encapsulados.
+ * <p>
+ * Os filtros percorrem uma coluna em sequência e devolvem um {@link RowSet};
+ * os agregadores percorrem só as linhas selecionadas. Como nada é alterado
+ * depois da construção, o snapshot pode ser lido por várias threads sem
+ * sincronização; atualizações criam um novo snapshot, veja
+ * {@link br.ufrn.imd.service.CatalogService}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public final class CatalogSnapshot {
+
+    private static final Genre[] GENRES = Genre.values();
+
+    private final int size;
+    private final long[] ids;
+    private final int[] years;
+    private final byte[] genres;
+    private final long[] available;
+    private final int[] authorCodes;
+    private final String[] authors;
+    private final int[] totalCopies;
+    private final int[] availableCopies;
+    private final int minYear;
+    private final int maxYear;
+    private final Instant createdAt;
+
+    private CatalogSnapshot(Builder builder, int[] order, int[] authorRemap, String[] authors) {
+        this.size = builder.size;
+        this.ids = new long[size];
+        this.years = new int[size];
+        this.genres = new byte[size];
+        this.available = new long[RowSet.wordCount(size)];
+        this.authorCodes = new int[size];
+        this.totalCopies = new int[size];
+        this.availableCopies = new int[size];
+        this.authors = authors;
+        this.createdAt = Instant.now();
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int row = 0; row < size; row++) {
+            int source = order != null ? order[row] : row;
+            ids[row] = builder.ids[source];
+            years[row] = builder.years[source];
+            genres[row] = builder.genres[source];
+            authorCodes[row] = authorRemap[builder.authorCodes[source]];
+            totalCopies[row] = builder.totalCopies[source];
+            availableCopies[row] = builder.availableCopies[source];
+            if (builder.available[source]) {
+                available[row >>> 6] |= 1L << row;
+            }
+            min = Math.min(min, years[row]);
+            max = Math.max(max, years[row]);
+        }
+        this.minYear = size > 0 ? min : 0;
+        this.maxYear = size > 0 ? max : -1;
+    }
+
+    /**
+     * Cria um construtor de snapshots.
+     *
+     * @param expectedSize quantidade estimada de livros.
+     * @return construtor vazio.
+     */
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    /**
+     * Snapshot sem livros.
+     *
+     * @return snapshot vazio.
+     */
+    public static CatalogSnapshot empty() {
+        return builder(0).build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Quantidade de autores distintos.
+     *
+     * @return tamanho do dicionário de autores.
+     */
+    public int getAuthorCount() {
+        return authors.length;
+    }
+
+    /**
+     * Estimativa da memória ocupada pelas colunas e pelo dicionário.
+     *
+     * @return tamanho aproximado em bytes.
+     */
+    public long estimatedBytes() {
+        long bytes = 8L * ids.length + 4L * years.length + genres.length + 8L * available.length
+                + 4L * authorCodes.length + 4L * totalCopies.length + 4L * availableCopies.length;
+        for (String author : authors) {
+            bytes += 40 + author.length();
+        }
+        return bytes;
+    }
+
+    public long getId(int row) {
+        return ids[row];
+    }
+
+    public int getPublicationYear(int row) {
+        return years[row];
+    }
+
+    public Genre getGenre(int row) {
+        return GENRES[genres[row]];
+    }
+
+    public boolean isAvailable(int row) {
+        return (available[row >>> 6] & (1L << row)) != 0;
+    }
+
+    public String getAuthor(int row) {
+        return authors[authorCodes[row]];
+    }
+
+    public int getTotalCopies(int row) {
+        return totalCopies[row];
+    }
+
+    public int getAvailableCopies(int row) {
+        return availableCopies[row];
+    }
+
+    /**
+     * Procura a linha de um livro pelo id.
+     *
+     * @param id id do livro.
+     * @return posição da linha, ou -1 caso o livro não esteja no snapshot.
+     */
+    public int rowOf(long id) {
+        int row = Arrays.binarySearch(ids, id);
+        return row >= 0 ? row : -1;
+    }
+
+    /**
+     * Todas as linhas do snapshot.
+     *
+     * @return conjunto com todas as linhas.
+     */
+    public RowSet all() {
+        return RowSet.all(size);
+    }
+
+    /**
+     * Livros de qualquer um dos gêneros informados.
+     *
+     * @param selected gêneros aceitos.
+     * @return linhas selecionadas.
+     */
+    public RowSet genre(Genre... selected) {
+        long mask = 0;
+        for (Genre genre : selected) {
+            mask |= 1L << genre.ordinal();
+        }
+        long[] words = new long[available.length];
+        for (int w = 0; w < words.length; w++) {
+            int base = w << 6;
+            int end = Math.min(64, size - base);
+            long word = 0;
+            for (int bit = 0; bit < end; bit++) {
+                word |= ((mask >>> genres[base + bit]) & 1L) << bit;
+            }
+            words[w] = word;
+        }
+        return new RowSet(words, size);
+    }
+
+    /**
+     * Livros publicados no intervalo informado, inclusive.
+     *
+     * @param from primeiro ano aceito.
+     * @param to   último ano aceito.
+     * @return linhas selecionadas.
+     */
+    public RowSet yearBetween(int from, int to) {
+        long span = (long) to - from;
+        long[] words = new long[available.length];
+        if (span < 0) {
+            return new RowSet(words, size);
+        }
+        for (int w = 0; w < words.length; w++) {
+            int base = w << 6;
+            int end = Math.min(64, size - base);
+            long word = 0;
+            for (int bit = 0; bit < end; bit++) {
+                long offset = (long) years[base + bit] - from;
+                word |= (((offset | (span - offset)) >>> 63) ^ 1L) << bit;
+            }
+            words[w] = word;
+        }
+        return new RowSet(words, size);
+    }
+
+    /**
+     * Livros com ao menos um exemplar disponível.
+     *
+     * @return linhas selecionadas.
+     */
+    public RowSet available() {
+        return new RowSet(available.clone(), size);
+    }
+
+    /**
+     * Livros do autor informado, comparando o nome exato.
+     *
+     * @param author nome do autor.
+     * @return linhas selecionadas.
+     */
+    public RowSet author(String author) {
+        int code = Arrays.binarySearch(authors, author);
+        return code >= 0 ? authorCodeRange(code, code + 1) : new RowSet(new long[available.length], size);
+    }
+
+    /**
+     * Livros cujo autor começa com o prefixo informado. Como o dicionário é
+     * ordenado, os autores do prefixo formam um intervalo de códigos.
+     *
+     * @param prefix início do nome do autor.
+     * @return linhas selecionadas.
+     */
+    public RowSet authorStartingWith(String prefix) {
+        int from = insertionPoint(prefix);
+        int to = from;
+        while (to < authors.length && authors[to].startsWith(prefix)) {
+            to++;
+        }
+        return authorCodeRange(from, to);
+    }
+
+    private RowSet authorCodeRange(int from, int to) {
+        long span = (long) to - from - 1;
+        long[] words = new long[available.length];
+        if (span < 0) {
+            return new RowSet(words, size);
+        }
+        for (int w = 0; w < words.length; w++) {
+            int base = w << 6;
+            int end = Math.min(64, size - base);
+            long word = 0;
+            for (int bit = 0; bit < end; bit++) {
+                long offset = (long) authorCodes[base + bit] - from;
+                word |= (((offset | (span - offset)) >>> 63) ^ 1L) << bit;
+            }
+            words[w] = word;
+        }
+        return new RowSet(words, size);
+    }
+
+    private int insertionPoint(String key) {
+        int index = Arrays.binarySearch(authors, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Conta os livros selecionados por gênero.
+     *
+     * @param rows linhas consideradas.
+     * @return quantidade de livros de cada gênero presente.
+     */
+    public Map<Genre, Long> countByGenre(RowSet rows) {
+        check(rows);
+        long[] counts = new long[GENRES.length];
+        long[] words = rows.words;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            int base = w << 6;
+            if (word == -1L) {
+                for (int row = base; row < base + 64; row++) {
+                    counts[genres[row]]++;
+                }
+                continue;
+            }
+            while (word != 0) {
+                counts[genres[base + Long.numberOfTrailingZeros(word)]]++;
+                word &= word - 1;
+            }
+        }
+
+        Map<Genre, Long> result = new EnumMap<>(Genre.class);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                result.put(GENRES[i], counts[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Conta os livros selecionados por ano de publicação.
+     *
+     * @param rows linhas consideradas.
+     * @return quantidade de livros por ano, em ordem crescente de ano.
+     */
+    public SortedMap<Integer, Long> countByYear(RowSet rows) {
+        check(rows);
+        SortedMap<Integer, Long> result = new TreeMap<>();
+        if (size == 0) {
+            return result;
+        }
+        long[] counts = new long[maxYear - minYear + 1];
+        long[] words = rows.words;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            int base = w << 6;
+            while (word != 0) {
+                counts[years[base + Long.numberOfTrailingZeros(word)] - minYear]++;
+                word &= word - 1;
+            }
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                result.put(minYear + i, counts[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Soma os exemplares disponíveis dos livros selecionados.
+     *
+     * @param rows linhas consideradas.
+     * @return total de exemplares disponíveis.
+     */
+    public long sumAvailableCopies(RowSet rows) {
+        return sum(rows, availableCopies);
+    }
+
+    /**
+     * Soma os exemplares dos livros selecionados.
+     *
+     * @param rows linhas consideradas.
+     * @return total de exemplares.
+     */
+    public long sumTotalCopies(RowSet rows) {
+        return sum(rows, totalCopies);
+    }
+
+    /**
+     * Autores com mais livros entre os selecionados.
+     *
+     * @param rows  linhas consideradas.
+     * @param limit quantidade máxima de autores.
+     * @return autores do que tem mais para o que tem menos livros; empates
+     *         ordenados pelo nome.
+     */
+    public List<AuthorCount> topAuthors(RowSet rows, int limit) {
+        check(rows);
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        long[] counts = new long[authors.length];
+        long[] words = rows.words;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            int base = w << 6;
+            while (word != 0) {
+                counts[authorCodes[base + Long.numberOfTrailingZeros(word)]]++;
+                word &= word - 1;
+            }
+        }
+
+        PriorityQueue<Integer> top = new PriorityQueue<>(limit + 1,
+                (a, b) -> counts[a] != counts[b] ? Long.compare(counts[a], counts[b]) : Integer.compare(b, a));
+        for (int code = 0; code < counts.length; code++) {
+            if (counts[code] > 0) {
+                top.add(code);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        }
+        List<AuthorCount> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            int code = top.poll();
+            result.add(new AuthorCount(authors[code], counts[code]));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Ids dos livros selecionados, em ordem crescente.
+     *
+     * @param rows linhas consideradas.
+     * @return ids selecionados.
+     */
+    public long[] ids(RowSet rows) {
+        check(rows);
+        long[] result = new long[rows.count()];
+        int index = 0;
+        long[] words = rows.words;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            int base = w << 6;
+            while (word != 0) {
+                result[index++] = ids[base + Long.numberOfTrailingZeros(word)];
+                word &= word - 1;
+            }
+        }
+        return result;
+    }
+
+    private long sum(RowSet rows, int[] column) {
+        check(rows);
+        long total = 0;
+        long[] words = rows.words;
+        for (int w = 0; w < words.length; w++) {
+            long word = words[w];
+            int base = w << 6;
+            if (word == -1L) {
+                for (int row = base; row < base + 64; row++) {
+                    total += column[row];
+                }
+                continue;
+            }
+            while (word != 0) {
+                total += column[base + Long.numberOfTrailingZeros(word)];
+                word &= word - 1;
+            }
+        }
+        return total;
+    }
+
+    private void check(RowSet rows) {
+        if (rows.size() != size) {
+            throw new IllegalArgumentException("O conjunto de linhas pertence a outro snapshot.");
+        }
+    }
+
+    /**
+     * Acumula as linhas de um novo snapshot. Não é seguro para uso concorrente.
+     */
+    public static final class Builder {
+
+        private int size;
+        private long[] ids;
+        private int[] years;
+        private byte[] genres;
+        private boolean[] available;
+        private int[] authorCodes;
+        private int[] totalCopies;
+        private int[] availableCopies;
+        private boolean sorted = true;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final List<String> authorNames = new ArrayList<>();
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            ids = new long[capacity];
+            years = new int[capacity];
+            genres = new byte[capacity];
+            available = new boolean[capacity];
+            authorCodes = new int[capacity];
+            totalCopies = new int[capacity];
+            availableCopies = new int[capacity];
+        }
+
+        /**
+         * Adiciona um livro.
+         *
+         * @param book livro com id e gênero.
+         * @throws IllegalArgumentException caso o livro não tenha id ou gênero.
+         * @return este construtor.
+         */
+        public Builder add(Book book) {
+            if (book.getId() == null || book.getGenre() == null) {
+                throw new IllegalArgumentException("Livros do snapshot precisam de id e gênero.");
+            }
+            return add(book.getId(), valueOf(book.getPublicationYear()), book.getGenre(),
+                    book.getAuthor(), valueOf(book.getTotalCopies()), valueOf(book.getAvailableCopies()));
+        }
+
+        /**
+         * Adiciona um livro a partir dos valores das colunas.
+         *
+         * @param id              id do livro.
+         * @param year            ano de publicação.
+         * @param genre           gênero.
+         * @param author          autor; null é tratado como vazio.
+         * @param total           exemplares do acervo.
+         * @param availableCount  exemplares disponíveis.
+         * @return este construtor.
+         */
+        public Builder add(long id, int year, Genre genre, String author, int total, int availableCount) {
+            if (size == ids.length) {
+                grow();
+            }
+            if (size > 0 && id <= ids[size - 1]) {
+                sorted = false;
+            }
+            String name = author != null ? author : "";
+            Integer code = dictionary.get(name);
+            if (code == null) {
+                code = authorNames.size();
+                dictionary.put(name, code);
+                authorNames.add(name);
+            }
+
+            ids[size] = id;
+            years[size] = year;
+            genres[size] = (byte) genre.ordinal();
+            available[size] = availableCount > 0;
+            authorCodes[size] = code;
+            totalCopies[size] = total;
+            availableCopies[size] = availableCount;
+            size++;
+            return this;
+        }
+
+        /**
+         * Cria o snapshot, ordenando as linhas por id e o dicionário de
+         * autores por nome.
+         *
+         * @return snapshot imutável.
+         */
+        public CatalogSnapshot build() {
+            String[] sortedAuthors = authorNames.toArray(new String[0]);
+            Integer[] byName = new Integer[sortedAuthors.length];
+            for (int i = 0; i < byName.length; i++) {
+                byName[i] = i;
+            }
+            Arrays.sort(byName, (a, b) -> sortedAuthors[a].compareTo(sortedAuthors[b]));
+            int[] remap = new int[byName.length];
+            String[] dictionaryOrder = new String[byName.length];
+            for (int code = 0; code < byName.length; code++) {
+                remap[byName[code]] = code;
+                dictionaryOrder[code] = sortedAuthors[byName[code]];
+            }
+
+            int[] order = null;
+            if (!sorted) {
+                long[] sortedIds = Arrays.copyOf(ids, size);
+                Arrays.sort(sortedIds);
+                order = new int[size];
+                for (int row = 0; row < size; row++) {
+                    if (row > 0 && sortedIds[row] == sortedIds[row - 1]) {
+                        throw new IllegalStateException("Id de livro repetido no snapshot: " + sortedIds[row]);
+                    }
+                    order[Arrays.binarySearch(sortedIds, ids[row])] = row;
+                }
+            }
+            return new CatalogSnapshot(this, order, remap, dictionaryOrder);
+        }
+
+        private void grow() {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            years = Arrays.copyOf(years, capacity);
+            genres = Arrays.copyOf(genres, capacity);
+            available = Arrays.copyOf(available, capacity);
+            authorCodes = Arrays.copyOf(authorCodes, capacity);
+            totalCopies = Arrays.copyOf(totalCopies, capacity);
+            availableCopies = Arrays.copyOf(availableCopies, capacity);
+        }
+
+        private static int valueOf(Integer value) {
+            return value != null ? value : 0;
+        }
+    }
+}
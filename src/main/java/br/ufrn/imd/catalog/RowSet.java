@@ -0,0 +1,153 @@
+package br.ufrn.imd.catalog;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto imutável de linhas de um {@link CatalogSnapshot}, representado
+ * como um bitset: o bit {@code i} indica se a linha {@code i} faz parte do
+ * conjunto.
+ * <p>
+ * Os filtros do snapshot devolvem conjuntos que podem ser combinados com
+ * {@link #and(RowSet)}, {@link #or(RowSet)} e {@link #andNot(RowSet)}, palavra
+ * a palavra, antes de serem passados aos agregadores.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public final class RowSet {
+
+    final long[] words;
+    private final int size;
+
+    RowSet(long[] words, int size) {
+        this.words = words;
+        this.size = size;
+    }
+
+    static RowSet all(int size) {
+        long[] words = new long[wordCount(size)];
+        Arrays.fill(words, -1L);
+        clearTail(words, size);
+        return new RowSet(words, size);
+    }
+
+    static int wordCount(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    static void clearTail(long[] words, int size) {
+        int tail = size & 63;
+        if (tail != 0) {
+            words[words.length - 1] &= (1L << tail) - 1;
+        }
+    }
+
+    /**
+     * Quantidade de linhas do snapshot de origem.
+     *
+     * @return total de linhas, selecionadas ou não.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Verifica se a linha faz parte do conjunto.
+     *
+     * @param row posição da linha.
+     * @return true caso a linha esteja selecionada.
+     */
+    public boolean contains(int row) {
+        return row >= 0 && row < size && (words[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Conta as linhas selecionadas.
+     *
+     * @return quantidade de linhas no conjunto.
+     */
+    public int count() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Interseção com outro conjunto do mesmo snapshot.
+     *
+     * @param other outro conjunto.
+     * @throws IllegalArgumentException caso os conjuntos tenham tamanhos diferentes.
+     * @return linhas presentes nos dois conjuntos.
+     */
+    public RowSet and(RowSet other) {
+        checkCompatible(other);
+        long[] result = new long[words.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words[i] & other.words[i];
+        }
+        return new RowSet(result, size);
+    }
+
+    /**
+     * União com outro conjunto do mesmo snapshot.
+     *
+     * @param other outro conjunto.
+     * @throws IllegalArgumentException caso os conjuntos tenham tamanhos diferentes.
+     * @return linhas presentes em ao menos um dos conjuntos.
+     */
+    public RowSet or(RowSet other) {
+        checkCompatible(other);
+        long[] result = new long[words.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words[i] | other.words[i];
+        }
+        return new RowSet(result, size);
+    }
+
+    /**
+     * Diferença em relação a outro conjunto do mesmo snapshot.
+     *
+     * @param other conjunto a ser removido.
+     * @throws IllegalArgumentException caso os conjuntos tenham tamanhos diferentes.
+     * @return linhas deste conjunto que não estão no outro.
+     */
+    public RowSet andNot(RowSet other) {
+        checkCompatible(other);
+        long[] result = new long[words.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = words[i] & ~other.words[i];
+        }
+        return new RowSet(result, size);
+    }
+
+    /**
+     * Complemento do conjunto.
+     *
+     * @return linhas que não estão neste conjunto.
+     */
+    public RowSet not() {
+        long[] result = new long[words.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ~words[i];
+        }
+        clearTail(result, size);
+        return new RowSet(result, size);
+    }
+
+    private void checkCompatible(RowSet other) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("Os conjuntos pertencem a snapshots diferentes.");
+        }
+    }
+}
@@ -4,12 +4,26 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import javax.sql.DataSource;
+
+import br.ufrn.imd.cache.CacheConfig;
+import br.ufrn.imd.cache.CacheStats;
+import br.ufrn.imd.cache.EntityCache;
+import br.ufrn.imd.database.DatabaseConnection;
 import br.ufrn.imd.exception.DatabaseException;
+import br.ufrn.imd.exception.QueryCancelledException;
+import br.ufrn.imd.journal.EntityType;
+import br.ufrn.imd.journal.MutationJournal;
+import br.ufrn.imd.journal.MutationType;
+import br.ufrn.imd.logging.Logger;
 import br.ufrn.imd.model.Book;
-import br.ufrn.imd.model.enums.Genre;
 
 /**
  * Classe responsável por gerenciar as operações de CRUD de livros no banco de
@@ -18,45 +32,90 @@ import br.ufrn.imd.model.enums.Genre;
  * @author Gabrielly Freire
  * @version 1.0
  */
-public class BookDAO {
+public class BookDAO implements BookRepository {
+
+    private static final Logger LOG = Logger.getLogger(BookDAO.class);
 
-    private final Connection connection;
+    private final DataSource dataSource;
+    private volatile EntityCache<Long, Book> cache;
+    private volatile MutationJournal journal;
+
+    public BookDAO() {
+        this(DatabaseConnection.getDataSource());
+    }
 
-    public BookDAO(Connection connection) {
-        this.connection = connection;
+    public BookDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Habilita o cache de leitura de livros por id. Escritas feitas por este DAO
+     * invalidam as entradas alteradas.
+     * 
+     * @param config configuração do cache
+     */
+    public void enableCache(CacheConfig config) {
+        this.cache = new EntityCache<>(config, book -> book.toBuilder().build());
+    }
+
+    /**
+     * Desabilita o cache de leitura de livros.
+     */
+    public void disableCache() {
+        this.cache = null;
     }
 
     /**
-     * Insere um livro no banco de dados
+     * Retorna as estatísticas do cache de livros.
+     * 
+     * @return estatísticas do cache, ou null caso esteja desabilitado
+     */
+    public CacheStats getCacheStats() {
+        EntityCache<Long, Book> current = cache;
+        return current != null ? current.getStats() : null;
+    }
+
+    /**
+     * Passa a registrar no journal as escritas feitas por este DAO.
+     * 
+     * @param journal journal das mutações, ou null para deixar de registrar
+     */
+    public void setJournal(MutationJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Insere um livro no banco de dados, preenchendo o id gerado no próprio livro
      * 
      * @param book livro a ser inserido
      * @throws SQLException caso ocorra um erro ao inserir o livro ou ao fechar os
      *                      recursos
      */
+    @Override
     public void create(Book book) {
+        Connection connection = null;
         PreparedStatement ps = null;
 
         try {
+            connection = dataSource.getConnection();
             ps = connection.prepareStatement(
-                    "INSERT INTO book (title, author, genre, publication_year, isbn, is_available) VALUES (?, ?, ?, ?, ?, ?)");
+                    "INSERT INTO book (title, author, genre, publication_year, isbn, total_copies, available_copies) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
 
-            ps.setString(1, book.getTitle());
-            ps.setString(2, book.getAuthor());
-            ps.setString(3, book.getGenre().toString());
-            ps.setInt(4, book.getPublicationYear());
-            ps.setString(5, book.getIsbn());
-            ps.setBoolean(6, book.getIsAvailable());
+            bindInsert(ps, book);
 
             int rowsAffected = ps.executeUpdate();
 
             if (rowsAffected > 0) {
-                System.out.println("Livro inserido com sucesso!");
+                readGeneratedIds(ps, List.of(book));
+                journal(MutationType.CREATE, book);
+                LOG.debug("Livro inserido com sucesso!");
             } else {
-                System.out.println("Nenhum livro foi inserido.");
+                LOG.debug("Nenhum livro foi inserido.");
                 throw new DatabaseException("Nenhum livro foi inserido.");
             }
         } catch (SQLException e) {
-            System.err.println("Erro ao inserir livro: " + e.getMessage());
+            LOG.error("Erro ao inserir livro", e);
             throw new DatabaseException("Erro ao inserir livro: " + e.getMessage());
         } finally {
             try {
@@ -67,12 +126,127 @@ public class BookDAO {
                     connection.close();
                 }
             } catch (SQLException e) {
-                System.err.println("Erro ao fechar recursos: " + e.getMessage());
+                LOG.error("Erro ao fechar recursos", e);
                 throw new DatabaseException("Erro ao fechar recursos: " + e.getMessage());
             }
         }
     }
 
+    /**
+     * Insere vários livros no banco de dados em uma única transação, enviando os
+     * INSERTs em lote. Os ids gerados são preenchidos nos próprios livros.
+     * 
+     * @param books livros a serem inseridos
+     * @throws DatabaseException caso ocorra um erro ao inserir os livros; nesse
+     *                           caso nenhum livro do lote é inserido
+     * @return quantidade de livros inseridos
+     */
+    @Override
+    public int createAll(List<Book> books) {
+        Connection connection = null;
+        PreparedStatement ps = null;
+
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+            ps = connection.prepareStatement(
+                    "INSERT INTO book (title, author, genre, publication_year, isbn, total_copies, available_copies) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
+
+            for (Book book : books) {
+                bindInsert(ps, book);
+                ps.addBatch();
+            }
+
+            ps.executeBatch();
+            readGeneratedIds(ps, books);
+            connection.commit();
+            for (Book book : books) {
+                journal(MutationType.CREATE, book);
+            }
+
+            return books.size();
+        } catch (SQLException e) {
+            rollback(connection);
+            throw new DatabaseException("Erro ao inserir lote de livros: " + e.getMessage());
+        } finally {
+            try {
+                if (ps != null) {
+                    ps.close();
+                }
+                if (connection != null) {
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                LOG.error("Erro ao fechar recursos", e);
+                throw new DatabaseException("Erro ao fechar recursos: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Insere vários livros mantendo os ids informados, em uma única transação
+     * com os INSERTs em lote
+     * 
+     * @param books livros a serem inseridos, com id
+     * @throws DatabaseException caso ocorra um erro ao inserir os livros
+     * @return quantidade de livros inseridos
+     */
+    @Override
+    public int restoreAll(List<Book> books) {
+        Connection connection = null;
+        PreparedStatement ps = null;
+
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+            ps = connection.prepareStatement(
+                    "INSERT INTO book (title, author, genre, publication_year, isbn, total_copies, available_copies, id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+
+            for (Book book : books) {
+                bindInsert(ps, book);
+                ps.setLong(8, book.getId());
+                ps.addBatch();
+            }
+
+            ps.executeBatch();
+            connection.commit();
+            for (Book book : books) {
+                journal(MutationType.CREATE, book);
+            }
+
+            return books.size();
+        } catch (SQLException e) {
+            rollback(connection);
+            throw new DatabaseException("Erro ao restaurar lote de livros: " + e.getMessage());
+        } finally {
+            try {
+                if (ps != null) {
+                    ps.close();
+                }
+                if (connection != null) {
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                LOG.error("Erro ao fechar recursos", e);
+                throw new DatabaseException("Erro ao fechar recursos: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Busca um livro pelo id, passando pelo cache quando ele estiver habilitado
+     * 
+     * @param id id do livro a ser buscado
+     * @throws DatabaseException caso ocorra um erro ao buscar o livro
+     * @return livro encontrado ou null caso não encontre
+     */
+    @Override
+    public Book findById(Long id) {
+        EntityCache<Long, Book> current = cache;
+        return current != null ? current.get(id, this::loadById) : loadById(id);
+    }
+
     /**
      * Busca um livro no banco de dados
      * 
@@ -81,30 +255,23 @@ public class BookDAO {
      *                      recursos
      * @return livro encontrado
      */
-    public Book findById(Long id) {
+    private Book loadById(Long id) {
+        Connection connection = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
 
         try {
+            connection = dataSource.getConnection();
             ps = connection.prepareStatement("SELECT * FROM book WHERE id = ?");
             ps.setLong(1, id);
 
             rs = ps.executeQuery();
 
             if (rs.next()) {
-                Book book = new Book();
-                book.setId(rs.getLong("id"));
-                book.setTitle(rs.getString("title"));
-                book.setAuthor(rs.getString("author"));
-                book.setGenre(Genre.valueOf(rs.getString("genre")));
-                book.setPublicationYear(rs.getInt("publication_year"));
-                book.setIsbn(rs.getString("isbn"));
-                book.setIsAvailable(rs.getBoolean("is_available"));
-
-                return book;
+                return BookRowMapper.INSTANCE.mapRow(rs);
             }
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar livro: " + e.getMessage());
+            LOG.error("Erro ao buscar livro", e);
             throw new DatabaseException("Erro ao buscar livro: " + e.getMessage()); 
         } finally {
             try {
@@ -114,14 +281,31 @@ public class BookDAO {
                 if (ps != null) {
                     ps.close();
                 }
+                if (connection != null) {
+                    connection.close();
+                }
             } catch (SQLException e) {
-                System.err.println("Erro ao fechar recursos: " + e.getMessage());
+                LOG.error("Erro ao fechar recursos", e);
                 throw new DatabaseException("Erro ao fechar recursos: " + e.getMessage());
             }
         }
         return null;
     }
 
+    /**
+     * Busca um livro pelo ISBN, que é único no banco de dados
+     * 
+     * @param isbn ISBN do livro
+     * @throws DatabaseException caso ocorra um erro ao buscar o livro
+     * @return livro encontrado ou null caso não encontre
+     */
+    @Override
+    public Book findByIsbn(String isbn) {
+        List<Book> found = JdbcQueries.queryList(dataSource, "SELECT * FROM book WHERE isbn = ? LIMIT 1",
+                BookRowMapper.INSTANCE, isbn);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
     /**
      * Busca todos os livros no banco de dados
      * 
@@ -129,29 +313,24 @@ public class BookDAO {
      *                      recursos
      * @return lista de livros encontrados
      */
+    @Override
     public List<Book> findAll() {
+        Connection connection = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
         List<Book> books = new ArrayList<>();
 
         try {
+            connection = dataSource.getConnection();
             ps = connection.prepareStatement("SELECT * FROM book");
             rs = ps.executeQuery();
 
+            RowMapper<Book> mapper = BookRowMapper.INSTANCE.bind(rs);
             while (rs.next()) {
-                Book book = new Book();
-                book.setId(rs.getLong("id"));
-                book.setTitle(rs.getString("title"));
-                book.setAuthor(rs.getString("author"));
-                book.setGenre(Genre.valueOf(rs.getString("genre")));
-                book.setPublicationYear(rs.getInt("publication_year"));
-                book.setIsbn(rs.getString("isbn"));
-                book.setIsAvailable(rs.getBoolean("is_available"));
-
-                books.add(book);
+                books.add(mapper.mapRow(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar livros: " + e.getMessage());
+            LOG.error("Erro ao buscar livros", e);
             throw new DatabaseException("Erro ao buscar livros: " + e.getMessage());
         } finally {
             try {
@@ -161,14 +340,44 @@ public class BookDAO {
                 if (ps != null) {
                     ps.close();
                 }
+                if (connection != null) {
+                    connection.close();
+                }
             } catch (SQLException e) {
-                System.err.println("Erro ao fechar recursos: " + e.getMessage());
+                LOG.error("Erro ao fechar recursos", e);
                 throw new DatabaseException("Erro ao fechar recursos: " + e.getMessage());
             }
         }
         return books;
     }
 
+    /**
+     * Percorre todos os livros do banco de dados sem carregá-los de uma vez em
+     * memória. O stream deve ser fechado para liberar a conexão.
+     * 
+     * @throws DatabaseException caso ocorra um erro ao buscar os livros
+     * @return stream preguiçoso de livros
+     */
+    @Override
+    public Stream<Book> streamAll() {
+        return JdbcStreams.stream(dataSource, "SELECT * FROM book", JdbcStreams.DEFAULT_FETCH_SIZE,
+                BookRowMapper.INSTANCE);
+    }
+
+    /**
+     * Executa uma ação para cada livro do banco de dados, lendo as linhas aos
+     * poucos.
+     * 
+     * @param action ação executada para cada livro
+     * @throws DatabaseException caso ocorra um erro ao buscar os livros
+     */
+    @Override
+    public void forEach(Consumer<Book> action) {
+        try (Stream<Book> books = streamAll()) {
+            books.forEach(action);
+        }
+    }
+
     /**
      * Busca livros no banco de dados
      * 
@@ -177,33 +386,28 @@ public class BookDAO {
      *                      recursos
      * @return lista de livros encontrados
      */
+    @Override
     public List<Book> searchBooks(String query) {
+        Connection connection = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
 
         List<Book> books = new ArrayList<>();
 
         try {
+            connection = dataSource.getConnection();
             ps = connection.prepareStatement("SELECT * FROM book WHERE title LIKE ? OR author LIKE ?");
             ps.setString(1, "%" + query + "%");
             ps.setString(2, "%" + query + "%");
 
             rs = ps.executeQuery();
 
+            RowMapper<Book> mapper = BookRowMapper.INSTANCE.bind(rs);
             while (rs.next()) {
-                Book book = new Book();
-                book.setId(rs.getLong("id"));
-                book.setTitle(rs.getString("title"));
-                book.setAuthor(rs.getString("author"));
-                book.setGenre(Genre.valueOf(rs.getString("genre")));
-                book.setPublicationYear(rs.getInt("publication_year"));
-                book.setIsbn(rs.getString("isbn"));
-                book.setIsAvailable(rs.getBoolean("is_available"));
-
-                books.add(book);
+                books.add(mapper.mapRow(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar livros: " + e.getMessage());
+            LOG.error("Erro ao buscar livros", e);
             throw new DatabaseException("Erro ao buscar livros: " + e.getMessage());
         } finally {
             try {
@@ -213,8 +417,11 @@ public class BookDAO {
                 if (ps != null) {
                     ps.close();
                 }
+                if (connection != null) {
+                    connection.close();
+                }
             } catch (SQLException e) {
-                System.err.println("Erro ao fechar recursos: " + e.getMessage());
+                LOG.error("Erro ao fechar recursos", e);
                 throw new DatabaseException("Erro ao fechar recursos: " + e.getMessage());
             }
         }
@@ -222,38 +429,138 @@ public class BookDAO {
     }
 
     /**
-     * Atualiza um livro no banco de dados
+     * Busca uma página de livros ordenada por id, usando paginação por chave.
+     * 
+     * @param cursor cursor retornado pela página anterior, ou null para a primeira
+     * @param size   quantidade máxima de livros na página
+     * @throws IllegalArgumentException caso o cursor seja inválido
+     * @throws DatabaseException        caso ocorra um erro ao buscar livros
+     * @return página de livros
+     */
+    @Override
+    public Page<Book> findPage(String cursor, int size) {
+        return JdbcQueries.queryPage(dataSource, "SELECT * FROM book WHERE id > ? ORDER BY id LIMIT ?",
+                BookRowMapper.INSTANCE, Book::getId, cursor, size);
+    }
+
+    /**
+     * Calcula o cursor da página de livros que começa na posição informada,
+     * percorrendo apenas o índice da chave primária.
+     * 
+     * @param position posição do primeiro livro da página, a partir de zero
+     * @throws IllegalArgumentException caso a posição seja negativa
+     * @throws DatabaseException        caso ocorra um erro na consulta
+     * @return cursor da página, ou null para a primeira página
+     */
+    @Override
+    public String cursorAt(long position) {
+        return JdbcQueries.queryCursorAt(dataSource, "SELECT id FROM book ORDER BY id LIMIT 1 OFFSET ?", position);
+    }
+
+    /**
+     * Busca uma página de livros cujo título ou autor contém o texto de busca, usando paginação por chave.
+     * 
+     * @param query  texto de busca
+     * @param cursor cursor retornado pela página anterior, ou null para a primeira
+     * @param size   quantidade máxima de livros na página
+     * @param handle controle da busca, ou null para nenhum
+     * @throws IllegalArgumentException caso o cursor seja inválido
+     * @throws QueryCancelledException  caso a busca seja cancelada
+     * @throws DatabaseException        caso ocorra um erro ao buscar livros ou o tempo limite se esgote
+     * @return página de livros encontrados
+     */
+    @Override
+    public Page<Book> searchBooksPage(String query, String cursor, int size, QueryHandle handle) {
+        String like = "%" + query + "%";
+        return JdbcQueries.queryPage(dataSource, handle,
+                "SELECT * FROM book WHERE (title LIKE ? OR author LIKE ?) AND id > ? ORDER BY id LIMIT ?",
+                BookRowMapper.INSTANCE, Book::getId, cursor, size, like, like);
+    }
+
+    /**
+     * Conta livros cadastrados.
+     * 
+     * @throws DatabaseException caso ocorra um erro ao contar livros
+     * @return quantidade de livros
+     */
+    @Override
+    public long count() {
+        return JdbcQueries.queryForLong(dataSource, "SELECT COUNT(*) FROM book");
+    }
+
+    /**
+     * Verifica se existe ao menos um livro cadastrado.
+     * 
+     * @throws DatabaseException caso ocorra um erro na consulta
+     * @return true caso exista algum livro
+     */
+    @Override
+    public boolean exists() {
+        return JdbcQueries.exists(dataSource, "SELECT 1 FROM book LIMIT 1");
+    }
+
+    /**
+     * Verifica se existe um livro com o id informado.
+     * Com o cache habilitado, a verificação passa pelo cache.
+     * 
+     * @param id id do livro
+     * @throws DatabaseException caso ocorra um erro na consulta
+     * @return true caso o livro exista
+     */
+    @Override
+    public boolean existsById(Long id) {
+        if (cache != null) {
+            return findById(id) != null;
+        }
+        return JdbcQueries.exists(dataSource, "SELECT 1 FROM book WHERE id = ?", id);
+    }
+
+    /**
+     * Atualiza um livro no banco de dados. Se o total de exemplares mudar, os
+     * exemplares disponíveis são ajustados pela mesma diferença; a
+     * disponibilidade informada no livro é ignorada
      * 
      * @param id id do livro a ser atualizado
      * @throws SQLException caso ocorra um erro ao atualizar o livro ou ao fechar os
      *                      recursos
      * @param book livro com os novos dados
      */
+    @Override
     public void update(Long id, Book book) {
+        Connection connection = null;
         PreparedStatement ps = null;
 
         try {
+            connection = dataSource.getConnection();
+            // available_copies é ajustado pela diferença no total antes de total_copies
+            // mudar, para não sobrescrever os exemplares emprestados nesse meio tempo
             ps = connection.prepareStatement(
-                    "UPDATE book SET title = ?, author = ?, genre = ?, publication_year = ?, isbn = ?, is_available = ? WHERE id = ?");
+                    "UPDATE book SET title = ?, author = ?, genre = ?, publication_year = ?, isbn = ?, "
+                            + "available_copies = available_copies + (COALESCE(?, total_copies) - total_copies), "
+                            + "total_copies = COALESCE(?, total_copies) WHERE id = ?");
             ps.setString(1, book.getTitle());
             ps.setString(2, book.getAuthor());
             ps.setString(3, book.getGenre().toString());
             ps.setInt(4, book.getPublicationYear());
             ps.setString(5, book.getIsbn());
-            ps.setBoolean(6, book.getIsAvailable());
-            ps.setLong(7, id);
+            ps.setObject(6, book.getTotalCopies(), Types.INTEGER);
+            ps.setObject(7, book.getTotalCopies(), Types.INTEGER);
+            ps.setLong(8, id);
 
             int rowsAffected = ps.executeUpdate();
 
             if (rowsAffected > 0) {
-                System.out.println("Livro atualizado com sucesso!");
+                invalidate(id);
+                // os exemplares disponíveis são calculados pelo banco e não entram no registro
+                journal(MutationType.UPDATE, book.toBuilder().id(id).isAvailable(null).availableCopies(null).build());
+                LOG.debug("Livro atualizado com sucesso!");
             } else {
-                System.out.println("Nenhum livro foi atualizado.");
+                LOG.debug("Nenhum livro foi atualizado.");
                 throw new DatabaseException("Nenhum livro foi atualizado.");
             }
 
         } catch (SQLException e) {
-            System.err.println("Erro ao atualizar livro: " + e.getMessage());
+            LOG.error("Erro ao atualizar livro", e);
             throw new DatabaseException("Erro ao atualizar livro: " + e.getMessage());
         } finally {
             try {
@@ -264,7 +571,7 @@ public class BookDAO {
                     connection.close();
                 }
             } catch (SQLException e) {
-                System.err.println("Erro ao fechar recursos: " + e.getMessage());
+                LOG.error("Erro ao fechar recursos", e);
                 throw new DatabaseException("Erro ao fechar recursos: " + e.getMessage());
             }
         }
@@ -277,24 +584,29 @@ public class BookDAO {
      * @throws SQLException caso ocorra um erro ao deletar o livro ou ao fechar os
      *                      recursos
      */
+    @Override
     public void delete(Long id) {
+        Connection connection = null;
         PreparedStatement ps = null;
 
         try {
+            connection = dataSource.getConnection();
             ps = connection.prepareStatement("DELETE FROM book WHERE id = ?");
             ps.setLong(1, id);
 
             int rowsAffected = ps.executeUpdate();
 
             if (rowsAffected > 0) {
-                System.out.println("Livro deletado com sucesso!");
+                invalidate(id);
+                journalDelete(id);
+                LOG.debug("Livro deletado com sucesso!");
             } else {
-                System.out.println("Nenhum livro foi deletado.");
+                LOG.debug("Nenhum livro foi deletado.");
                 throw new DatabaseException("Nenhum livro foi deletado.");
             }
 
         } catch (SQLException e) {
-            System.err.println("Erro ao deletar livro: " + e.getMessage());
+            LOG.error("Erro ao deletar livro", e);
             throw new DatabaseException("Erro ao deletar livro: " + e.getMessage());
         } finally {
             try {
@@ -305,10 +617,124 @@ public class BookDAO {
                     connection.close();
                 }
             } catch (SQLException e) {
-                System.err.println("Erro ao fechar recursos: " + e.getMessage());
+                LOG.error("Erro ao fechar recursos", e);
                 throw new DatabaseException("Erro ao fechar recursos: " + e.getMessage());
             }
         }
     }
 
+    /**
+     * Preenche os parâmetros do INSERT de livro. Sem total informado, o livro
+     * tem um exemplar; sem quantidade disponível, todos os exemplares ficam
+     * disponíveis, a menos que o livro esteja marcado como indisponível.
+     * 
+     * @param ps   statement do INSERT
+     * @param book livro a ser inserido
+     * @throws SQLException caso ocorra um erro ao preencher os parâmetros
+     */
+    private static void bindInsert(PreparedStatement ps, Book book) throws SQLException {
+        int total = book.getTotalCopies() != null ? book.getTotalCopies() : 1;
+        int available = book.getAvailableCopies() != null
+                ? book.getAvailableCopies()
+                : Boolean.FALSE.equals(book.getIsAvailable()) ? 0 : total;
+
+        ps.setString(1, book.getTitle());
+        ps.setString(2, book.getAuthor());
+        ps.setString(3, book.getGenre().toString());
+        ps.setInt(4, book.getPublicationYear());
+        ps.setString(5, book.getIsbn());
+        ps.setInt(6, total);
+        ps.setInt(7, available);
+    }
+
+    /**
+     * Preenche os ids gerados pelo banco nos livros inseridos, na ordem de
+     * inserção.
+     * 
+     * @param ps    statement que executou os INSERTs
+     * @param books livros inseridos
+     * @throws SQLException caso ocorra um erro ao ler as chaves geradas
+     */
+    private void readGeneratedIds(PreparedStatement ps, List<Book> books) throws SQLException {
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            for (Book book : books) {
+                if (!keys.next()) {
+                    break;
+                }
+                book.setId(keys.getLong(1));
+            }
+        }
+    }
+
+    /**
+     * Desfaz a transação corrente, ignorando erros.
+     * 
+     * @param connection conexão com a transação aberta
+     */
+    private void rollback(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                LOG.error("Erro ao desfazer transação", e);
+            }
+        }
+    }
+
+
+    /**
+     * Registra uma escrita no journal, quando houver um. A escrita já foi
+     * confirmada no banco, então uma falha do journal é apenas registrada no log.
+     * 
+     * @param mutation tipo da mutação
+     * @param book     livro com o id e os campos gravados
+     */
+    private void journal(MutationType mutation, Book book) {
+        MutationJournal current = journal;
+        if (current != null) {
+            try {
+                current.append(mutation, book);
+            } catch (RuntimeException e) {
+                LOG.error("Erro ao registrar livro no journal", e);
+            }
+        }
+    }
+
+    private void journalDelete(Long id) {
+        MutationJournal current = journal;
+        if (current != null) {
+            try {
+                current.appendDelete(EntityType.BOOK, id);
+            } catch (RuntimeException e) {
+                LOG.error("Erro ao registrar remoção de livro no journal", e);
+            }
+        }
+    }
+
+    /**
+     * Remove o livro do cache depois de uma escrita, inclusive as feitas fora
+     * deste DAO, como a reserva de exemplares em um empréstimo.
+     * 
+     * @param id id do livro alterado
+     */
+    @Override
+    public void invalidate(Long id) {
+        EntityCache<Long, Book> current = cache;
+        if (current != null) {
+            current.invalidate(id);
+        }
+    }
+
+    /**
+     * Esvazia o cache de livros depois de uma escrita em massa feita fora
+     * deste DAO, como o recálculo do estoque pelos relatórios.
+     */
+    @Override
+    public void invalidateAll() {
+        EntityCache<Long, Book> current = cache;
+        if (current != null) {
+            current.invalidateAll();
+        }
+    }
+
 }
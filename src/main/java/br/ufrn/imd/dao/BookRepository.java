@@ -0,0 +1,224 @@
+package br.ufrn.imd.dao;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import br.ufrn.imd.exception.DatabaseException;
+import br.ufrn.imd.exception.QueryCancelledException;
+import br.ufrn.imd.model.Book;
+
+/**
+ * Operações de armazenamento de livros, independentes do mecanismo usado.
+ * <p>
+ * {@link BookDAO} implementa o repositório sobre JDBC; outros mecanismos são
+ * fornecidos por um {@link br.ufrn.imd.storage.StorageEngine}. Falhas do
+ * mecanismo são lançadas como {@link DatabaseException}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public interface BookRepository {
+
+    /**
+     * Insere um livro, preenchendo o id gerado no próprio livro.
+     *
+     * @param book livro a ser inserido
+     * @throws DatabaseException caso ocorra um erro ao inserir o livro, como um
+     *                           ISBN já cadastrado
+     */
+    void create(Book book);
+
+    /**
+     * Insere vários livros de uma vez, preenchendo os ids gerados. Em caso de
+     * erro nenhum livro do lote é inserido.
+     *
+     * @param books livros a serem inseridos
+     * @throws DatabaseException caso ocorra um erro ao inserir os livros
+     * @return quantidade de livros inseridos
+     */
+    int createAll(List<Book> books);
+
+    /**
+     * Insere vários livros mantendo os ids e a quantidade de exemplares
+     * disponíveis informados, como na restauração de um snapshot. Em caso de
+     * erro nenhum livro do lote é inserido.
+     *
+     * @param books livros a serem inseridos, com id
+     * @throws DatabaseException caso ocorra um erro ao inserir os livros, como
+     *                           um id ou ISBN já cadastrado
+     * @return quantidade de livros inseridos
+     */
+    int restoreAll(List<Book> books);
+
+    /**
+     * Busca um livro pelo id.
+     *
+     * @param id id do livro
+     * @throws DatabaseException caso ocorra um erro ao buscar o livro
+     * @return livro encontrado ou null caso não encontre
+     */
+    Book findById(Long id);
+
+    /**
+     * Busca um livro pelo ISBN.
+     *
+     * @param isbn ISBN do livro
+     * @throws DatabaseException caso ocorra um erro ao buscar o livro
+     * @return livro encontrado ou null caso não encontre
+     */
+    Book findByIsbn(String isbn);
+
+    /**
+     * Busca todos os livros.
+     *
+     * @throws DatabaseException caso ocorra um erro ao buscar os livros
+     * @return lista de livros
+     */
+    List<Book> findAll();
+
+    /**
+     * Percorre todos os livros sem carregá-los de uma vez em memória. O stream
+     * deve ser fechado.
+     *
+     * @throws DatabaseException caso ocorra um erro ao buscar os livros
+     * @return stream de livros
+     */
+    Stream<Book> streamAll();
+
+    /**
+     * Executa uma ação para cada livro.
+     *
+     * @param action ação executada para cada livro
+     * @throws DatabaseException caso ocorra um erro ao buscar os livros
+     */
+    void forEach(Consumer<Book> action);
+
+    /**
+     * Busca livros cujo título ou autor contém o texto de busca.
+     *
+     * @param query texto de busca
+     * @throws DatabaseException caso ocorra um erro ao buscar os livros
+     * @return lista de livros encontrados
+     */
+    List<Book> searchBooks(String query);
+
+    /**
+     * Busca uma página de livros ordenada por id.
+     *
+     * @param cursor cursor retornado pela página anterior, ou null para a primeira
+     * @param size   quantidade máxima de livros na página
+     * @throws IllegalArgumentException caso o cursor seja inválido
+     * @throws DatabaseException        caso ocorra um erro ao buscar os livros
+     * @return página de livros
+     */
+    Page<Book> findPage(String cursor, int size);
+
+    /**
+     * Calcula o cursor da página de livros, ordenada por id, que começa na
+     * posição informada, para saltar a uma página distante sem percorrer as
+     * anteriores.
+     *
+     * @param position posição do primeiro livro da página, a partir de zero
+     * @throws IllegalArgumentException caso a posição seja negativa
+     * @throws DatabaseException        caso ocorra um erro na consulta
+     * @return cursor para {@link #findPage(String, int)}, null para a primeira
+     *         página ou um cursor de página vazia caso a posição passe do fim
+     */
+    String cursorAt(long position);
+
+    /**
+     * Busca uma página de livros cujo título ou autor contém o texto de busca.
+     *
+     * @param query  texto de busca
+     * @param cursor cursor retornado pela página anterior, ou null para a primeira
+     * @param size   quantidade máxima de livros na página
+     * @throws IllegalArgumentException caso o cursor seja inválido
+     * @throws DatabaseException        caso ocorra um erro ao buscar os livros
+     * @return página de livros encontrados
+     */
+    default Page<Book> searchBooksPage(String query, String cursor, int size) {
+        return searchBooksPage(query, cursor, size, null);
+    }
+
+    /**
+     * Busca uma página de livros cujo título ou autor contém o texto de busca,
+     * sob o controle de um {@link QueryHandle}, que pode cancelar a busca de
+     * outra thread e limita o seu tempo.
+     *
+     * @param query  texto de busca
+     * @param cursor cursor retornado pela página anterior, ou null para a primeira
+     * @param size   quantidade máxima de livros na página
+     * @param handle controle da busca, ou null para nenhum
+     * @throws IllegalArgumentException caso o cursor seja inválido
+     * @throws QueryCancelledException  caso a busca seja cancelada
+     * @throws DatabaseException        caso ocorra um erro ao buscar os livros
+     *                                  ou o tempo limite se esgote
+     * @return página de livros encontrados
+     */
+    Page<Book> searchBooksPage(String query, String cursor, int size, QueryHandle handle);
+
+    /**
+     * Conta livros cadastrados.
+     *
+     * @throws DatabaseException caso ocorra um erro ao contar os livros
+     * @return quantidade de livros
+     */
+    long count();
+
+    /**
+     * Verifica se existe ao menos um livro cadastrado.
+     *
+     * @throws DatabaseException caso ocorra um erro na consulta
+     * @return true caso exista algum livro
+     */
+    boolean exists();
+
+    /**
+     * Verifica se existe um livro com o id informado.
+     *
+     * @param id id do livro
+     * @throws DatabaseException caso ocorra um erro na consulta
+     * @return true caso o livro exista
+     */
+    boolean existsById(Long id);
+
+    /**
+     * Atualiza um livro. Se o total de exemplares mudar, os exemplares
+     * disponíveis são ajustados pela mesma diferença; a disponibilidade
+     * informada no livro é ignorada.
+     *
+     * @param id   id do livro a ser atualizado
+     * @param book livro com os novos dados
+     * @throws DatabaseException caso o livro não exista ou ocorra um erro ao
+     *                           atualizá-lo
+     */
+    void update(Long id, Book book);
+
+    /**
+     * Remove um livro.
+     *
+     * @param id id do livro a ser removido
+     * @throws DatabaseException caso o livro não exista, tenha empréstimos ou
+     *                           ocorra um erro ao removê-lo
+     */
+    void delete(Long id);
+
+    /**
+     * Descarta cópias em cache do livro depois de uma escrita feita por outro
+     * repositório, como a reserva de exemplares em um empréstimo. Repositórios
+     * sem cache não precisam fazer nada.
+     *
+     * @param id id do livro alterado
+     */
+    default void invalidate(Long id) {
+    }
+
+    /**
+     * Descarta todas as cópias em cache depois de uma escrita em massa feita
+     * por outro componente, como o recálculo do estoque pelos relatórios.
+     * Repositórios sem cache não precisam fazer nada.
+     */
+    default void invalidateAll() {
+    }
+}
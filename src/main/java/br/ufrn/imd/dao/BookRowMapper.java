@@ -0,0 +1,50 @@
+package br.ufrn.imd.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.enums.Genre;
+
+/**
+ * Conversor compilado das linhas da tabela {@code book}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+final class BookRowMapper extends CompiledRowMapper<Book> {
+
+    static final BookRowMapper INSTANCE = new BookRowMapper();
+
+    private static final EnumLookup<Genre> GENRES = new EnumLookup<>(Genre.class);
+
+    private BookRowMapper() {
+    }
+
+    @Override
+    public RowMapper<Book> bind(ResultSet rs) throws SQLException {
+        int id = rs.findColumn("id");
+        int title = rs.findColumn("title");
+        int author = rs.findColumn("author");
+        int genre = rs.findColumn("genre");
+        int publicationYear = rs.findColumn("publication_year");
+        int isbn = rs.findColumn("isbn");
+        int isAvailable = rs.findColumn("is_available");
+        int totalCopies = rs.findColumn("total_copies");
+        int availableCopies = rs.findColumn("available_copies");
+
+        return row -> {
+            Book book = new Book();
+            book.setId(row.getLong(id));
+            book.setTitle(row.getString(title));
+            book.setAuthor(row.getString(author));
+            book.setGenre(GENRES.valueOf(row.getString(genre)));
+            book.setPublicationYear(row.getInt(publicationYear));
+            book.setIsbn(row.getString(isbn));
+            book.setIsAvailable(row.getBoolean(isAvailable));
+            book.setTotalCopies(row.getInt(totalCopies));
+            book.setAvailableCopies(row.getInt(availableCopies));
+            return book;
+        };
+    }
+}
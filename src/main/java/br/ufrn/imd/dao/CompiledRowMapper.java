@@ -0,0 +1,33 @@
+package br.ufrn.imd.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Conversor que resolve os índices das colunas uma única vez por
+ * {@link ResultSet}.
+ * <p>
+ * A busca de uma coluna pelo nome custa uma consulta a um mapa no driver; em
+ * um resultado grande ela se repetiria em cada coluna de cada linha. As
+ * subclasses fazem essa busca em {@link #bind(ResultSet)} e devolvem um
+ * conversor que lê as colunas pelo índice, sem depender da ordem das colunas
+ * da consulta. Uma instância por entidade é compartilhada por todos os DAOs.
+ *
+ * @param <T> tipo do objeto gerado
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+abstract class CompiledRowMapper<T> implements RowMapper<T> {
+
+    @Override
+    public abstract RowMapper<T> bind(ResultSet rs) throws SQLException;
+
+    /**
+     * Converte uma única linha, resolvendo as colunas nesta chamada. Para
+     * várias linhas, use {@link #bind(ResultSet)}.
+     */
+    @Override
+    public T mapRow(ResultSet rs) throws SQLException {
+        return bind(rs).mapRow(rs);
+    }
+}
@@ -0,0 +1,59 @@
+package br.ufrn.imd.dao;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Converte o texto de uma coluna na constante de um enum sem passar pelo
+ * mapa de {@link Enum#valueOf(Class, String)}.
+ * <p>
+ * As constantes são agrupadas pelo tamanho do nome; a conversão compara o
+ * texto só com os poucos nomes do mesmo tamanho, sem calcular o hash da
+ * string lida a cada linha.
+ *
+ * @param <E> tipo do enum
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+final class EnumLookup<E extends Enum<E>> {
+
+    private final Class<E> type;
+    private final Object[][] byLength;
+
+    EnumLookup(Class<E> type) {
+        this.type = type;
+        int maxLength = 0;
+        for (E constant : type.getEnumConstants()) {
+            maxLength = Math.max(maxLength, constant.name().length());
+        }
+        Object[][] table = new Object[maxLength + 1][0];
+        for (E constant : type.getEnumConstants()) {
+            int length = constant.name().length();
+            table[length] = Arrays.copyOf(table[length], table[length].length + 1);
+            table[length][table[length].length - 1] = constant;
+        }
+        this.byLength = table;
+    }
+
+    /**
+     * Retorna a constante com o nome informado.
+     *
+     * @param name nome lido da coluna; null devolve null
+     * @throws SQLException caso o nome não corresponda a nenhuma constante
+     * @return constante correspondente
+     */
+    E valueOf(String name) throws SQLException {
+        if (name == null) {
+            return null;
+        }
+        if (name.length() < byLength.length) {
+            for (Object candidate : byLength[name.length()]) {
+                E constant = type.cast(candidate);
+                if (constant.name().equals(name)) {
+                    return constant;
+                }
+            }
+        }
+        throw new SQLException("Valor inválido para " + type.getSimpleName() + ": " + name);
+    }
+}
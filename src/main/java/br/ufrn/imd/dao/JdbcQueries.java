@@ -0,0 +1,220 @@
+package br.ufrn.imd.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import javax.sql.DataSource;
+
+import br.ufrn.imd.exception.DatabaseException;
+import br.ufrn.imd.exception.QueryCancelledException;
+
+/**
+ * Consultas auxiliares compartilhadas pelos DAOs: contagens, verificações de
+ * existência e paginação por chave.
+ * <p>
+ * A paginação por chave (seek method) filtra por {@code id > ?} e ordena pela
+ * chave primária, de modo que qualquer página custa o mesmo que a primeira. O
+ * cursor é codificado por {@link Page#encodeCursor(long)}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+final class JdbcQueries {
+
+    private JdbcQueries() {
+    }
+
+    /**
+     * Executa uma consulta que retorna um único número, como um COUNT.
+     *
+     * @param dataSource origem da conexão
+     * @param sql        consulta a ser executada
+     * @param params     parâmetros da consulta
+     * @throws DatabaseException caso ocorra um erro ao executar a consulta
+     * @return valor da primeira coluna da primeira linha, ou zero
+     */
+    static long queryForLong(DataSource dataSource, String sql, Object... params) {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement ps = connection.prepareStatement(sql)) {
+            bind(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Erro ao executar consulta: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Verifica se a consulta retorna ao menos uma linha.
+     *
+     * @param dataSource origem da conexão
+     * @param sql        consulta a ser executada, idealmente com LIMIT 1
+     * @param params     parâmetros da consulta
+     * @throws DatabaseException caso ocorra um erro ao executar a consulta
+     * @return true caso exista ao menos uma linha
+     */
+    static boolean exists(DataSource dataSource, String sql, Object... params) {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement ps = connection.prepareStatement(sql)) {
+            bind(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Erro ao executar consulta: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Executa uma consulta e converte todas as linhas retornadas.
+     *
+     * @param dataSource origem da conexão
+     * @param sql        consulta a ser executada, idealmente com LIMIT
+     * @param mapper     conversor de linhas
+     * @param params     parâmetros da consulta
+     * @param <T>        tipo dos itens
+     * @throws DatabaseException caso ocorra um erro ao executar a consulta
+     * @return itens lidos, na ordem da consulta
+     */
+    static <T> List<T> queryList(DataSource dataSource, String sql, RowMapper<T> mapper, Object... params) {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement ps = connection.prepareStatement(sql)) {
+            bind(ps, params);
+            List<T> items = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                RowMapper<T> rowMapper = mapper.bind(rs);
+                while (rs.next()) {
+                    items.add(rowMapper.mapRow(rs));
+                }
+            }
+            return items;
+        } catch (SQLException e) {
+            throw new DatabaseException("Erro ao executar consulta: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Busca uma página por chave. A consulta deve terminar com
+     * {@code id > ? ORDER BY id LIMIT ?}; esses dois parâmetros são preenchidos
+     * depois dos parâmetros informados.
+     *
+     * @param dataSource origem da conexão
+     * @param sql        consulta paginada
+     * @param mapper     conversor de linhas
+     * @param idOf       extrai a chave de um item
+     * @param cursor     cursor da página anterior, ou null para a primeira
+     * @param size       quantidade máxima de itens
+     * @param params     parâmetros da consulta que antecedem a chave
+     * @param <T>        tipo dos itens
+     * @throws IllegalArgumentException caso o cursor seja inválido
+     * @throws DatabaseException        caso ocorra um erro ao executar a consulta
+     * @return página encontrada
+     */
+    static <T> Page<T> queryPage(DataSource dataSource, String sql, RowMapper<T> mapper, ToLongFunction<T> idOf,
+            String cursor, int size, Object... params) {
+        return queryPage(dataSource, null, sql, mapper, idOf, cursor, size, params);
+    }
+
+    /**
+     * Busca uma página por chave sob o controle de um {@link QueryHandle}, que
+     * pode cancelar a consulta de outra thread e limita o seu tempo.
+     *
+     * @param dataSource origem da conexão
+     * @param handle     controle da consulta, ou null para nenhum
+     * @param sql        consulta paginada
+     * @param mapper     conversor de linhas
+     * @param idOf       extrai a chave de um item
+     * @param cursor     cursor da página anterior, ou null para a primeira
+     * @param size       quantidade máxima de itens
+     * @param params     parâmetros da consulta que antecedem a chave
+     * @param <T>        tipo dos itens
+     * @throws IllegalArgumentException caso o cursor seja inválido
+     * @throws QueryCancelledException  caso a consulta seja cancelada
+     * @throws DatabaseException        caso ocorra um erro ao executar a consulta
+     *                                  ou o tempo limite se esgote
+     * @return página encontrada
+     */
+    static <T> Page<T> queryPage(DataSource dataSource, QueryHandle handle, String sql, RowMapper<T> mapper,
+            ToLongFunction<T> idOf, String cursor, int size, Object... params) {
+        long afterId = Page.decodeCursor(cursor);
+        List<T> items = new ArrayList<>(size);
+        boolean hasNext = false;
+
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement ps = connection.prepareStatement(sql)) {
+            bind(ps, params);
+            ps.setLong(params.length + 1, afterId);
+            ps.setInt(params.length + 2, size + 1);
+
+            if (handle != null) {
+                handle.attach(ps);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                RowMapper<T> rowMapper = mapper.bind(rs);
+                while (rs.next()) {
+                    if (items.size() == size) {
+                        hasNext = true;
+                        break;
+                    }
+                    items.add(rowMapper.mapRow(rs));
+                }
+            } finally {
+                if (handle != null) {
+                    handle.detach(ps);
+                }
+            }
+        } catch (SQLException e) {
+            if (handle != null) {
+                throw handle.translate(e, "Erro ao buscar página: ");
+            }
+            throw new DatabaseException("Erro ao buscar página: " + e.getMessage());
+        }
+
+        String nextCursor = hasNext ? Page.encodeCursor(idOf.applyAsLong(items.get(items.size() - 1))) : null;
+        return new Page<>(items, nextCursor);
+    }
+
+    /**
+     * Calcula o cursor da página que começa na posição informada. A consulta
+     * deve selecionar apenas o id e terminar com
+     * {@code ORDER BY id LIMIT 1 OFFSET ?}, para que o banco percorra só o
+     * índice da chave primária, sem ler as linhas.
+     *
+     * @param dataSource origem da conexão
+     * @param sql        consulta do id na posição anterior à página
+     * @param position   posição do primeiro item da página, a partir de zero
+     * @throws IllegalArgumentException caso a posição seja negativa
+     * @throws DatabaseException        caso ocorra um erro ao executar a consulta
+     * @return cursor da página, null para a primeira página ou um cursor de
+     *         página vazia caso a posição passe do fim
+     */
+    static String queryCursorAt(DataSource dataSource, String sql, long position) {
+        if (position < 0) {
+            throw new IllegalArgumentException("A posição não pode ser negativa.");
+        }
+        if (position == 0) {
+            return null;
+        }
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setLong(1, position - 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                return Page.encodeCursor(rs.next() ? rs.getLong(1) : Long.MAX_VALUE);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Erro ao buscar posição: " + e.getMessage());
+        }
+    }
+
+    private static void bind(PreparedStatement ps, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            ps.setObject(i + 1, params[i]);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package br.ufrn.imd.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.sql.DataSource;
+
+import br.ufrn.imd.exception.DatabaseException;
+
+/**
+ * Utilitário para percorrer consultas como {@link Stream} sem carregar o
+ * resultado inteiro em memória.
+ * <p>
+ * A consulta usa um cursor somente leitura e de avanço único com o tamanho de
+ * busca informado, de modo que o driver traz as linhas do banco aos poucos. A
+ * conexão, o statement e o resultado ficam abertos até o stream ser fechado,
+ * por isso o stream deve ser usado em um bloco try-with-resources.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+final class JdbcStreams {
+
+    /** Quantidade de linhas trazidas do banco a cada ida ao servidor. */
+    static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private JdbcStreams() {
+    }
+
+    /**
+     * Executa a consulta e retorna suas linhas como um stream preguiçoso.
+     *
+     * @param dataSource origem da conexão
+     * @param sql        consulta a ser executada
+     * @param fetchSize  quantidade de linhas trazidas por vez
+     * @param mapper     conversor de linhas
+     * @param <T>        tipo dos elementos
+     * @throws DatabaseException caso ocorra um erro ao executar a consulta ou ao
+     *                           ler as linhas
+     * @return stream que libera os recursos ao ser fechado
+     */
+    static <T> Stream<T> stream(DataSource dataSource, String sql, int fetchSize, RowMapper<T> mapper) {
+        Connection connection = null;
+        PreparedStatement ps = null;
+        ResultSet rs = null;
+        RowMapper<T> bound;
+
+        try {
+            connection = dataSource.getConnection();
+            ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(fetchSize);
+            rs = ps.executeQuery();
+            bound = mapper.bind(rs);
+        } catch (SQLException e) {
+            close(rs, ps, connection);
+            throw new DatabaseException("Erro ao executar consulta: " + e.getMessage());
+        }
+
+        ResultSet resultSet = rs;
+        PreparedStatement statement = ps;
+        Connection conn = connection;
+        RowMapper<T> rowMapper = bound;
+
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!resultSet.next()) {
+                        return false;
+                    }
+                    action.accept(rowMapper.mapRow(resultSet));
+                    return true;
+                } catch (SQLException e) {
+                    throw new DatabaseException("Erro ao ler resultado: " + e.getMessage());
+                }
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false).onClose(() -> close(resultSet, statement, conn));
+    }
+
+    private static void close(ResultSet rs, PreparedStatement ps, Connection connection) {
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+            if (ps != null) {
+                ps.close();
+            }
+            if (connection != null) {
+                connection.close();
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Erro ao fechar recursos: " + e.getMessage());
+        }
+    }
+}
@@ -5,9 +5,29 @@ import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import br.ufrn.imd.cache.CacheConfig;
+import br.ufrn.imd.cache.CacheStats;
+import br.ufrn.imd.cache.EntityCache;
+import br.ufrn.imd.database.DatabaseConnection;
+import br.ufrn.imd.exception.BookUnavailableException;
 import br.ufrn.imd.exception.DatabaseException;
+import br.ufrn.imd.exception.ResourceNotFoundException;
+import br.ufrn.imd.journal.EntityType;
+import br.ufrn.imd.journal.MutationJournal;
+import br.ufrn.imd.journal.MutationType;
+import br.ufrn.imd.logging.Logger;
 import br.ufrn.imd.model.Loan;
 
 /**
@@ -17,59 +37,453 @@ import br.ufrn.imd.model.Loan;
  * @autor Gabrielly Freire
  * @version 1.0
  */
-public class LoanDAO {
+public class LoanDAO implements LoanRepository {
+
+    private static final Logger LOG = Logger.getLogger(LoanDAO.class);
 
-    private final Connection connection;
+    private final DataSource dataSource;
+    private volatile EntityCache<Long, Loan> cache;
+    private volatile MutationJournal journal;
 
-    public LoanDAO(Connection connection) {
-        this.connection = connection;
+    public LoanDAO() {
+        this(DatabaseConnection.getDataSource());
+    }
+
+    public LoanDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
     }
 
     /**
-     * Insere um empréstimo no banco de dados
+     * Habilita o cache de leitura de empréstimos por id. Escritas feitas por este DAO
+     * invalidam as entradas alteradas.
+     * 
+     * @param config configuração do cache
+     */
+    public void enableCache(CacheConfig config) {
+        this.cache = new EntityCache<>(config, loan -> loan.toBuilder().build());
+    }
+
+    /**
+     * Desabilita o cache de leitura de empréstimos.
+     */
+    public void disableCache() {
+        this.cache = null;
+    }
+
+    /**
+     * Retorna as estatísticas do cache de empréstimos.
+     * 
+     * @return estatísticas do cache, ou null caso esteja desabilitado
+     */
+    public CacheStats getCacheStats() {
+        EntityCache<Long, Loan> current = cache;
+        return current != null ? current.getStats() : null;
+    }
+
+    /**
+     * Passa a registrar no journal as escritas feitas por este DAO.
+     * 
+     * @param journal journal das mutações, ou null para deixar de registrar
+     */
+    public void setJournal(MutationJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Insere um empréstimo no banco de dados. Empréstimos em aberto são
+     * registrados por {@link #checkout(Loan)}, que reserva o exemplar
      * 
      * @param loan empréstimo a ser inserido
+     * @throws BookUnavailableException caso o empréstimo esteja em aberto e o
+     *                                  livro não tenha exemplares disponíveis
      * @throws SQLException caso ocorra um erro ao inserir o empréstimo ou ao fechar
      *                      os recursos
      */
+    @Override
     public void create(Loan loan) {
+        if (!Boolean.TRUE.equals(loan.getIsReturned())) {
+            checkout(loan);
+            return;
+        }
+
+        Connection connection = null;
         PreparedStatement ps = null;
 
         try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
             ps = connection.prepareStatement(
-                    "INSERT INTO loan (user_id, book_id, loan_date, due_date, return_date, is_returned) VALUES (?, ?, ?, ?, ?, ?)");
+                    "INSERT INTO loan (user_id, book_id, loan_date, due_date, return_date, is_returned) VALUES (?, ?, ?, ?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
 
             ps.setLong(1, loan.getUserId());
             ps.setLong(2, loan.getBookId());
             ps.setDate(3, Date.valueOf(loan.getLoanDate()));
             ps.setDate(4, Date.valueOf(loan.getDueDate()));
-            ps.setDate(5, Date.valueOf(loan.getReturnDate()));
-            ps.setBoolean(6, loan.getIsReturned());
+            ps.setDate(5, loan.getReturnDate() != null ? Date.valueOf(loan.getReturnDate()) : null);
+            ps.setBoolean(6, true);
 
             int rowsAffected = ps.executeUpdate();
 
             if (rowsAffected > 0) {
-                System.out.println("Empréstimo inserido com sucesso!");
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        loan.setId(String.valueOf(keys.getLong(1)));
+                    }
+                }
+                ReportDAO.adjustLoanCounts(connection, loan.getUserId(), loan.getBookId(), 1, 0);
+                connection.commit();
+                journal(MutationType.CREATE, loan);
+                LOG.debug("Empréstimo inserido com sucesso!");
             } else {
-                System.out.println("Nenhum empréstimo foi inserido.");
+                LOG.debug("Nenhum empréstimo foi inserido.");
                 throw new DatabaseException("Nenhum empréstimo foi inserido.");
             }
 
         } catch (SQLException e) {
-            System.err.println("Erro ao inserir empréstimo: " + e.getMessage());
+            rollback(connection);
+            LOG.error("Erro ao inserir empréstimo", e);
             throw new DatabaseException("Erro ao inserir empréstimo: " + e.getMessage());
         } finally {
             try {
                 if (ps != null) {
                     ps.close();
                 }
+                if (connection != null) {
+                    connection.close();
+                }
             } catch (SQLException e) {
-                System.err.println("Erro ao fechar o PreparedStatement: " + e.getMessage());
+                LOG.error("Erro ao fechar o PreparedStatement", e);
                 throw new DatabaseException("Erro ao fechar o PreparedStatement: " + e.getMessage());
             }
         }
     }
 
+    /**
+     * Insere vários empréstimos mantendo os ids informados, em uma única
+     * transação com os INSERTs em lote. Os resumos de empréstimos são
+     * atualizados na mesma transação; o estoque dos livros não é alterado
+     * 
+     * @param loans empréstimos a serem inseridos, com id
+     * @throws DatabaseException caso ocorra um erro ao inserir os empréstimos
+     * @return quantidade de empréstimos inseridos
+     */
+    @Override
+    public int restoreAll(List<Loan> loans) {
+        Connection connection = null;
+        PreparedStatement ps = null;
+
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+            ps = connection.prepareStatement(
+                    "INSERT INTO loan (id, user_id, book_id, loan_date, due_date, return_date, is_returned) VALUES (?, ?, ?, ?, ?, ?, ?)");
+
+            for (Loan loan : loans) {
+                ps.setLong(1, Long.parseLong(loan.getId()));
+                ps.setLong(2, loan.getUserId());
+                ps.setLong(3, loan.getBookId());
+                ps.setDate(4, Date.valueOf(loan.getLoanDate()));
+                ps.setDate(5, Date.valueOf(loan.getDueDate()));
+                ps.setDate(6, loan.getReturnDate() != null ? Date.valueOf(loan.getReturnDate()) : null);
+                ps.setBoolean(7, Boolean.TRUE.equals(loan.getIsReturned()));
+                ps.addBatch();
+            }
+
+            ps.executeBatch();
+            ReportDAO.adjustLoanCounts(connection, loans);
+            connection.commit();
+            for (Loan loan : loans) {
+                journal(MutationType.CREATE, loan);
+            }
+
+            return loans.size();
+        } catch (SQLException e) {
+            rollback(connection);
+            LOG.error("Erro ao restaurar lote de empréstimos", e);
+            throw new DatabaseException("Erro ao restaurar lote de empréstimos: " + e.getMessage());
+        } finally {
+            try {
+                if (ps != null) {
+                    ps.close();
+                }
+                if (connection != null) {
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                LOG.error("Erro ao fechar o PreparedStatement", e);
+                throw new DatabaseException("Erro ao fechar o PreparedStatement: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Registra a retirada de um livro: reserva um exemplar disponível e insere o
+     * empréstimo na mesma transação, preenchendo o id gerado no próprio
+     * empréstimo.
+     * <p>
+     * A reserva é um único UPDATE condicional ({@code available_copies > 0}),
+     * então retiradas simultâneas do mesmo livro nunca reservam mais exemplares
+     * do que existem, e o bloqueio da linha dura apenas a transação curta.
+     * 
+     * @param loan empréstimo a ser registrado
+     * @throws BookUnavailableException caso o livro não exista ou não tenha
+     *                                  exemplares disponíveis
+     * @throws DatabaseException        caso ocorra um erro ao registrar o
+     *                                  empréstimo
+     */
+    @Override
+    public void checkout(Loan loan) {
+        Connection connection = null;
+        PreparedStatement reserve = null;
+        PreparedStatement insert = null;
+        ResultSet keys = null;
+
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+
+            reserve = connection.prepareStatement(
+                    "UPDATE book SET available_copies = available_copies - 1 WHERE id = ? AND available_copies > 0");
+            reserve.setLong(1, loan.getBookId());
+
+            if (reserve.executeUpdate() == 0) {
+                connection.rollback();
+                throw new BookUnavailableException("Livro com ID " + loan.getBookId() + " sem exemplares disponíveis.");
+            }
+
+            insert = connection.prepareStatement(
+                    "INSERT INTO loan (user_id, book_id, loan_date, due_date, return_date, is_returned) VALUES (?, ?, ?, ?, NULL, FALSE)",
+                    Statement.RETURN_GENERATED_KEYS);
+            insert.setLong(1, loan.getUserId());
+            insert.setLong(2, loan.getBookId());
+            insert.setDate(3, Date.valueOf(loan.getLoanDate()));
+            insert.setDate(4, Date.valueOf(loan.getDueDate()));
+            insert.executeUpdate();
+
+            keys = insert.getGeneratedKeys();
+            if (keys.next()) {
+                loan.setId(String.valueOf(keys.getLong(1)));
+            }
+            ReportDAO.adjustLoanCounts(connection, loan.getUserId(), loan.getBookId(), 1, 1);
+
+            connection.commit();
+            loan.setReturnDate(null);
+            loan.setIsReturned(false);
+            journal(MutationType.CREATE, loan);
+        } catch (SQLException e) {
+            rollback(connection);
+            throw new DatabaseException("Erro ao registrar empréstimo: " + e.getMessage());
+        } finally {
+            try {
+                if (keys != null) {
+                    keys.close();
+                }
+                if (insert != null) {
+                    insert.close();
+                }
+                if (reserve != null) {
+                    reserve.close();
+                }
+                if (connection != null) {
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                LOG.error("Erro ao fechar recursos", e);
+                throw new DatabaseException("Erro ao fechar recursos: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Registra a devolução de um empréstimo e devolve o exemplar ao estoque na
+     * mesma transação.
+     * 
+     * @param id         id do empréstimo
+     * @param returnDate data da devolução
+     * @throws ResourceNotFoundException caso o empréstimo não exista ou já tenha
+     *                                   sido devolvido
+     * @throws DatabaseException         caso ocorra um erro ao registrar a
+     *                                   devolução
+     * @return id do livro devolvido
+     */
+    @Override
+    public Long returnLoan(Long id, LocalDate returnDate) {
+        Connection connection = null;
+        PreparedStatement find = null;
+        PreparedStatement close = null;
+        ResultSet rs = null;
+
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+
+            find = connection.prepareStatement("SELECT book_id, user_id FROM loan WHERE id = ? AND is_returned = FALSE");
+            find.setLong(1, id);
+            rs = find.executeQuery();
+            if (!rs.next()) {
+                connection.rollback();
+                throw new ResourceNotFoundException("Empréstimo em aberto com ID " + id + " não encontrado.");
+            }
+            long bookId = rs.getLong(1);
+            long userId = rs.getLong(2);
+
+            close = connection.prepareStatement(
+                    "UPDATE loan SET is_returned = TRUE, return_date = ? WHERE id = ? AND is_returned = FALSE");
+            close.setDate(1, Date.valueOf(returnDate));
+            close.setLong(2, id);
+            if (close.executeUpdate() == 0) {
+                connection.rollback();
+                throw new ResourceNotFoundException("Empréstimo em aberto com ID " + id + " não encontrado.");
+            }
+
+            releaseCopy(connection, bookId);
+            ReportDAO.adjustLoanCounts(connection, userId, bookId, 0, -1);
+
+            connection.commit();
+            invalidate(id);
+            journal(MutationType.UPDATE, Loan.builder().id(String.valueOf(id)).userId(userId).bookId(bookId)
+                    .returnDate(returnDate).isReturned(true).build());
+            return bookId;
+        } catch (SQLException e) {
+            rollback(connection);
+            throw new DatabaseException("Erro ao registrar devolução: " + e.getMessage());
+        } finally {
+            try {
+                if (rs != null) {
+                    rs.close();
+                }
+                if (close != null) {
+                    close.close();
+                }
+                if (find != null) {
+                    find.close();
+                }
+                if (connection != null) {
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                LOG.error("Erro ao fechar recursos", e);
+                throw new DatabaseException("Erro ao fechar recursos: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Registra várias devoluções em uma única transação.
+     * <p>
+     * Os empréstimos são bloqueados com uma única consulta, em ordem de id, e
+     * as atualizações de {@code loan}, do estoque e dos resumos são enviadas
+     * em lote, agrupadas por livro e por usuário. Ids de empréstimos
+     * inexistentes ou já devolvidos são ignorados.
+     * 
+     * @param returns data de devolução por id de empréstimo
+     * @throws DatabaseException caso ocorra um erro ao registrar as
+     *                           devoluções; nenhuma delas é gravada
+     * @return estado anterior de cada empréstimo devolvido, por id
+     */
+    @Override
+    public Map<Long, Loan> returnLoans(Map<Long, LocalDate> returns) {
+        Map<Long, Loan> previous = new LinkedHashMap<>();
+        if (returns.isEmpty()) {
+            return previous;
+        }
+        TreeMap<Long, LocalDate> sorted = new TreeMap<>(returns);
+        Connection connection = null;
+
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+
+            StringBuilder sql = new StringBuilder("SELECT * FROM loan WHERE is_returned = FALSE AND id IN (");
+            for (int i = 0; i < sorted.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(") ORDER BY id FOR UPDATE");
+            try (PreparedStatement lock = connection.prepareStatement(sql.toString())) {
+                int index = 1;
+                for (Long id : sorted.keySet()) {
+                    lock.setLong(index++, id);
+                }
+                try (ResultSet rs = lock.executeQuery()) {
+                    RowMapper<Loan> mapper = LoanRowMapper.INSTANCE.bind(rs);
+                    while (rs.next()) {
+                        Loan loan = mapper.mapRow(rs);
+                        previous.put(Long.valueOf(loan.getId()), loan);
+                    }
+                }
+            }
+            if (previous.isEmpty()) {
+                connection.rollback();
+                return previous;
+            }
+
+            Map<Long, Integer> releasedCopies = new TreeMap<>();
+            Map<Long, Integer> userDeltas = new TreeMap<>();
+            try (PreparedStatement close = connection.prepareStatement(
+                    "UPDATE loan SET is_returned = TRUE, return_date = ? WHERE id = ?")) {
+                for (Map.Entry<Long, Loan> entry : previous.entrySet()) {
+                    Loan loan = entry.getValue();
+                    close.setDate(1, Date.valueOf(sorted.get(entry.getKey())));
+                    close.setLong(2, entry.getKey());
+                    close.addBatch();
+                    releasedCopies.merge(loan.getBookId(), 1, Integer::sum);
+                    userDeltas.merge(loan.getUserId(), -1, Integer::sum);
+                }
+                close.executeBatch();
+            }
+
+            try (PreparedStatement release = connection.prepareStatement(
+                    "UPDATE book SET available_copies = LEAST(available_copies + ?, total_copies) WHERE id = ?")) {
+                for (Map.Entry<Long, Integer> entry : releasedCopies.entrySet()) {
+                    release.setInt(1, entry.getValue());
+                    release.setLong(2, entry.getKey());
+                    release.addBatch();
+                }
+                release.executeBatch();
+            }
+            Map<Long, Integer> bookDeltas = new TreeMap<>();
+            releasedCopies.forEach((bookId, count) -> bookDeltas.put(bookId, -count));
+            ReportDAO.adjustActiveLoans(connection, bookDeltas, userDeltas);
+
+            connection.commit();
+            for (Loan loan : previous.values()) {
+                Long id = Long.valueOf(loan.getId());
+                invalidate(id);
+                journal(MutationType.UPDATE, Loan.builder().id(loan.getId()).userId(loan.getUserId())
+                        .bookId(loan.getBookId()).returnDate(sorted.get(id)).isReturned(true).build());
+            }
+            LOG.debug("{} devoluções registradas em lote", previous.size());
+            return previous;
+        } catch (SQLException e) {
+            rollback(connection);
+            LOG.error("Erro ao registrar devoluções em lote", e);
+            throw new DatabaseException("Erro ao registrar devoluções em lote: " + e.getMessage());
+        } finally {
+            try {
+                if (connection != null) {
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                LOG.error("Erro ao fechar recursos", e);
+                throw new DatabaseException("Erro ao fechar recursos: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Busca um empréstimo pelo id, passando pelo cache quando ele estiver habilitado
+     * 
+     * @param id id do empréstimo a ser buscado
+     * @throws DatabaseException caso ocorra um erro ao buscar o empréstimo
+     * @return empréstimo encontrado ou null caso não encontre
+     */
+    @Override
+    public Loan findById(Long id) {
+        EntityCache<Long, Loan> current = cache;
+        return current != null ? current.get(id, this::loadById) : loadById(id);
+    }
+
     /**
      * Busca um empréstimo por id no banco de dados
      * 
@@ -78,41 +492,36 @@ public class LoanDAO {
      *                      os recursos
      * @return empréstimo encontrado ou null caso não encontre
      */
-    public Loan findById(Long id) {
+    private Loan loadById(Long id) {
+        Connection connection = null;
         PreparedStatement ps = null;
-        ResultSet rs = null;
 
         try {
+            connection = dataSource.getConnection();
             ps = connection.prepareStatement("SELECT * FROM loan WHERE id = ?");
             ps.setLong(1, id);
 
-            rs = ps.executeQuery();
-
-            if (rs.next()) {
-                Loan loan = new Loan();
-                loan.setId(rs.getString("id"));
-                loan.setUserId(rs.getLong("user_id"));
-                loan.setBookId(rs.getLong("book_id"));
-                loan.setLoanDate(rs.getDate("loan_date").toLocalDate());
-                loan.setDueDate(rs.getDate("due_date").toLocalDate());
-                loan.setReturnDate(rs.getDate("return_date").toLocalDate());
-                loan.setIsReturned(rs.getBoolean("is_returned"));
-
-                return loan;
-            } else {
-                System.out.println("Nenhum empréstimo encontrado.");
-                return null;
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return LoanRowMapper.INSTANCE.mapRow(rs);
+                } else {
+                    LOG.debug("Nenhum empréstimo encontrado.");
+                    return null;
+                }
             }
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar empréstimo: " + e.getMessage());
+            LOG.error("Erro ao buscar empréstimo", e);
             throw new DatabaseException("Erro ao buscar empréstimo: " + e.getMessage());
         } finally {
             try {
                 if (ps != null) {
                     ps.close();
                 }
+                if (connection != null) {
+                    connection.close();
+                }
             } catch (SQLException e) {
-                System.err.println("Erro ao fechar o PreparedStatement: " + e.getMessage());
+                LOG.error("Erro ao fechar o PreparedStatement", e);
                 throw new DatabaseException("Erro ao fechar o PreparedStatement: " + e.getMessage());
             }
         }
@@ -127,29 +536,25 @@ public class LoanDAO {
      * @return lista de empréstimos encontrados
      */
 
+    @Override
     public List<Loan> findAll() {
+        Connection connection = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
+        List<Loan> loans = new ArrayList<>();
 
         try {
+            connection = dataSource.getConnection();
             ps = connection.prepareStatement("SELECT * FROM loan");
 
             rs = ps.executeQuery();
 
+            RowMapper<Loan> mapper = LoanRowMapper.INSTANCE.bind(rs);
             while (rs.next()) {
-                Loan loan = new Loan();
-                loan.setId(rs.getString("id"));
-                loan.setUserId(rs.getLong("user_id"));
-                loan.setBookId(rs.getLong("book_id"));
-                loan.setLoanDate(rs.getDate("loan_date").toLocalDate());
-                loan.setDueDate(rs.getDate("due_date").toLocalDate());
-                loan.setReturnDate(rs.getDate("return_date").toLocalDate());
-                loan.setIsReturned(rs.getBoolean("is_returned"));
-
-                System.out.println(loan);
+                loans.add(mapper.mapRow(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar empréstimos: " + e.getMessage());
+            LOG.error("Erro ao buscar empréstimos", e);
             throw new DatabaseException("Erro ao buscar empréstimos: " + e.getMessage());
         } finally {
             try {
@@ -159,26 +564,152 @@ public class LoanDAO {
                 if (ps != null) {
                     ps.close();
                 }
+                if (connection != null) {
+                    connection.close();
+                }
             } catch (SQLException e) {
-                System.err.println("Erro ao fechar os recursos: " + e.getMessage());
+                LOG.error("Erro ao fechar os recursos", e);
                 throw new DatabaseException("Erro ao fechar os recursos: " + e.getMessage());
             }
         }
-        return null;
+        return loans;
+    }
+
+    /**
+     * Percorre todos os empréstimos do banco de dados sem carregá-los de uma vez
+     * em memória. O stream deve ser fechado para liberar a conexão.
+     * 
+     * @throws DatabaseException caso ocorra um erro ao buscar os empréstimos
+     * @return stream preguiçoso de empréstimos
+     */
+    @Override
+    public Stream<Loan> streamAll() {
+        return JdbcStreams.stream(dataSource, "SELECT * FROM loan", JdbcStreams.DEFAULT_FETCH_SIZE,
+                LoanRowMapper.INSTANCE);
+    }
+
+    /**
+     * Percorre os empréstimos em aberto ({@code is_returned = FALSE}) sem
+     * carregá-los todos em memória. O stream deve ser fechado.
+     * 
+     * @throws DatabaseException caso ocorra um erro ao executar a consulta
+     * @return stream dos empréstimos em aberto
+     */
+    @Override
+    public Stream<Loan> streamOpen() {
+        return JdbcStreams.stream(dataSource, "SELECT * FROM loan WHERE is_returned = FALSE",
+                JdbcStreams.DEFAULT_FETCH_SIZE, LoanRowMapper.INSTANCE);
+    }
+
+    /**
+     * Executa uma ação para cada empréstimo do banco de dados, lendo as linhas
+     * aos poucos.
+     * 
+     * @param action ação executada para cada empréstimo
+     * @throws DatabaseException caso ocorra um erro ao buscar os empréstimos
+     */
+    @Override
+    public void forEach(Consumer<Loan> action) {
+        try (Stream<Loan> loans = streamAll()) {
+            loans.forEach(action);
+        }
+    }
+
+    /**
+     * Busca uma página de empréstimos ordenada por id, usando paginação por chave.
+     * 
+     * @param cursor cursor retornado pela página anterior, ou null para a primeira
+     * @param size   quantidade máxima de empréstimos na página
+     * @throws IllegalArgumentException caso o cursor seja inválido
+     * @throws DatabaseException        caso ocorra um erro ao buscar empréstimos
+     * @return página de empréstimos
+     */
+    @Override
+    public Page<Loan> findPage(String cursor, int size) {
+        return JdbcQueries.queryPage(dataSource, "SELECT * FROM loan WHERE id > ? ORDER BY id LIMIT ?",
+                LoanRowMapper.INSTANCE, loan -> Long.parseLong(loan.getId()), cursor, size);
+    }
+
+    /**
+     * Calcula o cursor da página de empréstimos que começa na posição informada,
+     * percorrendo apenas o índice da chave primária.
+     * 
+     * @param position posição do primeiro empréstimo da página, a partir de zero
+     * @throws IllegalArgumentException caso a posição seja negativa
+     * @throws DatabaseException        caso ocorra um erro na consulta
+     * @return cursor da página, ou null para a primeira página
+     */
+    @Override
+    public String cursorAt(long position) {
+        return JdbcQueries.queryCursorAt(dataSource, "SELECT id FROM loan ORDER BY id LIMIT 1 OFFSET ?", position);
+    }
+
+    /**
+     * Conta empréstimos cadastrados.
+     * 
+     * @throws DatabaseException caso ocorra um erro ao contar empréstimos
+     * @return quantidade de empréstimos
+     */
+    @Override
+    public long count() {
+        return JdbcQueries.queryForLong(dataSource, "SELECT COUNT(*) FROM loan");
+    }
+
+    /**
+     * Verifica se existe ao menos um empréstimo cadastrado.
+     * 
+     * @throws DatabaseException caso ocorra um erro na consulta
+     * @return true caso exista algum empréstimo
+     */
+    @Override
+    public boolean exists() {
+        return JdbcQueries.exists(dataSource, "SELECT 1 FROM loan LIMIT 1");
+    }
+
+    /**
+     * Verifica se existe um empréstimo com o id informado.
+     * Com o cache habilitado, a verificação passa pelo cache.
+     * 
+     * @param id id do empréstimo
+     * @throws DatabaseException caso ocorra um erro na consulta
+     * @return true caso o empréstimo exista
+     */
+    @Override
+    public boolean existsById(Long id) {
+        if (cache != null) {
+            return findById(id) != null;
+        }
+        return JdbcQueries.exists(dataSource, "SELECT 1 FROM loan WHERE id = ?", id);
     }
 
     /**
      * Atualiza um empréstimo no banco de dados
+     * <p>
+     * Quando o empréstimo é aberto, fechado ou trocado de livro, o estoque
+     * acompanha na mesma transação: o exemplar do livro anterior é devolvido e
+     * o do novo livro é reservado com o mesmo UPDATE condicional da retirada,
+     * então uma atualização nunca empresta mais exemplares do que existem.
      * 
      * @param id   id do empréstimo a ser atualizado
      * @param loan empréstimo com os novos dados
+     * @throws BookUnavailableException caso o empréstimo passe a ocupar um
+     *                                  exemplar de um livro sem exemplares
+     *                                  disponíveis
      * @throws SQLException caso ocorra um erro ao atualizar o empréstimo ou ao
      *                      fechar os recursos
      */
+    @Override
     public void update(Long id, Loan loan) {
+        Connection connection = null;
         PreparedStatement ps = null;
 
         try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+            Loan previous = lockLoan(connection, id);
+            if (previous != null) {
+                moveCopies(connection, previous, loan);
+            }
             ps = connection.prepareStatement(
                     "UPDATE loan SET user_id = ?, book_id = ?, loan_date = ?, due_date = ?, return_date = ?, is_returned = ? WHERE id = ?");
 
@@ -186,29 +717,41 @@ public class LoanDAO {
             ps.setLong(2, loan.getBookId());
             ps.setDate(3, Date.valueOf(loan.getLoanDate()));
             ps.setDate(4, Date.valueOf(loan.getDueDate()));
-            ps.setDate(5, Date.valueOf(loan.getReturnDate()));
-            ps.setBoolean(6, loan.getIsReturned());
+            ps.setDate(5, loan.getReturnDate() != null ? Date.valueOf(loan.getReturnDate()) : null);
+            ps.setBoolean(6, Boolean.TRUE.equals(loan.getIsReturned()));
             ps.setLong(7, id);
 
             int rowsAffected = ps.executeUpdate();
 
-            if (rowsAffected > 0) {
-                System.out.println("Empréstimo atualizado com sucesso!");
+            if (previous != null && rowsAffected > 0) {
+                ReportDAO.adjustLoanCounts(connection, previous.getUserId(), previous.getBookId(), -1,
+                        Boolean.TRUE.equals(previous.getIsReturned()) ? 0 : -1);
+                ReportDAO.adjustLoanCounts(connection, loan.getUserId(), loan.getBookId(), 1,
+                        Boolean.TRUE.equals(loan.getIsReturned()) ? 0 : 1);
+                connection.commit();
+                invalidate(id);
+                journal(MutationType.UPDATE, loan.toBuilder().id(String.valueOf(id))
+                        .isReturned(Boolean.TRUE.equals(loan.getIsReturned())).build());
+                LOG.debug("Empréstimo atualizado com sucesso!");
             } else {
-                System.out.println("Nenhum empréstimo foi atualizado.");
+                LOG.debug("Nenhum empréstimo foi atualizado.");
                 throw new DatabaseException("Nenhum empréstimo foi atualizado.");
             }
 
         } catch (SQLException e) {
-            System.err.println("Erro ao atualizar empréstimo: " + e.getMessage());
+            rollback(connection);
+            LOG.error("Erro ao atualizar empréstimo", e);
             throw new DatabaseException("Erro ao atualizar empréstimo: " + e.getMessage());
         } finally {
             try {
                 if (ps != null) {
                     ps.close();
                 }
+                if (connection != null) {
+                    connection.close();
+                }
             } catch (SQLException e) {
-                System.err.println("Erro ao fechar o PreparedStatement: " + e.getMessage());
+                LOG.error("Erro ao fechar o PreparedStatement", e);
                 throw new DatabaseException("Erro ao fechar o PreparedStatement: " + e.getMessage());
             }
         }
@@ -221,33 +764,212 @@ public class LoanDAO {
      * @throws SQLException caso ocorra um erro ao deletar o empréstimo ou ao fechar
      *                      os recursos
      */
+    @Override
     public void delete(Long id) {
+        Connection connection = null;
         PreparedStatement ps = null;
 
         try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+            Loan previous = lockLoan(connection, id);
             ps = connection.prepareStatement("DELETE FROM loan WHERE id = ?");
             ps.setLong(1, id);
 
             int rowsAffected = ps.executeUpdate();
 
-            if (rowsAffected > 0) {
-                System.out.println("Empréstimo deletado com sucesso!");
+            if (previous != null && rowsAffected > 0) {
+                boolean open = !Boolean.TRUE.equals(previous.getIsReturned());
+                if (open) {
+                    releaseCopy(connection, previous.getBookId());
+                }
+                ReportDAO.adjustLoanCounts(connection, previous.getUserId(), previous.getBookId(), -1, open ? -1 : 0);
+                connection.commit();
+                invalidate(id);
+                journalDelete(id);
+                LOG.debug("Empréstimo deletado com sucesso!");
             } else {
-                System.out.println("Nenhum empréstimo foi deletado.");
+                LOG.debug("Nenhum empréstimo foi deletado.");
                 throw new DatabaseException("Nenhum empréstimo foi deletado.");
             }
         } catch (SQLException e) {
-            System.err.println("Erro ao deletar empréstimo: " + e.getMessage());
+            rollback(connection);
+            LOG.error("Erro ao deletar empréstimo", e);
             throw new DatabaseException("Erro ao deletar empréstimo: " + e.getMessage());
         } finally {
             try {
                 if (ps != null) {
                     ps.close();
                 }
+                if (connection != null) {
+                    connection.close();
+                }
             } catch (SQLException e) {
-                System.err.println("Erro ao fechar o PreparedStatement: " + e.getMessage());
+                LOG.error("Erro ao fechar o PreparedStatement", e);
                 throw new DatabaseException("Erro ao fechar o PreparedStatement: " + e.getMessage());
             }
         }
     }
+
+
+    /**
+     * Ajusta o estoque para uma atualização de empréstimo: devolve o exemplar
+     * do livro anterior caso o empréstimo estivesse aberto e deixe de ocupá-lo,
+     * e reserva um exemplar do novo livro caso o empréstimo passe a ocupá-lo.
+     * Os livros envolvidos são bloqueados em ordem de id, para que duas
+     * atualizações cruzadas não se travem.
+     * 
+     * @param connection conexão com a transação aberta
+     * @param previous   empréstimo gravado, já bloqueado
+     * @param loan       novos dados do empréstimo
+     * @throws BookUnavailableException caso o novo livro não tenha exemplares
+     *                                  disponíveis; a transação é desfeita
+     * @throws SQLException             caso ocorra um erro ao atualizar os livros
+     */
+    private void moveCopies(Connection connection, Loan previous, Loan loan) throws SQLException {
+        boolean wasOpen = !Boolean.TRUE.equals(previous.getIsReturned());
+        boolean isOpen = !Boolean.TRUE.equals(loan.getIsReturned());
+        boolean sameBook = previous.getBookId().equals(loan.getBookId());
+        boolean release = wasOpen && (!isOpen || !sameBook);
+        boolean reserve = isOpen && (!wasOpen || !sameBook);
+        if (!release && !reserve) {
+            return;
+        }
+
+        lockBooks(connection, previous.getBookId(), loan.getBookId());
+        if (reserve && !reserveCopy(connection, loan.getBookId())) {
+            connection.rollback();
+            throw new BookUnavailableException("Livro com ID " + loan.getBookId() + " sem exemplares disponíveis.");
+        }
+        if (release) {
+            releaseCopy(connection, previous.getBookId());
+        }
+    }
+
+    /**
+     * Bloqueia as linhas dos livros até o fim da transação corrente, em ordem
+     * de id.
+     * 
+     * @param connection conexão com a transação aberta
+     * @param first      id de um livro
+     * @param second     id do outro livro, possivelmente o mesmo
+     * @throws SQLException caso ocorra um erro na consulta
+     */
+    private static void lockBooks(Connection connection, Long first, Long second) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "SELECT id FROM book WHERE id IN (?, ?) ORDER BY id FOR UPDATE")) {
+            ps.setLong(1, Math.min(first, second));
+            ps.setLong(2, Math.max(first, second));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    // apenas bloqueia as linhas
+                }
+            }
+        }
+    }
+
+    /**
+     * Reserva um exemplar do livro com o mesmo UPDATE condicional da retirada.
+     * 
+     * @param connection conexão com a transação aberta
+     * @param bookId     id do livro
+     * @throws SQLException caso ocorra um erro ao atualizar o livro
+     * @return true caso havia um exemplar disponível
+     */
+    private static boolean reserveCopy(Connection connection, Long bookId) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "UPDATE book SET available_copies = available_copies - 1 WHERE id = ? AND available_copies > 0")) {
+            ps.setLong(1, bookId);
+            return ps.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Devolve um exemplar do livro ao estoque, sem ultrapassar o total.
+     * 
+     * @param connection conexão com a transação aberta
+     * @param bookId     id do livro
+     * @throws SQLException caso ocorra um erro ao atualizar o livro
+     */
+    private static void releaseCopy(Connection connection, Long bookId) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "UPDATE book SET available_copies = available_copies + 1 WHERE id = ? AND available_copies < total_copies")) {
+            ps.setLong(1, bookId);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Lê e bloqueia um empréstimo até o fim da transação corrente.
+     * 
+     * @param connection conexão com a transação aberta
+     * @param id         id do empréstimo
+     * @throws SQLException caso ocorra um erro na consulta
+     * @return empréstimo encontrado, ou null caso não exista
+     */
+    private static Loan lockLoan(Connection connection, Long id) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("SELECT * FROM loan WHERE id = ? FOR UPDATE")) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? LoanRowMapper.INSTANCE.mapRow(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Desfaz a transação corrente, ignorando erros.
+     * 
+     * @param connection conexão com a transação aberta
+     */
+    private void rollback(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                LOG.error("Erro ao desfazer transação", e);
+            }
+        }
+    }
+
+    /**
+     * Registra uma escrita no journal, quando houver um. A escrita já foi
+     * confirmada no banco, então uma falha do journal é apenas registrada no log.
+     * 
+     * @param mutation tipo da mutação
+     * @param loan     empréstimo com o id e os campos gravados
+     */
+    private void journal(MutationType mutation, Loan loan) {
+        MutationJournal current = journal;
+        if (current != null) {
+            try {
+                current.append(mutation, loan);
+            } catch (RuntimeException e) {
+                LOG.error("Erro ao registrar empréstimo no journal", e);
+            }
+        }
+    }
+
+    private void journalDelete(Long id) {
+        MutationJournal current = journal;
+        if (current != null) {
+            try {
+                current.appendDelete(EntityType.LOAN, id);
+            } catch (RuntimeException e) {
+                LOG.error("Erro ao registrar remoção de empréstimo no journal", e);
+            }
+        }
+    }
+
+    /**
+     * Remove o empréstimo do cache depois de uma escrita.
+     * 
+     * @param id id do empréstimo alterado
+     */
+    private void invalidate(Long id) {
+        EntityCache<Long, Loan> current = cache;
+        if (current != null) {
+            current.invalidate(id);
+        }
+    }
+
 }
@@ -0,0 +1,202 @@
+package br.ufrn.imd.dao;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import br.ufrn.imd.exception.BookUnavailableException;
+import br.ufrn.imd.exception.DatabaseException;
+import br.ufrn.imd.exception.ResourceNotFoundException;
+import br.ufrn.imd.model.Loan;
+
+/**
+ * Operações de armazenamento de empréstimos, independentes do mecanismo usado.
+ * <p>
+ * {@link LoanDAO} implementa o repositório sobre JDBC; outros mecanismos são
+ * fornecidos por um {@link br.ufrn.imd.storage.StorageEngine}. Retiradas e
+ * devoluções alteram também o estoque do livro, de forma atômica. Falhas do
+ * mecanismo são lançadas como {@link DatabaseException}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public interface LoanRepository {
+
+    /**
+     * Insere um empréstimo, preenchendo o id gerado no próprio empréstimo. Um
+     * empréstimo já devolvido é apenas registrado, sem alterar o estoque do
+     * livro; um empréstimo em aberto é registrado como em
+     * {@link #checkout(Loan)}, reservando um exemplar.
+     *
+     * @param loan empréstimo a ser inserido
+     * @throws BookUnavailableException caso o empréstimo esteja em aberto e o
+     *                                  livro não tenha exemplares disponíveis
+     * @throws DatabaseException        caso ocorra um erro ao inserir o
+     *                                  empréstimo
+     */
+    void create(Loan loan);
+
+    /**
+     * Insere vários empréstimos mantendo os ids informados, como na
+     * restauração de um snapshot. O estoque dos livros não é alterado, pois os
+     * livros restaurados já trazem os exemplares disponíveis. Em caso de erro
+     * nenhum empréstimo do lote é inserido.
+     *
+     * @param loans empréstimos a serem inseridos, com id
+     * @throws DatabaseException caso ocorra um erro ao inserir os empréstimos,
+     *                           como um id já cadastrado ou um livro ou usuário
+     *                           inexistente
+     * @return quantidade de empréstimos inseridos
+     */
+    int restoreAll(List<Loan> loans);
+
+    /**
+     * Registra a retirada de um livro: reserva um exemplar disponível e insere o
+     * empréstimo de forma atômica, preenchendo o id gerado.
+     *
+     * @param loan empréstimo a ser registrado
+     * @throws BookUnavailableException caso o livro não exista ou não tenha
+     *                                  exemplares disponíveis
+     * @throws DatabaseException        caso ocorra um erro ao registrar o
+     *                                  empréstimo
+     */
+    void checkout(Loan loan);
+
+    /**
+     * Registra a devolução de um empréstimo e devolve o exemplar ao estoque.
+     *
+     * @param id         id do empréstimo
+     * @param returnDate data da devolução
+     * @throws ResourceNotFoundException caso o empréstimo não exista ou já tenha
+     *                                   sido devolvido
+     * @throws DatabaseException         caso ocorra um erro ao registrar a
+     *                                   devolução
+     * @return id do livro devolvido
+     */
+    Long returnLoan(Long id, LocalDate returnDate);
+
+    /**
+     * Registra várias devoluções de uma vez. Ids de empréstimos inexistentes ou
+     * já devolvidos são ignorados.
+     *
+     * @param returns data de devolução por id de empréstimo
+     * @throws DatabaseException caso ocorra um erro ao registrar as
+     *                           devoluções; nenhuma delas é gravada
+     * @return estado anterior de cada empréstimo devolvido, por id
+     */
+    Map<Long, Loan> returnLoans(Map<Long, LocalDate> returns);
+
+    /**
+     * Busca um empréstimo pelo id.
+     *
+     * @param id id do empréstimo
+     * @throws DatabaseException caso ocorra um erro ao buscar o empréstimo
+     * @return empréstimo encontrado ou null caso não encontre
+     */
+    Loan findById(Long id);
+
+    /**
+     * Busca todos os empréstimos.
+     *
+     * @throws DatabaseException caso ocorra um erro ao buscar os empréstimos
+     * @return lista de empréstimos
+     */
+    List<Loan> findAll();
+
+    /**
+     * Percorre todos os empréstimos sem carregá-los de uma vez em memória. O
+     * stream deve ser fechado.
+     *
+     * @throws DatabaseException caso ocorra um erro ao buscar os empréstimos
+     * @return stream de empréstimos
+     */
+    Stream<Loan> streamAll();
+
+    /**
+     * Percorre os empréstimos em aberto. O stream deve ser fechado.
+     *
+     * @throws DatabaseException caso ocorra um erro ao buscar os empréstimos
+     * @return stream dos empréstimos em aberto
+     */
+    Stream<Loan> streamOpen();
+
+    /**
+     * Executa uma ação para cada empréstimo.
+     *
+     * @param action ação executada para cada empréstimo
+     * @throws DatabaseException caso ocorra um erro ao buscar os empréstimos
+     */
+    void forEach(Consumer<Loan> action);
+
+    /**
+     * Busca uma página de empréstimos ordenada por id.
+     *
+     * @param cursor cursor retornado pela página anterior, ou null para a primeira
+     * @param size   quantidade máxima de empréstimos na página
+     * @throws IllegalArgumentException caso o cursor seja inválido
+     * @throws DatabaseException        caso ocorra um erro ao buscar os
+     *                                  empréstimos
+     * @return página de empréstimos
+     */
+    Page<Loan> findPage(String cursor, int size);
+
+    /**
+     * Calcula o cursor da página de empréstimos, ordenada por id, que começa na
+     * posição informada, para saltar a uma página distante sem percorrer as
+     * anteriores.
+     *
+     * @param position posição do primeiro empréstimo da página, a partir de zero
+     * @throws IllegalArgumentException caso a posição seja negativa
+     * @throws DatabaseException        caso ocorra um erro na consulta
+     * @return cursor para {@link #findPage(String, int)}, null para a primeira
+     *         página ou um cursor de página vazia caso a posição passe do fim
+     */
+    String cursorAt(long position);
+
+    /**
+     * Conta empréstimos cadastrados.
+     *
+     * @throws DatabaseException caso ocorra um erro ao contar os empréstimos
+     * @return quantidade de empréstimos
+     */
+    long count();
+
+    /**
+     * Verifica se existe ao menos um empréstimo cadastrado.
+     *
+     * @throws DatabaseException caso ocorra um erro na consulta
+     * @return true caso exista algum empréstimo
+     */
+    boolean exists();
+
+    /**
+     * Verifica se existe um empréstimo com o id informado.
+     *
+     * @param id id do empréstimo
+     * @throws DatabaseException caso ocorra um erro na consulta
+     * @return true caso o empréstimo exista
+     */
+    boolean existsById(Long id);
+
+    /**
+     * Atualiza um empréstimo, sem alterar o estoque dos livros.
+     *
+     * @param id   id do empréstimo a ser atualizado
+     * @param loan empréstimo com os novos dados
+     * @throws DatabaseException caso o empréstimo não exista ou ocorra um erro
+     *                           ao atualizá-lo
+     */
+    void update(Long id, Loan loan);
+
+    /**
+     * Remove um empréstimo. Se ele estiver em aberto, o exemplar volta ao
+     * estoque.
+     *
+     * @param id id do empréstimo a ser removido
+     * @throws DatabaseException caso o empréstimo não exista ou ocorra um erro
+     *                           ao removê-lo
+     */
+    void delete(Long id);
+}
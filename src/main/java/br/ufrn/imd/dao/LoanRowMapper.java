@@ -0,0 +1,46 @@
+package br.ufrn.imd.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+import br.ufrn.imd.model.Loan;
+
+/**
+ * Conversor compilado das linhas da tabela {@code loan}. As datas são lidas
+ * diretamente como {@link LocalDate}, sem o {@link java.sql.Date}
+ * intermediário.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+final class LoanRowMapper extends CompiledRowMapper<Loan> {
+
+    static final LoanRowMapper INSTANCE = new LoanRowMapper();
+
+    private LoanRowMapper() {
+    }
+
+    @Override
+    public RowMapper<Loan> bind(ResultSet rs) throws SQLException {
+        int id = rs.findColumn("id");
+        int userId = rs.findColumn("user_id");
+        int bookId = rs.findColumn("book_id");
+        int loanDate = rs.findColumn("loan_date");
+        int dueDate = rs.findColumn("due_date");
+        int returnDate = rs.findColumn("return_date");
+        int isReturned = rs.findColumn("is_returned");
+
+        return row -> {
+            Loan loan = new Loan();
+            loan.setId(row.getString(id));
+            loan.setUserId(row.getLong(userId));
+            loan.setBookId(row.getLong(bookId));
+            loan.setLoanDate(row.getObject(loanDate, LocalDate.class));
+            loan.setDueDate(row.getObject(dueDate, LocalDate.class));
+            loan.setReturnDate(row.getObject(returnDate, LocalDate.class));
+            loan.setIsReturned(row.getBoolean(isReturned));
+            return loan;
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package br.ufrn.imd.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * Página de uma consulta paginada por chave (keyset).
+ * <p>
+ * O cursor da próxima página é opaco: deve apenas ser repassado à próxima
+ * chamada da mesma consulta. Internamente é o último id da página anterior
+ * codificado em Base64, o mesmo formato em qualquer mecanismo de
+ * armazenamento.
+ *
+ * @param <T> tipo dos itens da página
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Value
+public class Page<T> {
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    List<T> items;
+    String nextCursor;
+
+    /**
+     * Indica se existe uma próxima página.
+     *
+     * @return true caso exista uma próxima página
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Codifica o cursor que aponta para depois do id informado.
+     *
+     * @param lastId último id da página atual
+     * @return cursor da próxima página
+     */
+    public static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um cursor gerado por {@link #encodeCursor(long)}.
+     *
+     * @param cursor cursor recebido, ou null para a primeira página
+     * @throws IllegalArgumentException caso o cursor seja inválido
+     * @return último id da página anterior, ou zero para a primeira página
+     */
+    public static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Cursor de paginação inválido.");
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido.");
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+package br.ufrn.imd.dao;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import br.ufrn.imd.exception.DatabaseException;
+import br.ufrn.imd.exception.QueryCancelledException;
+
+/**
+ * Controle de uma consulta em andamento: permite cancelá-la de outra thread e
+ * limita o seu tempo de execução.
+ * <p>
+ * No banco, o cancelamento chega ao servidor por
+ * {@link Statement#cancel()} e o tempo limite por
+ * {@link Statement#setQueryTimeout(int)}, com resolução de segundos. Nos
+ * repositórios em memória, a busca confere {@link #checkActive()} a cada
+ * item. Em ambos os casos a consulta cancelada termina com
+ * {@link QueryCancelledException}. Cada controle serve a uma única consulta
+ * por vez.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public final class QueryHandle {
+
+    private final long deadline;
+    private volatile boolean cancelled;
+    private Statement statement;
+
+    /**
+     * Cria um controle sem tempo limite.
+     */
+    public QueryHandle() {
+        this(null);
+    }
+
+    /**
+     * Cria um controle cujo tempo limite começa a contar agora.
+     *
+     * @param timeout tempo limite da consulta, ou null para nenhum
+     * @throws IllegalArgumentException caso o tempo limite não seja positivo
+     */
+    public QueryHandle(Duration timeout) {
+        if (timeout != null && (timeout.isNegative() || timeout.isZero())) {
+            throw new IllegalArgumentException("O tempo limite deve ser positivo.");
+        }
+        this.deadline = timeout != null ? System.nanoTime() + timeout.toNanos() : 0;
+    }
+
+    /**
+     * Cancela a consulta. Caso ela esteja em execução no banco, pede ao
+     * servidor que a interrompa; caso ainda não tenha começado, ela não
+     * chegará a ser executada.
+     */
+    public void cancel() {
+        Statement running;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            running = statement;
+        }
+        if (running != null) {
+            try {
+                running.cancel();
+            } catch (SQLException e) {
+                // a consulta já terminou ou o driver não permite o cancelamento
+            }
+        }
+    }
+
+    /**
+     * Indica se a consulta foi cancelada.
+     *
+     * @return true caso {@link #cancel()} tenha sido chamado
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Verifica se a consulta ainda pode continuar.
+     *
+     * @throws QueryCancelledException caso a consulta tenha sido cancelada
+     * @throws DatabaseException       caso o tempo limite tenha se esgotado
+     */
+    public void checkActive() {
+        if (cancelled) {
+            throw new QueryCancelledException("A consulta foi cancelada.");
+        }
+        if (deadline != 0 && System.nanoTime() - deadline >= 0) {
+            throw new DatabaseException("O tempo limite da consulta foi esgotado.");
+        }
+    }
+
+    /**
+     * Associa o statement que vai executar a consulta, aplicando o tempo
+     * restante como tempo limite.
+     *
+     * @param ps statement da consulta
+     * @throws QueryCancelledException caso a consulta já tenha sido cancelada
+     * @throws DatabaseException       caso o tempo limite já tenha se esgotado
+     * @throws SQLException            caso o tempo limite não possa ser aplicado
+     */
+    void attach(Statement ps) throws SQLException {
+        checkActive();
+        if (deadline != 0) {
+            long remaining = deadline - System.nanoTime();
+            ps.setQueryTimeout((int) Math.max(1, Math.ceil(remaining / 1e9)));
+        }
+        synchronized (this) {
+            checkActive();
+            statement = ps;
+        }
+    }
+
+    /**
+     * Desfaz a associação ao fim da consulta e restaura o tempo limite do
+     * statement, que pode voltar ao cache de statements.
+     *
+     * @param ps statement da consulta
+     */
+    void detach(Statement ps) {
+        synchronized (this) {
+            statement = null;
+        }
+        if (deadline != 0) {
+            try {
+                ps.setQueryTimeout(0);
+            } catch (SQLException e) {
+                // o statement será fechado em seguida
+            }
+        }
+    }
+
+    /**
+     * Converte o erro de uma consulta associada a este controle.
+     *
+     * @param e       erro lançado pelo driver
+     * @param message mensagem do erro de banco
+     * @return exceção de cancelamento, de tempo esgotado ou de banco
+     */
+    DatabaseException translate(SQLException e, String message) {
+        if (cancelled) {
+            return new QueryCancelledException("A consulta foi cancelada.");
+        }
+        if (e instanceof SQLTimeoutException) {
+            return new DatabaseException("O tempo limite da consulta foi esgotado.");
+        }
+        return new DatabaseException(message + e.getMessage());
+    }
+}
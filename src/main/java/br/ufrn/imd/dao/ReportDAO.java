@@ -0,0 +1,289 @@
+package br.ufrn.imd.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import br.ufrn.imd.database.DatabaseConnection;
+import br.ufrn.imd.exception.DatabaseException;
+import br.ufrn.imd.logging.Logger;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.BookRanking;
+import br.ufrn.imd.model.Loan;
+import br.ufrn.imd.model.User;
+import br.ufrn.imd.model.UserRanking;
+
+/**
+ * Classe responsável pelas tabelas de resumo usadas nos relatórios.
+ * <p>
+ * As tabelas {@code book_loan_stats} e {@code user_loan_stats} guardam, por
+ * livro e por usuário, o total de empréstimos e quantos estão em aberto. Elas
+ * são atualizadas pelo {@link LoanDAO} na mesma transação de cada escrita em
+ * {@code loan}, de modo que os relatórios são leituras indexadas que não
+ * dependem do tamanho do histórico de empréstimos. O estoque disponível é a
+ * própria coluna {@code available_copies} do livro, indexada por
+ * {@code is_available}.
+ * <p>
+ * {@link #rebuild()} recalcula tudo a partir de {@code loan}, para reparar
+ * divergências ou popular as tabelas em um banco existente.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class ReportDAO {
+
+    private static final Logger LOG = Logger.getLogger(ReportDAO.class);
+
+    private static final String ADJUST_BOOK_STATS = "INSERT INTO book_loan_stats (book_id, loan_count, active_loans) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE loan_count = loan_count + VALUES(loan_count), active_loans = active_loans + VALUES(active_loans)";
+
+    private static final String ADJUST_USER_STATS = "INSERT INTO user_loan_stats (user_id, loan_count, active_loans) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE loan_count = loan_count + VALUES(loan_count), active_loans = active_loans + VALUES(active_loans)";
+
+    private static final RowMapper<BookRanking> BOOK_RANKING = new CompiledRowMapper<>() {
+        @Override
+        public RowMapper<BookRanking> bind(ResultSet rs) throws SQLException {
+            RowMapper<Book> book = BookRowMapper.INSTANCE.bind(rs);
+            int loanCount = rs.findColumn("loan_count");
+            int activeLoans = rs.findColumn("active_loans");
+            return row -> new BookRanking(book.mapRow(row), row.getLong(loanCount), row.getLong(activeLoans));
+        }
+    };
+
+    private static final RowMapper<UserRanking> USER_RANKING = new CompiledRowMapper<>() {
+        @Override
+        public RowMapper<UserRanking> bind(ResultSet rs) throws SQLException {
+            RowMapper<User> user = UserRowMapper.INSTANCE.bind(rs);
+            int loanCount = rs.findColumn("loan_count");
+            int activeLoans = rs.findColumn("active_loans");
+            return row -> new UserRanking(user.mapRow(row), row.getLong(loanCount), row.getLong(activeLoans));
+        }
+    };
+
+    private final DataSource dataSource;
+
+    public ReportDAO() {
+        this(DatabaseConnection.getDataSource());
+    }
+
+    public ReportDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Busca os livros com mais empréstimos.
+     *
+     * @param limit quantidade máxima de livros
+     * @throws DatabaseException caso ocorra um erro na consulta
+     * @return livros do mais para o menos emprestado
+     */
+    public List<BookRanking> findMostBorrowedBooks(int limit) {
+        return JdbcQueries.queryList(dataSource,
+                "SELECT b.*, s.loan_count, s.active_loans FROM book_loan_stats s JOIN book b ON b.id = s.book_id "
+                        + "ORDER BY s.loan_count DESC, s.book_id LIMIT ?",
+                BOOK_RANKING, limit);
+    }
+
+    /**
+     * Busca os usuários com mais empréstimos.
+     *
+     * @param limit quantidade máxima de usuários
+     * @throws DatabaseException caso ocorra um erro na consulta
+     * @return usuários do que mais emprestou para o que menos emprestou
+     */
+    public List<UserRanking> findTopBorrowers(int limit) {
+        return JdbcQueries.queryList(dataSource,
+                "SELECT u.*, s.loan_count, s.active_loans FROM user_loan_stats s JOIN user u ON u.id = s.user_id "
+                        + "ORDER BY s.loan_count DESC, s.user_id LIMIT ?",
+                USER_RANKING, limit);
+    }
+
+    /**
+     * Busca uma página dos livros com exemplares disponíveis, ordenada por id.
+     *
+     * @param cursor cursor retornado pela página anterior, ou null para a primeira
+     * @param size   quantidade máxima de livros na página
+     * @throws IllegalArgumentException caso o cursor seja inválido
+     * @throws DatabaseException        caso ocorra um erro na consulta
+     * @return página de livros disponíveis
+     */
+    public Page<Book> findAvailableBooksPage(String cursor, int size) {
+        return JdbcQueries.queryPage(dataSource,
+                "SELECT * FROM book WHERE is_available = TRUE AND id > ? ORDER BY id LIMIT ?",
+                BookRowMapper.INSTANCE, Book::getId, cursor, size);
+    }
+
+    /**
+     * Conta os livros com exemplares disponíveis.
+     *
+     * @throws DatabaseException caso ocorra um erro na consulta
+     * @return quantidade de livros disponíveis
+     */
+    public long countAvailableBooks() {
+        return JdbcQueries.queryForLong(dataSource, "SELECT COUNT(*) FROM book WHERE is_available = TRUE");
+    }
+
+    /**
+     * Recalcula as tabelas de resumo e o estoque disponível a partir dos
+     * empréstimos registrados, em uma única transação.
+     *
+     * @throws DatabaseException caso ocorra um erro ao recalcular
+     */
+    public void rebuild() {
+        Connection connection = null;
+        Statement statement = null;
+
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+            statement = connection.createStatement();
+
+            statement.executeUpdate("DELETE FROM book_loan_stats");
+            statement.executeUpdate("INSERT INTO book_loan_stats (book_id, loan_count, active_loans) "
+                    + "SELECT book_id, COUNT(*), SUM(CASE WHEN is_returned THEN 0 ELSE 1 END) FROM loan GROUP BY book_id");
+
+            statement.executeUpdate("DELETE FROM user_loan_stats");
+            statement.executeUpdate("INSERT INTO user_loan_stats (user_id, loan_count, active_loans) "
+                    + "SELECT user_id, COUNT(*), SUM(CASE WHEN is_returned THEN 0 ELSE 1 END) FROM loan GROUP BY user_id");
+
+            statement.executeUpdate("UPDATE book b SET available_copies = GREATEST(0, b.total_copies - "
+                    + "(SELECT COUNT(*) FROM loan l WHERE l.book_id = b.id AND l.is_returned = FALSE))");
+
+            connection.commit();
+            LOG.debug("Relatórios recalculados com sucesso!");
+        } catch (SQLException e) {
+            if (connection != null) {
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    LOG.error("Erro ao desfazer transação", rollbackError);
+                }
+            }
+            LOG.error("Erro ao recalcular relatórios", e);
+            throw new DatabaseException("Erro ao recalcular relatórios: " + e.getMessage());
+        } finally {
+            try {
+                if (statement != null) {
+                    statement.close();
+                }
+                if (connection != null) {
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                LOG.error("Erro ao fechar recursos", e);
+                throw new DatabaseException("Erro ao fechar recursos: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Aplica a variação de um empréstimo aos resumos do livro e do usuário.
+     * Deve ser chamado dentro da transação que alterou a tabela {@code loan}.
+     *
+     * @param connection  conexão com a transação aberta
+     * @param userId      id do usuário do empréstimo
+     * @param bookId      id do livro do empréstimo
+     * @param loanDelta   variação do total de empréstimos
+     * @param activeDelta variação dos empréstimos em aberto
+     * @throws SQLException caso ocorra um erro ao atualizar os resumos
+     */
+    static void adjustLoanCounts(Connection connection, long userId, long bookId, int loanDelta, int activeDelta)
+            throws SQLException {
+        if (loanDelta == 0 && activeDelta == 0) {
+            return;
+        }
+        try (PreparedStatement book = connection.prepareStatement(ADJUST_BOOK_STATS)) {
+            book.setLong(1, bookId);
+            book.setInt(2, loanDelta);
+            book.setInt(3, activeDelta);
+            book.executeUpdate();
+        }
+        try (PreparedStatement user = connection.prepareStatement(ADJUST_USER_STATS)) {
+            user.setLong(1, userId);
+            user.setInt(2, loanDelta);
+            user.setInt(3, activeDelta);
+            user.executeUpdate();
+        }
+    }
+
+    /**
+     * Soma aos resumos de livros e usuários um lote de empréstimos inseridos,
+     * agrupando a variação por livro e por usuário. Deve ser chamado dentro da
+     * transação que alterou a tabela {@code loan}.
+     *
+     * @param connection conexão com a transação aberta
+     * @param loans      empréstimos inseridos
+     * @throws SQLException caso ocorra um erro ao atualizar os resumos
+     */
+    static void adjustLoanCounts(Connection connection, List<Loan> loans) throws SQLException {
+        Map<Long, int[]> bookDeltas = new HashMap<>();
+        Map<Long, int[]> userDeltas = new HashMap<>();
+        for (Loan loan : loans) {
+            int active = Boolean.TRUE.equals(loan.getIsReturned()) ? 0 : 1;
+            int[] book = bookDeltas.computeIfAbsent(loan.getBookId(), id -> new int[2]);
+            book[0]++;
+            book[1] += active;
+            int[] user = userDeltas.computeIfAbsent(loan.getUserId(), id -> new int[2]);
+            user[0]++;
+            user[1] += active;
+        }
+        adjustLoanCounts(connection, ADJUST_BOOK_STATS, bookDeltas);
+        adjustLoanCounts(connection, ADJUST_USER_STATS, userDeltas);
+    }
+
+    /**
+     * Aplica de uma vez a variação dos empréstimos em aberto de vários livros
+     * e usuários, em lote. Deve ser chamado dentro da transação que alterou a
+     * tabela {@code loan}.
+     *
+     * @param connection  conexão com a transação aberta
+     * @param bookDeltas  variação dos empréstimos em aberto por id de livro
+     * @param userDeltas  variação dos empréstimos em aberto por id de usuário
+     * @throws SQLException caso ocorra um erro ao atualizar os resumos
+     */
+    static void adjustActiveLoans(Connection connection, Map<Long, Integer> bookDeltas,
+            Map<Long, Integer> userDeltas) throws SQLException {
+        adjustActiveLoans(connection, ADJUST_BOOK_STATS, bookDeltas);
+        adjustActiveLoans(connection, ADJUST_USER_STATS, userDeltas);
+    }
+
+    private static void adjustLoanCounts(Connection connection, String sql, Map<Long, int[]> deltas)
+            throws SQLException {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (Map.Entry<Long, int[]> entry : deltas.entrySet()) {
+                ps.setLong(1, entry.getKey());
+                ps.setInt(2, entry.getValue()[0]);
+                ps.setInt(3, entry.getValue()[1]);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static void adjustActiveLoans(Connection connection, String sql, Map<Long, Integer> deltas)
+            throws SQLException {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (Map.Entry<Long, Integer> entry : deltas.entrySet()) {
+                ps.setLong(1, entry.getKey());
+                ps.setInt(2, 0);
+                ps.setInt(3, entry.getValue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+}
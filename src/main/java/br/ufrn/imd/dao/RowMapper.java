@@ -0,0 +1,41 @@
+package br.ufrn.imd.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Converte a linha atual de um {@link ResultSet} em um objeto.
+ * <p>
+ * Quem percorre um resultado chama {@link #bind(ResultSet)} uma vez, depois
+ * da consulta, e usa o conversor devolvido em todas as linhas. Conversores
+ * compilados, como os de {@link CompiledRowMapper}, resolvem nesse momento os
+ * índices das colunas; os demais devolvem a si mesmos.
+ *
+ * @param <T> tipo do objeto gerado
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Converte a linha atual do resultado.
+     *
+     * @param rs resultado posicionado na linha a ser convertida
+     * @throws SQLException caso ocorra um erro ao ler as colunas
+     * @return objeto gerado a partir da linha
+     */
+    T mapRow(ResultSet rs) throws SQLException;
+
+    /**
+     * Prepara o conversor para as linhas de um resultado.
+     *
+     * @param rs resultado que será percorrido
+     * @throws SQLException caso uma coluna esperada não exista no resultado
+     * @return conversor a ser usado em todas as linhas deste resultado
+     */
+    default RowMapper<T> bind(ResultSet rs) throws SQLException {
+        return this;
+    }
+
+}
@@ -4,9 +4,24 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import javax.sql.DataSource;
+
+import br.ufrn.imd.cache.CacheConfig;
+import br.ufrn.imd.cache.CacheStats;
+import br.ufrn.imd.cache.EntityCache;
+import br.ufrn.imd.database.DatabaseConnection;
 import br.ufrn.imd.exception.DatabaseException;
+import br.ufrn.imd.exception.QueryCancelledException;
+import br.ufrn.imd.journal.EntityType;
+import br.ufrn.imd.journal.MutationJournal;
+import br.ufrn.imd.journal.MutationType;
+import br.ufrn.imd.logging.Logger;
 import br.ufrn.imd.model.User;
 
 /**
@@ -16,12 +31,56 @@ import br.ufrn.imd.model.User;
  * @autor Gabrielly Freire
  * @version 1.0
  */
-public class UserDAO {
+public class UserDAO implements UserRepository {
+
+    private static final Logger LOG = Logger.getLogger(UserDAO.class);
+
+    private final DataSource dataSource;
+    private volatile EntityCache<Long, User> cache;
+    private volatile MutationJournal journal;
+
+    public UserDAO() {
+        this(DatabaseConnection.getDataSource());
+    }
+
+    public UserDAO(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Habilita o cache de leitura de usuários por id. Escritas feitas por este DAO
+     * invalidam as entradas alteradas.
+     * 
+     * @param config configuração do cache
+     */
+    public void enableCache(CacheConfig config) {
+        this.cache = new EntityCache<>(config, user -> user.toBuilder().build());
+    }
 
-    private final Connection connection;
+    /**
+     * Desabilita o cache de leitura de usuários.
+     */
+    public void disableCache() {
+        this.cache = null;
+    }
+
+    /**
+     * Retorna as estatísticas do cache de usuários.
+     * 
+     * @return estatísticas do cache, ou null caso esteja desabilitado
+     */
+    public CacheStats getCacheStats() {
+        EntityCache<Long, User> current = cache;
+        return current != null ? current.getStats() : null;
+    }
 
-    public UserDAO(Connection connection) {
-        this.connection = connection;
+    /**
+     * Passa a registrar no journal as escritas feitas por este DAO.
+     * 
+     * @param journal journal das mutações, ou null para deixar de registrar
+     */
+    public void setJournal(MutationJournal journal) {
+        this.journal = journal;
     }
 
     /**
@@ -31,12 +90,16 @@ public class UserDAO {
      * @throws SQLException caso ocorra um erro ao inserir o usuário ou ao fechar os
      *                      recursos
      */
+    @Override
     public void create(User user) {
+        Connection connection = null;
         PreparedStatement ps = null;
 
         try {
+            connection = dataSource.getConnection();
             ps = connection.prepareStatement(
-                    "INSERT INTO user (name, email, phone_number) VALUES (?, ?, ?)");
+                    "INSERT INTO user (name, email, phone_number) VALUES (?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS);
 
             ps.setString(1, user.getName());
             ps.setString(2, user.getEmail());
@@ -45,26 +108,100 @@ public class UserDAO {
             int rowsAffected = ps.executeUpdate();
 
             if (rowsAffected > 0) {
-                System.out.println("Usuário inserido com sucesso!");
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        user.setId(keys.getLong(1));
+                    }
+                }
+                journal(MutationType.CREATE, user);
+                LOG.debug("Usuário inserido com sucesso!");
             } else {
-                System.out.println("Nenhum usuário foi inserido.");
+                LOG.debug("Nenhum usuário foi inserido.");
                 throw new DatabaseException("Nenhum usuário foi inserido.");
             }
         } catch (SQLException e) {
-            System.err.println("Erro ao inserir usuário: " + e.getMessage());
+            LOG.error("Erro ao inserir usuário", e);
             throw new DatabaseException("Erro ao inserir usuário: " + e.getMessage());
         } finally {
             try {
                 if (ps != null) {
                     ps.close();
                 }
+                if (connection != null) {
+                    connection.close();
+                }
             } catch (SQLException e) {
-                System.err.println("Erro ao fechar o PreparedStatement: " + e.getMessage());
+                LOG.error("Erro ao fechar o PreparedStatement", e);
                 throw new DatabaseException("Erro ao fechar o PreparedStatement: " + e.getMessage());
             }
         }
     }
 
+    /**
+     * Insere vários usuários mantendo os ids informados, em uma única
+     * transação com os INSERTs em lote
+     * 
+     * @param users usuários a serem inseridos, com id
+     * @throws DatabaseException caso ocorra um erro ao inserir os usuários
+     * @return quantidade de usuários inseridos
+     */
+    @Override
+    public int restoreAll(List<User> users) {
+        Connection connection = null;
+        PreparedStatement ps = null;
+
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+            ps = connection.prepareStatement("INSERT INTO user (id, name, email, phone_number) VALUES (?, ?, ?, ?)");
+
+            for (User user : users) {
+                ps.setLong(1, user.getId());
+                ps.setString(2, user.getName());
+                ps.setString(3, user.getEmail());
+                ps.setString(4, user.getPhoneNumber());
+                ps.addBatch();
+            }
+
+            ps.executeBatch();
+            connection.commit();
+            for (User user : users) {
+                journal(MutationType.CREATE, user);
+            }
+
+            return users.size();
+        } catch (SQLException e) {
+            rollback(connection);
+            LOG.error("Erro ao restaurar lote de usuários", e);
+            throw new DatabaseException("Erro ao restaurar lote de usuários: " + e.getMessage());
+        } finally {
+            try {
+                if (ps != null) {
+                    ps.close();
+                }
+                if (connection != null) {
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                LOG.error("Erro ao fechar o PreparedStatement", e);
+                throw new DatabaseException("Erro ao fechar o PreparedStatement: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Busca um usuário pelo id, passando pelo cache quando ele estiver habilitado
+     * 
+     * @param id id do usuário a ser buscado
+     * @throws DatabaseException caso ocorra um erro ao buscar o usuário
+     * @return usuário encontrado ou null caso não encontre
+     */
+    @Override
+    public User findById(Long id) {
+        EntityCache<Long, User> current = cache;
+        return current != null ? current.get(id, this::loadById) : loadById(id);
+    }
+
     /**
      * Busca um usuário por id no banco de dados
      * 
@@ -73,30 +210,26 @@ public class UserDAO {
      *                      recursos
      * @return usuário encontrado ou null caso não encontre
      */
-    public User findById(Long id) {
+    private User loadById(Long id) {
+        Connection connection = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
 
         try {
+            connection = dataSource.getConnection();
             ps = connection.prepareStatement("SELECT * FROM user WHERE id = ?");
             ps.setLong(1, id);
 
             rs = ps.executeQuery();
 
             if (rs.next()) {
-                User user = new User();
-                user.setId(rs.getLong("id"));
-                user.setName(rs.getString("name"));
-                user.setEmail(rs.getString("email"));
-                user.setPhoneNumber(rs.getString("phone_number"));
-
-                return user;
+                return UserRowMapper.INSTANCE.mapRow(rs);
             } else {
-                System.out.println("Nenhum usuário encontrado.");
+                LOG.debug("Nenhum usuário encontrado.");
                 return null;
             }
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar usuário: " + e.getMessage());
+            LOG.error("Erro ao buscar usuário", e);
             throw new DatabaseException("Erro ao buscar usuário: " + e.getMessage());
         } finally {
             try {
@@ -106,13 +239,30 @@ public class UserDAO {
                 if (ps != null) {
                     ps.close();
                 }
+                if (connection != null) {
+                    connection.close();
+                }
             } catch (SQLException e) {
-                System.err.println("Erro ao fechar recursos: " + e.getMessage());
+                LOG.error("Erro ao fechar recursos", e);
                 throw new DatabaseException("Erro ao fechar recursos: " + e.getMessage());
             }
         }
     }
 
+    /**
+     * Busca um usuário pelo e-mail, que é único no banco de dados
+     * 
+     * @param email e-mail do usuário
+     * @throws DatabaseException caso ocorra um erro ao buscar o usuário
+     * @return usuário encontrado ou null caso não encontre
+     */
+    @Override
+    public User findByEmail(String email) {
+        List<User> found = JdbcQueries.queryList(dataSource, "SELECT * FROM user WHERE email = ? LIMIT 1",
+                UserRowMapper.INSTANCE, email);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
     /**
      * Busca todos os usuários no banco de dados
      * 
@@ -121,26 +271,25 @@ public class UserDAO {
      *                      recursos
      * @return lista de usuários encontrados
      */
+    @Override
     public List<User> findAll() {
+        Connection connection = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
+        List<User> users = new ArrayList<>();
 
         try {
+            connection = dataSource.getConnection();
             ps = connection.prepareStatement("SELECT * FROM user");
 
             rs = ps.executeQuery();
 
+            RowMapper<User> mapper = UserRowMapper.INSTANCE.bind(rs);
             while (rs.next()) {
-                User user = new User();
-                user.setId(rs.getLong("id"));
-                user.setName(rs.getString("name"));
-                user.setEmail(rs.getString("email"));
-                user.setPhoneNumber(rs.getString("phone_number"));
-
-                System.out.println(user);
+                users.add(mapper.mapRow(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar usuários: " + e.getMessage());
+            LOG.error("Erro ao buscar usuários", e);
             throw new DatabaseException("Erro ao buscar usuários: " + e.getMessage());
         } finally {
             try {
@@ -150,12 +299,42 @@ public class UserDAO {
                 if (ps != null) {
                     ps.close();
                 }
+                if (connection != null) {
+                    connection.close();
+                }
             } catch (SQLException e) {
-                System.err.println("Erro ao fechar recursos: " + e.getMessage());
+                LOG.error("Erro ao fechar recursos", e);
                 throw new DatabaseException("Erro ao fechar recursos: " + e.getMessage());
             }
         }
-        return null;
+        return users;
+    }
+
+    /**
+     * Percorre todos os usuários do banco de dados sem carregá-los de uma vez em
+     * memória. O stream deve ser fechado para liberar a conexão.
+     * 
+     * @throws DatabaseException caso ocorra um erro ao buscar os usuários
+     * @return stream preguiçoso de usuários
+     */
+    @Override
+    public Stream<User> streamAll() {
+        return JdbcStreams.stream(dataSource, "SELECT * FROM user", JdbcStreams.DEFAULT_FETCH_SIZE,
+                UserRowMapper.INSTANCE);
+    }
+
+    /**
+     * Executa uma ação para cada usuário do banco de dados, lendo as linhas aos
+     * poucos.
+     * 
+     * @param action ação executada para cada usuário
+     * @throws DatabaseException caso ocorra um erro ao buscar os usuários
+     */
+    @Override
+    public void forEach(Consumer<User> action) {
+        try (Stream<User> users = streamAll()) {
+            users.forEach(action);
+        }
     }
 
     /**
@@ -168,11 +347,15 @@ public class UserDAO {
      * @return lista de usuários encontrados com base na string de busca em nome,
      *         email ou telefone
      */
+    @Override
     public List<User> searchUsers(String query) {
+        Connection connection = null;
         PreparedStatement ps = null;
         ResultSet rs = null;
+        List<User> users = new ArrayList<>();
 
         try {
+            connection = dataSource.getConnection();
             ps = connection
                     .prepareStatement("SELECT * FROM user WHERE name LIKE ? OR email LIKE ? OR phone_number LIKE ?");
             ps.setString(1, "%" + query + "%");
@@ -181,17 +364,12 @@ public class UserDAO {
 
             rs = ps.executeQuery();
 
+            RowMapper<User> mapper = UserRowMapper.INSTANCE.bind(rs);
             while (rs.next()) {
-                User user = new User();
-                user.setId(rs.getLong("id"));
-                user.setName(rs.getString("name"));
-                user.setEmail(rs.getString("email"));
-                user.setPhoneNumber(rs.getString("phone_number"));
-
-                System.out.println(user);
+                users.add(mapper.mapRow(rs));
             }
         } catch (SQLException e) {
-            System.err.println("Erro ao buscar usuários: " + e.getMessage());
+            LOG.error("Erro ao buscar usuários", e);
             throw new DatabaseException("Erro ao buscar usuários: " + e.getMessage());
         } finally {
             try {
@@ -201,12 +379,102 @@ public class UserDAO {
                 if (ps != null) {
                     ps.close();
                 }
+                if (connection != null) {
+                    connection.close();
+                }
             } catch (SQLException e) {
-                System.err.println("Erro ao fechar recursos: " + e.getMessage());
+                LOG.error("Erro ao fechar recursos", e);
                 throw new DatabaseException("Erro ao fechar recursos: " + e.getMessage());
             }
         }
-        return null;
+        return users;
+    }
+
+    /**
+     * Busca uma página de usuários ordenada por id, usando paginação por chave.
+     * 
+     * @param cursor cursor retornado pela página anterior, ou null para a primeira
+     * @param size   quantidade máxima de usuários na página
+     * @throws IllegalArgumentException caso o cursor seja inválido
+     * @throws DatabaseException        caso ocorra um erro ao buscar usuários
+     * @return página de usuários
+     */
+    @Override
+    public Page<User> findPage(String cursor, int size) {
+        return JdbcQueries.queryPage(dataSource, "SELECT * FROM user WHERE id > ? ORDER BY id LIMIT ?",
+                UserRowMapper.INSTANCE, User::getId, cursor, size);
+    }
+
+    /**
+     * Calcula o cursor da página de usuários que começa na posição informada,
+     * percorrendo apenas o índice da chave primária.
+     * 
+     * @param position posição do primeiro usuário da página, a partir de zero
+     * @throws IllegalArgumentException caso a posição seja negativa
+     * @throws DatabaseException        caso ocorra um erro na consulta
+     * @return cursor da página, ou null para a primeira página
+     */
+    @Override
+    public String cursorAt(long position) {
+        return JdbcQueries.queryCursorAt(dataSource, "SELECT id FROM user ORDER BY id LIMIT 1 OFFSET ?", position);
+    }
+
+    /**
+     * Busca uma página de usuários cujo nome, email ou telefone contém o texto de busca, usando paginação por chave.
+     * 
+     * @param query  texto de busca
+     * @param cursor cursor retornado pela página anterior, ou null para a primeira
+     * @param size   quantidade máxima de usuários na página
+     * @param handle controle da busca, ou null para nenhum
+     * @throws IllegalArgumentException caso o cursor seja inválido
+     * @throws QueryCancelledException  caso a busca seja cancelada
+     * @throws DatabaseException        caso ocorra um erro ao buscar usuários ou o tempo limite se esgote
+     * @return página de usuários encontrados
+     */
+    @Override
+    public Page<User> searchUsersPage(String query, String cursor, int size, QueryHandle handle) {
+        String like = "%" + query + "%";
+        return JdbcQueries.queryPage(dataSource, handle,
+                "SELECT * FROM user WHERE (name LIKE ? OR email LIKE ? OR phone_number LIKE ?) AND id > ? ORDER BY id LIMIT ?",
+                UserRowMapper.INSTANCE, User::getId, cursor, size, like, like, like);
+    }
+
+    /**
+     * Conta usuários cadastrados.
+     * 
+     * @throws DatabaseException caso ocorra um erro ao contar usuários
+     * @return quantidade de usuários
+     */
+    @Override
+    public long count() {
+        return JdbcQueries.queryForLong(dataSource, "SELECT COUNT(*) FROM user");
+    }
+
+    /**
+     * Verifica se existe ao menos um usuário cadastrado.
+     * 
+     * @throws DatabaseException caso ocorra um erro na consulta
+     * @return true caso exista algum usuário
+     */
+    @Override
+    public boolean exists() {
+        return JdbcQueries.exists(dataSource, "SELECT 1 FROM user LIMIT 1");
+    }
+
+    /**
+     * Verifica se existe um usuário com o id informado.
+     * Com o cache habilitado, a verificação passa pelo cache.
+     * 
+     * @param id id do usuário
+     * @throws DatabaseException caso ocorra um erro na consulta
+     * @return true caso o usuário exista
+     */
+    @Override
+    public boolean existsById(Long id) {
+        if (cache != null) {
+            return findById(id) != null;
+        }
+        return JdbcQueries.exists(dataSource, "SELECT 1 FROM user WHERE id = ?", id);
     }
 
     /**
@@ -219,10 +487,13 @@ public class UserDAO {
      *                      os
      *                      recursos
      */
+    @Override
     public void update(Long id, User user) {
+        Connection connection = null;
         PreparedStatement ps = null;
 
         try {
+            connection = dataSource.getConnection();
             ps = connection.prepareStatement(
                     "UPDATE user SET name = ?, email = ?, phone_number = ? WHERE id = ?");
 
@@ -234,21 +505,26 @@ public class UserDAO {
             int rowsAffected = ps.executeUpdate();
 
             if (rowsAffected > 0) {
-                System.out.println("Usuário atualizado com sucesso!");
+                invalidate(id);
+                journal(MutationType.UPDATE, user.toBuilder().id(id).build());
+                LOG.debug("Usuário atualizado com sucesso!");
             } else {
-                System.out.println("Nenhum usuário foi atualizado.");
+                LOG.debug("Nenhum usuário foi atualizado.");
                 throw new DatabaseException("Nenhum usuário foi atualizado.");
             }
         } catch (SQLException e) {
-            System.err.println("Erro ao atualizar usuário: " + e.getMessage());
+            LOG.error("Erro ao atualizar usuário", e);
             throw new DatabaseException("Erro ao atualizar usuário: " + e.getMessage());
         } finally {
             try {
                 if (ps != null) {
                     ps.close();
                 }
+                if (connection != null) {
+                    connection.close();
+                }
             } catch (SQLException e) {
-                System.err.println("Erro ao fechar o PreparedStatement: " + e.getMessage());
+                LOG.error("Erro ao fechar o PreparedStatement", e);
                 throw new DatabaseException("Erro ao fechar o PreparedStatement: " + e.getMessage());
             }
         }
@@ -261,35 +537,100 @@ public class UserDAO {
      * @throws SQLException caso ocorra um erro ao deletar o usuário ou ao fechar os
      *                      recursos
      */
+    @Override
     public void delete(Long id) {
+        Connection connection = null;
         PreparedStatement ps = null;
 
         try {
+            connection = dataSource.getConnection();
             ps = connection.prepareStatement("DELETE FROM user WHERE id = ?");
             ps.setLong(1, id);
 
             int rowsAffected = ps.executeUpdate();
 
             if (rowsAffected > 0) {
-                System.out.println("Usuário deletado com sucesso!");
+                invalidate(id);
+                journalDelete(id);
+                LOG.debug("Usuário deletado com sucesso!");
             } else {
-                System.out.println("Nenhum usuário foi deletado.");
+                LOG.debug("Nenhum usuário foi deletado.");
                 throw new DatabaseException("Nenhum usuário foi deletado.");
             }
 
         } catch (SQLException e) {
-            System.err.println("Erro ao deletar usuário: " + e.getMessage());
+            LOG.error("Erro ao deletar usuário", e);
             throw new DatabaseException("Erro ao deletar usuário: " + e.getMessage());
         } finally {
             try {
                 if (ps != null) {
                     ps.close();
                 }
+                if (connection != null) {
+                    connection.close();
+                }
             } catch (SQLException e) {
-                System.err.println("Erro ao fechar o PreparedStatement: " + e.getMessage());
+                LOG.error("Erro ao fechar o PreparedStatement", e);
                 throw new DatabaseException("Erro ao fechar o PreparedStatement: " + e.getMessage());
             }
         }
     }
 
+
+    /**
+     * Registra uma escrita no journal, quando houver um. A escrita já foi
+     * confirmada no banco, então uma falha do journal é apenas registrada no log.
+     * 
+     * @param mutation tipo da mutação
+     * @param user     usuário com o id e os campos gravados
+     */
+    private void journal(MutationType mutation, User user) {
+        MutationJournal current = journal;
+        if (current != null) {
+            try {
+                current.append(mutation, user);
+            } catch (RuntimeException e) {
+                LOG.error("Erro ao registrar usuário no journal", e);
+            }
+        }
+    }
+
+    private void journalDelete(Long id) {
+        MutationJournal current = journal;
+        if (current != null) {
+            try {
+                current.appendDelete(EntityType.USER, id);
+            } catch (RuntimeException e) {
+                LOG.error("Erro ao registrar remoção de usuário no journal", e);
+            }
+        }
+    }
+
+    /**
+     * Desfaz a transação corrente, ignorando erros.
+     * 
+     * @param connection conexão com a transação aberta
+     */
+    private void rollback(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.rollback();
+            } catch (SQLException e) {
+                LOG.error("Erro ao desfazer transação", e);
+            }
+        }
+    }
+
+    /**
+     * Remove o usuário do cache depois de uma escrita.
+     * 
+     * @param id id do usuário alterado
+     */
+    private void invalidate(Long id) {
+        EntityCache<Long, User> current = cache;
+        if (current != null) {
+            current.invalidate(id);
+        }
+    }
+
 }
@@ -0,0 +1,194 @@
+package br.ufrn.imd.dao;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import br.ufrn.imd.exception.DatabaseException;
+import br.ufrn.imd.exception.QueryCancelledException;
+import br.ufrn.imd.model.User;
+
+/**
+ * Operações de armazenamento de usuários, independentes do mecanismo usado.
+ * <p>
+ * {@link UserDAO} implementa o repositório sobre JDBC; outros mecanismos são
+ * fornecidos por um {@link br.ufrn.imd.storage.StorageEngine}. Falhas do
+ * mecanismo são lançadas como {@link DatabaseException}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public interface UserRepository {
+
+    /**
+     * Insere um usuário, preenchendo o id gerado no próprio usuário.
+     *
+     * @param user usuário a ser inserido
+     * @throws DatabaseException caso ocorra um erro ao inserir o usuário, como
+     *                           um e-mail já cadastrado
+     */
+    void create(User user);
+
+    /**
+     * Insere vários usuários mantendo os ids informados, como na restauração
+     * de um snapshot. Em caso de erro nenhum usuário do lote é inserido.
+     *
+     * @param users usuários a serem inseridos, com id
+     * @throws DatabaseException caso ocorra um erro ao inserir os usuários,
+     *                           como um id ou e-mail já cadastrado
+     * @return quantidade de usuários inseridos
+     */
+    int restoreAll(List<User> users);
+
+    /**
+     * Busca um usuário pelo id.
+     *
+     * @param id id do usuário
+     * @throws DatabaseException caso ocorra um erro ao buscar o usuário
+     * @return usuário encontrado ou null caso não encontre
+     */
+    User findById(Long id);
+
+    /**
+     * Busca um usuário pelo e-mail.
+     *
+     * @param email e-mail do usuário
+     * @throws DatabaseException caso ocorra um erro ao buscar o usuário
+     * @return usuário encontrado ou null caso não encontre
+     */
+    User findByEmail(String email);
+
+    /**
+     * Busca todos os usuários.
+     *
+     * @throws DatabaseException caso ocorra um erro ao buscar os usuários
+     * @return lista de usuários
+     */
+    List<User> findAll();
+
+    /**
+     * Percorre todos os usuários sem carregá-los de uma vez em memória. O
+     * stream deve ser fechado.
+     *
+     * @throws DatabaseException caso ocorra um erro ao buscar os usuários
+     * @return stream de usuários
+     */
+    Stream<User> streamAll();
+
+    /**
+     * Executa uma ação para cada usuário.
+     *
+     * @param action ação executada para cada usuário
+     * @throws DatabaseException caso ocorra um erro ao buscar os usuários
+     */
+    void forEach(Consumer<User> action);
+
+    /**
+     * Busca usuários cujo nome, e-mail ou telefone contém o texto de busca.
+     *
+     * @param query texto de busca
+     * @throws DatabaseException caso ocorra um erro ao buscar os usuários
+     * @return lista de usuários encontrados
+     */
+    List<User> searchUsers(String query);
+
+    /**
+     * Busca uma página de usuários ordenada por id.
+     *
+     * @param cursor cursor retornado pela página anterior, ou null para a primeira
+     * @param size   quantidade máxima de usuários na página
+     * @throws IllegalArgumentException caso o cursor seja inválido
+     * @throws DatabaseException        caso ocorra um erro ao buscar os usuários
+     * @return página de usuários
+     */
+    Page<User> findPage(String cursor, int size);
+
+    /**
+     * Calcula o cursor da página de usuários, ordenada por id, que começa na
+     * posição informada, para saltar a uma página distante sem percorrer as
+     * anteriores.
+     *
+     * @param position posição do primeiro usuário da página, a partir de zero
+     * @throws IllegalArgumentException caso a posição seja negativa
+     * @throws DatabaseException        caso ocorra um erro na consulta
+     * @return cursor para {@link #findPage(String, int)}, null para a primeira
+     *         página ou um cursor de página vazia caso a posição passe do fim
+     */
+    String cursorAt(long position);
+
+    /**
+     * Busca uma página de usuários cujo nome, e-mail ou telefone contém o texto
+     * de busca.
+     *
+     * @param query  texto de busca
+     * @param cursor cursor retornado pela página anterior, ou null para a primeira
+     * @param size   quantidade máxima de usuários na página
+     * @throws IllegalArgumentException caso o cursor seja inválido
+     * @throws DatabaseException        caso ocorra um erro ao buscar os usuários
+     * @return página de usuários encontrados
+     */
+    default Page<User> searchUsersPage(String query, String cursor, int size) {
+        return searchUsersPage(query, cursor, size, null);
+    }
+
+    /**
+     * Busca uma página de usuários cujo nome, e-mail ou telefone contém o
+     * texto de busca, sob o controle de um {@link QueryHandle}, que pode
+     * cancelar a busca de outra thread e limita o seu tempo.
+     *
+     * @param query  texto de busca
+     * @param cursor cursor retornado pela página anterior, ou null para a primeira
+     * @param size   quantidade máxima de usuários na página
+     * @param handle controle da busca, ou null para nenhum
+     * @throws IllegalArgumentException caso o cursor seja inválido
+     * @throws QueryCancelledException  caso a busca seja cancelada
+     * @throws DatabaseException        caso ocorra um erro ao buscar os usuários
+     *                                  ou o tempo limite se esgote
+     * @return página de usuários encontrados
+     */
+    Page<User> searchUsersPage(String query, String cursor, int size, QueryHandle handle);
+
+    /**
+     * Conta usuários cadastrados.
+     *
+     * @throws DatabaseException caso ocorra um erro ao contar os usuários
+     * @return quantidade de usuários
+     */
+    long count();
+
+    /**
+     * Verifica se existe ao menos um usuário cadastrado.
+     *
+     * @throws DatabaseException caso ocorra um erro na consulta
+     * @return true caso exista algum usuário
+     */
+    boolean exists();
+
+    /**
+     * Verifica se existe um usuário com o id informado.
+     *
+     * @param id id do usuário
+     * @throws DatabaseException caso ocorra um erro na consulta
+     * @return true caso o usuário exista
+     */
+    boolean existsById(Long id);
+
+    /**
+     * Atualiza um usuário.
+     *
+     * @param id   id do usuário a ser atualizado
+     * @param user usuário com os novos dados
+     * @throws DatabaseException caso o usuário não exista ou ocorra um erro ao
+     *                           atualizá-lo
+     */
+    void update(Long id, User user);
+
+    /**
+     * Remove um usuário.
+     *
+     * @param id id do usuário a ser removido
+     * @throws DatabaseException caso o usuário não exista, tenha empréstimos ou
+     *                           ocorra um erro ao removê-lo
+     */
+    void delete(Long id);
+}
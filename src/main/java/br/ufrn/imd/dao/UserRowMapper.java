@@ -0,0 +1,37 @@
+package br.ufrn.imd.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import br.ufrn.imd.model.User;
+
+/**
+ * Conversor compilado das linhas da tabela {@code user}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+final class UserRowMapper extends CompiledRowMapper<User> {
+
+    static final UserRowMapper INSTANCE = new UserRowMapper();
+
+    private UserRowMapper() {
+    }
+
+    @Override
+    public RowMapper<User> bind(ResultSet rs) throws SQLException {
+        int id = rs.findColumn("id");
+        int name = rs.findColumn("name");
+        int email = rs.findColumn("email");
+        int phoneNumber = rs.findColumn("phone_number");
+
+        return row -> {
+            User user = new User();
+            user.setId(row.getLong(id));
+            user.setName(row.getString(name));
+            user.setEmail(row.getString(email));
+            user.setPhoneNumber(row.getString(phoneNumber));
+            return user;
+        };
+    }
+}
@@ -0,0 +1,344 @@
+package br.ufrn.imd.database;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.sql.DataSource;
+
+import br.ufrn.imd.logging.Logger;
+
+/**
+ * Pool de conexões com o banco de dados seguro para uso concorrente.
+ * <p>
+ * Cada chamada a {@link #getConnection()} empresta uma conexão exclusiva à
+ * thread chamadora, que deve devolvê-la com {@link Connection#close()}. O pool
+ * respeita os limites mínimo e máximo da {@link PoolConfig}, valida conexões no
+ * empréstimo, descarta conexões ociosas e detecta conexões não devolvidas.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class ConnectionPool implements DataSource, AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(ConnectionPool.class);
+
+    private final PoolConfig config;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> inUse = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private final SlowQueryLog slowQueryLog;
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowTimeoutCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder validationFailureCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LongAdder statementCacheEvictions = new LongAdder();
+
+    private volatile boolean closed;
+
+    public ConnectionPool(PoolConfig config) {
+        config.validate();
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+        this.slowQueryLog = config.getSlowQueryLog() != null ? new SlowQueryLog(config.getSlowQueryLog()) : null;
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long interval = config.getHousekeepingIntervalMillis();
+        housekeeper.execute(this::fillToMinimum);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Empresta uma conexão do pool, aguardando no máximo o tempo configurado.
+     *
+     * @throws SQLException caso o pool esteja fechado, o tempo de espera se
+     *                      esgote ou não seja possível abrir uma nova conexão.
+     * @return conexão exclusiva da thread chamadora até ser fechada.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("O pool de conexões está fechado.");
+        }
+
+        try {
+            if (!permits.tryAcquire(config.getBorrowTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                borrowTimeoutCount.increment();
+                throw new SQLTransientConnectionException("Tempo esgotado aguardando uma conexão livre ("
+                        + config.getBorrowTimeoutMillis() + " ms).");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido enquanto aguardava uma conexão.", e);
+        }
+
+        try {
+            PooledConnection pooled = takeIdleOrCreate();
+            inUse.add(pooled);
+            borrowCount.increment();
+            return pooled.borrow(config.getLeakDetectionThresholdMillis() > 0);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Devolve uma conexão ao pool. Chamado pelo proxy ao ser fechado.
+     *
+     * @param pooled conexão devolvida.
+     */
+    void release(PooledConnection pooled) {
+        inUse.remove(pooled);
+        try {
+            if (closed || pooled.isBroken() || !pooled.reset()) {
+                destroy(pooled);
+            } else {
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Retorna as estatísticas atuais do pool.
+     *
+     * @return fotografia das estatísticas.
+     */
+    public PoolStats getStats() {
+        return new PoolStats(
+                totalConnections.get(),
+                inUse.size(),
+                idle.size(),
+                permits.getQueueLength(),
+                borrowCount.sum(),
+                borrowTimeoutCount.sum(),
+                createdCount.sum(),
+                destroyedCount.sum(),
+                validationFailureCount.sum(),
+                leakCount.sum(),
+                statementCacheHits.sum(),
+                statementCacheMisses.sum(),
+                statementCacheEvictions.sum());
+    }
+
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Retorna o registro de consultas lentas do pool.
+     *
+     * @return registro de consultas lentas, ou null caso esteja desativado.
+     */
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Fecha o pool e todas as conexões ociosas. Conexões emprestadas são
+     * encerradas quando forem devolvidas.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        housekeeper.shutdownNow();
+
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            destroy(pooled);
+        }
+        return create();
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.getLastUsedAt() > config.getIdleTimeoutMillis()) {
+            return false;
+        }
+        try {
+            boolean valid = config.isValidateOnBorrow()
+                    ? pooled.getPhysical().isValid(config.getValidationTimeoutSeconds())
+                    : !pooled.getPhysical().isClosed();
+            if (!valid) {
+                validationFailureCount.increment();
+            }
+            return valid;
+        } catch (SQLException e) {
+            validationFailureCount.increment();
+            return false;
+        }
+    }
+
+    private PooledConnection create() throws SQLException {
+        Properties properties = new Properties();
+        if (config.getUsername() != null) {
+            properties.setProperty("user", config.getUsername());
+        }
+        if (config.getPassword() != null) {
+            properties.setProperty("password", config.getPassword());
+        }
+        if (config.isServerPreparedStatements()) {
+            properties.setProperty("useServerPrepStmts", "true");
+        }
+
+        Connection physical = DriverManager.getConnection(config.getUrl(), properties);
+        totalConnections.incrementAndGet();
+        createdCount.increment();
+
+        StatementCache statementCache = config.getStatementCacheSize() > 0
+                ? new StatementCache(config.getStatementCacheSize(),
+                        statementCacheHits, statementCacheMisses, statementCacheEvictions)
+                : null;
+        return new PooledConnection(this, physical, statementCache, slowQueryLog);
+    }
+
+    private void destroy(PooledConnection pooled) {
+        pooled.closePhysical();
+        totalConnections.decrementAndGet();
+        destroyedCount.increment();
+    }
+
+    /**
+     * Rotina periódica: descarta conexões ociosas, repõe o mínimo, procura
+     * conexões vazadas e registra o resumo das consultas lentas.
+     */
+    private void housekeep() {
+        try {
+            evictIdle();
+            fillToMinimum();
+            detectLeaks();
+            if (slowQueryLog != null) {
+                slowQueryLog.summarizeIfDue();
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Erro na manutenção do pool de conexões", e);
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && totalConnections.get() > config.getMinSize()) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.getLastUsedAt() > config.getIdleTimeoutMillis() && idle.remove(pooled)) {
+                destroy(pooled);
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && totalConnections.get() < config.getMinSize() && permits.tryAcquire()) {
+            try {
+                idle.offerLast(create());
+            } catch (SQLException e) {
+                LOG.error("Erro ao abrir conexão do pool", e);
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        long threshold = config.getLeakDetectionThresholdMillis();
+        if (threshold <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : inUse) {
+            if (!pooled.isLeakReported() && now - pooled.getBorrowedAt() > threshold) {
+                pooled.markLeakReported();
+                leakCount.increment();
+                LOG.warn("Possível vazamento de conexão: emprestada há {} ms e não devolvida.",
+                        now - pooled.getBorrowedAt(), pooled.getBorrowTrace());
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("O pool utiliza as credenciais da sua configuração.");
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        // não utilizado
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        DriverManager.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return DriverManager.getLoginTimeout();
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("O pool não implementa " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
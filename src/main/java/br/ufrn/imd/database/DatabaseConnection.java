@@ -1,7 +1,6 @@
 package br.ufrn.imd.database;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -16,35 +15,87 @@ import br.ufrn.imd.exception.DatabaseException;
  */
 public class DatabaseConnection {
 
-    private static Connection conn = null;
+    /**
+     * Propriedade de sistema que ativa o registro de consultas lentas no pool
+     * padrão. Desativado por padrão, pois cronometra todos os statements.
+     */
+    public static final String SLOW_QUERY_LOG_PROPERTY = "library.database.slowQueryLog";
+
+    private static volatile ConnectionPool pool = null;
+    private static PoolConfig config = defaultConfig();
+
+    /**
+     * Esse método é responsável por definir a configuração do pool de conexões.
+     * Deve ser chamado antes do primeiro uso do pool.
+     * @param poolConfig configuração do pool.
+     * @throws IllegalStateException caso o pool já tenha sido criado.
+     */
+    public static synchronized void configure(PoolConfig poolConfig) {
+        if (pool != null) {
+            throw new IllegalStateException("O pool de conexões já foi inicializado.");
+        }
+        config = poolConfig;
+    }
+
+    /**
+     * Esse método é responsável por retornar o pool de conexões com o banco de dados,
+     * criando-o na primeira chamada.
+     * @return pool de conexões compartilhado.
+     */
+    public static ConnectionPool getDataSource() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseConnection.class) {
+                current = pool;
+                if (current == null) {
+                    current = new ConnectionPool(config);
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Esse método é responsável por retornar as estatísticas do pool sem criá-lo.
+     * @return estatísticas do pool, ou null caso ele ainda não tenha sido criado.
+     */
+    public static PoolStats getPoolStats() {
+        ConnectionPool current = pool;
+        return current != null ? current.getStats() : null;
+    }
 
     /**
-     * Esse método é responsável por criar uma conexão com o banco de dados.
+     * Esse método é responsável por emprestar uma conexão do pool. A conexão
+     * deve ser fechada pelo chamador para ser devolvida ao pool.
      * @throws DatabaseException caso ocorra um erro ao tentar se conectar com o banco de dados.
      * @return
      */
     public static Connection getConnection() {
-        if (conn == null) {
-            try {
-                // Credenciais para conexão com o banco de dados
-                String url = "jdbc:mysql://localhost:3306/library_db";
-                String user = "root";
-                String password = "Password123#@!";
-
-                conn = DriverManager.getConnection(url, user, password);
-            } catch (SQLException e) {
-                throw new DatabaseException(e.getMessage());
-            }
+        try {
+            return getDataSource().getConnection();
+        } catch (SQLException e) {
+            throw new DatabaseException(e.getMessage());
         }
-        return conn;
     }
 
     /**
-     * Esse método é responsável por fechar a conexão com o banco de dados.
-     * @throws DatabaseException caso ocorra um erro ao tentar fechar a conexão com o banco de dados.
+     * Esse método é responsável por fechar o pool e as conexões com o banco de dados.
      * @return
      */
-    public static void closeConnection() {
+    public static synchronized void closeConnection() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
+
+    /**
+     * Esse método é responsável por devolver uma conexão emprestada ao pool.
+     * @throws DatabaseException caso ocorra um erro ao tentar devolver a conexão.
+     * @param conn
+     */
+    public static void closeConnection(Connection conn) {
         if (conn != null) {
             try {
                 conn.close();
@@ -53,6 +104,17 @@ public class DatabaseConnection {
             }
         }
     }
+
+    private static PoolConfig defaultConfig() {
+        // Credenciais para conexão com o banco de dados
+        return PoolConfig.builder()
+                .url("jdbc:mysql://localhost:3306/library_db?useCursorFetch=true")
+                .username("root")
+                .password("Password123#@!")
+                .serverPreparedStatements(true)
+                .slowQueryLog(Boolean.getBoolean(SLOW_QUERY_LOG_PROPERTY) ? SlowQueryConfig.builder().build() : null)
+                .build();
+    }
     
     /**
      * Esse método é responsável por fechar um Statement (instrução SQL).
@@ -0,0 +1,99 @@
+package br.ufrn.imd.database;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Configuração do pool de conexões com o banco de dados.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Getter
+@Builder(toBuilder = true)
+@ToString(exclude = "password")
+public class PoolConfig {
+
+    private final String url;
+    private final String username;
+    private final String password;
+
+    /** Quantidade mínima de conexões mantidas abertas. */
+    @Builder.Default
+    private final int minSize = 2;
+
+    /** Quantidade máxima de conexões abertas ao mesmo tempo. */
+    @Builder.Default
+    private final int maxSize = 10;
+
+    /** Tempo máximo de espera por uma conexão livre, em milissegundos. */
+    @Builder.Default
+    private final long borrowTimeoutMillis = 30_000;
+
+    /** Tempo que uma conexão pode ficar ociosa antes de ser descartada, em milissegundos. */
+    @Builder.Default
+    private final long idleTimeoutMillis = 600_000;
+
+    /** Intervalo entre as execuções da rotina de manutenção do pool, em milissegundos. */
+    @Builder.Default
+    private final long housekeepingIntervalMillis = 30_000;
+
+    /** Indica se a conexão deve ser validada antes de ser entregue. */
+    @Builder.Default
+    private final boolean validateOnBorrow = true;
+
+    /** Tempo máximo da validação de uma conexão, em segundos. */
+    @Builder.Default
+    private final int validationTimeoutSeconds = 2;
+
+    /**
+     * Tempo a partir do qual uma conexão emprestada e não devolvida é
+     * considerada vazada, em milissegundos. Zero desativa a detecção.
+     */
+    @Builder.Default
+    private final long leakDetectionThresholdMillis = 0;
+
+    /**
+     * Quantidade máxima de prepared statements mantidos em cache por conexão.
+     * Zero desativa o cache.
+     */
+    @Builder.Default
+    private final int statementCacheSize = 64;
+
+    /**
+     * Indica se o driver deve preparar os statements no servidor
+     * ({@code useServerPrepStmts} do MySQL), evitando o parse a cada execução.
+     */
+    @Builder.Default
+    private final boolean serverPreparedStatements = false;
+
+    /**
+     * Configuração do registro de consultas lentas. Quando nula, os
+     * statements não são cronometrados.
+     */
+    private final SlowQueryConfig slowQueryLog;
+
+    /**
+     * Valida os valores da configuração.
+     *
+     * @throws IllegalArgumentException caso algum valor seja inválido.
+     */
+    void validate() {
+        if (url == null || url.isEmpty()) {
+            throw new IllegalArgumentException("A URL do banco de dados é obrigatória.");
+        }
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Tamanho do pool inválido: min=" + minSize + ", max=" + maxSize);
+        }
+        if (borrowTimeoutMillis < 0 || idleTimeoutMillis <= 0 || housekeepingIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Tempos de espera do pool inválidos.");
+        }
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("Tamanho do cache de statements inválido: " + statementCacheSize);
+        }
+        if (slowQueryLog != null) {
+            slowQueryLog.validate();
+        }
+    }
+}
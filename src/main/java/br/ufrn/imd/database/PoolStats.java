@@ -0,0 +1,38 @@
+package br.ufrn.imd.database;
+
+import lombok.Value;
+
+/**
+ * Fotografia das estatísticas de um {@link ConnectionPool} em um instante.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Value
+public class PoolStats {
+
+    int totalConnections;
+    int activeConnections;
+    int idleConnections;
+    int waitingThreads;
+    long borrowCount;
+    long borrowTimeoutCount;
+    long createdCount;
+    long destroyedCount;
+    long validationFailureCount;
+    long leakCount;
+    long statementCacheHits;
+    long statementCacheMisses;
+    long statementCacheEvictions;
+
+    /**
+     * Retorna a proporção de statements reaproveitados do cache.
+     *
+     * @return valor entre 0 e 1.
+     */
+    public double getStatementCacheHitRatio() {
+        long lookups = statementCacheHits + statementCacheMisses;
+        return lookups == 0 ? 0 : (double) statementCacheHits / lookups;
+    }
+
+}
@@ -0,0 +1,202 @@
+package br.ufrn.imd.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Conexão física gerenciada pelo {@link ConnectionPool}.
+ * <p>
+ * Cada empréstimo recebe um proxy próprio de {@link Connection}; fechar o proxy
+ * devolve a conexão física ao pool em vez de encerrá-la. Os prepared statements
+ * criados pelo proxy passam pelo {@link StatementCache} da conexão física e,
+ * com o {@link SlowQueryLog} ativo, todos os statements são cronometrados.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+class PooledConnection {
+
+    private final ConnectionPool pool;
+    private final Connection physical;
+    private final StatementCache statementCache;
+    private final SlowQueryLog slowQueryLog;
+    private final long createdAt;
+
+    private volatile long lastUsedAt;
+    private volatile long borrowedAt;
+    private volatile Throwable borrowTrace;
+    private volatile boolean leakReported;
+    private volatile boolean broken;
+
+    PooledConnection(ConnectionPool pool, Connection physical, StatementCache statementCache,
+            SlowQueryLog slowQueryLog) {
+        this.pool = pool;
+        this.physical = physical;
+        this.statementCache = statementCache;
+        this.slowQueryLog = slowQueryLog;
+        this.createdAt = System.currentTimeMillis();
+        this.lastUsedAt = createdAt;
+    }
+
+    Connection getPhysical() {
+        return physical;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+
+    long getLastUsedAt() {
+        return lastUsedAt;
+    }
+
+    long getBorrowedAt() {
+        return borrowedAt;
+    }
+
+    Throwable getBorrowTrace() {
+        return borrowTrace;
+    }
+
+    boolean isLeakReported() {
+        return leakReported;
+    }
+
+    void markLeakReported() {
+        this.leakReported = true;
+    }
+
+    boolean isBroken() {
+        return broken;
+    }
+
+    /**
+     * Marca a conexão como emprestada e cria o proxy entregue ao chamador.
+     *
+     * @param captureTrace indica se a pilha de chamadas do empréstimo deve ser
+     *                     registrada para a detecção de vazamentos.
+     * @return proxy da conexão.
+     */
+    Connection borrow(boolean captureTrace) {
+        this.borrowedAt = System.currentTimeMillis();
+        this.borrowTrace = captureTrace ? new Throwable("Conexão emprestada aqui") : null;
+        this.leakReported = false;
+
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new Handler());
+    }
+
+    /**
+     * Restaura o estado padrão da conexão antes de devolvê-la ao pool.
+     *
+     * @return true caso a conexão possa ser reutilizada.
+     */
+    boolean reset() {
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            physical.clearWarnings();
+            lastUsedAt = System.currentTimeMillis();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Fecha a conexão física, ignorando erros.
+     */
+    void closePhysical() {
+        if (statementCache != null) {
+            statementCache.clear();
+        }
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            // a conexão já será descartada
+        }
+    }
+
+    /**
+     * Proxy de um único empréstimo. Depois de fechado, qualquer uso gera erro.
+     */
+    private class Handler implements InvocationHandler {
+
+        private boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("A conexão já foi devolvida ao pool.");
+            }
+
+            Object result = prepareCached(method, args);
+            if (result == null) {
+                try {
+                    result = method.invoke(physical, args);
+                } catch (InvocationTargetException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof SQLException && isFatal((SQLException) cause)) {
+                        broken = true;
+                    }
+                    throw cause;
+                }
+            }
+
+            if (slowQueryLog != null && result instanceof Statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return slowQueryLog.wrap((Statement) result, method.getReturnType(), sql, physical);
+            }
+            return result;
+        }
+
+        private Object prepareCached(Method method, Object[] args) throws SQLException {
+            if (statementCache != null && "prepareStatement".equals(method.getName())) {
+                Class<?>[] types = method.getParameterTypes();
+                if (types.length == 1) {
+                    return statementCache.prepare(physical, (String) args[0], Statement.NO_GENERATED_KEYS);
+                }
+                if (types.length == 2 && types[1] == int.class) {
+                    return statementCache.prepare(physical, (String) args[0], (Integer) args[1]);
+                }
+            }
+            return null;
+        }
+
+        private boolean isFatal(SQLException e) {
+            String state = e.getSQLState();
+            return state != null && state.startsWith("08");
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package br.ufrn.imd.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Proxy de statement que cronometra as execuções e guarda os parâmetros para
+ * o {@link SlowQueryLog}.
+ * <p>
+ * Atualizações são registradas ao final da execução. Consultas são registradas
+ * quando o {@link ResultSet} termina ou é fechado, somando à execução o tempo
+ * gasto em {@link ResultSet#next()}; o tempo do código que processa cada linha
+ * não entra na conta. O {@code ResultSet} devolvido é um
+ * {@link ProfiledResultSet}, que repassa a leitura das colunas sem reflexão.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+class ProfiledStatement implements InvocationHandler {
+
+    private final SlowQueryLog log;
+    private final Statement delegate;
+    private final String sql;
+    private final Connection physical;
+
+    private Object[] parameters;
+    private Execution pending;
+
+    private ProfiledStatement(SlowQueryLog log, Statement delegate, String sql, Connection physical) {
+        this.log = log;
+        this.delegate = delegate;
+        this.sql = sql;
+        this.physical = physical;
+    }
+
+    static Statement wrap(SlowQueryLog log, Statement statement, Class<?> type, String sql, Connection physical) {
+        return (Statement) Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[] { type },
+                new ProfiledStatement(log, statement, sql, physical));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        switch (name) {
+            case "close":
+                finishPending();
+                return call(method, args);
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "clearParameters":
+                if (parameters != null) {
+                    Arrays.fill(parameters, null);
+                }
+                return call(method, args);
+            case "executeQuery":
+                return executeQuery(method, args);
+            case "executeUpdate":
+            case "executeLargeUpdate": {
+                finishPending();
+                long start = System.nanoTime();
+                Object rows = call(method, args);
+                log.record(sqlOf(args), copyParameters(), ((Number) rows).longValue(), System.nanoTime() - start,
+                        physical);
+                return rows;
+            }
+            case "execute": {
+                finishPending();
+                long start = System.nanoTime();
+                Object result = call(method, args);
+                log.record(sqlOf(args), copyParameters(), -1, System.nanoTime() - start, physical);
+                return result;
+            }
+            case "executeBatch":
+            case "executeLargeBatch": {
+                finishPending();
+                long start = System.nanoTime();
+                Object counts = call(method, args);
+                log.record(sql != null ? sql : "<lote>", copyParameters(), sumOf(counts), System.nanoTime() - start,
+                        physical);
+                return counts;
+            }
+            default:
+                break;
+        }
+
+        if (args != null && args.length >= 2 && name.startsWith("set") && method.getParameterTypes()[0] == int.class) {
+            capture((Integer) args[0], "setNull".equals(name) ? null : args[1]);
+        }
+        return call(method, args);
+    }
+
+    private Object executeQuery(Method method, Object[] args) throws Throwable {
+        finishPending();
+        long start = System.nanoTime();
+        ResultSet rs = (ResultSet) call(method, args);
+        Execution execution = new Execution(sqlOf(args), copyParameters(), System.nanoTime() - start);
+        pending = execution;
+        return new ProfiledResultSet(rs, execution);
+    }
+
+    private void finishPending() {
+        if (pending != null) {
+            pending.finish();
+        }
+    }
+
+    private String sqlOf(Object[] args) {
+        return args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+    }
+
+    private void capture(int index, Object value) {
+        if (index <= 0) {
+            return;
+        }
+        if (parameters == null || parameters.length <= index) {
+            parameters = Arrays.copyOf(parameters == null ? new Object[0] : parameters, Math.max(index + 1, 8));
+        }
+        parameters[index] = value;
+    }
+
+    private Object[] copyParameters() {
+        if (parameters == null) {
+            return null;
+        }
+        int length = parameters.length;
+        while (length > 1 && parameters[length - 1] == null) {
+            length--;
+        }
+        return Arrays.copyOf(parameters, length);
+    }
+
+    private Object call(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static long sumOf(Object counts) {
+        long total = 0;
+        if (counts instanceof int[]) {
+            for (int count : (int[]) counts) {
+                total += Math.max(0, count);
+            }
+        } else if (counts instanceof long[]) {
+            for (long count : (long[]) counts) {
+                total += Math.max(0, count);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Consulta em andamento: conta as linhas e o tempo de leitura até o
+     * {@link ResultSet} terminar ou ser fechado.
+     */
+    class Execution {
+
+        private final String executedSql;
+        private final Object[] executedParameters;
+        private long nanos;
+        private long rows;
+        private boolean finished;
+
+        Execution(String executedSql, Object[] executedParameters, long nanos) {
+            this.executedSql = executedSql;
+            this.executedParameters = executedParameters;
+            this.nanos = nanos;
+        }
+
+        /**
+         * Soma uma chamada de {@link ResultSet#next()}.
+         *
+         * @param elapsed duração da chamada.
+         * @param hasRow  indica se uma linha foi lida.
+         */
+        void read(long elapsed, boolean hasRow) {
+            nanos += elapsed;
+            if (hasRow) {
+                rows++;
+            } else {
+                finish();
+            }
+        }
+
+        void finish() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (pending == this) {
+                pending = null;
+            }
+            log.record(executedSql, executedParameters, rows, nanos, physical);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package br.ufrn.imd.database;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Configuração do registro de consultas lentas do pool de conexões.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public class SlowQueryConfig {
+
+    /**
+     * Duração a partir da qual uma execução é registrada como lenta, em
+     * milissegundos. Inclui a execução e a leitura das linhas retornadas.
+     */
+    @Builder.Default
+    private final long thresholdMillis = 200;
+
+    /** Indica se o plano ({@code EXPLAIN}) das consultas lentas deve ser capturado. */
+    @Builder.Default
+    private final boolean explain = true;
+
+    /** Intervalo mínimo entre dois {@code EXPLAIN} do mesmo SQL, em milissegundos. */
+    @Builder.Default
+    private final long explainIntervalMillis = 60_000;
+
+    /** Quantidade máxima de {@code EXPLAIN} por minuto, somando todos os SQLs. */
+    @Builder.Default
+    private final int maxExplainsPerMinute = 10;
+
+    /**
+     * Intervalo do resumo periódico dos statements mais lentos, em
+     * milissegundos. Zero desativa o resumo.
+     */
+    @Builder.Default
+    private final long summaryIntervalMillis = 300_000;
+
+    /** Quantidade de statements listados no resumo. */
+    @Builder.Default
+    private final int summarySize = 10;
+
+    /**
+     * Quantidade máxima de SQLs distintos acompanhados; os excedentes só
+     * aparecem no registro das execuções lentas.
+     */
+    @Builder.Default
+    private final int maxTrackedStatements = 1000;
+
+    /** Tamanho máximo de cada parâmetro no registro; textos maiores são truncados. */
+    @Builder.Default
+    private final int maxParameterLength = 64;
+
+    /**
+     * Valida os valores da configuração.
+     *
+     * @throws IllegalArgumentException caso algum valor seja inválido.
+     */
+    void validate() {
+        if (thresholdMillis < 0 || explainIntervalMillis < 0 || summaryIntervalMillis < 0) {
+            throw new IllegalArgumentException("Tempos do registro de consultas lentas inválidos.");
+        }
+        if (maxExplainsPerMinute < 0 || summarySize <= 0 || maxTrackedStatements < 0 || maxParameterLength <= 0) {
+            throw new IllegalArgumentException("Limites do registro de consultas lentas inválidos.");
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package br.ufrn.imd.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import br.ufrn.imd.logging.Logger;
+
+/**
+ * Registro das consultas lentas de um {@link ConnectionPool}.
+ * <p>
+ * Quando configurado, cada statement entregue pelo pool é cronometrado, da
+ * execução até a última linha lida. As execuções acima do limite são
+ * registradas no log com o SQL, os parâmetros, a quantidade de linhas e a
+ * duração; para consultas SELECT o plano de execução é capturado com
+ * {@code EXPLAIN} na mesma conexão, respeitando um intervalo mínimo por SQL
+ * e um limite global por minuto.
+ * <p>
+ * As estatísticas por SQL são acumuladas em janelas: a cada resumo periódico,
+ * os statements mais lentos da janela são registrados e a janela recomeça.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class SlowQueryLog {
+
+    private static final Logger LOG = Logger.getLogger(SlowQueryLog.class);
+
+    private final SlowQueryConfig config;
+    private final long thresholdNanos;
+    private final long explainSpacingNanos;
+    private final AtomicLong nextExplainAt = new AtomicLong(System.nanoTime());
+    private final LongAdder slowCount = new LongAdder();
+    private final LongAdder explainCount = new LongAdder();
+
+    private volatile ConcurrentHashMap<String, Accumulator> window = new ConcurrentHashMap<>();
+    private volatile long windowStartedAt = System.currentTimeMillis();
+
+    public SlowQueryLog(SlowQueryConfig config) {
+        config.validate();
+        this.config = config;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(config.getThresholdMillis());
+        this.explainSpacingNanos = config.getMaxExplainsPerMinute() > 0
+                ? TimeUnit.MINUTES.toNanos(1) / config.getMaxExplainsPerMinute()
+                : Long.MAX_VALUE;
+    }
+
+    public SlowQueryConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Quantidade de execuções lentas desde a criação do registro.
+     *
+     * @return execuções lentas.
+     */
+    public long getSlowCount() {
+        return slowCount.sum();
+    }
+
+    /**
+     * Quantidade de planos capturados desde a criação do registro.
+     *
+     * @return planos capturados.
+     */
+    public long getExplainCount() {
+        return explainCount.sum();
+    }
+
+    /**
+     * Retorna os statements com mais tempo gasto em execuções lentas na janela
+     * atual.
+     *
+     * @param limit quantidade máxima de statements.
+     * @return statements do mais para o menos lento.
+     */
+    public List<StatementStats> getTopStatements(int limit) {
+        List<StatementStats> stats = new ArrayList<>();
+        for (Accumulator accumulator : window.values()) {
+            StatementStats snapshot = accumulator.snapshot();
+            if (snapshot.getSlowExecutions() > 0) {
+                stats.add(snapshot);
+            }
+        }
+        stats.sort(Comparator.comparingDouble(StatementStats::getSlowTotalMillis).reversed());
+        return stats.size() > limit ? new ArrayList<>(stats.subList(0, limit)) : stats;
+    }
+
+    /**
+     * Registra o resumo dos statements mais lentos e inicia uma nova janela.
+     */
+    public void logSummary() {
+        List<StatementStats> top = getTopStatements(config.getSummarySize());
+        long startedAt = windowStartedAt;
+        window = new ConcurrentHashMap<>();
+        windowStartedAt = System.currentTimeMillis();
+
+        if (top.isEmpty()) {
+            return;
+        }
+        StringBuilder summary = new StringBuilder();
+        for (int i = 0; i < top.size(); i++) {
+            StatementStats stats = top.get(i);
+            summary.append(String.format(Locale.ROOT,
+                    "%n%2d. %d lentas de %d execuções, %.1f ms lentos (máx. %.1f ms): %s",
+                    i + 1, stats.getSlowExecutions(), stats.getExecutions(), stats.getSlowTotalMillis(),
+                    stats.getMaxMillis(), stats.getSql()));
+        }
+        LOG.info("Statements mais lentos em {} s:{}",
+                (System.currentTimeMillis() - startedAt) / 1000, summary);
+    }
+
+    /**
+     * Registra o resumo caso o intervalo configurado tenha passado. Chamado
+     * pela rotina de manutenção do pool.
+     */
+    void summarizeIfDue() {
+        long interval = config.getSummaryIntervalMillis();
+        if (interval > 0 && System.currentTimeMillis() - windowStartedAt >= interval) {
+            logSummary();
+        }
+    }
+
+    /**
+     * Envolve um statement entregue pelo pool para cronometrar suas execuções.
+     *
+     * @param statement statement original.
+     * @param type      interface do statement.
+     * @param sql       SQL do prepared statement, ou null para statements simples.
+     * @param physical  conexão física usada para o {@code EXPLAIN}.
+     * @return statement cronometrado.
+     */
+    Statement wrap(Statement statement, Class<?> type, String sql, Connection physical) {
+        return ProfiledStatement.wrap(this, statement, type, sql, physical);
+    }
+
+    /**
+     * Registra uma execução concluída.
+     *
+     * @param sql        SQL executado.
+     * @param parameters parâmetros pela posição, começando em 1, ou null.
+     * @param rows       linhas lidas ou alteradas; negativo se desconhecido.
+     * @param nanos      duração da execução.
+     * @param physical   conexão física do statement.
+     */
+    void record(String sql, Object[] parameters, long rows, long nanos, Connection physical) {
+        if (sql == null) {
+            return;
+        }
+        boolean slow = nanos >= thresholdNanos;
+        Accumulator accumulator = accumulator(sql);
+        if (accumulator != null) {
+            accumulator.record(nanos, slow);
+        }
+        if (!slow) {
+            return;
+        }
+
+        slowCount.increment();
+        String formatted = formatParameters(parameters);
+        LOG.warn("Consulta lenta: {} ms, {} linhas, SQL: {} parâmetros: {}",
+                TimeUnit.NANOSECONDS.toMillis(nanos), rows < 0 ? "?" : rows, sql, formatted);
+
+        String plan = null;
+        if (config.isExplain() && isSelect(sql) && acquireExplain(accumulator)) {
+            plan = explain(sql, parameters, physical);
+            if (plan != null) {
+                explainCount.increment();
+                LOG.warn("Plano de execução de {}:{}", sql, plan);
+            }
+        }
+        if (accumulator != null) {
+            accumulator.recordSlow(nanos, formatted, plan);
+        }
+    }
+
+    private Accumulator accumulator(String sql) {
+        ConcurrentHashMap<String, Accumulator> current = window;
+        Accumulator accumulator = current.get(sql);
+        if (accumulator == null && current.size() < config.getMaxTrackedStatements()) {
+            accumulator = current.computeIfAbsent(sql, Accumulator::new);
+        }
+        return accumulator;
+    }
+
+    private boolean acquireExplain(Accumulator accumulator) {
+        long now = System.nanoTime();
+        if (accumulator != null) {
+            long last = accumulator.lastExplainAt;
+            if (accumulator.explained && now - last < TimeUnit.MILLISECONDS.toNanos(config.getExplainIntervalMillis())) {
+                return false;
+            }
+        }
+        long allowedAt = nextExplainAt.get();
+        if (explainSpacingNanos == Long.MAX_VALUE || now - allowedAt < 0
+                || !nextExplainAt.compareAndSet(allowedAt, now + explainSpacingNanos)) {
+            return false;
+        }
+        if (accumulator != null) {
+            accumulator.lastExplainAt = now;
+            accumulator.explained = true;
+        }
+        return true;
+    }
+
+    private static String explain(String sql, Object[] parameters, Connection physical) {
+        try (PreparedStatement ps = physical.prepareStatement("EXPLAIN " + sql)) {
+            if (parameters != null) {
+                for (int i = 1; i < parameters.length; i++) {
+                    ps.setObject(i, parameters[i]);
+                }
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData meta = rs.getMetaData();
+                while (rs.next()) {
+                    plan.append(System.lineSeparator());
+                    for (int column = 1; column <= meta.getColumnCount(); column++) {
+                        if (column > 1) {
+                            plan.append(", ");
+                        }
+                        plan.append(meta.getColumnLabel(column)).append('=').append(rs.getObject(column));
+                    }
+                }
+            }
+            return plan.toString();
+        } catch (SQLException e) {
+            LOG.debug("Erro ao capturar o plano de {}", sql, e);
+            return null;
+        }
+    }
+
+    private String formatParameters(Object[] parameters) {
+        if (parameters == null) {
+            return "[]";
+        }
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 1; i < parameters.length; i++) {
+            if (i > 1) {
+                text.append(", ");
+            }
+            Object value = parameters[i];
+            if (value == null) {
+                text.append("NULL");
+            } else if (value instanceof byte[]) {
+                text.append('<').append(((byte[]) value).length).append(" bytes>");
+            } else if (value instanceof CharSequence || value instanceof java.util.Date
+                    || value instanceof java.time.temporal.Temporal) {
+                text.append('\'').append(truncate(value.toString())).append('\'');
+            } else {
+                text.append(truncate(String.valueOf(value)));
+            }
+        }
+        return text.append(']').toString();
+    }
+
+    private String truncate(String value) {
+        int max = config.getMaxParameterLength();
+        return value.length() <= max ? value : value.substring(0, max) + "...";
+    }
+
+    private static boolean isSelect(String sql) {
+        String trimmed = sql.stripLeading();
+        return trimmed.regionMatches(true, 0, "SELECT", 0, 6) || trimmed.regionMatches(true, 0, "WITH", 0, 4);
+    }
+
+    /**
+     * Estatísticas de um SQL dentro da janela atual.
+     */
+    private static final class Accumulator {
+
+        private final String sql;
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private long slowExecutions;
+        private long slowNanos;
+        private volatile long maxNanos;
+        private String lastSlowParameters;
+        private String lastPlan;
+        private volatile long lastExplainAt;
+        private volatile boolean explained;
+
+        Accumulator(String sql) {
+            this.sql = sql;
+        }
+
+        void record(long nanos, boolean slow) {
+            executions.increment();
+            totalNanos.add(nanos);
+            if (!slow && nanos > maxNanos) {
+                synchronized (this) {
+                    maxNanos = Math.max(maxNanos, nanos);
+                }
+            }
+        }
+
+        synchronized void recordSlow(long nanos, String parameters, String plan) {
+            slowExecutions++;
+            slowNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            lastSlowParameters = parameters;
+            if (plan != null) {
+                lastPlan = plan;
+            }
+        }
+
+        synchronized StatementStats snapshot() {
+            return new StatementStats(sql, executions.sum(), slowExecutions, totalNanos.sum() / 1e6,
+                    slowNanos / 1e6, maxNanos / 1e6, lastSlowParameters, lastPlan);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package br.ufrn.imd.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache de {@link PreparedStatement} de uma única conexão física, indexado pelo
+ * texto SQL e com descarte LRU.
+ * <p>
+ * Ao ser reaproveitado, o statement sai do cache e só volta quando o chamador o
+ * fecha, de modo que dois usos simultâneos do mesmo SQL nunca compartilham a
+ * mesma instância. Assim como a conexão a que pertence, o cache é usado por uma
+ * thread por vez e não é sincronizado.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+class StatementCache {
+
+    private final int maxSize;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private final Map<String, PreparedStatement> statements;
+
+    StatementCache(int maxSize, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    StatementCache.this.evictions.increment();
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Retorna um statement para o SQL informado, reaproveitando o do cache quando
+     * houver. Fechar o statement retornado o devolve ao cache.
+     *
+     * @param physical          conexão física dona do cache.
+     * @param sql               texto SQL.
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} ou
+     *                          {@link Statement#NO_GENERATED_KEYS}.
+     * @throws SQLException caso ocorra um erro ao preparar o statement.
+     * @return statement pronto para uso.
+     */
+    PreparedStatement prepare(Connection physical, String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.NO_GENERATED_KEYS ? sql : autoGeneratedKeys + ":" + sql;
+
+        PreparedStatement ps = statements.remove(key);
+        if (ps != null && !ps.isClosed()) {
+            hits.increment();
+        } else {
+            misses.increment();
+            ps = physical.prepareStatement(sql, autoGeneratedKeys);
+        }
+
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class },
+                new Handler(key, ps));
+    }
+
+    /**
+     * Fecha todos os statements do cache.
+     */
+    void clear() {
+        for (PreparedStatement ps : statements.values()) {
+            closeQuietly(ps);
+        }
+        statements.clear();
+    }
+
+    int size() {
+        return statements.size();
+    }
+
+    /**
+     * Devolve o statement ao cache depois de desfazer tudo o que o uso anterior
+     * configurou nele, para que o próximo uso do mesmo SQL comece do estado
+     * inicial. Se não for possível restaurar o statement, ele é fechado.
+     */
+    private void giveBack(String key, PreparedStatement ps) {
+        try {
+            if (ps.isClosed()) {
+                return;
+            }
+            ResultSet rs = ps.getResultSet();
+            if (rs != null) {
+                rs.close();
+            }
+            ps.clearParameters();
+            ps.clearBatch();
+            ps.setQueryTimeout(0);
+            ps.setMaxRows(0);
+            ps.setFetchSize(0);
+        } catch (SQLException e) {
+            closeQuietly(ps);
+            return;
+        }
+
+        PreparedStatement previous = statements.put(key, ps);
+        if (previous != null && previous != ps) {
+            closeQuietly(previous);
+        }
+    }
+
+    private static void closeQuietly(Statement st) {
+        try {
+            st.close();
+        } catch (SQLException e) {
+            // o statement já será descartado
+        }
+    }
+
+    /**
+     * Proxy de um uso do statement: o fechamento devolve o statement ao cache.
+     */
+    private class Handler implements InvocationHandler {
+
+        private final String key;
+        private final PreparedStatement delegate;
+        private boolean closed;
+
+        Handler(String key, PreparedStatement delegate) {
+            this.key = key;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        giveBack(key, delegate);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || delegate.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("O statement já foi fechado.");
+            }
+
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package br.ufrn.imd.database;
+
+import lombok.Value;
+
+/**
+ * Estatísticas de um SQL na janela atual do {@link SlowQueryLog}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Value
+public class StatementStats {
+
+    String sql;
+
+    /** Total de execuções do SQL. */
+    long executions;
+
+    /** Execuções acima do limite configurado. */
+    long slowExecutions;
+
+    /** Soma das durações de todas as execuções, em milissegundos. */
+    double totalMillis;
+
+    /** Soma das durações das execuções lentas, em milissegundos. */
+    double slowTotalMillis;
+
+    /** Maior duração registrada, em milissegundos. */
+    double maxMillis;
+
+    /** Parâmetros da última execução lenta, já formatados. */
+    String lastSlowParameters;
+
+    /** Último plano capturado, ou null. */
+    String lastPlan;
+}
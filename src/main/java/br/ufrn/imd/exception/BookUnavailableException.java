@@ -0,0 +1,15 @@
+package br.ufrn.imd.exception;
+
+/**
+ * Exceção lançada quando não há exemplares disponíveis de um livro.
+ * 
+ * @author Gabrielly Freire
+ * @version 1.0
+ * @see RuntimeException
+ */
+public class BookUnavailableException extends RuntimeException {
+    public BookUnavailableException(String msg) {
+        super(msg);
+    }
+    
+}
@@ -0,0 +1,14 @@
+package br.ufrn.imd.exception;
+
+/**
+ * Exceção lançada quando uma consulta é cancelada antes de terminar.
+ * 
+ * @author Gabrielly Freire
+ * @version 1.0
+ * @see DatabaseException
+ */
+public class QueryCancelledException extends DatabaseException {
+    public QueryCancelledException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,48 @@
+package br.ufrn.imd.journal;
+
+/**
+ * Tabela alterada por uma mutação registrada no journal.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public enum EntityType {
+    BOOK(1),
+    USER(2),
+    LOAN(3);
+
+    private final byte code;
+
+    EntityType(int code) {
+        this.code = (byte) code;
+    }
+
+    /**
+     * Código gravado nos registros; não muda entre versões.
+     *
+     * @return código da entidade.
+     */
+    byte code() {
+        return code;
+    }
+
+    /**
+     * Retorna a entidade de um código gravado.
+     *
+     * @param code código lido do registro.
+     * @throws IllegalArgumentException caso o código seja desconhecido.
+     * @return entidade correspondente.
+     */
+    static EntityType fromCode(byte code) {
+        switch (code) {
+            case 1:
+                return BOOK;
+            case 2:
+                return USER;
+            case 3:
+                return LOAN;
+            default:
+                throw new IllegalArgumentException("Entidade desconhecida no journal: " + code);
+        }
+    }
+}
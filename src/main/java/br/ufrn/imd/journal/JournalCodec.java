@@ -0,0 +1,208 @@
+package br.ufrn.imd.journal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.Loan;
+import br.ufrn.imd.model.User;
+import br.ufrn.imd.model.enums.Genre;
+
+/**
+ * Codificação binária das entidades gravadas no journal.
+ * <p>
+ * Cada carga começa com um byte de presença, um bit por campo na ordem de
+ * declaração, seguido apenas dos campos não nulos. O id não faz parte da
+ * carga: ele fica no cabeçalho do registro. Textos são gravados em UTF-8
+ * modificado, gêneros pelo nome e datas como dias desde 1970-01-01.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+final class JournalCodec {
+
+    private JournalCodec() {
+    }
+
+    static byte[] encode(Book book) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(presence(book.getTitle(), book.getAuthor(), book.getGenre(), book.getPublicationYear(),
+                    book.getIsbn(), book.getIsAvailable(), book.getTotalCopies(), book.getAvailableCopies()));
+            writeString(out, book.getTitle());
+            writeString(out, book.getAuthor());
+            writeString(out, book.getGenre() != null ? book.getGenre().name() : null);
+            writeInt(out, book.getPublicationYear());
+            writeString(out, book.getIsbn());
+            writeBoolean(out, book.getIsAvailable());
+            writeInt(out, book.getTotalCopies());
+            writeInt(out, book.getAvailableCopies());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Book decodeBook(long id, byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int presence = in.readUnsignedByte();
+            Book book = new Book();
+            book.setId(id);
+            if (has(presence, 0)) {
+                book.setTitle(in.readUTF());
+            }
+            if (has(presence, 1)) {
+                book.setAuthor(in.readUTF());
+            }
+            if (has(presence, 2)) {
+                book.setGenre(Genre.valueOf(in.readUTF()));
+            }
+            if (has(presence, 3)) {
+                book.setPublicationYear(in.readInt());
+            }
+            if (has(presence, 4)) {
+                book.setIsbn(in.readUTF());
+            }
+            if (has(presence, 5)) {
+                book.setIsAvailable(in.readBoolean());
+            }
+            if (has(presence, 6)) {
+                book.setTotalCopies(in.readInt());
+            }
+            if (has(presence, 7)) {
+                book.setAvailableCopies(in.readInt());
+            }
+            return book;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static byte[] encode(User user) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(48);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(presence(user.getName(), user.getEmail(), user.getPhoneNumber()));
+            writeString(out, user.getName());
+            writeString(out, user.getEmail());
+            writeString(out, user.getPhoneNumber());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static User decodeUser(long id, byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int presence = in.readUnsignedByte();
+            User user = new User();
+            user.setId(id);
+            if (has(presence, 0)) {
+                user.setName(in.readUTF());
+            }
+            if (has(presence, 1)) {
+                user.setEmail(in.readUTF());
+            }
+            if (has(presence, 2)) {
+                user.setPhoneNumber(in.readUTF());
+            }
+            return user;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static byte[] encode(Loan loan) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(40);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(presence(loan.getUserId(), loan.getBookId(), loan.getLoanDate(), loan.getDueDate(),
+                    loan.getReturnDate(), loan.getIsReturned()));
+            writeLong(out, loan.getUserId());
+            writeLong(out, loan.getBookId());
+            writeDate(out, loan.getLoanDate());
+            writeDate(out, loan.getDueDate());
+            writeDate(out, loan.getReturnDate());
+            writeBoolean(out, loan.getIsReturned());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Loan decodeLoan(long id, byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int presence = in.readUnsignedByte();
+            Loan loan = new Loan();
+            loan.setId(String.valueOf(id));
+            if (has(presence, 0)) {
+                loan.setUserId(in.readLong());
+            }
+            if (has(presence, 1)) {
+                loan.setBookId(in.readLong());
+            }
+            if (has(presence, 2)) {
+                loan.setLoanDate(LocalDate.ofEpochDay(in.readInt()));
+            }
+            if (has(presence, 3)) {
+                loan.setDueDate(LocalDate.ofEpochDay(in.readInt()));
+            }
+            if (has(presence, 4)) {
+                loan.setReturnDate(LocalDate.ofEpochDay(in.readInt()));
+            }
+            if (has(presence, 5)) {
+                loan.setIsReturned(in.readBoolean());
+            }
+            return loan;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int presence(Object... fields) {
+        int bits = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                bits |= 1 << i;
+            }
+        }
+        return bits;
+    }
+
+    private static boolean has(int presence, int field) {
+        return (presence & (1 << field)) != 0;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static void writeInt(DataOutputStream out, Integer value) throws IOException {
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static void writeBoolean(DataOutputStream out, Boolean value) throws IOException {
+        if (value != null) {
+            out.writeBoolean(value);
+        }
+    }
+
+    private static void writeDate(DataOutputStream out, LocalDate value) throws IOException {
+        if (value != null) {
+            out.writeInt((int) value.toEpochDay());
+        }
+    }
+}
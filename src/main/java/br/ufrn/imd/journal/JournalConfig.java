@@ -0,0 +1,53 @@
+package br.ufrn.imd.journal;
+
+import java.nio.file.Path;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Configuração de um {@link MutationJournal}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public class JournalConfig {
+
+    /** Diretório dos segmentos do journal. */
+    @Builder.Default
+    private final Path directory = Path.of("journal");
+
+    /**
+     * Tamanho de cada segmento, em bytes. Um registro nunca é dividido entre
+     * segmentos, então limita também o tamanho de um registro.
+     */
+    @Builder.Default
+    private final int segmentSize = 64 * 1024 * 1024;
+
+    /**
+     * Indica se cada registro deve ser forçado ao disco antes de
+     * {@link MutationJournal#append} retornar. Sem isso, os registros
+     * sobrevivem a uma falha do processo, mas não a uma queda do sistema
+     * operacional.
+     */
+    @Builder.Default
+    private final boolean forceOnAppend = false;
+
+    /**
+     * Valida os valores da configuração.
+     *
+     * @throws IllegalArgumentException caso algum valor seja inválido.
+     */
+    void validate() {
+        if (directory == null) {
+            throw new IllegalArgumentException("O diretório do journal é obrigatório.");
+        }
+        if (segmentSize < 4096) {
+            throw new IllegalArgumentException("O segmento do journal deve ter ao menos 4096 bytes.");
+        }
+    }
+}
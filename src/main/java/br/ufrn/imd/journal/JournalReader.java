@@ -0,0 +1,67 @@
+package br.ufrn.imd.journal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitor sequencial de um {@link MutationJournal}, que pode acompanhar as
+ * gravações à medida que ocorrem.
+ * <p>
+ * Cada leitor guarda a sua posição e deve ser usado por uma thread de cada
+ * vez; vários leitores podem ler o mesmo journal em paralelo.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class JournalReader {
+
+    private final MutationJournal journal;
+    private long position;
+
+    JournalReader(MutationJournal journal, long position) {
+        this.journal = journal;
+        this.position = position;
+    }
+
+    /**
+     * Posição do próximo registro a ser lido.
+     *
+     * @return posição atual do leitor.
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Lê o próximo registro, sem aguardar.
+     *
+     * @throws IllegalStateException caso a posição tenha sido removida do
+     *                               journal ou o registro esteja corrompido.
+     * @return próximo registro, ou null caso o leitor tenha alcançado o fim.
+     */
+    public JournalRecord next() {
+        JournalRecord record = journal.read(position);
+        if (record != null) {
+            position = record.getNextOffset();
+        }
+        return record;
+    }
+
+    /**
+     * Lê o próximo registro, aguardando uma nova gravação caso o leitor tenha
+     * alcançado o fim do journal.
+     *
+     * @param timeout tempo máximo de espera.
+     * @param unit    unidade do tempo de espera.
+     * @throws InterruptedException  caso a thread seja interrompida.
+     * @throws IllegalStateException caso a posição tenha sido removida do
+     *                               journal ou o registro esteja corrompido.
+     * @return próximo registro, ou null caso nenhum seja gravado no prazo.
+     */
+    public JournalRecord next(long timeout, TimeUnit unit) throws InterruptedException {
+        JournalRecord record = next();
+        if (record == null && journal.awaitAppend(position, unit.toNanos(timeout))) {
+            record = next();
+        }
+        return record;
+    }
+}
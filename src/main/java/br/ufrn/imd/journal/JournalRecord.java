@@ -0,0 +1,96 @@
+package br.ufrn.imd.journal;
+
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.Loan;
+import br.ufrn.imd.model.User;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Mutação lida do journal.
+ * <p>
+ * Em {@link MutationType#CREATE} e {@link MutationType#UPDATE}, a carga traz
+ * os campos gravados pela operação; campos nulos não foram alterados por ela,
+ * como os exemplares disponíveis, que o banco recalcula. Em
+ * {@link MutationType#DELETE} a carga é vazia.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Getter
+@ToString(exclude = "payload")
+public class JournalRecord {
+
+    /** Posição do registro no journal. */
+    private final long offset;
+
+    /** Posição do registro seguinte, usada para retomar a leitura. */
+    private final long nextOffset;
+
+    /** Instante da gravação, em milissegundos desde 1970-01-01. */
+    private final long timestamp;
+
+    private final EntityType entity;
+
+    private final MutationType mutation;
+
+    /** Id da entidade alterada. */
+    private final long entityId;
+
+    @Getter(AccessLevel.NONE)
+    private final byte[] payload;
+
+    JournalRecord(long offset, long nextOffset, long timestamp, EntityType entity, MutationType mutation,
+            long entityId, byte[] payload) {
+        this.offset = offset;
+        this.nextOffset = nextOffset;
+        this.timestamp = timestamp;
+        this.entity = entity;
+        this.mutation = mutation;
+        this.entityId = entityId;
+        this.payload = payload;
+    }
+
+    /**
+     * Decodifica a carga de um registro de livro.
+     *
+     * @throws IllegalStateException caso o registro não seja de livro.
+     * @return livro com o id e os campos gravados.
+     */
+    public Book toBook() {
+        ensure(EntityType.BOOK);
+        return JournalCodec.decodeBook(entityId, payload);
+    }
+
+    /**
+     * Decodifica a carga de um registro de usuário.
+     *
+     * @throws IllegalStateException caso o registro não seja de usuário.
+     * @return usuário com o id e os campos gravados.
+     */
+    public User toUser() {
+        ensure(EntityType.USER);
+        return JournalCodec.decodeUser(entityId, payload);
+    }
+
+    /**
+     * Decodifica a carga de um registro de empréstimo.
+     *
+     * @throws IllegalStateException caso o registro não seja de empréstimo.
+     * @return empréstimo com o id e os campos gravados.
+     */
+    public Loan toLoan() {
+        ensure(EntityType.LOAN);
+        return JournalCodec.decodeLoan(entityId, payload);
+    }
+
+    private void ensure(EntityType expected) {
+        if (entity != expected) {
+            throw new IllegalStateException("O registro em " + offset + " é de " + entity + ", não de " + expected + ".");
+        }
+        if (mutation == MutationType.DELETE) {
+            throw new IllegalStateException("O registro em " + offset + " é uma remoção e não tem carga.");
+        }
+    }
+}
@@ -0,0 +1,392 @@
+package br.ufrn.imd.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import br.ufrn.imd.logging.Logger;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.Loan;
+import br.ufrn.imd.model.User;
+
+/**
+ * Journal das mutações feitas pelos DAOs: um log binário, somente de
+ * acréscimo, dividido em segmentos mapeados em memória.
+ * <p>
+ * Cada registro é identificado pela sua posição (offset), que cresce sem
+ * lacunas de um segmento para o seguinte; o nome de cada arquivo é a posição
+ * do seu primeiro registro. Quando um registro não cabe no segmento atual, um
+ * novo segmento é criado. Os registros levam um checksum CRC32C, e a abertura
+ * descarta o que houver depois do último registro válido.
+ * <p>
+ * Consumidores como caches, índices e relatórios guardam a posição do
+ * próximo registro ({@link JournalRecord#getNextOffset()}) e, ao reiniciar,
+ * retomam a leitura dali com {@link #reader(long)} ou
+ * {@link #replay(long, Consumer)}, em vez de reler as tabelas inteiras. As
+ * gravações são serializadas; as leituras podem ocorrer em paralelo a elas.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class MutationJournal implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(MutationJournal.class);
+    private static final byte[] EMPTY = new byte[0];
+
+    private final JournalConfig config;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private Segment active;
+    private volatile long endOffset;
+    private volatile boolean closed;
+
+    /**
+     * Abre o journal no diretório configurado, criando-o caso não exista.
+     *
+     * @param config configuração do journal.
+     * @throws IllegalArgumentException caso a configuração seja inválida.
+     * @throws UncheckedIOException     caso os segmentos não possam ser abertos.
+     */
+    public MutationJournal(JournalConfig config) {
+        config.validate();
+        this.config = config;
+        try {
+            Files.createDirectories(config.getDirectory());
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(config.getDirectory(),
+                    "*" + Segment.EXTENSION)) {
+                for (Path file : files) {
+                    Long baseOffset = baseOffsetOf(file);
+                    if (baseOffset == null) {
+                        LOG.warn("Arquivo ignorado no diretório do journal: {}", file);
+                        continue;
+                    }
+                    segments.put(baseOffset, Segment.open(config.getDirectory(), baseOffset, config.getSegmentSize()));
+                }
+            }
+            if (segments.isEmpty()) {
+                segments.put(0L, Segment.open(config.getDirectory(), 0, config.getSegmentSize()));
+            }
+        } catch (IOException e) {
+            closeSegments();
+            throw new UncheckedIOException("Erro ao abrir o journal em " + config.getDirectory(), e);
+        }
+
+        Segment previous = null;
+        for (Segment segment : segments.values()) {
+            if (previous != null && previous.getEndOffset() != segment.getBaseOffset()) {
+                LOG.warn("Lacuna no journal entre {} e {}", previous.getEndOffset(), segment.getBaseOffset());
+            }
+            previous = segment;
+        }
+        this.active = segments.lastEntry().getValue();
+        this.endOffset = active.getEndOffset();
+        LOG.debug("Journal aberto em {}: {} segmentos, posições {} a {}", config.getDirectory(), segments.size(),
+                getStartOffset(), endOffset);
+    }
+
+    /**
+     * Registra a criação ou a alteração de um livro.
+     *
+     * @param mutation tipo da mutação.
+     * @param book     livro com o id e os campos gravados.
+     * @return posição do registro.
+     */
+    public long append(MutationType mutation, Book book) {
+        return mutation == MutationType.DELETE
+                ? appendDelete(EntityType.BOOK, book.getId())
+                : append(EntityType.BOOK, mutation, book.getId(), JournalCodec.encode(book));
+    }
+
+    /**
+     * Registra a criação ou a alteração de um usuário.
+     *
+     * @param mutation tipo da mutação.
+     * @param user     usuário com o id e os campos gravados.
+     * @return posição do registro.
+     */
+    public long append(MutationType mutation, User user) {
+        return mutation == MutationType.DELETE
+                ? appendDelete(EntityType.USER, user.getId())
+                : append(EntityType.USER, mutation, user.getId(), JournalCodec.encode(user));
+    }
+
+    /**
+     * Registra a criação ou a alteração de um empréstimo.
+     *
+     * @param mutation tipo da mutação.
+     * @param loan     empréstimo com o id e os campos gravados.
+     * @return posição do registro.
+     */
+    public long append(MutationType mutation, Loan loan) {
+        long id = Long.parseLong(loan.getId());
+        return mutation == MutationType.DELETE
+                ? appendDelete(EntityType.LOAN, id)
+                : append(EntityType.LOAN, mutation, id, JournalCodec.encode(loan));
+    }
+
+    /**
+     * Registra a remoção de uma entidade.
+     *
+     * @param entity tabela alterada.
+     * @param id     id da entidade removida.
+     * @return posição do registro.
+     */
+    public long appendDelete(EntityType entity, long id) {
+        return append(entity, MutationType.DELETE, id, EMPTY);
+    }
+
+    /**
+     * Cria um leitor posicionado na posição informada.
+     *
+     * @param offset posição do primeiro registro a ser lido, normalmente a
+     *               {@link JournalRecord#getNextOffset()} do último registro
+     *               processado.
+     * @throws IllegalArgumentException caso a posição esteja fora do journal.
+     * @return leitor do journal.
+     */
+    public JournalReader reader(long offset) {
+        if (offset < getStartOffset() || offset > endOffset) {
+            throw new IllegalArgumentException("Posição " + offset + " fora do journal (" + getStartOffset() + " a "
+                    + endOffset + ").");
+        }
+        return new JournalReader(this, offset);
+    }
+
+    /**
+     * Entrega ao consumidor, em ordem, os registros gravados a partir da
+     * posição informada.
+     *
+     * @param offset   posição do primeiro registro.
+     * @param consumer consumidor dos registros.
+     * @throws IllegalArgumentException caso a posição esteja fora do journal.
+     * @return posição seguinte ao último registro entregue.
+     */
+    public long replay(long offset, Consumer<JournalRecord> consumer) {
+        JournalReader reader = reader(offset);
+        JournalRecord record;
+        while ((record = reader.next()) != null) {
+            consumer.accept(record);
+        }
+        return reader.getPosition();
+    }
+
+    /**
+     * Posição do registro mais antigo ainda disponível.
+     *
+     * @return posição inicial do journal.
+     */
+    public long getStartOffset() {
+        return segments.firstKey();
+    }
+
+    /**
+     * Posição em que o próximo registro será gravado.
+     *
+     * @return posição final do journal.
+     */
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    /**
+     * Quantidade de segmentos do journal.
+     *
+     * @return segmentos abertos.
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Remove os segmentos cujos registros estão todos antes da posição
+     * informada, depois que todos os consumidores passaram dela. O segmento
+     * atual nunca é removido.
+     *
+     * @param offset posição já processada por todos os consumidores.
+     * @return quantidade de segmentos removidos.
+     */
+    public int deleteSegmentsBefore(long offset) {
+        int deleted = 0;
+        lock.lock();
+        try {
+            Iterator<Segment> it = segments.values().iterator();
+            while (it.hasNext()) {
+                Segment segment = it.next();
+                if (segment == active || segment.getEndOffset() > offset) {
+                    break;
+                }
+                it.remove();
+                try {
+                    segment.close();
+                    Files.deleteIfExists(segment.getPath());
+                    deleted++;
+                } catch (IOException e) {
+                    LOG.warn("Erro ao remover o segmento {} do journal", segment.getPath(), e);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return deleted;
+    }
+
+    /**
+     * Força os registros do segmento atual ao disco.
+     */
+    public void force() {
+        lock.lock();
+        try {
+            active.force();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Força os registros ao disco e fecha os segmentos.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            active.force();
+            closeSegments();
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lê o registro na posição informada.
+     *
+     * @param offset posição do registro.
+     * @throws IllegalStateException caso a posição tenha sido removida ou o
+     *                               registro esteja corrompido.
+     * @return registro lido, ou null caso ainda não exista registro na posição.
+     */
+    JournalRecord read(long offset) {
+        if (offset >= endOffset) {
+            return null;
+        }
+        Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+        if (entry == null) {
+            throw new IllegalStateException("A posição " + offset + " foi removida do journal.");
+        }
+        Segment segment = entry.getValue();
+        int position = (int) (offset - segment.getBaseOffset());
+        if (position >= segment.getLimit()) {
+            Long next = segments.higherKey(offset);
+            return next != null ? read(next) : null;
+        }
+
+        byte[] body = segment.read(position);
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        EntityType entity = EntityType.fromCode(buffer.get());
+        MutationType mutation = MutationType.fromCode(buffer.get());
+        long entityId = buffer.getLong();
+        long timestamp = buffer.getLong();
+        byte[] payload = Arrays.copyOfRange(body, Segment.BODY_HEADER_SIZE, body.length);
+        return new JournalRecord(offset, offset + Segment.HEADER_SIZE + body.length, timestamp, entity, mutation,
+                entityId, payload);
+    }
+
+    /**
+     * Aguarda até existir algum registro na posição informada.
+     *
+     * @param offset posição aguardada.
+     * @param nanos  tempo máximo de espera, em nanossegundos.
+     * @throws InterruptedException caso a thread seja interrompida.
+     * @return true caso exista registro na posição.
+     */
+    boolean awaitAppend(long offset, long nanos) throws InterruptedException {
+        lock.lock();
+        try {
+            while (endOffset <= offset && nanos > 0 && !closed) {
+                nanos = appended.awaitNanos(nanos);
+            }
+            return endOffset > offset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long append(EntityType entity, MutationType mutation, long id, byte[] payload) {
+        byte[] body = new byte[Segment.BODY_HEADER_SIZE + payload.length];
+        ByteBuffer.wrap(body)
+                .put(entity.code())
+                .put(mutation.code())
+                .putLong(id)
+                .putLong(System.currentTimeMillis())
+                .put(payload);
+        if ((long) Segment.HEADER_SIZE + body.length > config.getSegmentSize()) {
+            throw new IllegalArgumentException("Registro de " + body.length + " bytes maior que o segmento do journal.");
+        }
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("O journal está fechado.");
+            }
+            if (!active.fits(body.length)) {
+                roll();
+            }
+            long offset = active.append(body);
+            if (config.isForceOnAppend()) {
+                active.force();
+            }
+            endOffset = active.getEndOffset();
+            appended.signalAll();
+            return offset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void roll() {
+        active.force();
+        long baseOffset = active.getEndOffset();
+        try {
+            Segment next = Segment.open(config.getDirectory(), baseOffset, config.getSegmentSize());
+            segments.put(baseOffset, next);
+            active = next;
+            LOG.debug("Novo segmento do journal a partir de {}", baseOffset);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao criar segmento do journal", e);
+        }
+    }
+
+    private static Long baseOffsetOf(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - Segment.EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void closeSegments() {
+        for (Segment segment : segments.values()) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                LOG.warn("Erro ao fechar o segmento {} do journal", segment.getPath(), e);
+            }
+        }
+    }
+}
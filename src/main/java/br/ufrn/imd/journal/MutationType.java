@@ -0,0 +1,48 @@
+package br.ufrn.imd.journal;
+
+/**
+ * Tipo de mutação registrada no journal.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public enum MutationType {
+    CREATE(1),
+    UPDATE(2),
+    DELETE(3);
+
+    private final byte code;
+
+    MutationType(int code) {
+        this.code = (byte) code;
+    }
+
+    /**
+     * Código gravado nos registros; não muda entre versões.
+     *
+     * @return código da mutação.
+     */
+    byte code() {
+        return code;
+    }
+
+    /**
+     * Retorna a mutação de um código gravado.
+     *
+     * @param code código lido do registro.
+     * @throws IllegalArgumentException caso o código seja desconhecido.
+     * @return mutação correspondente.
+     */
+    static MutationType fromCode(byte code) {
+        switch (code) {
+            case 1:
+                return CREATE;
+            case 2:
+                return UPDATE;
+            case 3:
+                return DELETE;
+            default:
+                throw new IllegalArgumentException("Mutação desconhecida no journal: " + code);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package br.ufrn.imd.journal;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Arquivo do journal mapeado em memória, identificado pela posição do seu
+ * primeiro registro.
+ * <p>
+ * Cada registro é gravado como {@code [tamanho:int][crc32c:int][corpo]}, e o
+ * corpo como {@code [entidade:byte][mutação:byte][id:long][instante:long][carga]}.
+ * Um tamanho zero marca o fim dos registros do segmento.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+final class Segment {
+
+    static final int HEADER_SIZE = 8;
+    static final int BODY_HEADER_SIZE = 18;
+    static final String EXTENSION = ".journal";
+
+    private final long baseOffset;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private volatile int limit;
+
+    private Segment(long baseOffset, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.baseOffset = baseOffset;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Abre ou cria o segmento e localiza o fim dos seus registros válidos. Um
+     * registro incompleto ou corrompido no fim, deixado por uma falha durante
+     * a gravação, é apagado.
+     *
+     * @param directory  diretório do journal.
+     * @param baseOffset posição do primeiro registro do segmento.
+     * @param size       tamanho de um segmento novo, em bytes.
+     * @throws IOException caso o arquivo não possa ser aberto ou mapeado.
+     * @return segmento aberto.
+     */
+    static Segment open(Path directory, long baseOffset, int size) throws IOException {
+        Path path = directory.resolve(fileName(baseOffset));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long existing = channel.size();
+            int capacity = existing > 0 ? (int) Math.min(existing, Integer.MAX_VALUE) : size;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            Segment segment = new Segment(baseOffset, path, channel, buffer);
+            segment.recover();
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static String fileName(long baseOffset) {
+        return String.format("%020d%s", baseOffset, EXTENSION);
+    }
+
+    long getBaseOffset() {
+        return baseOffset;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /** Bytes ocupados pelos registros. */
+    int getLimit() {
+        return limit;
+    }
+
+    /** Posição seguinte ao último registro do segmento. */
+    long getEndOffset() {
+        return baseOffset + limit;
+    }
+
+    boolean fits(int bodyLength) {
+        return (long) limit + HEADER_SIZE + bodyLength <= buffer.capacity();
+    }
+
+    /**
+     * Grava um registro no fim do segmento. O tamanho é escrito por último,
+     * depois do corpo e do checksum. Deve ser chamado por uma thread de cada
+     * vez.
+     *
+     * @param body corpo do registro.
+     * @return posição do registro no journal.
+     */
+    long append(byte[] body) {
+        int position = limit;
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        buffer.put(position + HEADER_SIZE, body);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.putInt(position, body.length);
+        limit = position + HEADER_SIZE + body.length;
+        return baseOffset + position;
+    }
+
+    /**
+     * Lê o corpo do registro na posição informada.
+     *
+     * @param position posição relativa ao início do segmento.
+     * @throws IllegalStateException caso o registro esteja corrompido.
+     * @return corpo do registro.
+     */
+    byte[] read(int position) {
+        int length = buffer.getInt(position);
+        if (length < BODY_HEADER_SIZE || (long) position + HEADER_SIZE + length > limit) {
+            throw new IllegalStateException("Registro inválido no journal na posição " + (baseOffset + position) + ".");
+        }
+        byte[] body = new byte[length];
+        buffer.get(position + HEADER_SIZE, body);
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+        if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+            throw new IllegalStateException("Checksum inválido no journal na posição " + (baseOffset + position) + ".");
+        }
+        return body;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Percorre os registros desde o início, validando os checksums, e apaga o
+     * que houver depois do último registro válido.
+     */
+    private void recover() {
+        int capacity = buffer.capacity();
+        int position = 0;
+        CRC32C crc = new CRC32C();
+        while (position + HEADER_SIZE <= capacity) {
+            int length = buffer.getInt(position);
+            if (length < BODY_HEADER_SIZE || (long) position + HEADER_SIZE + length > capacity) {
+                break;
+            }
+            crc.reset();
+            crc.update(buffer.slice(position + HEADER_SIZE, length));
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+            position += HEADER_SIZE + length;
+        }
+        limit = position;
+
+        if (position + HEADER_SIZE <= capacity && buffer.getLong(position) != 0) {
+            // restos de uma gravação interrompida; zera para que não sejam lidos como registros
+            byte[] zeros = new byte[Math.min(64 * 1024, capacity - position)];
+            for (int i = position; i < capacity; i += zeros.length) {
+                buffer.put(i, zeros, 0, Math.min(zeros.length, capacity - i));
+            }
+        }
+    }
+}
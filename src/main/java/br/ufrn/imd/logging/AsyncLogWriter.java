@@ -0,0 +1,250 @@
+package br.ufrn.imd.logging;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Buffer circular de eventos de log com uma única thread de escrita.
+ * <p>
+ * Os eventos ocupam posições pré-alocadas: quem registra uma mensagem apenas
+ * reserva uma posição com um CAS, copia as referências do nível, da mensagem e
+ * dos argumentos e publica a posição. A formatação e a escrita no arquivo são
+ * feitas pela thread de escrita, que agrupa as escritas e só descarrega o
+ * arquivo quando o buffer esvazia. Com o buffer cheio, o evento é descartado
+ * e contabilizado, ou quem registra espera, conforme {@link LogConfig}.
+ * <p>
+ * Os argumentos são convertidos em texto na thread de escrita; objetos
+ * alterados logo após o registro podem aparecer já alterados.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+final class AsyncLogWriter implements AutoCloseable {
+
+    private static final DateTimeFormatter SECONDS = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final boolean blockWhenFull;
+    private final RollingFileAppender appender;
+
+    private final AtomicLong next = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private final StringBuilder line = new StringBuilder(256);
+    private long cachedSecond = Long.MIN_VALUE;
+    private String cachedSecondText;
+
+    AsyncLogWriter(LogConfig config) throws IOException {
+        int capacity = Integer.highestOneBit(Math.max(2, config.getBufferSize() - 1)) << 1;
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot(i - capacity);
+        }
+        this.mask = capacity - 1;
+        this.blockWhenFull = config.isBlockWhenFull();
+        this.appender = new RollingFileAppender(config);
+
+        this.thread = new Thread(this::drainLoop, "log-writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Enfileira um evento. Não aloca; em caso de buffer cheio, descarta ou
+     * espera conforme a configuração.
+     */
+    void enqueue(Level level, String logger, String pattern, Object a0, Object a1, Object a2, Object[] args,
+            int argCount) {
+        long seq;
+        while (true) {
+            seq = next.get();
+            if (seq - consumed.get() >= slots.length) {
+                if (!blockWhenFull || !running) {
+                    dropped.increment();
+                    return;
+                }
+                LockSupport.parkNanos(10_000L);
+                continue;
+            }
+            if (next.compareAndSet(seq, seq + 1)) {
+                break;
+            }
+        }
+
+        Slot slot = slots[(int) (seq & mask)];
+        slot.level = level;
+        slot.logger = logger;
+        slot.timestamp = System.currentTimeMillis();
+        slot.thread = Thread.currentThread().getName();
+        slot.pattern = pattern;
+        slot.a0 = a0;
+        slot.a1 = a1;
+        slot.a2 = a2;
+        slot.args = args;
+        slot.argCount = argCount;
+        slot.sequence = seq;
+    }
+
+    long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Grava os eventos pendentes e encerra a thread de escrita.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        long position = 0;
+        long reportedDrops = 0;
+        boolean dirty = false;
+
+        while (true) {
+            Slot slot = slots[(int) (position & mask)];
+            if (slot.sequence == position) {
+                write(slot);
+                slot.clear();
+                position++;
+                consumed.lazySet(position);
+                dirty = true;
+                continue;
+            }
+
+            long drops = dropped.sum();
+            if (drops != reportedDrops) {
+                writeDropNotice(drops - reportedDrops);
+                reportedDrops = drops;
+                dirty = true;
+            }
+            if (dirty) {
+                flush();
+                dirty = false;
+            }
+            if (!running && next.get() == position) {
+                break;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+
+        try {
+            appender.close();
+        } catch (IOException e) {
+            System.err.println("Erro ao fechar o arquivo de log: " + e.getMessage());
+        }
+    }
+
+    private void write(Slot slot) {
+        line.setLength(0);
+        appendTimestamp(slot.timestamp);
+        line.append(' ').append(slot.level.name());
+        for (int i = slot.level.name().length(); i < 5; i++) {
+            line.append(' ');
+        }
+        line.append(" [").append(slot.thread).append("] ").append(slot.logger).append(" - ");
+        Throwable throwable = MessageFormatter.format(line, slot.pattern, slot.a0, slot.a1, slot.a2, slot.args,
+                slot.argCount);
+
+        try {
+            appender.append(line);
+            if (throwable != null) {
+                StringWriter trace = new StringWriter();
+                throwable.printStackTrace(new PrintWriter(trace));
+                appender.append(trace.toString().stripTrailing());
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar o log: " + e.getMessage());
+        }
+    }
+
+    private void writeDropNotice(long count) {
+        line.setLength(0);
+        appendTimestamp(System.currentTimeMillis());
+        line.append(" WARN  [log-writer] AsyncLogWriter - ").append(count)
+                .append(" mensagens descartadas com o buffer de log cheio.");
+        try {
+            appender.append(line);
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar o log: " + e.getMessage());
+        }
+    }
+
+    private void flush() {
+        try {
+            appender.flush();
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar o log: " + e.getMessage());
+        }
+    }
+
+    private void appendTimestamp(long millis) {
+        long second = Math.floorDiv(millis, 1000L);
+        if (second != cachedSecond) {
+            cachedSecond = second;
+            cachedSecondText = SECONDS.format(LocalDateTime.ofInstant(Instant.ofEpochSecond(second),
+                    ZoneId.systemDefault()));
+        }
+        long fraction = Math.floorMod(millis, 1000L);
+        line.append(cachedSecondText).append('.');
+        if (fraction < 100) {
+            line.append('0');
+        }
+        if (fraction < 10) {
+            line.append('0');
+        }
+        line.append(fraction);
+    }
+
+    /**
+     * Posição reutilizável do buffer circular.
+     */
+    private static final class Slot {
+
+        private volatile long sequence;
+        private Level level;
+        private String logger;
+        private long timestamp;
+        private String thread;
+        private String pattern;
+        private Object a0;
+        private Object a1;
+        private Object a2;
+        private Object[] args;
+        private int argCount;
+
+        Slot(long initialSequence) {
+            this.sequence = initialSequence;
+        }
+
+        void clear() {
+            logger = null;
+            thread = null;
+            pattern = null;
+            a0 = null;
+            a1 = null;
+            a2 = null;
+            args = null;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package br.ufrn.imd.logging;
+
+/**
+ * Níveis de log, do mais detalhado ao mais grave.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public enum Level {
+    TRACE,
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF;
+}
@@ -0,0 +1,61 @@
+package br.ufrn.imd.logging;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Configuração do log da aplicação.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public class LogConfig {
+
+    /** Nível mínimo das mensagens gravadas. */
+    @Builder.Default
+    private final Level level = Level.INFO;
+
+    /** Diretório dos arquivos de log. */
+    @Builder.Default
+    private final Path directory = Paths.get("logs");
+
+    /** Nome do arquivo atual; os antigos recebem o sufixo {@code .1}, {@code .2}... */
+    @Builder.Default
+    private final String fileName = "library.log";
+
+    /** Tamanho a partir do qual o arquivo atual é rotacionado, em bytes. */
+    @Builder.Default
+    private final long maxFileSize = 10L * 1024 * 1024;
+
+    /** Quantidade de arquivos antigos mantidos. */
+    @Builder.Default
+    private final int maxFiles = 5;
+
+    /** Capacidade do buffer circular; arredondada para potência de dois. */
+    @Builder.Default
+    private final int bufferSize = 8192;
+
+    /**
+     * Se verdadeiro, quem registra uma mensagem com o buffer cheio espera por
+     * espaço; caso contrário a mensagem é descartada e contabilizada.
+     */
+    @Builder.Default
+    private final boolean blockWhenFull = false;
+
+    void validate() {
+        if (level == null || directory == null || fileName == null || fileName.isEmpty()) {
+            throw new IllegalArgumentException("Nível, diretório e nome do arquivo de log são obrigatórios.");
+        }
+        if (maxFileSize <= 0 || maxFiles < 0 || bufferSize <= 0) {
+            throw new IllegalArgumentException("Tamanhos do log devem ser positivos.");
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+package br.ufrn.imd.logging;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ponto de configuração do log da aplicação.
+ * <p>
+ * O nível inicial vem da propriedade de sistema {@value #LEVEL_PROPERTY}
+ * (padrão INFO). A thread de escrita e o arquivo só são criados quando a
+ * primeira mensagem habilitada é registrada; ao encerrar a JVM, as mensagens
+ * pendentes são gravadas.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public final class LogManager {
+
+    /** Propriedade de sistema com o nível inicial do log. */
+    public static final String LEVEL_PROPERTY = "library.log.level";
+
+    private static final Map<String, Logger> LOGGERS = new ConcurrentHashMap<>();
+
+    private static volatile LogConfig config = initialConfig();
+    private static volatile int threshold = config.getLevel().ordinal();
+    private static volatile AsyncLogWriter writer;
+    private static boolean hookInstalled;
+
+    private LogManager() {
+    }
+
+    /**
+     * Retorna o logger com o nome informado.
+     *
+     * @param name nome do logger, normalmente o nome simples da classe.
+     * @return logger compartilhado.
+     */
+    public static Logger getLogger(String name) {
+        return LOGGERS.computeIfAbsent(name, Logger::new);
+    }
+
+    /**
+     * Substitui a configuração do log. As mensagens pendentes são gravadas no
+     * arquivo anterior antes da troca.
+     *
+     * @param newConfig nova configuração.
+     * @throws IllegalArgumentException caso a configuração seja inválida.
+     */
+    public static synchronized void configure(LogConfig newConfig) {
+        newConfig.validate();
+        closeWriter();
+        config = newConfig;
+        threshold = newConfig.getLevel().ordinal();
+    }
+
+    /**
+     * Altera apenas o nível mínimo das mensagens.
+     *
+     * @param level novo nível.
+     */
+    public static synchronized void setLevel(Level level) {
+        config = config.toBuilder().level(level).build();
+        threshold = level.ordinal();
+    }
+
+    /**
+     * Retorna a configuração atual.
+     *
+     * @return configuração do log.
+     */
+    public static LogConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Quantidade de mensagens descartadas por buffer cheio desde a última
+     * configuração.
+     *
+     * @return mensagens descartadas.
+     */
+    public static long getDroppedCount() {
+        AsyncLogWriter current = writer;
+        return current == null ? 0 : current.getDroppedCount();
+    }
+
+    /**
+     * Grava as mensagens pendentes e fecha o arquivo de log. Mensagens
+     * registradas depois reabrem o arquivo.
+     */
+    public static synchronized void shutdown() {
+        closeWriter();
+    }
+
+    static boolean isEnabled(Level level) {
+        return level.ordinal() >= threshold;
+    }
+
+    static void log(Level level, String logger, String pattern, Object a0, Object a1, Object a2, Object[] args,
+            int argCount) {
+        AsyncLogWriter current = writer;
+        if (current == null) {
+            current = openWriter();
+            if (current == null) {
+                return;
+            }
+        }
+        current.enqueue(level, logger, pattern, a0, a1, a2, args, argCount);
+    }
+
+    private static synchronized AsyncLogWriter openWriter() {
+        if (writer != null) {
+            return writer;
+        }
+        try {
+            writer = new AsyncLogWriter(config);
+        } catch (IOException e) {
+            System.err.println("Erro ao abrir o arquivo de log, log desativado: " + e.getMessage());
+            threshold = Level.OFF.ordinal();
+            return null;
+        }
+        if (!hookInstalled) {
+            Runtime.getRuntime().addShutdownHook(new Thread(LogManager::shutdown, "log-shutdown"));
+            hookInstalled = true;
+        }
+        return writer;
+    }
+
+    private static void closeWriter() {
+        AsyncLogWriter current = writer;
+        writer = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private static LogConfig initialConfig() {
+        String property = System.getProperty(LEVEL_PROPERTY);
+        if (property == null || property.isBlank()) {
+            return LogConfig.builder().build();
+        }
+        try {
+            return LogConfig.builder().level(Level.valueOf(property.trim().toUpperCase(Locale.ROOT))).build();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Nível de log inválido em " + LEVEL_PROPERTY + ": " + property);
+            return LogConfig.builder().build();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package br.ufrn.imd.logging;
+
+/**
+ * Registro de mensagens de um componente.
+ * <p>
+ * As mensagens usam {@code {}} como marcador dos argumentos, que só são
+ * convertidos em texto quando a mensagem está habilitada, na thread de
+ * escrita. Com o nível desabilitado, uma chamada custa uma comparação; as
+ * sobrecargas de até três argumentos evitam alocar um array. Uma exceção
+ * passada como último argumento, sem marcador correspondente, tem o stack
+ * trace gravado após a mensagem.
+ *
+ * <pre>
+ * private static final Logger LOG = Logger.getLogger(BookDAO.class);
+ * LOG.debug("Livro {} salvo.", book.getId());
+ * LOG.error("Erro ao salvar livro", e);
+ * </pre>
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public final class Logger {
+
+    private final String name;
+
+    Logger(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Retorna o logger de uma classe, identificado pelo nome simples dela.
+     *
+     * @param type classe que registra as mensagens.
+     * @return logger da classe.
+     */
+    public static Logger getLogger(Class<?> type) {
+        return LogManager.getLogger(type.getSimpleName());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Verifica se mensagens do nível informado são gravadas.
+     *
+     * @param level nível consultado.
+     * @return true caso o nível esteja habilitado.
+     */
+    public boolean isEnabled(Level level) {
+        return LogManager.isEnabled(level);
+    }
+
+    public boolean isTraceEnabled() {
+        return LogManager.isEnabled(Level.TRACE);
+    }
+
+    public void trace(String message) {
+        if (LogManager.isEnabled(Level.TRACE)) {
+            LogManager.log(Level.TRACE, name, message, null, null, null, null, 0);
+        }
+    }
+
+    public void trace(String pattern, Object arg) {
+        if (LogManager.isEnabled(Level.TRACE)) {
+            LogManager.log(Level.TRACE, name, pattern, arg, null, null, null, 1);
+        }
+    }
+
+    public void trace(String pattern, Object arg1, Object arg2) {
+        if (LogManager.isEnabled(Level.TRACE)) {
+            LogManager.log(Level.TRACE, name, pattern, arg1, arg2, null, null, 2);
+        }
+    }
+
+    public void trace(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (LogManager.isEnabled(Level.TRACE)) {
+            LogManager.log(Level.TRACE, name, pattern, arg1, arg2, arg3, null, 3);
+        }
+    }
+
+    public void trace(String pattern, Object... args) {
+        if (LogManager.isEnabled(Level.TRACE)) {
+            LogManager.log(Level.TRACE, name, pattern, null, null, null, args, args == null ? 0 : args.length);
+        }
+    }
+
+    public boolean isDebugEnabled() {
+        return LogManager.isEnabled(Level.DEBUG);
+    }
+
+    public void debug(String message) {
+        if (LogManager.isEnabled(Level.DEBUG)) {
+            LogManager.log(Level.DEBUG, name, message, null, null, null, null, 0);
+        }
+    }
+
+    public void debug(String pattern, Object arg) {
+        if (LogManager.isEnabled(Level.DEBUG)) {
+            LogManager.log(Level.DEBUG, name, pattern, arg, null, null, null, 1);
+        }
+    }
+
+    public void debug(String pattern, Object arg1, Object arg2) {
+        if (LogManager.isEnabled(Level.DEBUG)) {
+            LogManager.log(Level.DEBUG, name, pattern, arg1, arg2, null, null, 2);
+        }
+    }
+
+    public void debug(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (LogManager.isEnabled(Level.DEBUG)) {
+            LogManager.log(Level.DEBUG, name, pattern, arg1, arg2, arg3, null, 3);
+        }
+    }
+
+    public void debug(String pattern, Object... args) {
+        if (LogManager.isEnabled(Level.DEBUG)) {
+            LogManager.log(Level.DEBUG, name, pattern, null, null, null, args, args == null ? 0 : args.length);
+        }
+    }
+
+    public boolean isInfoEnabled() {
+        return LogManager.isEnabled(Level.INFO);
+    }
+
+    public void info(String message) {
+        if (LogManager.isEnabled(Level.INFO)) {
+            LogManager.log(Level.INFO, name, message, null, null, null, null, 0);
+        }
+    }
+
+    public void info(String pattern, Object arg) {
+        if (LogManager.isEnabled(Level.INFO)) {
+            LogManager.log(Level.INFO, name, pattern, arg, null, null, null, 1);
+        }
+    }
+
+    public void info(String pattern, Object arg1, Object arg2) {
+        if (LogManager.isEnabled(Level.INFO)) {
+            LogManager.log(Level.INFO, name, pattern, arg1, arg2, null, null, 2);
+        }
+    }
+
+    public void info(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (LogManager.isEnabled(Level.INFO)) {
+            LogManager.log(Level.INFO, name, pattern, arg1, arg2, arg3, null, 3);
+        }
+    }
+
+    public void info(String pattern, Object... args) {
+        if (LogManager.isEnabled(Level.INFO)) {
+            LogManager.log(Level.INFO, name, pattern, null, null, null, args, args == null ? 0 : args.length);
+        }
+    }
+
+    public boolean isWarnEnabled() {
+        return LogManager.isEnabled(Level.WARN);
+    }
+
+    public void warn(String message) {
+        if (LogManager.isEnabled(Level.WARN)) {
+            LogManager.log(Level.WARN, name, message, null, null, null, null, 0);
+        }
+    }
+
+    public void warn(String pattern, Object arg) {
+        if (LogManager.isEnabled(Level.WARN)) {
+            LogManager.log(Level.WARN, name, pattern, arg, null, null, null, 1);
+        }
+    }
+
+    public void warn(String pattern, Object arg1, Object arg2) {
+        if (LogManager.isEnabled(Level.WARN)) {
+            LogManager.log(Level.WARN, name, pattern, arg1, arg2, null, null, 2);
+        }
+    }
+
+    public void warn(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (LogManager.isEnabled(Level.WARN)) {
+            LogManager.log(Level.WARN, name, pattern, arg1, arg2, arg3, null, 3);
+        }
+    }
+
+    public void warn(String pattern, Object... args) {
+        if (LogManager.isEnabled(Level.WARN)) {
+            LogManager.log(Level.WARN, name, pattern, null, null, null, args, args == null ? 0 : args.length);
+        }
+    }
+
+    public boolean isErrorEnabled() {
+        return LogManager.isEnabled(Level.ERROR);
+    }
+
+    public void error(String message) {
+        if (LogManager.isEnabled(Level.ERROR)) {
+            LogManager.log(Level.ERROR, name, message, null, null, null, null, 0);
+        }
+    }
+
+    public void error(String pattern, Object arg) {
+        if (LogManager.isEnabled(Level.ERROR)) {
+            LogManager.log(Level.ERROR, name, pattern, arg, null, null, null, 1);
+        }
+    }
+
+    public void error(String pattern, Object arg1, Object arg2) {
+        if (LogManager.isEnabled(Level.ERROR)) {
+            LogManager.log(Level.ERROR, name, pattern, arg1, arg2, null, null, 2);
+        }
+    }
+
+    public void error(String pattern, Object arg1, Object arg2, Object arg3) {
+        if (LogManager.isEnabled(Level.ERROR)) {
+            LogManager.log(Level.ERROR, name, pattern, arg1, arg2, arg3, null, 3);
+        }
+    }
+
+    public void error(String pattern, Object... args) {
+        if (LogManager.isEnabled(Level.ERROR)) {
+            LogManager.log(Level.ERROR, name, pattern, null, null, null, args, args == null ? 0 : args.length);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package br.ufrn.imd.logging;
+
+/**
+ * Substitui os marcadores {@code {}} de uma mensagem pelos argumentos.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+final class MessageFormatter {
+
+    private MessageFormatter() {
+    }
+
+    /**
+     * Formata a mensagem no destino informado. Os argumentos vêm em
+     * {@code a0..a2} quando são até três, ou em {@code args}.
+     *
+     * @return o último argumento, caso seja uma exceção que não ocupou um
+     *         marcador; null caso contrário.
+     */
+    static Throwable format(StringBuilder out, String pattern, Object a0, Object a1, Object a2, Object[] args,
+            int argCount) {
+        if (pattern == null) {
+            out.append("null");
+            return null;
+        }
+
+        int used = 0;
+        int from = 0;
+        int at;
+        while (used < argCount && (at = pattern.indexOf("{}", from)) >= 0) {
+            out.append(pattern, from, at);
+            appendValue(out, arg(used++, a0, a1, a2, args));
+            from = at + 2;
+        }
+        out.append(pattern, from, pattern.length());
+
+        if (used < argCount) {
+            Object last = arg(argCount - 1, a0, a1, a2, args);
+            if (last instanceof Throwable) {
+                return (Throwable) last;
+            }
+        }
+        return null;
+    }
+
+    private static Object arg(int index, Object a0, Object a1, Object a2, Object[] args) {
+        if (args != null) {
+            return args[index];
+        }
+        switch (index) {
+            case 0:
+                return a0;
+            case 1:
+                return a1;
+            default:
+                return a2;
+        }
+    }
+
+    private static void appendValue(StringBuilder out, Object value) {
+        try {
+            out.append(value);
+        } catch (RuntimeException e) {
+            out.append("[erro em toString: ").append(e.getClass().getSimpleName()).append(']');
+        }
+    }
+}
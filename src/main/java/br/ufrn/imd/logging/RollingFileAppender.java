@@ -0,0 +1,124 @@
+package br.ufrn.imd.logging;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Grava linhas de log em um arquivo, rotacionando-o ao atingir o tamanho
+ * máximo. Usado apenas pela thread de escrita do {@link AsyncLogWriter}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+class RollingFileAppender implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final String fileName;
+    private final long maxFileSize;
+    private final int maxFiles;
+
+    private BufferedWriter writer;
+    private CountingOutputStream out;
+
+    RollingFileAppender(LogConfig config) throws IOException {
+        this.directory = config.getDirectory();
+        this.fileName = config.getFileName();
+        this.maxFileSize = config.getMaxFileSize();
+        this.maxFiles = config.getMaxFiles();
+        Files.createDirectories(directory);
+        open();
+    }
+
+    /**
+     * Acrescenta uma linha já formatada, sem a quebra de linha.
+     */
+    void append(CharSequence line) throws IOException {
+        if (out.count >= maxFileSize) {
+            roll();
+        }
+        writer.append(line);
+        writer.newLine();
+    }
+
+    void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void open() throws IOException {
+        Path file = directory.resolve(fileName);
+        out = new CountingOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND), Files.exists(file) ? Files.size(file) : 0);
+        writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private void roll() throws IOException {
+        writer.close();
+        if (maxFiles == 0) {
+            Files.deleteIfExists(directory.resolve(fileName));
+        } else {
+            Files.deleteIfExists(archive(maxFiles));
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                Path source = archive(i);
+                if (Files.exists(source)) {
+                    Files.move(source, archive(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(directory.resolve(fileName), archive(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private Path archive(int index) {
+        return directory.resolve(fileName + "." + index);
+    }
+
+    /**
+     * Conta os bytes gravados para decidir a rotação.
+     */
+    private static class CountingOutputStream extends OutputStream {
+
+        private final OutputStream delegate;
+        private long count;
+
+        CountingOutputStream(OutputStream delegate, long initial) {
+            this.delegate = delegate;
+            this.count = initial;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package br.ufrn.imd.metrics;
+
+import java.util.function.Supplier;
+
+import br.ufrn.imd.database.PoolStats;
+
+/**
+ * Implementação de {@link ConnectionPoolMXBean} que lê as estatísticas do pool
+ * a cada consulta. Sem pool criado, todos os valores são zero.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+class ConnectionPoolMBean implements ConnectionPoolMXBean {
+
+    private final Supplier<PoolStats> stats;
+
+    ConnectionPoolMBean(Supplier<PoolStats> stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public int getTotalConnections() {
+        PoolStats current = stats.get();
+        return current == null ? 0 : current.getTotalConnections();
+    }
+
+    @Override
+    public int getActiveConnections() {
+        PoolStats current = stats.get();
+        return current == null ? 0 : current.getActiveConnections();
+    }
+
+    @Override
+    public int getIdleConnections() {
+        PoolStats current = stats.get();
+        return current == null ? 0 : current.getIdleConnections();
+    }
+
+    @Override
+    public int getWaitingThreads() {
+        PoolStats current = stats.get();
+        return current == null ? 0 : current.getWaitingThreads();
+    }
+
+    @Override
+    public long getBorrowCount() {
+        PoolStats current = stats.get();
+        return current == null ? 0 : current.getBorrowCount();
+    }
+
+    @Override
+    public long getBorrowTimeoutCount() {
+        PoolStats current = stats.get();
+        return current == null ? 0 : current.getBorrowTimeoutCount();
+    }
+
+    @Override
+    public long getCreatedCount() {
+        PoolStats current = stats.get();
+        return current == null ? 0 : current.getCreatedCount();
+    }
+
+    @Override
+    public long getDestroyedCount() {
+        PoolStats current = stats.get();
+        return current == null ? 0 : current.getDestroyedCount();
+    }
+
+    @Override
+    public long getValidationFailureCount() {
+        PoolStats current = stats.get();
+        return current == null ? 0 : current.getValidationFailureCount();
+    }
+
+    @Override
+    public long getLeakCount() {
+        PoolStats current = stats.get();
+        return current == null ? 0 : current.getLeakCount();
+    }
+
+    @Override
+    public double getStatementCacheHitRatio() {
+        PoolStats current = stats.get();
+        return current == null ? 0 : current.getStatementCacheHitRatio();
+    }
+}
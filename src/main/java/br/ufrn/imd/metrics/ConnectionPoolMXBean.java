@@ -0,0 +1,33 @@
+package br.ufrn.imd.metrics;
+
+/**
+ * Visão JMX do pool de conexões.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public interface ConnectionPoolMXBean {
+
+    int getTotalConnections();
+
+    int getActiveConnections();
+
+    int getIdleConnections();
+
+    int getWaitingThreads();
+
+    long getBorrowCount();
+
+    long getBorrowTimeoutCount();
+
+    long getCreatedCount();
+
+    long getDestroyedCount();
+
+    long getValidationFailureCount();
+
+    long getLeakCount();
+
+    double getStatementCacheHitRatio();
+
+}
@@ -0,0 +1,68 @@
+package br.ufrn.imd.metrics;
+
+import java.util.function.Supplier;
+
+import br.ufrn.imd.cache.CacheStats;
+
+/**
+ * Implementação de {@link EntityCacheMXBean} que lê as estatísticas do cache a
+ * cada consulta. Com o cache desabilitado, todos os valores são zero.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+class EntityCacheMBean implements EntityCacheMXBean {
+
+    private final Supplier<CacheStats> stats;
+
+    EntityCacheMBean(Supplier<CacheStats> stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return stats.get() != null;
+    }
+
+    @Override
+    public long getHits() {
+        CacheStats current = stats.get();
+        return current == null ? 0 : current.getHits();
+    }
+
+    @Override
+    public long getMisses() {
+        CacheStats current = stats.get();
+        return current == null ? 0 : current.getMisses();
+    }
+
+    @Override
+    public double getHitRatio() {
+        CacheStats current = stats.get();
+        return current == null ? 0 : current.getHitRatio();
+    }
+
+    @Override
+    public long getLoads() {
+        CacheStats current = stats.get();
+        return current == null ? 0 : current.getLoads();
+    }
+
+    @Override
+    public long getEvictions() {
+        CacheStats current = stats.get();
+        return current == null ? 0 : current.getEvictions();
+    }
+
+    @Override
+    public long getInvalidations() {
+        CacheStats current = stats.get();
+        return current == null ? 0 : current.getInvalidations();
+    }
+
+    @Override
+    public int getSize() {
+        CacheStats current = stats.get();
+        return current == null ? 0 : current.getSize();
+    }
+}
@@ -0,0 +1,27 @@
+package br.ufrn.imd.metrics;
+
+/**
+ * Visão JMX de um cache de entidades.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public interface EntityCacheMXBean {
+
+    boolean isEnabled();
+
+    long getHits();
+
+    long getMisses();
+
+    double getHitRatio();
+
+    long getLoads();
+
+    long getEvictions();
+
+    long getInvalidations();
+
+    int getSize();
+
+}
@@ -0,0 +1,44 @@
+package br.ufrn.imd.metrics;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+import br.ufrn.imd.dao.BookRepository;
+import br.ufrn.imd.service.BookChangeListener;
+import br.ufrn.imd.service.BookImportService;
+import br.ufrn.imd.service.ImportProgressListener;
+import br.ufrn.imd.service.ImportResult;
+
+/**
+ * {@link BookImportService} instrumentado: cada operação registra chamadas, erros e
+ * latência em um {@link MetricsRegistry}, sem alocar por chamada.
+ * <p>
+ * A importação a partir de arquivos abre os arquivos e chama a versão com
+ * {@code Reader}, medida aqui, por isso não é medida separadamente.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class MeteredBookImportService extends BookImportService {
+
+    private final OperationMetrics importCsv;
+
+    public MeteredBookImportService(BookRepository bookRepository, int batchSize, BookChangeListener changeListener, MetricsRegistry registry) {
+        super(bookRepository, batchSize, changeListener);
+        this.importCsv = registry.operation("BookImportService.importCsv");
+    }
+
+    @Override
+    public ImportResult importCsv(Reader input, Writer errorReport, ImportProgressListener listener) throws IOException {
+        long start = importCsv.start();
+        try {
+            ImportResult result = super.importCsv(input, errorReport, listener);
+            importCsv.success(start);
+            return result;
+        } catch (Throwable e) {
+            importCsv.failure(start);
+            throw e;
+        }
+    }
+}
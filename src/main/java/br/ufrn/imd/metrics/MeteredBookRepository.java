@@ -0,0 +1,304 @@
+package br.ufrn.imd.metrics;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import br.ufrn.imd.dao.BookDAO;
+import br.ufrn.imd.dao.BookRepository;
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.dao.QueryHandle;
+import br.ufrn.imd.model.Book;
+
+/**
+ * {@link BookRepository} instrumentado: cada operação registra chamadas, erros
+ * e latência em um {@link MetricsRegistry}, sem alocar por chamada.
+ * <p>
+ * Decora qualquer repositório, do JDBC ou do mecanismo em arquivo, repassando
+ * as chamadas ao repositório original. Chamadas que o repositório original faz
+ * a si mesmo, como {@code existsById} a {@code findById}, não passam pelo
+ * decorador e por isso não são contadas duas vezes.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class MeteredBookRepository implements BookRepository {
+
+    private final BookRepository delegate;
+
+    private final OperationMetrics create;
+    private final OperationMetrics restoreAll;
+    private final OperationMetrics createAll;
+    private final OperationMetrics findById;
+    private final OperationMetrics findByIsbn;
+    private final OperationMetrics findAll;
+    private final OperationMetrics streamAll;
+    private final OperationMetrics forEach;
+    private final OperationMetrics searchBooks;
+    private final OperationMetrics findPage;
+    private final OperationMetrics cursorAt;
+    private final OperationMetrics searchBooksPage;
+    private final OperationMetrics count;
+    private final OperationMetrics exists;
+    private final OperationMetrics existsById;
+    private final OperationMetrics update;
+    private final OperationMetrics delete;
+
+    /**
+     * Cria o decorador. Caso o repositório seja um {@link BookDAO}, o seu cache
+     * também é publicado no registro.
+     *
+     * @param delegate repositório decorado.
+     * @param registry registro das métricas.
+     */
+    public MeteredBookRepository(BookRepository delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.create = registry.operation("BookRepository.create");
+        this.restoreAll = registry.operation("BookRepository.restoreAll");
+        this.createAll = registry.operation("BookRepository.createAll");
+        this.findById = registry.operation("BookRepository.findById");
+        this.findByIsbn = registry.operation("BookRepository.findByIsbn");
+        this.findAll = registry.operation("BookRepository.findAll");
+        this.streamAll = registry.operation("BookRepository.streamAll");
+        this.forEach = registry.operation("BookRepository.forEach");
+        this.searchBooks = registry.operation("BookRepository.searchBooks");
+        this.findPage = registry.operation("BookRepository.findPage");
+        this.cursorAt = registry.operation("BookRepository.cursorAt");
+        this.searchBooksPage = registry.operation("BookRepository.searchBooksPage");
+        this.count = registry.operation("BookRepository.count");
+        this.exists = registry.operation("BookRepository.exists");
+        this.existsById = registry.operation("BookRepository.existsById");
+        this.update = registry.operation("BookRepository.update");
+        this.delete = registry.operation("BookRepository.delete");
+        if (delegate instanceof BookDAO) {
+            registry.registerCache("BookDAO", ((BookDAO) delegate)::getCacheStats);
+        }
+    }
+
+    @Override
+    public void create(Book book) {
+        long start = create.start();
+        try {
+            delegate.create(book);
+            create.success(start);
+        } catch (Throwable e) {
+            create.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public int restoreAll(List<Book> books) {
+        long start = restoreAll.start();
+        try {
+            int result = delegate.restoreAll(books);
+            restoreAll.success(start);
+            return result;
+        } catch (Throwable e) {
+            restoreAll.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public int createAll(List<Book> books) {
+        long start = createAll.start();
+        try {
+            int result = delegate.createAll(books);
+            createAll.success(start);
+            return result;
+        } catch (Throwable e) {
+            createAll.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Book findById(Long id) {
+        long start = findById.start();
+        try {
+            Book result = delegate.findById(id);
+            findById.success(start);
+            return result;
+        } catch (Throwable e) {
+            findById.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Book findByIsbn(String isbn) {
+        long start = findByIsbn.start();
+        try {
+            Book result = delegate.findByIsbn(isbn);
+            findByIsbn.success(start);
+            return result;
+        } catch (Throwable e) {
+            findByIsbn.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Book> findAll() {
+        long start = findAll.start();
+        try {
+            List<Book> result = delegate.findAll();
+            findAll.success(start);
+            return result;
+        } catch (Throwable e) {
+            findAll.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Stream<Book> streamAll() {
+        long start = streamAll.start();
+        try {
+            Stream<Book> result = delegate.streamAll();
+            streamAll.success(start);
+            return result;
+        } catch (Throwable e) {
+            streamAll.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<Book> action) {
+        long start = forEach.start();
+        try {
+            delegate.forEach(action);
+            forEach.success(start);
+        } catch (Throwable e) {
+            forEach.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Book> searchBooks(String query) {
+        long start = searchBooks.start();
+        try {
+            List<Book> result = delegate.searchBooks(query);
+            searchBooks.success(start);
+            return result;
+        } catch (Throwable e) {
+            searchBooks.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<Book> findPage(String cursor, int size) {
+        long start = findPage.start();
+        try {
+            Page<Book> result = delegate.findPage(cursor, size);
+            findPage.success(start);
+            return result;
+        } catch (Throwable e) {
+            findPage.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public String cursorAt(long position) {
+        long start = cursorAt.start();
+        try {
+            String result = delegate.cursorAt(position);
+            cursorAt.success(start);
+            return result;
+        } catch (Throwable e) {
+            cursorAt.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<Book> searchBooksPage(String query, String cursor, int size, QueryHandle handle) {
+        long start = searchBooksPage.start();
+        try {
+            Page<Book> result = delegate.searchBooksPage(query, cursor, size, handle);
+            searchBooksPage.success(start);
+            return result;
+        } catch (Throwable e) {
+            searchBooksPage.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public long count() {
+        long start = count.start();
+        try {
+            long result = delegate.count();
+            count.success(start);
+            return result;
+        } catch (Throwable e) {
+            count.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean exists() {
+        long start = exists.start();
+        try {
+            boolean result = delegate.exists();
+            exists.success(start);
+            return result;
+        } catch (Throwable e) {
+            exists.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        long start = existsById.start();
+        try {
+            boolean result = delegate.existsById(id);
+            existsById.success(start);
+            return result;
+        } catch (Throwable e) {
+            existsById.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void update(Long id, Book book) {
+        long start = update.start();
+        try {
+            delegate.update(id, book);
+            update.success(start);
+        } catch (Throwable e) {
+            update.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        long start = delete.start();
+        try {
+            delegate.delete(id);
+            delete.success(start);
+        } catch (Throwable e) {
+            delete.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void invalidate(Long id) {
+        delegate.invalidate(id);
+    }
+
+    @Override
+    public void invalidateAll() {
+        delegate.invalidateAll();
+    }
+}
@@ -0,0 +1,251 @@
+package br.ufrn.imd.metrics;
+
+import java.util.List;
+
+import br.ufrn.imd.dao.BookRepository;
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.dao.QueryHandle;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.search.BookFacetIndex;
+import br.ufrn.imd.search.BookFilter;
+import br.ufrn.imd.search.BookSearchIndex;
+import br.ufrn.imd.search.FacetResult;
+import br.ufrn.imd.service.BookService;
+
+/**
+ * {@link BookService} instrumentado: cada operação registra chamadas, erros e
+ * latência em um {@link MetricsRegistry}, sem alocar por chamada.
+ * <p>
+ * {@code searchBooks(String)} não é sobrescrito: ele apenas repassa a
+ * {@code searchBooks(String, int)}, que já é medido.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class MeteredBookService extends BookService {
+
+    private final OperationMetrics rebuildSearchIndex;
+    private final OperationMetrics rebuildFacetIndex;
+    private final OperationMetrics createBook;
+    private final OperationMetrics findBookById;
+    private final OperationMetrics findAllBooks;
+    private final OperationMetrics searchBooks;
+    private final OperationMetrics filterBooks;
+    private final OperationMetrics findFilteredBooks;
+    private final OperationMetrics findBooksPage;
+    private final OperationMetrics searchBooksPage;
+    private final OperationMetrics countBooks;
+    private final OperationMetrics hasBooks;
+    private final OperationMetrics updateBook;
+    private final OperationMetrics deleteBook;
+
+    public MeteredBookService(BookRepository bookRepository, BookSearchIndex searchIndex, MetricsRegistry registry) {
+        this(bookRepository, searchIndex, null, registry);
+    }
+
+    public MeteredBookService(BookRepository bookRepository, BookSearchIndex searchIndex, BookFacetIndex facetIndex,
+            MetricsRegistry registry) {
+        super(bookRepository, searchIndex, facetIndex);
+        this.rebuildSearchIndex = registry.operation("BookService.rebuildSearchIndex");
+        this.rebuildFacetIndex = registry.operation("BookService.rebuildFacetIndex");
+        this.createBook = registry.operation("BookService.createBook");
+        this.findBookById = registry.operation("BookService.findBookById");
+        this.findAllBooks = registry.operation("BookService.findAllBooks");
+        this.searchBooks = registry.operation("BookService.searchBooks");
+        this.filterBooks = registry.operation("BookService.filterBooks");
+        this.findFilteredBooks = registry.operation("BookService.findFilteredBooks");
+        this.findBooksPage = registry.operation("BookService.findBooksPage");
+        this.searchBooksPage = registry.operation("BookService.searchBooksPage");
+        this.countBooks = registry.operation("BookService.countBooks");
+        this.hasBooks = registry.operation("BookService.hasBooks");
+        this.updateBook = registry.operation("BookService.updateBook");
+        this.deleteBook = registry.operation("BookService.deleteBook");
+    }
+
+    @Override
+    public void rebuildSearchIndex() {
+        if (rebuildSearchIndex == null) {
+            // chamado pelo construtor da superclasse, antes da instrumentação
+            super.rebuildSearchIndex();
+            return;
+        }
+        long start = rebuildSearchIndex.start();
+        try {
+            super.rebuildSearchIndex();
+            rebuildSearchIndex.success(start);
+        } catch (Throwable e) {
+            rebuildSearchIndex.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void rebuildFacetIndex() {
+        if (rebuildFacetIndex == null) {
+            // chamado pelo construtor da superclasse, antes da instrumentação
+            super.rebuildFacetIndex();
+            return;
+        }
+        long start = rebuildFacetIndex.start();
+        try {
+            super.rebuildFacetIndex();
+            rebuildFacetIndex.success(start);
+        } catch (Throwable e) {
+            rebuildFacetIndex.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void createBook(Book book) {
+        long start = createBook.start();
+        try {
+            super.createBook(book);
+            createBook.success(start);
+        } catch (Throwable e) {
+            createBook.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Book findBookById(Long id) {
+        long start = findBookById.start();
+        try {
+            Book result = super.findBookById(id);
+            findBookById.success(start);
+            return result;
+        } catch (Throwable e) {
+            findBookById.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Book> findAllBooks() {
+        long start = findAllBooks.start();
+        try {
+            List<Book> result = super.findAllBooks();
+            findAllBooks.success(start);
+            return result;
+        } catch (Throwable e) {
+            findAllBooks.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Book> searchBooks(String query, int limit) {
+        long start = searchBooks.start();
+        try {
+            List<Book> result = super.searchBooks(query, limit);
+            searchBooks.success(start);
+            return result;
+        } catch (Throwable e) {
+            searchBooks.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public FacetResult filterBooks(BookFilter filter) {
+        long start = filterBooks.start();
+        try {
+            FacetResult result = super.filterBooks(filter);
+            filterBooks.success(start);
+            return result;
+        } catch (Throwable e) {
+            filterBooks.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Book> findFilteredBooks(FacetResult result, long offset, int size) {
+        long start = findFilteredBooks.start();
+        try {
+            List<Book> books = super.findFilteredBooks(result, offset, size);
+            findFilteredBooks.success(start);
+            return books;
+        } catch (Throwable e) {
+            findFilteredBooks.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<Book> findBooksPage(String cursor, int size) {
+        long start = findBooksPage.start();
+        try {
+            Page<Book> result = super.findBooksPage(cursor, size);
+            findBooksPage.success(start);
+            return result;
+        } catch (Throwable e) {
+            findBooksPage.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<Book> searchBooksPage(String query, String cursor, int size, QueryHandle handle) {
+        long start = searchBooksPage.start();
+        try {
+            Page<Book> result = super.searchBooksPage(query, cursor, size, handle);
+            searchBooksPage.success(start);
+            return result;
+        } catch (Throwable e) {
+            searchBooksPage.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public long countBooks() {
+        long start = countBooks.start();
+        try {
+            long result = super.countBooks();
+            countBooks.success(start);
+            return result;
+        } catch (Throwable e) {
+            countBooks.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasBooks() {
+        long start = hasBooks.start();
+        try {
+            boolean result = super.hasBooks();
+            hasBooks.success(start);
+            return result;
+        } catch (Throwable e) {
+            hasBooks.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void updateBook(Long id, Book book) {
+        long start = updateBook.start();
+        try {
+            super.updateBook(id, book);
+            updateBook.success(start);
+        } catch (Throwable e) {
+            updateBook.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void deleteBook(Long id) {
+        long start = deleteBook.start();
+        try {
+            super.deleteBook(id);
+            deleteBook.success(start);
+        } catch (Throwable e) {
+            deleteBook.failure(start);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package br.ufrn.imd.metrics;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import br.ufrn.imd.dao.LoanDAO;
+import br.ufrn.imd.dao.LoanRepository;
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.model.Loan;
+
+/**
+ * {@link LoanRepository} instrumentado: cada operação registra chamadas, erros
+ * e latência em um {@link MetricsRegistry}, sem alocar por chamada.
+ * <p>
+ * Decora qualquer repositório, do JDBC ou do mecanismo em arquivo, repassando
+ * as chamadas ao repositório original. Chamadas que o repositório original faz
+ * a si mesmo, como {@code existsById} a {@code findById}, não passam pelo
+ * decorador e por isso não são contadas duas vezes.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class MeteredLoanRepository implements LoanRepository {
+
+    private final LoanRepository delegate;
+
+    private final OperationMetrics create;
+    private final OperationMetrics restoreAll;
+    private final OperationMetrics checkout;
+    private final OperationMetrics returnLoan;
+    private final OperationMetrics returnLoans;
+    private final OperationMetrics findById;
+    private final OperationMetrics findAll;
+    private final OperationMetrics streamAll;
+    private final OperationMetrics streamOpen;
+    private final OperationMetrics forEach;
+    private final OperationMetrics findPage;
+    private final OperationMetrics cursorAt;
+    private final OperationMetrics count;
+    private final OperationMetrics exists;
+    private final OperationMetrics existsById;
+    private final OperationMetrics update;
+    private final OperationMetrics delete;
+
+    /**
+     * Cria o decorador. Caso o repositório seja um {@link LoanDAO}, o seu cache
+     * também é publicado no registro.
+     *
+     * @param delegate repositório decorado.
+     * @param registry registro das métricas.
+     */
+    public MeteredLoanRepository(LoanRepository delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.create = registry.operation("LoanRepository.create");
+        this.restoreAll = registry.operation("LoanRepository.restoreAll");
+        this.checkout = registry.operation("LoanRepository.checkout");
+        this.returnLoan = registry.operation("LoanRepository.returnLoan");
+        this.returnLoans = registry.operation("LoanRepository.returnLoans");
+        this.findById = registry.operation("LoanRepository.findById");
+        this.findAll = registry.operation("LoanRepository.findAll");
+        this.streamAll = registry.operation("LoanRepository.streamAll");
+        this.streamOpen = registry.operation("LoanRepository.streamOpen");
+        this.forEach = registry.operation("LoanRepository.forEach");
+        this.findPage = registry.operation("LoanRepository.findPage");
+        this.cursorAt = registry.operation("LoanRepository.cursorAt");
+        this.count = registry.operation("LoanRepository.count");
+        this.exists = registry.operation("LoanRepository.exists");
+        this.existsById = registry.operation("LoanRepository.existsById");
+        this.update = registry.operation("LoanRepository.update");
+        this.delete = registry.operation("LoanRepository.delete");
+        if (delegate instanceof LoanDAO) {
+            registry.registerCache("LoanDAO", ((LoanDAO) delegate)::getCacheStats);
+        }
+    }
+
+    @Override
+    public void create(Loan loan) {
+        long start = create.start();
+        try {
+            delegate.create(loan);
+            create.success(start);
+        } catch (Throwable e) {
+            create.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public int restoreAll(List<Loan> loans) {
+        long start = restoreAll.start();
+        try {
+            int result = delegate.restoreAll(loans);
+            restoreAll.success(start);
+            return result;
+        } catch (Throwable e) {
+            restoreAll.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void checkout(Loan loan) {
+        long start = checkout.start();
+        try {
+            delegate.checkout(loan);
+            checkout.success(start);
+        } catch (Throwable e) {
+            checkout.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Long returnLoan(Long id, LocalDate returnDate) {
+        long start = returnLoan.start();
+        try {
+            Long result = delegate.returnLoan(id, returnDate);
+            returnLoan.success(start);
+            return result;
+        } catch (Throwable e) {
+            returnLoan.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Map<Long, Loan> returnLoans(Map<Long, LocalDate> returns) {
+        long start = returnLoans.start();
+        try {
+            Map<Long, Loan> result = delegate.returnLoans(returns);
+            returnLoans.success(start);
+            return result;
+        } catch (Throwable e) {
+            returnLoans.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Loan findById(Long id) {
+        long start = findById.start();
+        try {
+            Loan result = delegate.findById(id);
+            findById.success(start);
+            return result;
+        } catch (Throwable e) {
+            findById.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Loan> findAll() {
+        long start = findAll.start();
+        try {
+            List<Loan> result = delegate.findAll();
+            findAll.success(start);
+            return result;
+        } catch (Throwable e) {
+            findAll.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Stream<Loan> streamAll() {
+        long start = streamAll.start();
+        try {
+            Stream<Loan> result = delegate.streamAll();
+            streamAll.success(start);
+            return result;
+        } catch (Throwable e) {
+            streamAll.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Stream<Loan> streamOpen() {
+        long start = streamOpen.start();
+        try {
+            Stream<Loan> result = delegate.streamOpen();
+            streamOpen.success(start);
+            return result;
+        } catch (Throwable e) {
+            streamOpen.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<Loan> action) {
+        long start = forEach.start();
+        try {
+            delegate.forEach(action);
+            forEach.success(start);
+        } catch (Throwable e) {
+            forEach.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<Loan> findPage(String cursor, int size) {
+        long start = findPage.start();
+        try {
+            Page<Loan> result = delegate.findPage(cursor, size);
+            findPage.success(start);
+            return result;
+        } catch (Throwable e) {
+            findPage.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public String cursorAt(long position) {
+        long start = cursorAt.start();
+        try {
+            String result = delegate.cursorAt(position);
+            cursorAt.success(start);
+            return result;
+        } catch (Throwable e) {
+            cursorAt.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public long count() {
+        long start = count.start();
+        try {
+            long result = delegate.count();
+            count.success(start);
+            return result;
+        } catch (Throwable e) {
+            count.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean exists() {
+        long start = exists.start();
+        try {
+            boolean result = delegate.exists();
+            exists.success(start);
+            return result;
+        } catch (Throwable e) {
+            exists.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        long start = existsById.start();
+        try {
+            boolean result = delegate.existsById(id);
+            existsById.success(start);
+            return result;
+        } catch (Throwable e) {
+            existsById.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void update(Long id, Loan loan) {
+        long start = update.start();
+        try {
+            delegate.update(id, loan);
+            update.success(start);
+        } catch (Throwable e) {
+            update.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        long start = delete.start();
+        try {
+            delegate.delete(id);
+            delete.success(start);
+        } catch (Throwable e) {
+            delete.failure(start);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package br.ufrn.imd.metrics;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import br.ufrn.imd.dao.BookRepository;
+import br.ufrn.imd.dao.LoanRepository;
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.dao.UserRepository;
+import br.ufrn.imd.model.Loan;
+import br.ufrn.imd.service.LoanService;
+
+/**
+ * {@link LoanService} instrumentado: cada operação registra chamadas, erros e
+ * latência em um {@link MetricsRegistry}, sem alocar por chamada.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class MeteredLoanService extends LoanService {
+
+    private final OperationMetrics createLoan;
+    private final OperationMetrics checkout;
+    private final OperationMetrics returnLoan;
+    private final OperationMetrics submitReturn;
+    private final OperationMetrics flushReturns;
+    private final OperationMetrics findLoanById;
+    private final OperationMetrics findAllLoans;
+    private final OperationMetrics findLoansPage;
+    private final OperationMetrics countLoans;
+    private final OperationMetrics updateLoan;
+    private final OperationMetrics deleteLoan;
+
+    public MeteredLoanService(LoanRepository loanRepository, BookRepository bookRepository, UserRepository userRepository, MetricsRegistry registry) {
+        super(loanRepository, bookRepository, userRepository);
+        this.createLoan = registry.operation("LoanService.createLoan");
+        this.checkout = registry.operation("LoanService.checkout");
+        this.returnLoan = registry.operation("LoanService.returnLoan");
+        this.submitReturn = registry.operation("LoanService.submitReturn");
+        this.flushReturns = registry.operation("LoanService.flushReturns");
+        this.findLoanById = registry.operation("LoanService.findLoanById");
+        this.findAllLoans = registry.operation("LoanService.findAllLoans");
+        this.findLoansPage = registry.operation("LoanService.findLoansPage");
+        this.countLoans = registry.operation("LoanService.countLoans");
+        this.updateLoan = registry.operation("LoanService.updateLoan");
+        this.deleteLoan = registry.operation("LoanService.deleteLoan");
+    }
+
+    @Override
+    public void createLoan(Loan loan) {
+        long start = createLoan.start();
+        try {
+            super.createLoan(loan);
+            createLoan.success(start);
+        } catch (Throwable e) {
+            createLoan.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Loan checkout(Long userId, Long bookId) {
+        long start = checkout.start();
+        try {
+            Loan result = super.checkout(userId, bookId);
+            checkout.success(start);
+            return result;
+        } catch (Throwable e) {
+            checkout.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void returnLoan(Long id) {
+        long start = returnLoan.start();
+        try {
+            super.returnLoan(id);
+            returnLoan.success(start);
+        } catch (Throwable e) {
+            returnLoan.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> submitReturn(Long id) {
+        long start = submitReturn.start();
+        try {
+            CompletableFuture<Void> result = super.submitReturn(id);
+            submitReturn.success(start);
+            return result;
+        } catch (Throwable e) {
+            submitReturn.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void flushReturns() {
+        long start = flushReturns.start();
+        try {
+            super.flushReturns();
+            flushReturns.success(start);
+        } catch (Throwable e) {
+            flushReturns.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Loan findLoanById(Long id) {
+        long start = findLoanById.start();
+        try {
+            Loan result = super.findLoanById(id);
+            findLoanById.success(start);
+            return result;
+        } catch (Throwable e) {
+            findLoanById.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Loan> findAllLoans() {
+        long start = findAllLoans.start();
+        try {
+            List<Loan> result = super.findAllLoans();
+            findAllLoans.success(start);
+            return result;
+        } catch (Throwable e) {
+            findAllLoans.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<Loan> findLoansPage(String cursor, int size) {
+        long start = findLoansPage.start();
+        try {
+            Page<Loan> result = super.findLoansPage(cursor, size);
+            findLoansPage.success(start);
+            return result;
+        } catch (Throwable e) {
+            findLoansPage.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public long countLoans() {
+        long start = countLoans.start();
+        try {
+            long result = super.countLoans();
+            countLoans.success(start);
+            return result;
+        } catch (Throwable e) {
+            countLoans.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void updateLoan(Long id, Loan loan) {
+        long start = updateLoan.start();
+        try {
+            super.updateLoan(id, loan);
+            updateLoan.success(start);
+        } catch (Throwable e) {
+            updateLoan.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void deleteLoan(Long id) {
+        long start = deleteLoan.start();
+        try {
+            super.deleteLoan(id);
+            deleteLoan.success(start);
+        } catch (Throwable e) {
+            deleteLoan.failure(start);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package br.ufrn.imd.metrics;
+
+import java.util.List;
+import javax.sql.DataSource;
+
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.dao.ReportDAO;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.BookRanking;
+import br.ufrn.imd.model.UserRanking;
+
+/**
+ * {@link ReportDAO} instrumentado: cada operação registra chamadas, erros e
+ * latência em um {@link MetricsRegistry}, sem alocar por chamada.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class MeteredReportDAO extends ReportDAO {
+
+    private final OperationMetrics findMostBorrowedBooks;
+    private final OperationMetrics findTopBorrowers;
+    private final OperationMetrics findAvailableBooksPage;
+    private final OperationMetrics countAvailableBooks;
+    private final OperationMetrics rebuild;
+
+    public MeteredReportDAO(DataSource dataSource, MetricsRegistry registry) {
+        super(dataSource);
+        this.findMostBorrowedBooks = registry.operation("ReportDAO.findMostBorrowedBooks");
+        this.findTopBorrowers = registry.operation("ReportDAO.findTopBorrowers");
+        this.findAvailableBooksPage = registry.operation("ReportDAO.findAvailableBooksPage");
+        this.countAvailableBooks = registry.operation("ReportDAO.countAvailableBooks");
+        this.rebuild = registry.operation("ReportDAO.rebuild");
+    }
+
+    @Override
+    public List<BookRanking> findMostBorrowedBooks(int limit) {
+        long start = findMostBorrowedBooks.start();
+        try {
+            List<BookRanking> result = super.findMostBorrowedBooks(limit);
+            findMostBorrowedBooks.success(start);
+            return result;
+        } catch (Throwable e) {
+            findMostBorrowedBooks.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<UserRanking> findTopBorrowers(int limit) {
+        long start = findTopBorrowers.start();
+        try {
+            List<UserRanking> result = super.findTopBorrowers(limit);
+            findTopBorrowers.success(start);
+            return result;
+        } catch (Throwable e) {
+            findTopBorrowers.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<Book> findAvailableBooksPage(String cursor, int size) {
+        long start = findAvailableBooksPage.start();
+        try {
+            Page<Book> result = super.findAvailableBooksPage(cursor, size);
+            findAvailableBooksPage.success(start);
+            return result;
+        } catch (Throwable e) {
+            findAvailableBooksPage.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public long countAvailableBooks() {
+        long start = countAvailableBooks.start();
+        try {
+            long result = super.countAvailableBooks();
+            countAvailableBooks.success(start);
+            return result;
+        } catch (Throwable e) {
+            countAvailableBooks.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        long start = rebuild.start();
+        try {
+            super.rebuild();
+            rebuild.success(start);
+        } catch (Throwable e) {
+            rebuild.failure(start);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package br.ufrn.imd.metrics;
+
+import java.util.List;
+
+import br.ufrn.imd.dao.BookRepository;
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.dao.ReportDAO;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.BookRanking;
+import br.ufrn.imd.model.UserRanking;
+import br.ufrn.imd.service.BookChangeListener;
+import br.ufrn.imd.service.ReportService;
+
+/**
+ * {@link ReportService} instrumentado: cada operação registra chamadas, erros e
+ * latência em um {@link MetricsRegistry}, sem alocar por chamada.
+ * <p>
+ * Os rankings sem limite usam o limite padrão e caem nas versões com limite,
+ * as únicas medidas.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class MeteredReportService extends ReportService {
+
+    private final OperationMetrics findAvailableBooksPage;
+    private final OperationMetrics countAvailableBooks;
+    private final OperationMetrics findMostBorrowedBooks;
+    private final OperationMetrics findTopBorrowers;
+    private final OperationMetrics rebuildReports;
+
+    public MeteredReportService(ReportDAO reportDAO, MetricsRegistry registry) {
+        this(reportDAO, null, null, registry);
+    }
+
+    public MeteredReportService(ReportDAO reportDAO, BookRepository bookRepository, BookChangeListener changeListener,
+            MetricsRegistry registry) {
+        super(reportDAO, bookRepository, changeListener);
+        this.findAvailableBooksPage = registry.operation("ReportService.findAvailableBooksPage");
+        this.countAvailableBooks = registry.operation("ReportService.countAvailableBooks");
+        this.findMostBorrowedBooks = registry.operation("ReportService.findMostBorrowedBooks");
+        this.findTopBorrowers = registry.operation("ReportService.findTopBorrowers");
+        this.rebuildReports = registry.operation("ReportService.rebuildReports");
+    }
+
+    @Override
+    public Page<Book> findAvailableBooksPage(String cursor, int size) {
+        long start = findAvailableBooksPage.start();
+        try {
+            Page<Book> result = super.findAvailableBooksPage(cursor, size);
+            findAvailableBooksPage.success(start);
+            return result;
+        } catch (Throwable e) {
+            findAvailableBooksPage.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public long countAvailableBooks() {
+        long start = countAvailableBooks.start();
+        try {
+            long result = super.countAvailableBooks();
+            countAvailableBooks.success(start);
+            return result;
+        } catch (Throwable e) {
+            countAvailableBooks.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<BookRanking> findMostBorrowedBooks(int limit) {
+        long start = findMostBorrowedBooks.start();
+        try {
+            List<BookRanking> result = super.findMostBorrowedBooks(limit);
+            findMostBorrowedBooks.success(start);
+            return result;
+        } catch (Throwable e) {
+            findMostBorrowedBooks.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<UserRanking> findTopBorrowers(int limit) {
+        long start = findTopBorrowers.start();
+        try {
+            List<UserRanking> result = super.findTopBorrowers(limit);
+            findTopBorrowers.success(start);
+            return result;
+        } catch (Throwable e) {
+            findTopBorrowers.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void rebuildReports() {
+        long start = rebuildReports.start();
+        try {
+            super.rebuildReports();
+            rebuildReports.success(start);
+        } catch (Throwable e) {
+            rebuildReports.failure(start);
+            throw e;
+        }
+    }
+}
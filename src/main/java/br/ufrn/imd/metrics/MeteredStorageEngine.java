@@ -0,0 +1,71 @@
+package br.ufrn.imd.metrics;
+
+import br.ufrn.imd.dao.BookRepository;
+import br.ufrn.imd.dao.LoanRepository;
+import br.ufrn.imd.dao.UserRepository;
+import br.ufrn.imd.storage.StorageEngine;
+
+/**
+ * {@link StorageEngine} instrumentado: devolve os repositórios do mecanismo
+ * original decorados por {@link MeteredBookRepository},
+ * {@link MeteredUserRepository} e {@link MeteredLoanRepository}, que também
+ * publicam no registro os caches dos DAOs JDBC.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class MeteredStorageEngine implements StorageEngine {
+
+    private final StorageEngine delegate;
+    private final BookRepository books;
+    private final UserRepository users;
+    private final LoanRepository loans;
+
+    /**
+     * Cria o decorador. Os caches dos repositórios devem ser habilitados no
+     * mecanismo original.
+     *
+     * @param delegate mecanismo decorado.
+     * @param registry registro das métricas.
+     */
+    public MeteredStorageEngine(StorageEngine delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.books = new MeteredBookRepository(delegate.books(), registry);
+        this.users = new MeteredUserRepository(delegate.users(), registry);
+        this.loans = new MeteredLoanRepository(delegate.loans(), registry);
+    }
+
+    /**
+     * Mecanismo decorado.
+     *
+     * @return mecanismo original.
+     */
+    public StorageEngine getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public BookRepository books() {
+        return books;
+    }
+
+    @Override
+    public UserRepository users() {
+        return users;
+    }
+
+    @Override
+    public LoanRepository loans() {
+        return loans;
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,279 @@
+package br.ufrn.imd.metrics;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.dao.QueryHandle;
+import br.ufrn.imd.dao.UserDAO;
+import br.ufrn.imd.dao.UserRepository;
+import br.ufrn.imd.model.User;
+
+/**
+ * {@link UserRepository} instrumentado: cada operação registra chamadas, erros
+ * e latência em um {@link MetricsRegistry}, sem alocar por chamada.
+ * <p>
+ * Decora qualquer repositório, do JDBC ou do mecanismo em arquivo, repassando
+ * as chamadas ao repositório original. Chamadas que o repositório original faz
+ * a si mesmo, como {@code existsById} a {@code findById}, não passam pelo
+ * decorador e por isso não são contadas duas vezes.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class MeteredUserRepository implements UserRepository {
+
+    private final UserRepository delegate;
+
+    private final OperationMetrics create;
+    private final OperationMetrics restoreAll;
+    private final OperationMetrics findById;
+    private final OperationMetrics findByEmail;
+    private final OperationMetrics findAll;
+    private final OperationMetrics streamAll;
+    private final OperationMetrics forEach;
+    private final OperationMetrics searchUsers;
+    private final OperationMetrics findPage;
+    private final OperationMetrics cursorAt;
+    private final OperationMetrics searchUsersPage;
+    private final OperationMetrics count;
+    private final OperationMetrics exists;
+    private final OperationMetrics existsById;
+    private final OperationMetrics update;
+    private final OperationMetrics delete;
+
+    /**
+     * Cria o decorador. Caso o repositório seja um {@link UserDAO}, o seu cache
+     * também é publicado no registro.
+     *
+     * @param delegate repositório decorado.
+     * @param registry registro das métricas.
+     */
+    public MeteredUserRepository(UserRepository delegate, MetricsRegistry registry) {
+        this.delegate = delegate;
+        this.create = registry.operation("UserRepository.create");
+        this.restoreAll = registry.operation("UserRepository.restoreAll");
+        this.findById = registry.operation("UserRepository.findById");
+        this.findByEmail = registry.operation("UserRepository.findByEmail");
+        this.findAll = registry.operation("UserRepository.findAll");
+        this.streamAll = registry.operation("UserRepository.streamAll");
+        this.forEach = registry.operation("UserRepository.forEach");
+        this.searchUsers = registry.operation("UserRepository.searchUsers");
+        this.findPage = registry.operation("UserRepository.findPage");
+        this.cursorAt = registry.operation("UserRepository.cursorAt");
+        this.searchUsersPage = registry.operation("UserRepository.searchUsersPage");
+        this.count = registry.operation("UserRepository.count");
+        this.exists = registry.operation("UserRepository.exists");
+        this.existsById = registry.operation("UserRepository.existsById");
+        this.update = registry.operation("UserRepository.update");
+        this.delete = registry.operation("UserRepository.delete");
+        if (delegate instanceof UserDAO) {
+            registry.registerCache("UserDAO", ((UserDAO) delegate)::getCacheStats);
+        }
+    }
+
+    @Override
+    public void create(User user) {
+        long start = create.start();
+        try {
+            delegate.create(user);
+            create.success(start);
+        } catch (Throwable e) {
+            create.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public int restoreAll(List<User> users) {
+        long start = restoreAll.start();
+        try {
+            int result = delegate.restoreAll(users);
+            restoreAll.success(start);
+            return result;
+        } catch (Throwable e) {
+            restoreAll.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public User findById(Long id) {
+        long start = findById.start();
+        try {
+            User result = delegate.findById(id);
+            findById.success(start);
+            return result;
+        } catch (Throwable e) {
+            findById.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public User findByEmail(String email) {
+        long start = findByEmail.start();
+        try {
+            User result = delegate.findByEmail(email);
+            findByEmail.success(start);
+            return result;
+        } catch (Throwable e) {
+            findByEmail.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<User> findAll() {
+        long start = findAll.start();
+        try {
+            List<User> result = delegate.findAll();
+            findAll.success(start);
+            return result;
+        } catch (Throwable e) {
+            findAll.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Stream<User> streamAll() {
+        long start = streamAll.start();
+        try {
+            Stream<User> result = delegate.streamAll();
+            streamAll.success(start);
+            return result;
+        } catch (Throwable e) {
+            streamAll.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<User> action) {
+        long start = forEach.start();
+        try {
+            delegate.forEach(action);
+            forEach.success(start);
+        } catch (Throwable e) {
+            forEach.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<User> searchUsers(String query) {
+        long start = searchUsers.start();
+        try {
+            List<User> result = delegate.searchUsers(query);
+            searchUsers.success(start);
+            return result;
+        } catch (Throwable e) {
+            searchUsers.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<User> findPage(String cursor, int size) {
+        long start = findPage.start();
+        try {
+            Page<User> result = delegate.findPage(cursor, size);
+            findPage.success(start);
+            return result;
+        } catch (Throwable e) {
+            findPage.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public String cursorAt(long position) {
+        long start = cursorAt.start();
+        try {
+            String result = delegate.cursorAt(position);
+            cursorAt.success(start);
+            return result;
+        } catch (Throwable e) {
+            cursorAt.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<User> searchUsersPage(String query, String cursor, int size, QueryHandle handle) {
+        long start = searchUsersPage.start();
+        try {
+            Page<User> result = delegate.searchUsersPage(query, cursor, size, handle);
+            searchUsersPage.success(start);
+            return result;
+        } catch (Throwable e) {
+            searchUsersPage.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public long count() {
+        long start = count.start();
+        try {
+            long result = delegate.count();
+            count.success(start);
+            return result;
+        } catch (Throwable e) {
+            count.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean exists() {
+        long start = exists.start();
+        try {
+            boolean result = delegate.exists();
+            exists.success(start);
+            return result;
+        } catch (Throwable e) {
+            exists.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        long start = existsById.start();
+        try {
+            boolean result = delegate.existsById(id);
+            existsById.success(start);
+            return result;
+        } catch (Throwable e) {
+            existsById.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void update(Long id, User user) {
+        long start = update.start();
+        try {
+            delegate.update(id, user);
+            update.success(start);
+        } catch (Throwable e) {
+            update.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        long start = delete.start();
+        try {
+            delegate.delete(id);
+            delete.success(start);
+        } catch (Throwable e) {
+            delete.failure(start);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package br.ufrn.imd.metrics;
+
+import java.util.List;
+
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.dao.QueryHandle;
+import br.ufrn.imd.dao.UserRepository;
+import br.ufrn.imd.model.User;
+import br.ufrn.imd.service.UserService;
+
+/**
+ * {@link UserService} instrumentado: cada operação registra chamadas, erros e
+ * latência em um {@link MetricsRegistry}, sem alocar por chamada.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class MeteredUserService extends UserService {
+
+    private final OperationMetrics createUser;
+    private final OperationMetrics updateUser;
+    private final OperationMetrics findUserById;
+    private final OperationMetrics findAllUsers;
+    private final OperationMetrics searchUsers;
+    private final OperationMetrics findUsersPage;
+    private final OperationMetrics searchUsersPage;
+    private final OperationMetrics countUsers;
+    private final OperationMetrics hasUsers;
+    private final OperationMetrics deleteUser;
+
+    public MeteredUserService(UserRepository userRepository, MetricsRegistry registry) {
+        super(userRepository);
+        this.createUser = registry.operation("UserService.createUser");
+        this.updateUser = registry.operation("UserService.updateUser");
+        this.findUserById = registry.operation("UserService.findUserById");
+        this.findAllUsers = registry.operation("UserService.findAllUsers");
+        this.searchUsers = registry.operation("UserService.searchUsers");
+        this.findUsersPage = registry.operation("UserService.findUsersPage");
+        this.searchUsersPage = registry.operation("UserService.searchUsersPage");
+        this.countUsers = registry.operation("UserService.countUsers");
+        this.hasUsers = registry.operation("UserService.hasUsers");
+        this.deleteUser = registry.operation("UserService.deleteUser");
+    }
+
+    @Override
+    public void createUser(User user) {
+        long start = createUser.start();
+        try {
+            super.createUser(user);
+            createUser.success(start);
+        } catch (Throwable e) {
+            createUser.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void updateUser(Long id, User user) {
+        long start = updateUser.start();
+        try {
+            super.updateUser(id, user);
+            updateUser.success(start);
+        } catch (Throwable e) {
+            updateUser.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public User findUserById(Long id) {
+        long start = findUserById.start();
+        try {
+            User result = super.findUserById(id);
+            findUserById.success(start);
+            return result;
+        } catch (Throwable e) {
+            findUserById.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<User> findAllUsers() {
+        long start = findAllUsers.start();
+        try {
+            List<User> result = super.findAllUsers();
+            findAllUsers.success(start);
+            return result;
+        } catch (Throwable e) {
+            findAllUsers.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<User> searchUsers(String query) {
+        long start = searchUsers.start();
+        try {
+            List<User> result = super.searchUsers(query);
+            searchUsers.success(start);
+            return result;
+        } catch (Throwable e) {
+            searchUsers.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<User> findUsersPage(String cursor, int size) {
+        long start = findUsersPage.start();
+        try {
+            Page<User> result = super.findUsersPage(cursor, size);
+            findUsersPage.success(start);
+            return result;
+        } catch (Throwable e) {
+            findUsersPage.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Page<User> searchUsersPage(String query, String cursor, int size, QueryHandle handle) {
+        long start = searchUsersPage.start();
+        try {
+            Page<User> result = super.searchUsersPage(query, cursor, size, handle);
+            searchUsersPage.success(start);
+            return result;
+        } catch (Throwable e) {
+            searchUsersPage.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public long countUsers() {
+        long start = countUsers.start();
+        try {
+            long result = super.countUsers();
+            countUsers.success(start);
+            return result;
+        } catch (Throwable e) {
+            countUsers.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasUsers() {
+        long start = hasUsers.start();
+        try {
+            boolean result = super.hasUsers();
+            hasUsers.success(start);
+            return result;
+        } catch (Throwable e) {
+            hasUsers.failure(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void deleteUser(Long id) {
+        long start = deleteUser.start();
+        try {
+            super.deleteUser(id);
+            deleteUser.success(start);
+        } catch (Throwable e) {
+            deleteUser.failure(start);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package br.ufrn.imd.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import br.ufrn.imd.cache.CacheStats;
+import br.ufrn.imd.database.PoolStats;
+import br.ufrn.imd.logging.Logger;
+
+/**
+ * Registro das métricas da aplicação: operações instrumentadas, pools de
+ * conexão e caches.
+ * <p>
+ * As operações são criadas uma vez, na construção dos componentes
+ * instrumentados; registrar uma chamada não consulta o registro. Depois de
+ * {@link #registerMBeans()}, cada métrica, inclusive as criadas depois, é
+ * publicada como MBean no domínio {@value #DOMAIN}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class MetricsRegistry {
+
+    private static final Logger LOG = Logger.getLogger(MetricsRegistry.class);
+
+    /** Domínio JMX dos MBeans publicados. */
+    public static final String DOMAIN = "br.ufrn.imd";
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final Map<ObjectName, Object> mbeans = new ConcurrentHashMap<>();
+    private volatile MBeanServer server;
+
+    /**
+     * Retorna o registro compartilhado pela aplicação.
+     *
+     * @return registro padrão.
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Retorna as métricas de uma operação, criando-as na primeira chamada.
+     *
+     * @param name nome da operação, como {@code BookRepository.findById}.
+     * @return métricas da operação.
+     */
+    public OperationMetrics operation(String name) {
+        OperationMetrics existing = operations.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        OperationMetrics created = new OperationMetrics(name);
+        OperationMetrics previous = operations.putIfAbsent(name, created);
+        if (previous != null) {
+            return previous;
+        }
+        publish(objectName("Operation", name), new OperationMBean(created));
+        return created;
+    }
+
+    /**
+     * Retorna as operações registradas, ordenadas pelo nome.
+     *
+     * @return cópia da lista de operações.
+     */
+    public List<OperationMetrics> getOperations() {
+        List<OperationMetrics> list = new ArrayList<>(operations.values());
+        list.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return list;
+    }
+
+    /**
+     * Publica as estatísticas de um pool de conexões.
+     *
+     * @param name  nome do pool.
+     * @param stats fonte das estatísticas, consultada a cada leitura; pode
+     *              devolver null enquanto o pool não existir.
+     */
+    public void registerPool(String name, Supplier<PoolStats> stats) {
+        publish(objectName("ConnectionPool", name), new ConnectionPoolMBean(stats));
+    }
+
+    /**
+     * Publica as estatísticas de um cache de entidades.
+     *
+     * @param name  nome do cache, como {@code book}.
+     * @param stats fonte das estatísticas, consultada a cada leitura; pode
+     *              devolver null enquanto o cache estiver desabilitado.
+     */
+    public void registerCache(String name, Supplier<CacheStats> stats) {
+        publish(objectName("EntityCache", name), new EntityCacheMBean(stats));
+    }
+
+    /**
+     * Registra todas as métricas no MBean server da plataforma.
+     *
+     * @throws IllegalStateException caso o registro no JMX falhe.
+     */
+    public void registerMBeans() {
+        registerMBeans(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    /**
+     * Registra todas as métricas no MBean server informado. Métricas criadas
+     * depois também são registradas nele.
+     *
+     * @param mbeanServer servidor de MBeans.
+     * @throws IllegalStateException caso o registro no JMX falhe.
+     */
+    public synchronized void registerMBeans(MBeanServer mbeanServer) {
+        this.server = mbeanServer;
+        for (Map.Entry<ObjectName, Object> entry : mbeans.entrySet()) {
+            register(mbeanServer, entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Remove do JMX os MBeans registrados por este registro.
+     */
+    public synchronized void unregisterMBeans() {
+        MBeanServer current = server;
+        if (current == null) {
+            return;
+        }
+        server = null;
+        for (ObjectName name : mbeans.keySet()) {
+            try {
+                if (current.isRegistered(name)) {
+                    current.unregisterMBean(name);
+                }
+            } catch (JMException e) {
+                LOG.warn("Erro ao remover MBean {}", name, e);
+            }
+        }
+    }
+
+    /**
+     * Nomes dos MBeans conhecidos pelo registro.
+     *
+     * @return nomes dos MBeans.
+     */
+    public Collection<ObjectName> getObjectNames() {
+        return Collections.unmodifiableSet(mbeans.keySet());
+    }
+
+    private synchronized void publish(ObjectName name, Object mbean) {
+        mbeans.put(name, mbean);
+        MBeanServer current = server;
+        if (current != null) {
+            register(current, name, mbean);
+        }
+    }
+
+    private static void register(MBeanServer mbeanServer, ObjectName name, Object mbean) {
+        try {
+            if (mbeanServer.isRegistered(name)) {
+                mbeanServer.unregisterMBean(name);
+            }
+            mbeanServer.registerMBean(mbean, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Erro ao registrar MBean " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static ObjectName objectName(String type, String name) {
+        try {
+            return new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Nome de métrica inválido: " + name, e);
+        }
+    }
+}
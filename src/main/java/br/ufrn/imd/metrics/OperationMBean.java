@@ -0,0 +1,68 @@
+package br.ufrn.imd.metrics;
+
+/**
+ * Implementação de {@link OperationMXBean} sobre {@link OperationMetrics}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+class OperationMBean implements OperationMXBean {
+
+    private static final double NANOS_PER_MICRO = 1000.0;
+
+    private final OperationMetrics metrics;
+
+    OperationMBean(OperationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public long getCalls() {
+        return metrics.getCalls();
+    }
+
+    @Override
+    public long getErrors() {
+        return metrics.getErrors();
+    }
+
+    @Override
+    public double getErrorRate() {
+        long calls = metrics.getCalls();
+        return calls == 0 ? 0 : (double) metrics.getErrors() / calls;
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return metrics.getLatency().snapshot().getMeanNanos() / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return percentile(0.5);
+    }
+
+    @Override
+    public double getP99Micros() {
+        return percentile(0.99);
+    }
+
+    @Override
+    public double getP999Micros() {
+        return percentile(0.999);
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return metrics.getLatency().snapshot().getMaxNanos() / NANOS_PER_MICRO;
+    }
+
+    @Override
+    public void reset() {
+        metrics.reset();
+    }
+
+    private double percentile(double quantile) {
+        return metrics.getLatency().snapshot().getPercentileNanos(quantile) / NANOS_PER_MICRO;
+    }
+}
@@ -0,0 +1,29 @@
+package br.ufrn.imd.metrics;
+
+/**
+ * Visão JMX de uma operação instrumentada. Latências em microssegundos.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public interface OperationMXBean {
+
+    long getCalls();
+
+    long getErrors();
+
+    double getErrorRate();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    void reset();
+
+}
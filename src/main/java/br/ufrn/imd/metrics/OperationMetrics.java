@@ -0,0 +1,90 @@
+package br.ufrn.imd.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores e latências de uma operação, como {@code BookRepository.findById}.
+ * <p>
+ * Uso, sem alocação por chamada:
+ *
+ * <pre>
+ * long start = metrics.start();
+ * try {
+ *     ...
+ *     metrics.success(start);
+ * } catch (Throwable e) {
+ *     metrics.failure(start);
+ *     throw e;
+ * }
+ * </pre>
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public final class OperationMetrics {
+
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Marca o início de uma chamada.
+     *
+     * @return instante de início, a ser repassado a {@link #success(long)} ou
+     *         {@link #failure(long)}.
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Registra uma chamada concluída.
+     *
+     * @param start valor devolvido por {@link #start()}.
+     */
+    public void success(long start) {
+        latency.record(System.nanoTime() - start);
+        calls.increment();
+    }
+
+    /**
+     * Registra uma chamada que terminou com exceção.
+     *
+     * @param start valor devolvido por {@link #start()}.
+     */
+    public void failure(long start) {
+        latency.record(System.nanoTime() - start);
+        calls.increment();
+        errors.increment();
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Zera os contadores e o histograma.
+     */
+    public void reset() {
+        calls.reset();
+        errors.reset();
+        latency.reset();
+    }
+}
@@ -2,6 +2,7 @@ package br.ufrn.imd.model;
 
 import br.ufrn.imd.model.enums.Genre;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -14,6 +15,7 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@Builder(toBuilder = true)
 public class Book {
 
     private Long id;
@@ -23,5 +25,7 @@ public class Book {
     private Integer publicationYear;
     private String isbn;
     private Boolean isAvailable;
+    private Integer totalCopies;
+    private Integer availableCopies;
 
 }
@@ -0,0 +1,19 @@
+package br.ufrn.imd.model;
+
+import lombok.Value;
+
+/**
+ * Livro e quantos empréstimos ele acumula, usado no relatório de livros mais
+ * emprestados.
+ * 
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Value
+public class BookRanking {
+
+    Book book;
+    long loanCount;
+    long activeLoans;
+
+}
@@ -0,0 +1,19 @@
+package br.ufrn.imd.model;
+
+import lombok.Value;
+
+/**
+ * Usuário e quantos empréstimos ele acumula, usado no relatório de usuários
+ * com mais empréstimos.
+ * 
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Value
+public class UserRanking {
+
+    User user;
+    long loanCount;
+    long activeLoans;
+
+}
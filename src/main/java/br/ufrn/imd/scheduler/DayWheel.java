@@ -0,0 +1,172 @@
+package br.ufrn.imd.scheduler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Roda de tempo com granularidade de um dia.
+ * <p>
+ * Cada posição da roda guarda os itens que vencem em um dia do horizonte
+ * {@code (diaAtual, diaAtual + tamanho]}; itens mais distantes ficam em um mapa
+ * ordenado e descem para a roda quando o dia deles entra no horizonte. Avançar
+ * um dia custa apenas a posição que vence e a descida de um único dia do mapa,
+ * independentemente de quantos itens estão agendados. Agendar e cancelar são
+ * O(1) para itens dentro do horizonte.
+ * <p>
+ * Não é thread-safe.
+ *
+ * @param <V> tipo dos itens agendados
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+final class DayWheel<V> {
+
+    private final int size;
+    private final List<Map<String, V>> slots;
+    private final TreeMap<Long, Map<String, V>> overflow = new TreeMap<>();
+    private final Map<String, Long> deadlines = new HashMap<>();
+    private long currentDay;
+
+    /**
+     * Cria a roda.
+     *
+     * @param size     quantidade de dias do horizonte
+     * @param startDay dia atual, em dias desde a época
+     */
+    DayWheel(int size, long startDay) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("O tamanho da roda deve ser positivo.");
+        }
+        this.size = size;
+        this.slots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            slots.add(new LinkedHashMap<>());
+        }
+        this.currentDay = startDay;
+    }
+
+    long getCurrentDay() {
+        return currentDay;
+    }
+
+    int size() {
+        return deadlines.size();
+    }
+
+    /**
+     * Agenda um item, substituindo o agendamento anterior da mesma chave.
+     *
+     * @param key   chave do item
+     * @param day   dia do vencimento
+     * @param value item
+     * @return false caso o dia já tenha passado; nesse caso nada é agendado
+     */
+    boolean schedule(String key, long day, V value) {
+        cancel(key);
+        if (day <= currentDay) {
+            return false;
+        }
+        deadlines.put(key, day);
+        bucket(day, true).put(key, value);
+        return true;
+    }
+
+    /**
+     * Cancela o agendamento de uma chave.
+     *
+     * @param key chave do item
+     * @return item cancelado, ou null caso a chave não esteja agendada
+     */
+    V cancel(String key) {
+        Long day = deadlines.remove(key);
+        if (day == null) {
+            return null;
+        }
+        Map<String, V> bucket = bucket(day, false);
+        V value = bucket.remove(key);
+        if (bucket.isEmpty() && day - currentDay > size) {
+            overflow.remove(day);
+        }
+        return value;
+    }
+
+    /**
+     * Avança a roda até o dia informado, entregando os itens vencidos em ordem
+     * de vencimento.
+     *
+     * @param toDay   novo dia atual
+     * @param expired recebe a chave e o item de cada vencimento
+     */
+    void advanceTo(long toDay, BiConsumer<String, V> expired) {
+        if (toDay - currentDay > size) {
+            drainAll(toDay, expired);
+            return;
+        }
+        while (currentDay < toDay) {
+            currentDay++;
+            Map<String, V> slot = slots.get(index(currentDay));
+            for (Map.Entry<String, V> entry : slot.entrySet()) {
+                deadlines.remove(entry.getKey());
+                expired.accept(entry.getKey(), entry.getValue());
+            }
+            slot.clear();
+
+            Map<String, V> entering = overflow.remove(currentDay + size);
+            if (entering != null) {
+                slot.putAll(entering);
+            }
+        }
+    }
+
+    /**
+     * Salto maior que o horizonte: toda a roda vence de uma vez, junto com a
+     * parte do mapa anterior ao novo dia, e o novo horizonte é preenchido a
+     * partir do mapa.
+     */
+    private void drainAll(long toDay, BiConsumer<String, V> expired) {
+        for (long day = currentDay + 1; day <= currentDay + size; day++) {
+            Map<String, V> slot = slots.get(index(day));
+            for (Map.Entry<String, V> entry : slot.entrySet()) {
+                deadlines.remove(entry.getKey());
+                expired.accept(entry.getKey(), entry.getValue());
+            }
+            slot.clear();
+        }
+
+        NavigableMap<Long, Map<String, V>> due = overflow.headMap(toDay, true);
+        for (Iterator<Map<String, V>> it = due.values().iterator(); it.hasNext();) {
+            for (Map.Entry<String, V> entry : it.next().entrySet()) {
+                deadlines.remove(entry.getKey());
+                expired.accept(entry.getKey(), entry.getValue());
+            }
+            it.remove();
+        }
+
+        currentDay = toDay;
+        NavigableMap<Long, Map<String, V>> entering = overflow.headMap(toDay + size, true);
+        for (Iterator<Map.Entry<Long, Map<String, V>>> it = entering.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Long, Map<String, V>> entry = it.next();
+            slots.get(index(entry.getKey())).putAll(entry.getValue());
+            it.remove();
+        }
+    }
+
+    private Map<String, V> bucket(long day, boolean create) {
+        if (day - currentDay <= size) {
+            return slots.get(index(day));
+        }
+        return create ? overflow.computeIfAbsent(day, d -> new LinkedHashMap<>())
+                : overflow.getOrDefault(day, new LinkedHashMap<>());
+    }
+
+    private int index(long day) {
+        return (int) Math.floorMod(day, (long) size);
+    }
+}
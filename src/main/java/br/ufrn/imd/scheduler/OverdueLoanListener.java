@@ -0,0 +1,21 @@
+package br.ufrn.imd.scheduler;
+
+import br.ufrn.imd.model.Loan;
+
+/**
+ * Recebe os empréstimos que acabaram de vencer.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface OverdueLoanListener {
+
+    /**
+     * Chamado uma vez por empréstimo, no primeiro dia após a data de devolução.
+     *
+     * @param loan empréstimo vencido.
+     */
+    void onLoanOverdue(Loan loan);
+
+}
@@ -0,0 +1,319 @@
+package br.ufrn.imd.scheduler;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import br.ufrn.imd.dao.LoanRepository;
+import br.ufrn.imd.logging.Logger;
+import br.ufrn.imd.model.Loan;
+import br.ufrn.imd.service.LoanChangeListener;
+
+/**
+ * Agendador em memória dos vencimentos de empréstimos.
+ * <p>
+ * Os empréstimos em aberto ficam em uma roda de tempo diária ({@link DayWheel})
+ * até vencerem e, a partir daí, no conjunto de vencidos, ordenado pela data de
+ * devolução. A cada virada de dia apenas a posição do dia que passou é
+ * visitada, então detectar vencimentos não exige percorrer os empréstimos em
+ * aberto, e a consulta dos vencidos lê apenas o conjunto de vencidos.
+ * <p>
+ * O agendador é carregado do banco com {@link #load()} e mantido atualizado
+ * pelas notificações de {@link LoanChangeListener}. Um empréstimo vence no
+ * primeiro dia posterior à data de devolução.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class OverdueLoanScheduler implements LoanChangeListener, AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(OverdueLoanScheduler.class);
+
+    private static final int WHEEL_DAYS = 512;
+    private static final Comparator<Loan> BY_DUE_DATE = Comparator.comparing(Loan::getDueDate)
+            .thenComparing(Loan::getId);
+
+    private final LoanRepository loanRepository;
+    private final Clock clock;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<OverdueLoanListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final Map<String, Loan> overdueById = new HashMap<>();
+    private final TreeSet<Loan> overdue = new TreeSet<>(BY_DUE_DATE);
+
+    private DayWheel<Loan> pending;
+    private ScheduledExecutorService ticker;
+
+    public OverdueLoanScheduler(LoanRepository loanRepository) {
+        this(loanRepository, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Cria o agendador.
+     *
+     * @param loanRepository repositório usado para carregar os empréstimos em aberto.
+     * @param clock          relógio que define o dia atual.
+     */
+    public OverdueLoanScheduler(LoanRepository loanRepository, Clock clock) {
+        this.loanRepository = loanRepository;
+        this.clock = clock;
+        this.pending = new DayWheel<>(WHEEL_DAYS, today());
+    }
+
+    /**
+     * Registra um ouvinte dos vencimentos.
+     *
+     * @param listener ouvinte a ser notificado.
+     */
+    public void addListener(OverdueLoanListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Descarta o estado atual e carrega os empréstimos em aberto do banco. Os
+     * empréstimos já vencidos entram direto no conjunto de vencidos, sem
+     * notificar os ouvintes.
+     */
+    public void load() {
+        try (Stream<Loan> loans = loanRepository.streamOpen()) {
+            lock.writeLock().lock();
+            try {
+                pending = new DayWheel<>(WHEEL_DAYS, today());
+                overdueById.clear();
+                overdue.clear();
+                loans.forEach(this::trackUnlocked);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Avança o agendador até o dia atual e notifica os empréstimos que venceram
+     * desde a última verificação.
+     *
+     * @return quantidade de empréstimos que venceram.
+     */
+    public int tick() {
+        List<Loan> expired = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            pending.advanceTo(today(), (id, loan) -> {
+                markOverdue(loan);
+                expired.add(loan);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        for (Loan loan : expired) {
+            notifyOverdue(loan);
+        }
+        return expired.size();
+    }
+
+    /**
+     * Verifica periodicamente a virada do dia em uma thread daemon.
+     *
+     * @param interval intervalo entre verificações.
+     * @throws IllegalArgumentException caso o intervalo não seja positivo.
+     * @throws IllegalStateException    caso o agendador já tenha sido iniciado.
+     */
+    public synchronized void start(Duration interval) {
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("O intervalo deve ser positivo.");
+        }
+        if (ticker != null) {
+            throw new IllegalStateException("O agendador já foi iniciado.");
+        }
+        ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "overdue-loans");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        ticker.scheduleWithFixedDelay(this::scheduledTick, 0, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Interrompe a verificação periódica.
+     */
+    @Override
+    public synchronized void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    /**
+     * Retorna os empréstimos vencidos, do mais antigo para o mais recente.
+     *
+     * @return cópia da lista de vencidos.
+     */
+    public List<Loan> getOverdueLoans() {
+        lock.readLock().lock();
+        try {
+            List<Loan> loans = new ArrayList<>(overdue.size());
+            for (Loan loan : overdue) {
+                loans.add(loan.toBuilder().build());
+            }
+            return loans;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Verifica se um empréstimo está vencido.
+     *
+     * @param id id do empréstimo.
+     * @return true caso o empréstimo esteja em aberto e vencido.
+     */
+    public boolean isOverdue(String id) {
+        lock.readLock().lock();
+        try {
+            return overdueById.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna a quantidade de empréstimos vencidos.
+     *
+     * @return quantidade de vencidos.
+     */
+    public int getOverdueCount() {
+        lock.readLock().lock();
+        try {
+            return overdue.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna a quantidade de empréstimos em aberto que ainda não venceram.
+     *
+     * @return quantidade de empréstimos agendados.
+     */
+    public int getPendingCount() {
+        lock.readLock().lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onLoanSaved(Loan loan) {
+        boolean newlyOverdue;
+        lock.writeLock().lock();
+        try {
+            boolean wasOverdue = overdueById.containsKey(loan.getId());
+            untrackUnlocked(loan.getId());
+            newlyOverdue = trackUnlocked(loan) && !wasOverdue;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (newlyOverdue) {
+            notifyOverdue(loan);
+        }
+    }
+
+    @Override
+    public void onLoanReturned(String id) {
+        untrack(id);
+    }
+
+    @Override
+    public void onLoanDeleted(String id) {
+        untrack(id);
+    }
+
+    private void untrack(String id) {
+        lock.writeLock().lock();
+        try {
+            untrackUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Agenda um empréstimo em aberto.
+     *
+     * @return true caso o empréstimo já esteja vencido.
+     */
+    private boolean trackUnlocked(Loan loan) {
+        if (loan.getId() == null || loan.getDueDate() == null || Boolean.TRUE.equals(loan.getIsReturned())) {
+            return false;
+        }
+        Loan copy = loan.toBuilder().build();
+        if (pending.schedule(copy.getId(), copy.getDueDate().toEpochDay() + 1, copy)) {
+            return false;
+        }
+        markOverdue(copy);
+        return true;
+    }
+
+    private void untrackUnlocked(String id) {
+        pending.cancel(id);
+        Loan previous = overdueById.remove(id);
+        if (previous != null) {
+            overdue.remove(previous);
+        }
+    }
+
+    private void markOverdue(Loan loan) {
+        overdueById.put(loan.getId(), loan);
+        overdue.add(loan);
+    }
+
+    /**
+     * Verificação periódica. Uma exceção que escapasse daqui cancelaria as
+     * próximas execuções sem aviso, então ela é registrada e a verificação
+     * continua no próximo intervalo.
+     */
+    private void scheduledTick() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            LOG.error("Erro ao verificar empréstimos vencidos", e);
+        }
+    }
+
+    /**
+     * Notifica os ouvintes de um vencimento. A falha de um ouvinte é
+     * registrada e não impede a notificação dos demais.
+     */
+    private void notifyOverdue(Loan loan) {
+        Loan copy = loan.toBuilder().build();
+        for (OverdueLoanListener listener : listeners) {
+            try {
+                listener.onLoanOverdue(copy);
+            } catch (RuntimeException e) {
+                LOG.error("Erro ao notificar o vencimento do empréstimo {}", copy.getId(), e);
+            }
+        }
+    }
+
+    private long today() {
+        return LocalDate.now(clock).toEpochDay();
+    }
+}
@@ -0,0 +1,337 @@
+package br.ufrn.imd.search;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.enums.Genre;
+import br.ufrn.imd.service.BookChangeListener;
+
+/**
+ * Índices de bitmap comprimidos (Roaring) sobre o gênero, o ano de publicação
+ * e a disponibilidade dos livros.
+ * <p>
+ * Há um bitmap por gênero, um por ano e um por década de publicação e um
+ * com os livros disponíveis, todos indexados pelo id do livro. Um
+ * {@link BookFilter} é avaliado como OU entre os bitmaps de cada faceta e E
+ * entre as facetas; um intervalo de anos usa o bitmap das décadas inteiras e
+ * os bitmaps anuais apenas nas pontas. As contagens das facetas são
+ * interseções contadas sem materializar o resultado, e o ano é contado por
+ * década para que o custo não cresça com a quantidade de anos distintos. O índice é mantido atualizado pelas notificações de
+ * {@link BookChangeListener}.
+ * <p>
+ * Os ids são guardados como inteiros de 32 bits sem sinal; livros com id
+ * acima de 4.294.967.295 não podem ser indexados. Consultas podem ocorrer em
+ * paralelo; alterações são exclusivas.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class BookFacetIndex implements BookChangeListener {
+
+    private static final long MAX_ID = 0xFFFF_FFFFL;
+    private static final int DECADE = 10;
+    private static final Genre[] GENRES = Genre.values();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final RoaringBitmap available = new RoaringBitmap();
+    private final RoaringBitmap[] byGenre = new RoaringBitmap[GENRES.length];
+    private final TreeMap<Integer, RoaringBitmap> byYear = new TreeMap<>();
+    private final TreeMap<Integer, RoaringBitmap> byDecade = new TreeMap<>();
+
+    public BookFacetIndex() {
+        for (int i = 0; i < byGenre.length; i++) {
+            byGenre[i] = new RoaringBitmap();
+        }
+    }
+
+    /**
+     * Descarta o conteúdo atual e indexa os livros informados.
+     *
+     * @param books livros a serem indexados.
+     * @throws IllegalArgumentException caso algum livro tenha id inválido.
+     */
+    public void rebuild(Stream<Book> books) {
+        lock.writeLock().lock();
+        try {
+            all.clear();
+            available.clear();
+            for (RoaringBitmap bitmap : byGenre) {
+                bitmap.clear();
+            }
+            byYear.clear();
+            byDecade.clear();
+            books.forEach(this::addUnlocked);
+
+            all.runOptimize();
+            available.runOptimize();
+            for (RoaringBitmap bitmap : byGenre) {
+                bitmap.runOptimize();
+            }
+            for (RoaringBitmap bitmap : byYear.values()) {
+                bitmap.runOptimize();
+            }
+            for (RoaringBitmap bitmap : byDecade.values()) {
+                bitmap.runOptimize();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexa um livro, substituindo a versão anterior caso já esteja indexado.
+     *
+     * @param book livro com id.
+     * @throws IllegalArgumentException caso o livro não tenha id ou o id seja
+     *                                  grande demais.
+     */
+    public void put(Book book) {
+        if (book == null || book.getId() == null) {
+            throw new IllegalArgumentException("Apenas livros com id podem ser indexados.");
+        }
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(toKey(book.getId()));
+            addUnlocked(book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove um livro do índice.
+     *
+     * @param id id do livro.
+     */
+    public void remove(Long id) {
+        if (id == null || id < 0 || id > MAX_ID) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(toKey(id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onBookSaved(Book book) {
+        put(book);
+    }
+
+    @Override
+    public void onBookDeleted(Long id) {
+        remove(id);
+    }
+
+    /**
+     * Quantidade de livros indexados.
+     *
+     * @return livros no índice.
+     */
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return all.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Aplica o filtro e calcula as contagens das facetas.
+     *
+     * @param filter filtro a ser aplicado.
+     * @throws IllegalArgumentException caso o intervalo de anos seja inválido.
+     * @return livros encontrados e contagens.
+     */
+    public FacetResult filter(BookFilter filter) {
+        int fromYear = filter.getFromYear() != null ? filter.getFromYear() : Integer.MIN_VALUE;
+        int toYear = filter.getToYear() != null ? filter.getToYear() : Integer.MAX_VALUE;
+        if (fromYear > toYear) {
+            throw new IllegalArgumentException("O ano inicial não pode ser maior que o ano final.");
+        }
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap genreMatch = null;
+            if (!filter.getGenres().isEmpty()) {
+                List<RoaringBitmap> selected = new ArrayList<>(filter.getGenres().size());
+                for (Genre genre : filter.getGenres()) {
+                    selected.add(byGenre[genre.ordinal()]);
+                }
+                genreMatch = FastAggregation.or(selected.iterator());
+            }
+            RoaringBitmap yearMatch = filter.hasYearRange()
+                    ? FastAggregation.or(yearBuckets(fromYear, toYear).iterator())
+                    : null;
+            RoaringBitmap availableMatch = filter.isAvailableOnly() ? available : null;
+
+            RoaringBitmap withoutGenre = and(yearMatch, availableMatch);
+            RoaringBitmap withoutYear = and(genreMatch, availableMatch);
+            RoaringBitmap withoutAvailability = and(genreMatch, yearMatch);
+            RoaringBitmap matches = and(and(genreMatch, yearMatch), availableMatch);
+            if (matches == null) {
+                matches = all.clone();
+            } else if (isShared(matches)) {
+                matches = matches.clone();
+            }
+
+            Map<Genre, Long> genreCounts = new EnumMap<>(Genre.class);
+            for (Genre genre : GENRES) {
+                long count = cardinality(byGenre[genre.ordinal()], withoutGenre);
+                if (count > 0) {
+                    genreCounts.put(genre, count);
+                }
+            }
+            SortedMap<Integer, Long> decadeCounts = new TreeMap<>();
+            for (Map.Entry<Integer, RoaringBitmap> entry : byDecade.entrySet()) {
+                long count = cardinality(entry.getValue(), withoutYear);
+                if (count > 0) {
+                    decadeCounts.put(entry.getKey(), count);
+                }
+            }
+            long availableCount = cardinality(available, withoutAvailability);
+
+            return new FacetResult(matches, genreCounts, decadeCounts, availableCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bitmaps que cobrem o intervalo de anos: o da década quando ela está
+     * inteira no intervalo, os dos anos quando está apenas em parte.
+     */
+    private List<RoaringBitmap> yearBuckets(int fromYear, int toYear) {
+        List<RoaringBitmap> buckets = new ArrayList<>();
+        for (Map.Entry<Integer, RoaringBitmap> entry : byDecade.entrySet()) {
+            long first = entry.getKey();
+            long last = first + DECADE - 1;
+            if (last < fromYear || first > toYear) {
+                continue;
+            }
+            if (first >= fromYear && last <= toYear) {
+                buckets.add(entry.getValue());
+            } else {
+                buckets.addAll(byYear.subMap((int) Math.max(first, fromYear), true,
+                        (int) Math.min(last, toYear), true).values());
+            }
+        }
+        return buckets;
+    }
+
+    private void addUnlocked(Book book) {
+        int key = toKey(book.getId());
+        all.add(key);
+        if (book.getGenre() != null) {
+            byGenre[book.getGenre().ordinal()].add(key);
+        }
+        if (book.getPublicationYear() != null) {
+            byYear.computeIfAbsent(book.getPublicationYear(), year -> new RoaringBitmap()).add(key);
+            byDecade.computeIfAbsent(decadeOf(book.getPublicationYear()), decade -> new RoaringBitmap()).add(key);
+        }
+        if (isAvailable(book)) {
+            available.add(key);
+        }
+    }
+
+    private void removeUnlocked(int key) {
+        if (!all.checkedRemove(key)) {
+            return;
+        }
+        available.remove(key);
+        for (RoaringBitmap bitmap : byGenre) {
+            if (bitmap.checkedRemove(key)) {
+                break;
+            }
+        }
+        removeFromBucket(byYear, key);
+        removeFromBucket(byDecade, key);
+    }
+
+    private static void removeFromBucket(TreeMap<Integer, RoaringBitmap> buckets, int key) {
+        Iterator<RoaringBitmap> it = buckets.values().iterator();
+        while (it.hasNext()) {
+            RoaringBitmap bitmap = it.next();
+            if (bitmap.checkedRemove(key)) {
+                if (bitmap.isEmpty()) {
+                    it.remove();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Verifica se o bitmap é um dos índices, que não pode ser entregue ao
+     * chamador sem cópia.
+     */
+    private boolean isShared(RoaringBitmap bitmap) {
+        if (bitmap == all || bitmap == available) {
+            return true;
+        }
+        for (RoaringBitmap genre : byGenre) {
+            if (bitmap == genre) {
+                return true;
+            }
+        }
+        for (RoaringBitmap year : byYear.values()) {
+            if (bitmap == year) {
+                return true;
+            }
+        }
+        for (RoaringBitmap decade : byDecade.values()) {
+            if (bitmap == decade) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAvailable(Book book) {
+        if (book.getAvailableCopies() != null) {
+            return book.getAvailableCopies() > 0;
+        }
+        return Boolean.TRUE.equals(book.getIsAvailable());
+    }
+
+    private static int decadeOf(int year) {
+        return Math.floorDiv(year, DECADE) * DECADE;
+    }
+
+    private static int toKey(long id) {
+        if (id < 0 || id > MAX_ID) {
+            throw new IllegalArgumentException("Id de livro fora do intervalo do índice: " + id);
+        }
+        return (int) id;
+    }
+
+    private static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return RoaringBitmap.and(a, b);
+    }
+
+    private long cardinality(RoaringBitmap facet, RoaringBitmap restriction) {
+        return restriction == null ? facet.getLongCardinality() : RoaringBitmap.andCardinality(facet, restriction);
+    }
+}
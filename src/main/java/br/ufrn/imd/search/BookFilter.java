@@ -0,0 +1,47 @@
+package br.ufrn.imd.search;
+
+import java.util.Set;
+
+import br.ufrn.imd.model.enums.Genre;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+/**
+ * Filtro de livros por facetas. Critérios não informados não restringem o
+ * resultado; os gêneros informados são combinados com OU e os critérios entre
+ * si com E.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Value
+@Builder(toBuilder = true)
+public class BookFilter {
+
+    /** Gêneros aceitos; vazio aceita todos. */
+    @Singular
+    Set<Genre> genres;
+
+    /** Primeiro ano de publicação aceito, inclusive, ou null. */
+    Integer fromYear;
+
+    /** Último ano de publicação aceito, inclusive, ou null. */
+    Integer toYear;
+
+    /** Se verdadeiro, apenas livros com exemplares disponíveis. */
+    boolean availableOnly;
+
+    /**
+     * Filtro que aceita todos os livros.
+     *
+     * @return filtro vazio.
+     */
+    public static BookFilter all() {
+        return builder().build();
+    }
+
+    boolean hasYearRange() {
+        return fromYear != null || toYear != null;
+    }
+}
@@ -0,0 +1,287 @@
+package br.ufrn.imd.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.service.BookChangeListener;
+
+/**
+ * Índice invertido em memória sobre o título e o autor dos livros, com
+ * ranqueamento BM25.
+ * <p>
+ * Cada termo aponta para os livros que o contêm e para a frequência do termo em
+ * cada livro; termos do título contam em dobro. Uma busca exige que todos os
+ * termos da consulta apareçam no livro, e o último termo também casa por
+ * prefixo, para atender à busca enquanto o usuário digita. O índice é mantido
+ * atualizado pelas notificações de {@link BookChangeListener}.
+ * <p>
+ * Buscas podem ocorrer em paralelo; alterações são exclusivas.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class BookSearchIndex implements BookChangeListener {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_WEIGHT = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private long totalLength;
+
+    /**
+     * Descarta o conteúdo atual e indexa os livros informados.
+     *
+     * @param books livros a serem indexados.
+     */
+    public void rebuild(Stream<Book> books) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+            books.forEach(this::addUnlocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexa um livro, substituindo a versão anterior caso já esteja indexado.
+     *
+     * @param book livro com id.
+     * @throws IllegalArgumentException caso o livro não tenha id.
+     */
+    public void put(Book book) {
+        if (book == null || book.getId() == null) {
+            throw new IllegalArgumentException("Apenas livros com id podem ser indexados.");
+        }
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(book.getId());
+            addUnlocked(book);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove um livro do índice.
+     *
+     * @param id id do livro.
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onBookSaved(Book book) {
+        put(book);
+    }
+
+    @Override
+    public void onBookDeleted(Long id) {
+        remove(id);
+    }
+
+    /**
+     * Busca os livros mais relevantes para a consulta.
+     *
+     * @param query texto de busca.
+     * @param limit quantidade máxima de resultados.
+     * @return livros ordenados do mais para o menos relevante.
+     */
+    public List<Book> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(TextAnalyzer.tokenize(query)));
+        if (tokens.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            double avgLength = (double) totalLength / documents.size();
+            Map<Long, Score> scores = new HashMap<>();
+
+            for (int t = 0; t < tokens.size(); t++) {
+                String token = tokens.get(t);
+                boolean prefix = t == tokens.size() - 1;
+
+                for (Map.Entry<String, Map<Long, Integer>> term : matchingTerms(token, prefix).entrySet()) {
+                    double idf = idf(term.getValue().size());
+                    for (Map.Entry<Long, Integer> posting : term.getValue().entrySet()) {
+                        Document doc = documents.get(posting.getKey());
+                        int tf = posting.getValue();
+                        double norm = K1 * (1 - B + B * doc.length / avgLength);
+                        Score score = scores.computeIfAbsent(posting.getKey(), id -> new Score());
+                        score.value += idf * tf * (K1 + 1) / (tf + norm);
+                        score.mark(t);
+                    }
+                }
+            }
+
+            PriorityQueue<Map.Entry<Long, Score>> top = new PriorityQueue<>(limit + 1,
+                    (a, b) -> a.getValue().value != b.getValue().value
+                            ? Double.compare(a.getValue().value, b.getValue().value)
+                            : Long.compare(b.getKey(), a.getKey()));
+
+            for (Map.Entry<Long, Score> entry : scores.entrySet()) {
+                if (entry.getValue().matched != tokens.size()) {
+                    continue;
+                }
+                top.offer(entry);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+
+            List<Book> results = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                results.add(copy(documents.get(top.poll().getKey()).book));
+            }
+            Collections.reverse(results);
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna a quantidade de livros indexados.
+     *
+     * @return quantidade de livros.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private NavigableMap<String, Map<Long, Integer>> matchingTerms(String token, boolean prefix) {
+        if (!prefix) {
+            Map<Long, Integer> exact = postings.get(token);
+            TreeMap<String, Map<Long, Integer>> single = new TreeMap<>();
+            if (exact != null) {
+                single.put(token, exact);
+            }
+            return single;
+        }
+
+        NavigableMap<String, Map<Long, Integer>> range = postings.subMap(token, true, token + Character.MAX_VALUE,
+                false);
+        if (range.size() <= MAX_PREFIX_EXPANSIONS) {
+            return range;
+        }
+        TreeMap<String, Map<Long, Integer>> limited = new TreeMap<>();
+        for (Map.Entry<String, Map<Long, Integer>> entry : range.entrySet()) {
+            if (limited.size() == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            limited.put(entry.getKey(), entry.getValue());
+        }
+        return limited;
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (documents.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private void addUnlocked(Book book) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : TextAnalyzer.tokenize(book.getTitle())) {
+            frequencies.merge(token, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String token : TextAnalyzer.tokenize(book.getAuthor())) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(book.getId(), entry.getValue());
+            length += entry.getValue();
+        }
+
+        documents.put(book.getId(), new Document(copy(book), frequencies.keySet(), length));
+        totalLength += length;
+    }
+
+    private void removeUnlocked(Long id) {
+        Document doc = documents.remove(id);
+        if (doc == null) {
+            return;
+        }
+        for (String term : doc.terms) {
+            Map<Long, Integer> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(id);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= doc.length;
+    }
+
+    private static Book copy(Book book) {
+        return book.toBuilder().build();
+    }
+
+    /**
+     * Livro indexado e os termos que ele contém.
+     */
+    private static class Document {
+
+        private final Book book;
+        private final Set<String> terms;
+        private final int length;
+
+        Document(Book book, Set<String> terms, int length) {
+            this.book = book;
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Pontuação acumulada de um livro e quais termos da consulta ele contém.
+     */
+    private static class Score {
+
+        private double value;
+        private int matched;
+        private int lastToken = -1;
+
+        void mark(int token) {
+            if (token != lastToken) {
+                lastToken = token;
+                matched++;
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package br.ufrn.imd.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import br.ufrn.imd.model.enums.Genre;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Resultado de um {@link BookFilter}: os ids dos livros encontrados e as
+ * contagens de cada faceta.
+ * <p>
+ * A contagem de uma faceta considera os demais critérios do filtro, mas não o
+ * da própria faceta: com o filtro "Drama, disponíveis", a contagem de Terror
+ * informa quantos livros disponíveis de Terror existem, o que permite exibir
+ * as alternativas ao lado de cada opção.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Getter
+@ToString(exclude = "matches")
+public class FacetResult {
+
+    @Getter(AccessLevel.NONE)
+    private final RoaringBitmap matches;
+
+    /** Quantidade de livros encontrados. */
+    private final long count;
+
+    /** Livros por gênero, sem o critério de gênero. */
+    private final Map<Genre, Long> genreCounts;
+
+    /**
+     * Livros por década de publicação, identificada pelo primeiro ano, sem o
+     * critério de ano.
+     */
+    private final SortedMap<Integer, Long> decadeCounts;
+
+    /** Livros com exemplares disponíveis, sem o critério de disponibilidade. */
+    private final long availableCount;
+
+    FacetResult(RoaringBitmap matches, Map<Genre, Long> genreCounts, SortedMap<Integer, Long> decadeCounts,
+            long availableCount) {
+        this.matches = matches;
+        this.count = matches.getLongCardinality();
+        this.genreCounts = Collections.unmodifiableMap(genreCounts);
+        this.decadeCounts = Collections.unmodifiableSortedMap(decadeCounts);
+        this.availableCount = availableCount;
+    }
+
+    /**
+     * Retorna uma fatia dos ids encontrados, em ordem crescente.
+     *
+     * @param offset quantidade de ids a pular.
+     * @param limit  quantidade máxima de ids.
+     * @return ids da fatia.
+     */
+    public List<Long> getIds(long offset, int limit) {
+        List<Long> ids = new ArrayList<>(Math.max(0, Math.min(limit, (int) Math.min(Integer.MAX_VALUE, count))));
+        if (offset >= count || limit <= 0) {
+            return ids;
+        }
+        PeekableIntIterator it = matches.getIntIterator();
+        it.advanceIfNeeded(matches.select((int) offset));
+        while (it.hasNext() && ids.size() < limit) {
+            ids.add(Integer.toUnsignedLong(it.next()));
+        }
+        return ids;
+    }
+}
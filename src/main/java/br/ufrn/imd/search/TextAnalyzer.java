@@ -0,0 +1,70 @@
+package br.ufrn.imd.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Quebra textos em termos para o índice de busca.
+ * <p>
+ * Os termos são normalizados sem acentos e em minúsculas, de modo que
+ * "Ficção" e "ficcao" geram o mesmo termo. Qualquer caractere que não seja
+ * letra ou dígito separa termos.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public final class TextAnalyzer {
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Quebra o texto em termos normalizados.
+     *
+     * @param text texto a ser analisado, pode ser nulo.
+     * @return termos na ordem em que aparecem.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i < folded.length(); i++) {
+            if (Character.isLetterOrDigit(folded.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        if (start >= 0) {
+            tokens.add(folded.substring(start));
+        }
+        return tokens;
+    }
+
+    /**
+     * Remove acentos e converte o texto para minúsculas.
+     *
+     * @param text texto original.
+     * @return texto normalizado.
+     */
+    public static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(c);
+            }
+        }
+        return folded.toString().toLowerCase(Locale.ROOT);
+    }
+}
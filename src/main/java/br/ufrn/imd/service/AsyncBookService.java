@@ -0,0 +1,91 @@
+package br.ufrn.imd.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.search.BookFilter;
+import br.ufrn.imd.search.FacetResult;
+
+/**
+ * Versão assíncrona de {@link BookService}, para chamadores que não podem
+ * bloquear, como a thread da interface JavaFX.
+ * <p>
+ * Cada método delega ao método de mesmo nome de {@link BookService} no
+ * {@link ServiceExecutor} e devolve um {@link CompletableFuture}; as exceções do
+ * serviço completam o futuro excepcionalmente.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class AsyncBookService {
+
+    private final BookService bookService;
+    private final ServiceExecutor executor;
+
+    public AsyncBookService(BookService bookService, ServiceExecutor executor) {
+        this.bookService = bookService;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Void> createBook(Book book) {
+        return executor.run(() -> bookService.createBook(book));
+    }
+
+    public CompletableFuture<Book> findBookById(Long id) {
+        return executor.supply(() -> bookService.findBookById(id));
+    }
+
+    public CompletableFuture<List<Book>> findAllBooks() {
+        return executor.supply(bookService::findAllBooks);
+    }
+
+    public CompletableFuture<List<Book>> searchBooks(String query) {
+        return executor.supply(() -> bookService.searchBooks(query));
+    }
+
+    public CompletableFuture<List<Book>> searchBooks(String query, int limit) {
+        return executor.supply(() -> bookService.searchBooks(query, limit));
+    }
+
+    public CompletableFuture<FacetResult> filterBooks(BookFilter filter) {
+        return executor.supply(() -> bookService.filterBooks(filter));
+    }
+
+    public CompletableFuture<List<Book>> findFilteredBooks(FacetResult result, long offset, int size) {
+        return executor.supply(() -> bookService.findFilteredBooks(result, offset, size));
+    }
+
+    public CompletableFuture<Page<Book>> findBooksPage(String cursor, int size) {
+        return executor.supply(() -> bookService.findBooksPage(cursor, size));
+    }
+
+    public CompletableFuture<Page<Book>> searchBooksPage(String query, String cursor, int size) {
+        return executor.supply(() -> bookService.searchBooksPage(query, cursor, size));
+    }
+
+    public CompletableFuture<Long> countBooks() {
+        return executor.supply(bookService::countBooks);
+    }
+
+    public CompletableFuture<Boolean> hasBooks() {
+        return executor.supply(bookService::hasBooks);
+    }
+
+    public CompletableFuture<Void> updateBook(Long id, Book book) {
+        return executor.run(() -> bookService.updateBook(id, book));
+    }
+
+    public CompletableFuture<Void> deleteBook(Long id) {
+        return executor.run(() -> bookService.deleteBook(id));
+    }
+
+    public CompletableFuture<Void> rebuildSearchIndex() {
+        return executor.run(bookService::rebuildSearchIndex);
+    }
+
+    public CompletableFuture<Void> rebuildFacetIndex() {
+        return executor.run(bookService::rebuildFacetIndex);
+    }
+}
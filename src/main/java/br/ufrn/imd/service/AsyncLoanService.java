@@ -0,0 +1,72 @@
+package br.ufrn.imd.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.model.Loan;
+
+/**
+ * Versão assíncrona de {@link LoanService}.
+ * <p>
+ * Cada método delega ao método de mesmo nome de {@link LoanService} no
+ * {@link ServiceExecutor} e devolve um {@link CompletableFuture}; as exceções do
+ * serviço completam o futuro excepcionalmente.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class AsyncLoanService {
+
+    private final LoanService loanService;
+    private final ServiceExecutor executor;
+
+    public AsyncLoanService(LoanService loanService, ServiceExecutor executor) {
+        this.loanService = loanService;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Void> createLoan(Loan loan) {
+        return executor.run(() -> loanService.createLoan(loan));
+    }
+
+    public CompletableFuture<Loan> checkout(Long userId, Long bookId) {
+        return executor.supply(() -> loanService.checkout(userId, bookId));
+    }
+
+    public CompletableFuture<Void> returnLoan(Long id) {
+        return executor.run(() -> loanService.returnLoan(id));
+    }
+
+    public CompletableFuture<Void> submitReturn(Long id) {
+        return executor.supply(() -> loanService.submitReturn(id)).thenCompose(result -> result);
+    }
+
+    public CompletableFuture<Void> flushReturns() {
+        return executor.run(loanService::flushReturns);
+    }
+
+    public CompletableFuture<Loan> findLoanById(Long id) {
+        return executor.supply(() -> loanService.findLoanById(id));
+    }
+
+    public CompletableFuture<List<Loan>> findAllLoans() {
+        return executor.supply(loanService::findAllLoans);
+    }
+
+    public CompletableFuture<Page<Loan>> findLoansPage(String cursor, int size) {
+        return executor.supply(() -> loanService.findLoansPage(cursor, size));
+    }
+
+    public CompletableFuture<Long> countLoans() {
+        return executor.supply(loanService::countLoans);
+    }
+
+    public CompletableFuture<Void> updateLoan(Long id, Loan loan) {
+        return executor.run(() -> loanService.updateLoan(id, loan));
+    }
+
+    public CompletableFuture<Void> deleteLoan(Long id) {
+        return executor.run(() -> loanService.deleteLoan(id));
+    }
+}
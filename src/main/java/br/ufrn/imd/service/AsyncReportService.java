@@ -0,0 +1,50 @@
+package br.ufrn.imd.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.BookRanking;
+import br.ufrn.imd.model.UserRanking;
+
+/**
+ * Versão assíncrona de {@link ReportService}.
+ * <p>
+ * Cada método delega ao método de mesmo nome de {@link ReportService} no
+ * {@link ServiceExecutor} e devolve um {@link CompletableFuture}; as exceções do
+ * serviço completam o futuro excepcionalmente.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class AsyncReportService {
+
+    private final ReportService reportService;
+    private final ServiceExecutor executor;
+
+    public AsyncReportService(ReportService reportService, ServiceExecutor executor) {
+        this.reportService = reportService;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Page<Book>> findAvailableBooksPage(String cursor, int size) {
+        return executor.supply(() -> reportService.findAvailableBooksPage(cursor, size));
+    }
+
+    public CompletableFuture<Long> countAvailableBooks() {
+        return executor.supply(reportService::countAvailableBooks);
+    }
+
+    public CompletableFuture<List<BookRanking>> findMostBorrowedBooks(int limit) {
+        return executor.supply(() -> reportService.findMostBorrowedBooks(limit));
+    }
+
+    public CompletableFuture<List<UserRanking>> findTopBorrowers(int limit) {
+        return executor.supply(() -> reportService.findTopBorrowers(limit));
+    }
+
+    public CompletableFuture<Void> rebuildReports() {
+        return executor.run(reportService::rebuildReports);
+    }
+}
@@ -0,0 +1,68 @@
+package br.ufrn.imd.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.model.User;
+
+/**
+ * Versão assíncrona de {@link UserService}.
+ * <p>
+ * Cada método delega ao método de mesmo nome de {@link UserService} no
+ * {@link ServiceExecutor} e devolve um {@link CompletableFuture}; as exceções do
+ * serviço completam o futuro excepcionalmente.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class AsyncUserService {
+
+    private final UserService userService;
+    private final ServiceExecutor executor;
+
+    public AsyncUserService(UserService userService, ServiceExecutor executor) {
+        this.userService = userService;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Void> createUser(User user) {
+        return executor.run(() -> userService.createUser(user));
+    }
+
+    public CompletableFuture<Void> updateUser(Long id, User user) {
+        return executor.run(() -> userService.updateUser(id, user));
+    }
+
+    public CompletableFuture<User> findUserById(Long id) {
+        return executor.supply(() -> userService.findUserById(id));
+    }
+
+    public CompletableFuture<List<User>> findAllUsers() {
+        return executor.supply(userService::findAllUsers);
+    }
+
+    public CompletableFuture<List<User>> searchUsers(String query) {
+        return executor.supply(() -> userService.searchUsers(query));
+    }
+
+    public CompletableFuture<Page<User>> findUsersPage(String cursor, int size) {
+        return executor.supply(() -> userService.findUsersPage(cursor, size));
+    }
+
+    public CompletableFuture<Page<User>> searchUsersPage(String query, String cursor, int size) {
+        return executor.supply(() -> userService.searchUsersPage(query, cursor, size));
+    }
+
+    public CompletableFuture<Long> countUsers() {
+        return executor.supply(userService::countUsers);
+    }
+
+    public CompletableFuture<Boolean> hasUsers() {
+        return executor.supply(userService::hasUsers);
+    }
+
+    public CompletableFuture<Void> deleteUser(Long id) {
+        return executor.run(() -> userService.deleteUser(id));
+    }
+}
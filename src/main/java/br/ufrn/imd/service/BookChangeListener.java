@@ -0,0 +1,28 @@
+package br.ufrn.imd.service;
+
+import br.ufrn.imd.model.Book;
+
+/**
+ * Recebe notificações das alterações feitas no acervo de livros, para manter
+ * estruturas derivadas (índices, caches) atualizadas.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public interface BookChangeListener {
+
+    /**
+     * Chamado depois que um livro é criado ou atualizado.
+     *
+     * @param book livro com o id e os dados gravados.
+     */
+    void onBookSaved(Book book);
+
+    /**
+     * Chamado depois que um livro é removido.
+     *
+     * @param id id do livro removido.
+     */
+    void onBookDeleted(Long id);
+
+}
@@ -0,0 +1,296 @@
+package br.ufrn.imd.service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import br.ufrn.imd.dao.BookRepository;
+import br.ufrn.imd.exception.DatabaseException;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.enums.Genre;
+
+/**
+ * Serviço de importação em massa de livros a partir de arquivos CSV.
+ * <p>
+ * O arquivo é lido linha a linha, com memória constante. Cada linha é validada
+ * com as mesmas regras de {@link BookService} e as linhas válidas são gravadas
+ * em lotes, cada lote em uma transação. As colunas esperadas são
+ * {@code title,author,genre,publication_year,isbn,is_available,total_copies},
+ * sendo as duas últimas opcionais. Linhas rejeitadas são registradas no relatório de erros no formato
+ * {@code linha,motivo,conteúdo}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class BookImportService {
+
+    /** Quantidade padrão de linhas gravadas por transação. */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+    private final int batchSize;
+    private final BookChangeListener changeListener;
+
+    public BookImportService(BookRepository bookRepository) {
+        this(bookRepository, DEFAULT_BATCH_SIZE, null);
+    }
+
+    public BookImportService(BookRepository bookRepository, int batchSize) {
+        this(bookRepository, batchSize, null);
+    }
+
+    /**
+     * Cria o serviço de importação.
+     *
+     * @param bookRepository repositório de livros.
+     * @param batchSize      quantidade de linhas gravadas por transação.
+     * @param changeListener ouvinte notificado de cada livro importado, como
+     *                       {@link BookService#changeNotifier()}; pode ser nulo.
+     */
+    public BookImportService(BookRepository bookRepository, int batchSize, BookChangeListener changeListener) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("O tamanho do lote deve ser positivo.");
+        }
+        this.bookRepository = bookRepository;
+        this.batchSize = batchSize;
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Importa os livros de um arquivo CSV com cabeçalho.
+     *
+     * @param csv         arquivo a ser importado.
+     * @param errorReport arquivo onde as linhas rejeitadas serão registradas.
+     * @param listener    ouvinte de progresso, pode ser nulo.
+     * @throws IOException caso ocorra um erro ao ler ou escrever os arquivos.
+     * @return resultado da importação.
+     */
+    public ImportResult importCsv(Path csv, Path errorReport, ImportProgressListener listener) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+                BufferedWriter writer = Files.newBufferedWriter(errorReport, StandardCharsets.UTF_8)) {
+            return importCsv(reader, writer, listener);
+        }
+    }
+
+    /**
+     * Importa os livros de um CSV com cabeçalho.
+     *
+     * @param input       conteúdo CSV.
+     * @param errorReport destino das linhas rejeitadas.
+     * @param listener    ouvinte de progresso, pode ser nulo.
+     * @throws IOException caso ocorra um erro de leitura ou escrita.
+     * @return resultado da importação.
+     */
+    public ImportResult importCsv(Reader input, Writer errorReport, ImportProgressListener listener)
+            throws IOException {
+        BufferedReader reader = input instanceof BufferedReader ? (BufferedReader) input : new BufferedReader(input);
+        Progress progress = new Progress(listener);
+        List<Book> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+        List<String> batchRaw = new ArrayList<>(batchSize);
+
+        String line = reader.readLine();
+        long lineNumber = 1;
+
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            progress.rowsRead++;
+
+            Book book;
+            try {
+                book = parseBook(line);
+                BookService.validateBook(book);
+            } catch (IllegalArgumentException e) {
+                reject(errorReport, progress, lineNumber, e.getMessage(), line);
+                continue;
+            }
+
+            batch.add(book);
+            batchLines.add(lineNumber);
+            batchRaw.add(line);
+
+            if (batch.size() == batchSize) {
+                flush(batch, batchLines, batchRaw, errorReport, progress);
+            }
+        }
+
+        flush(batch, batchLines, batchRaw, errorReport, progress);
+        errorReport.flush();
+
+        return progress.report();
+    }
+
+    /**
+     * Grava o lote em uma transação. Se o lote falhar, as linhas são regravadas
+     * uma a uma para isolar as que o banco recusou.
+     */
+    private void flush(List<Book> batch, List<Long> lines, List<String> raw, Writer errorReport, Progress progress)
+            throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            progress.rowsImported += bookRepository.createAll(batch);
+            notifySaved(batch);
+        } catch (DatabaseException batchError) {
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    List<Book> single = List.of(batch.get(i));
+                    progress.rowsImported += bookRepository.createAll(single);
+                    notifySaved(single);
+                } catch (DatabaseException e) {
+                    reject(errorReport, progress, lines.get(i), e.getMessage(), raw.get(i));
+                }
+            }
+        }
+
+        batch.clear();
+        lines.clear();
+        raw.clear();
+        progress.report();
+    }
+
+    private void notifySaved(List<Book> books) {
+        if (changeListener != null) {
+            for (Book book : books) {
+                changeListener.onBookSaved(book);
+            }
+        }
+    }
+
+    private void reject(Writer errorReport, Progress progress, long lineNumber, String reason, String raw)
+            throws IOException {
+        progress.rowsRejected++;
+        errorReport.write(lineNumber + "," + quote(reason) + "," + quote(raw));
+        errorReport.write(System.lineSeparator());
+    }
+
+    /**
+     * Converte uma linha CSV em livro.
+     *
+     * @param line linha do arquivo.
+     * @throws IllegalArgumentException caso a linha esteja mal formatada.
+     * @return livro lido.
+     */
+    private Book parseBook(String line) {
+        List<String> fields = parseLine(line);
+        if (fields.size() < 5 || fields.size() > 7) {
+            throw new IllegalArgumentException("Quantidade de colunas inválida: " + fields.size());
+        }
+
+        Book book = new Book();
+        book.setTitle(fields.get(0).trim());
+        book.setAuthor(fields.get(1).trim());
+
+        String genre = fields.get(2).trim();
+        if (!genre.isEmpty()) {
+            try {
+                book.setGenre(Genre.valueOf(genre.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Gênero desconhecido: " + genre);
+            }
+        }
+
+        try {
+            book.setPublicationYear(Integer.parseInt(fields.get(3).trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Ano de publicação inválido: " + fields.get(3));
+        }
+
+        book.setIsbn(fields.get(4).trim());
+        book.setIsAvailable(fields.size() < 6 || fields.get(5).trim().isEmpty()
+                || Boolean.parseBoolean(fields.get(5).trim()));
+
+        if (fields.size() == 7 && !fields.get(6).trim().isEmpty()) {
+            try {
+                book.setTotalCopies(Integer.parseInt(fields.get(6).trim()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Quantidade de exemplares inválida: " + fields.get(6));
+            }
+        }
+
+        if (book.getIsbn().isEmpty()) {
+            throw new IllegalArgumentException("O ISBN do livro é obrigatório.");
+        }
+        return book;
+    }
+
+    /**
+     * Separa os campos de uma linha CSV, respeitando aspas duplas.
+     */
+    private static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>(6);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Aspas não fechadas.");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String quote(String value) {
+        String text = value == null ? "" : value;
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Contadores de uma importação em andamento.
+     */
+    private static class Progress {
+
+        private final ImportProgressListener listener;
+        private final long start = System.nanoTime();
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsRejected;
+
+        Progress(ImportProgressListener listener) {
+            this.listener = listener;
+        }
+
+        ImportResult report() {
+            ImportResult result = new ImportResult(rowsRead, rowsImported, rowsRejected,
+                    Duration.ofNanos(System.nanoTime() - start));
+            if (listener != null) {
+                listener.onProgress(result);
+            }
+            return result;
+        }
+    }
+}
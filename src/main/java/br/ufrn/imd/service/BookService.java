@@ -1,10 +1,20 @@
 package br.ufrn.imd.service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 
-import br.ufrn.imd.dao.BookDAO;
+import br.ufrn.imd.dao.BookRepository;
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.dao.QueryHandle;
+import br.ufrn.imd.exception.QueryCancelledException;
 import br.ufrn.imd.exception.ResourceNotFoundException;
 import br.ufrn.imd.model.Book;
+import br.ufrn.imd.search.BookFacetIndex;
+import br.ufrn.imd.search.BookFilter;
+import br.ufrn.imd.search.BookSearchIndex;
+import br.ufrn.imd.search.FacetResult;
 
 /**
  * Classe de serviço para operações relacionadas a livros.
@@ -14,10 +24,108 @@ import br.ufrn.imd.model.Book;
  */
 public class BookService {
 
-    private final BookDAO bookDAO;
+    /** Tamanho máximo de uma página de resultados. */
+    public static final int MAX_PAGE_SIZE = 500;
 
-    public BookService(BookDAO bookDAO) {
-        this.bookDAO = bookDAO;
+    /** Quantidade máxima de resultados de uma busca pelo índice. */
+    public static final int DEFAULT_SEARCH_LIMIT = 50;
+
+    private final BookRepository bookRepository;
+    private final BookSearchIndex searchIndex;
+    private final BookFacetIndex facetIndex;
+    private final List<BookChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public BookService(BookRepository bookRepository) {
+        this(bookRepository, null);
+    }
+
+    /**
+     * Cria o serviço usando um índice em memória para as buscas. O índice é
+     * construído a partir do banco e mantido atualizado pelas escritas do
+     * serviço.
+     * 
+     * @param bookRepository Repositório de livros.
+     * @param searchIndex    Índice de busca, ou null para buscar direto no banco.
+     */
+    public BookService(BookRepository bookRepository, BookSearchIndex searchIndex) {
+        this(bookRepository, searchIndex, null);
+    }
+
+    /**
+     * Cria o serviço com índices em memória para as buscas e para os filtros
+     * por faceta. Os índices são construídos a partir do banco e mantidos
+     * atualizados pelas escritas do serviço.
+     * 
+     * @param bookRepository Repositório de livros.
+     * @param searchIndex    Índice de busca, ou null para buscar direto no banco.
+     * @param facetIndex     Índice de facetas, ou null para desabilitar os filtros.
+     */
+    public BookService(BookRepository bookRepository, BookSearchIndex searchIndex, BookFacetIndex facetIndex) {
+        this.bookRepository = bookRepository;
+        this.searchIndex = searchIndex;
+        this.facetIndex = facetIndex;
+
+        if (searchIndex != null) {
+            listeners.add(searchIndex);
+            rebuildSearchIndex();
+        }
+        if (facetIndex != null) {
+            listeners.add(facetIndex);
+            rebuildFacetIndex();
+        }
+    }
+
+    /**
+     * Registra um ouvinte das alterações de livros.
+     * 
+     * @param listener Ouvinte a ser notificado.
+     */
+    public void addChangeListener(BookChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Retorna um ouvinte que repassa as notificações a todos os ouvintes deste
+     * serviço. Útil para escritas feitas fora do serviço, como importações.
+     * 
+     * @return Ouvinte agregado.
+     */
+    public BookChangeListener changeNotifier() {
+        return new BookChangeListener() {
+            @Override
+            public void onBookSaved(Book book) {
+                notifySaved(book);
+            }
+
+            @Override
+            public void onBookDeleted(Long id) {
+                notifyDeleted(id);
+            }
+        };
+    }
+
+    /**
+     * Reconstrói o índice de busca a partir do banco de dados.
+     */
+    public void rebuildSearchIndex() {
+        if (searchIndex == null) {
+            return;
+        }
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            searchIndex.rebuild(books);
+        }
+    }
+
+    /**
+     * Reconstrói o índice de facetas a partir do banco de dados.
+     */
+    public void rebuildFacetIndex() {
+        if (facetIndex == null) {
+            return;
+        }
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            facetIndex.rebuild(books);
+        }
     }
 
     /**
@@ -30,7 +138,8 @@ public class BookService {
     public void createBook(Book book) {
         validateBook(book);
 
-        bookDAO.create(book);
+        bookRepository.create(book);
+        notifyStored(book.getId());
     }
 
     /**
@@ -43,7 +152,7 @@ public class BookService {
      */
     public Book findBookById(Long id) {
         validateId(id);
-        Book book = bookDAO.findById(id);
+        Book book = bookRepository.findById(id);
 
         if (book == null) {
             throw new ResourceNotFoundException("Livro não encontrado.");
@@ -59,7 +168,7 @@ public class BookService {
      * @return Lista de livros.
      */
     public List<Book> findAllBooks() {
-        List<Book> books = bookDAO.findAll();
+        List<Book> books = bookRepository.findAll();
 
         if (books == null || books.isEmpty()) {
             throw new ResourceNotFoundException("Nenhum livro encontrado.");
@@ -77,11 +186,27 @@ public class BookService {
      * @return Lista de livros encontrados.
      */
     public List<Book> searchBooks(String query) {
+        return searchBooks(query, DEFAULT_SEARCH_LIMIT);
+    }
+
+    /**
+     * Busca livros com base em uma consulta. Com o índice de busca, os livros
+     * são ordenados por relevância e limitados aos mais relevantes.
+     * 
+     * @param query Texto para buscar no título ou autor.
+     * @param limit Quantidade máxima de livros retornados pelo índice.
+     * @throws IllegalArgumentException Se a query de busca for nula ou vazia.
+     * @throws ResourceNotFoundException Se não existirem livros com base na consulta.
+     * @return Lista de livros encontrados.
+     */
+    public List<Book> searchBooks(String query, int limit) {
         if (query == null || query.trim().isEmpty()) {
             throw new IllegalArgumentException("A consulta não pode ser vazia.");
         }
 
-        List<Book> books = bookDAO.searchBooks(query);
+        List<Book> books = searchIndex != null
+                ? searchIndex.search(query, limit)
+                : bookRepository.searchBooks(query);
 
         if (books == null || books.isEmpty()) {
             throw new ResourceNotFoundException("Nenhum livro encontrado.");
@@ -90,6 +215,125 @@ public class BookService {
         return books;
     }
 
+    /**
+     * Filtra os livros por gênero, ano de publicação e disponibilidade,
+     * calculando as contagens de cada faceta.
+     * 
+     * @param filter Filtro a ser aplicado.
+     * @throws IllegalArgumentException Se o filtro for nulo ou o intervalo de anos
+     *                                  for inválido.
+     * @throws IllegalStateException    Se o serviço não tiver índice de facetas.
+     * @return Ids encontrados e contagens das facetas.
+     */
+    public FacetResult filterBooks(BookFilter filter) {
+        if (filter == null) {
+            throw new IllegalArgumentException("O filtro não pode ser nulo.");
+        }
+        if (facetIndex == null) {
+            throw new IllegalStateException("O índice de facetas não está habilitado.");
+        }
+
+        return facetIndex.filter(filter);
+    }
+
+    /**
+     * Carrega uma fatia dos livros de um resultado filtrado.
+     * 
+     * @param result Resultado de {@link #filterBooks(BookFilter)}.
+     * @param offset Quantidade de livros a pular.
+     * @param size   Quantidade de livros na fatia.
+     * @throws IllegalArgumentException Se o tamanho ou o deslocamento forem
+     *                                  inválidos.
+     * @return Livros da fatia, em ordem de id.
+     */
+    public List<Book> findFilteredBooks(FacetResult result, long offset, int size) {
+        validatePageSize(size);
+        if (offset < 0) {
+            throw new IllegalArgumentException("O deslocamento não pode ser negativo.");
+        }
+
+        List<Book> books = new ArrayList<>(size);
+        for (Long id : result.getIds(offset, size)) {
+            Book book = bookRepository.findById(id);
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        return books;
+    }
+
+    /**
+     * Retorna uma página de livros ordenada por id.
+     * 
+     * @param cursor Cursor retornado pela página anterior, ou null para a primeira.
+     * @param size   Quantidade de livros por página.
+     * @throws IllegalArgumentException Se o tamanho da página ou o cursor forem
+     *                                  inválidos.
+     * @return Página de livros.
+     */
+    public Page<Book> findBooksPage(String cursor, int size) {
+        validatePageSize(size);
+
+        return bookRepository.findPage(cursor, size);
+    }
+
+    /**
+     * Busca uma página de livros com base em uma consulta.
+     * 
+     * @param query  Texto para buscar no título ou autor.
+     * @param cursor Cursor retornado pela página anterior, ou null para a primeira.
+     * @param size   Quantidade de livros por página.
+     * @throws IllegalArgumentException Se a query de busca for nula ou vazia, ou se
+     *                                  o tamanho da página ou o cursor forem
+     *                                  inválidos.
+     * @return Página de livros encontrados.
+     */
+    public Page<Book> searchBooksPage(String query, String cursor, int size) {
+        return searchBooksPage(query, cursor, size, null);
+    }
+
+    /**
+     * Busca uma página de livros com base em uma consulta, sob o controle de
+     * um {@link QueryHandle}, que pode cancelar a busca de outra thread e
+     * limita o seu tempo.
+     * 
+     * @param query  Texto para buscar no título ou autor.
+     * @param cursor Cursor retornado pela página anterior, ou null para a primeira.
+     * @param size   Quantidade de livros por página.
+     * @param handle Controle da busca, ou null para nenhum.
+     * @throws IllegalArgumentException Se a query de busca for nula ou vazia, ou se
+     *                                  o tamanho da página ou o cursor forem
+     *                                  inválidos.
+     * @throws QueryCancelledException  Se a busca for cancelada.
+     * @return Página de livros encontrados.
+     */
+    public Page<Book> searchBooksPage(String query, String cursor, int size, QueryHandle handle) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("A consulta não pode ser vazia.");
+        }
+        validatePageSize(size);
+
+        return bookRepository.searchBooksPage(query, cursor, size, handle);
+    }
+
+    /**
+     * Retorna a quantidade de livros cadastrados.
+     * 
+     * @return Quantidade de livros.
+     */
+    public long countBooks() {
+        return bookRepository.count();
+    }
+
+    /**
+     * Indica se existe algum livro cadastrado.
+     * 
+     * @return true se existir ao menos um livro.
+     */
+    public boolean hasBooks() {
+        return bookRepository.exists();
+    }
+
     /**
      * Atualiza os dados de um livro.
      * 
@@ -103,9 +347,11 @@ public class BookService {
     public void updateBook(Long id, Book book) {
         validateId(id);
         validateBook(book);
-        findBookById(id);
+        ensureExists(id);
 
-        bookDAO.update(id, book);
+        bookRepository.update(id, book);
+        book.setId(id);
+        notifyStored(id);
     }
 
     /**
@@ -117,9 +363,10 @@ public class BookService {
      */
     public void deleteBook(Long id) {
         validateId(id);
-        findBookById(id);
+        ensureExists(id);
 
-        bookDAO.delete(id);
+        bookRepository.delete(id);
+        notifyDeleted(id);
     }
 
     /**
@@ -127,9 +374,10 @@ public class BookService {
      * 
      * @param book Livro a ser validado.
      * @throws IllegalArgumentException Se o livro for nulo, se o título, autor ou
-     *                                  gênero forem nulos ou vazios.
+     *                                  gênero forem nulos ou vazios, ou se a
+     *                                  quantidade de exemplares for inválida.
      */
-    private void validateBook(Book book) {
+    static void validateBook(Book book) {
         if (book == null) {
             throw new IllegalArgumentException("O livro não pode ser nulo.");
         }
@@ -142,6 +390,13 @@ public class BookService {
         if (book.getGenre() == null) {
             throw new IllegalArgumentException("O gênero do livro é obrigatório.");
         }
+        if (book.getTotalCopies() != null && book.getTotalCopies() < 0) {
+            throw new IllegalArgumentException("A quantidade de exemplares não pode ser negativa.");
+        }
+        if (book.getAvailableCopies() != null && (book.getAvailableCopies() < 0
+                || book.getTotalCopies() != null && book.getAvailableCopies() > book.getTotalCopies())) {
+            throw new IllegalArgumentException("A quantidade de exemplares disponíveis é inválida.");
+        }
     }
 
     /**
@@ -155,4 +410,57 @@ public class BookService {
             throw new IllegalArgumentException("ID do livro inválido.");
         }
     }
+
+    /**
+     * Notifica os ouvintes com o livro relido do banco após uma escrita, e não
+     * com o objeto recebido, cujos exemplares disponíveis podem estar
+     * desatualizados ou nulos.
+     * 
+     * @param id ID do livro gravado.
+     */
+    private void notifyStored(Long id) {
+        Book stored = bookRepository.findById(id);
+        if (stored != null) {
+            notifySaved(stored);
+        } else {
+            notifyDeleted(id);
+        }
+    }
+
+    private void notifySaved(Book book) {
+        for (BookChangeListener listener : listeners) {
+            listener.onBookSaved(book);
+        }
+    }
+
+    private void notifyDeleted(Long id) {
+        for (BookChangeListener listener : listeners) {
+            listener.onBookDeleted(id);
+        }
+    }
+
+    /**
+     * Verifica se um livro existe sem carregá-lo.
+     * 
+     * @param id ID do livro.
+     * @throws ResourceNotFoundException Se o livro não for encontrado.
+     */
+    private void ensureExists(Long id) {
+        if (!bookRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Livro não encontrado.");
+        }
+    }
+
+    /**
+     * Valida o tamanho de uma página.
+     * 
+     * @param size Quantidade de itens por página.
+     * @throws IllegalArgumentException Se o tamanho estiver fora do intervalo
+     *                                  permitido.
+     */
+    private void validatePageSize(int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE + ".");
+        }
+    }
 }
@@ -0,0 +1,110 @@
+package br.ufrn.imd.service;
+
+import br.ufrn.imd.catalog.CatalogSnapshot;
+import br.ufrn.imd.dao.BookRepository;
+import br.ufrn.imd.exception.DatabaseException;
+import br.ufrn.imd.logging.Logger;
+import br.ufrn.imd.model.Book;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Mantém o {@link CatalogSnapshot} atual do acervo para consultas analíticas.
+ * <p>
+ * Uma atualização lê a tabela {@code book} inteira, monta um novo snapshot e o
+ * publica com uma única escrita volátil; leitores em andamento continuam com o
+ * snapshot anterior, que é descartado quando deixa de ser usado. As
+ * atualizações podem ser feitas sob demanda ou periodicamente, em uma thread
+ * daemon.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class CatalogService implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(CatalogService.class);
+
+    private final BookRepository bookRepository;
+    private final ScheduledExecutorService scheduler;
+    private volatile CatalogSnapshot snapshot;
+
+    public CatalogService(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "catalog-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Retorna o snapshot atual, carregando-o na primeira chamada.
+     *
+     * @throws DatabaseException caso a primeira carga falhe.
+     * @return snapshot atual.
+     */
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot current = snapshot;
+        return current != null ? current : refresh();
+    }
+
+    /**
+     * Lê o acervo e publica um novo snapshot. Atualizações simultâneas são
+     * feitas uma de cada vez.
+     *
+     * @throws DatabaseException caso ocorra um erro ao ler os livros.
+     * @return snapshot publicado.
+     */
+    public synchronized CatalogSnapshot refresh() {
+        long start = System.nanoTime();
+        CatalogSnapshot.Builder builder = CatalogSnapshot.builder((int) Math.min(Integer.MAX_VALUE, bookRepository.count()));
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            books.forEach(builder::add);
+        }
+        CatalogSnapshot built = builder.build();
+        snapshot = built;
+        LOG.debug("Snapshot do acervo atualizado: {} livros, {} bytes, {} ms", built.size(), built.estimatedBytes(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return built;
+    }
+
+    /**
+     * Agenda a atualização periódica do snapshot. A primeira execução ocorre
+     * após um intervalo.
+     *
+     * @param interval intervalo entre atualizações.
+     * @throws IllegalArgumentException caso o intervalo não seja positivo.
+     */
+    public void start(Duration interval) {
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("O intervalo deve ser positivo.");
+        }
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::refreshQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cancela as atualizações agendadas.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Atualização periódica. Uma exceção que escapasse daqui cancelaria as
+     * próximas atualizações sem aviso, então ela é registrada e o snapshot
+     * atual continua publicado até a próxima execução.
+     */
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            LOG.error("Erro ao atualizar o snapshot do acervo", e);
+        }
+    }
+}
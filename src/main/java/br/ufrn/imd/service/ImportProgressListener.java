@@ -0,0 +1,19 @@
+package br.ufrn.imd.service;
+
+/**
+ * Recebe notificações de progresso de uma importação de livros.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface ImportProgressListener {
+
+    /**
+     * Chamado a cada lote gravado e ao final da importação.
+     *
+     * @param progress situação atual da importação.
+     */
+    void onProgress(ImportResult progress);
+
+}
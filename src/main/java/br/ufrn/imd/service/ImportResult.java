@@ -0,0 +1,32 @@
+package br.ufrn.imd.service;
+
+import java.time.Duration;
+
+import lombok.Value;
+
+/**
+ * Situação de uma importação de livros: usada tanto para o progresso parcial
+ * quanto para o resultado final.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Value
+public class ImportResult {
+
+    long rowsRead;
+    long rowsImported;
+    long rowsRejected;
+    Duration elapsed;
+
+    /**
+     * Retorna a vazão da importação.
+     *
+     * @return linhas lidas por segundo.
+     */
+    public double getRowsPerSecond() {
+        long millis = elapsed.toMillis();
+        return millis == 0 ? rowsRead : rowsRead * 1000.0 / millis;
+    }
+
+}
@@ -0,0 +1,35 @@
+package br.ufrn.imd.service;
+
+import br.ufrn.imd.model.Loan;
+
+/**
+ * Recebe notificações das alterações feitas nos empréstimos, para manter
+ * estruturas derivadas (agendadores, caches) atualizadas.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public interface LoanChangeListener {
+
+    /**
+     * Chamado depois que um empréstimo é criado ou atualizado.
+     *
+     * @param loan empréstimo com o id e os dados gravados.
+     */
+    void onLoanSaved(Loan loan);
+
+    /**
+     * Chamado depois que um empréstimo é devolvido.
+     *
+     * @param id id do empréstimo devolvido.
+     */
+    void onLoanReturned(String id);
+
+    /**
+     * Chamado depois que um empréstimo é removido.
+     *
+     * @param id id do empréstimo removido.
+     */
+    void onLoanDeleted(String id);
+
+}
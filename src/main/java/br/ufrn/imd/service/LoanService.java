@@ -1,12 +1,18 @@
 package br.ufrn.imd.service;
 
-import br.ufrn.imd.dao.BookDAO;
-import br.ufrn.imd.dao.LoanDAO;
-import br.ufrn.imd.dao.UserDAO;
+import br.ufrn.imd.dao.BookRepository;
+import br.ufrn.imd.dao.LoanRepository;
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.dao.UserRepository;
+import br.ufrn.imd.exception.BookUnavailableException;
 import br.ufrn.imd.exception.ResourceNotFoundException;
+import br.ufrn.imd.model.Book;
 import br.ufrn.imd.model.Loan;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Classe de serviço para operações relacionadas a empréstimos.
@@ -16,26 +22,193 @@ import java.util.List;
  */
 public class LoanService {
 
-    private final LoanDAO loanDAO;
-    private final BookDAO bookDAO;
-    private final UserDAO userDAO;
+    /** Prazo padrão de um empréstimo, em dias. */
+    public static final int DEFAULT_LOAN_DAYS = 14;
 
-    public LoanService(LoanDAO loanDAO, BookDAO bookDAO, UserDAO userDAO) {
-        this.loanDAO = loanDAO;
-        this.bookDAO = bookDAO;
-        this.userDAO = userDAO;
+    /** Tamanho máximo de uma página de resultados. */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private final LoanRepository loanRepository;
+    private final BookRepository bookRepository;
+    private final UserRepository userRepository;
+    private final List<LoanChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<BookChangeListener> bookListeners = new CopyOnWriteArrayList<>();
+    private volatile LoanWriteBehindQueue writeBehind;
+
+    public LoanService(LoanRepository loanRepository, BookRepository bookRepository, UserRepository userRepository) {
+        this.loanRepository = loanRepository;
+        this.bookRepository = bookRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Registra um ouvinte das alterações feitas por este serviço.
+     * 
+     * @param listener Ouvinte a ser notificado.
+     */
+    public void addChangeListener(LoanChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Registra um ouvinte das mudanças de estoque causadas pelos empréstimos.
+     * Depois de cada retirada, devolução ou remoção, o livro é relido e
+     * repassado ao ouvinte, normalmente {@link BookService#changeNotifier()},
+     * para que os índices de livros reflitam a disponibilidade atual.
+     * 
+     * @param listener Ouvinte a ser notificado.
+     */
+    public void addBookChangeListener(BookChangeListener listener) {
+        bookListeners.add(listener);
     }
 
     /**
-     * Cria um empréstimo, validando a existência do usuário e do livro.
+     * Cria um empréstimo, validando a existência do usuário e do livro e
+     * reservando um exemplar disponível do livro na mesma transação.
+     * Sem datas informadas, o empréstimo começa hoje e vence em
+     * {@value #DEFAULT_LOAN_DAYS} dias.
      *
      * @param loan Empréstimo a ser criado.
      * @throws IllegalArgumentException se os dados de empréstimo forem nulos
+     * @throws BookUnavailableException se o livro não tiver exemplares disponíveis
      */
     public void createLoan(Loan loan) {
+        registerLoan(loan);
+    }
+
+    /**
+     * Registra a retirada de um livro por um usuário.
+     *
+     * @param userId id do usuário.
+     * @param bookId id do livro.
+     * @return Empréstimo criado, com o id preenchido.
+     * @throws ResourceNotFoundException caso o usuário ou o livro não existam.
+     * @throws BookUnavailableException se o livro não tiver exemplares disponíveis
+     */
+    public Loan checkout(Long userId, Long bookId) {
+        Loan loan = new Loan();
+        loan.setUserId(userId);
+        loan.setBookId(bookId);
+
+        registerLoan(loan);
+        return loan;
+    }
+
+    /**
+     * Valida e grava um novo empréstimo, completando as datas. Compartilhado
+     * por {@link #createLoan(Loan)} e {@link #checkout(Long, Long)} sem que um
+     * chame o outro, para que subclasses instrumentadas meçam cada um uma vez.
+     *
+     * @param loan Empréstimo a ser criado.
+     */
+    private void registerLoan(Loan loan) {
         validateLoan(loan);
-        
-        loanDAO.create(loan);
+        if (loan.getLoanDate() == null) {
+            loan.setLoanDate(LocalDate.now());
+        }
+        if (loan.getDueDate() == null) {
+            loan.setDueDate(loan.getLoanDate().plusDays(DEFAULT_LOAN_DAYS));
+        }
+        if (loan.getDueDate().isBefore(loan.getLoanDate())) {
+            throw new IllegalArgumentException("A data de devolução não pode ser anterior à data do empréstimo.");
+        }
+
+        loanRepository.checkout(loan);
+        bookChanged(loan.getBookId());
+        notifySaved(loan);
+    }
+
+    /**
+     * Registra a devolução de um empréstimo, devolvendo o exemplar ao estoque.
+     *
+     * @param id id do empréstimo.
+     * @throws IllegalArgumentException  caso o id seja inválido.
+     * @throws ResourceNotFoundException caso o empréstimo não exista ou já tenha sido devolvido.
+     */
+    public void returnLoan(Long id) {
+        validateId(id);
+
+        Long bookId = loanRepository.returnLoan(id, LocalDate.now());
+        bookChanged(bookId);
+        for (LoanChangeListener listener : listeners) {
+            listener.onLoanReturned(String.valueOf(id));
+        }
+    }
+
+    /**
+     * Habilita a gravação adiada das devoluções feitas por
+     * {@link #submitReturn(Long)}: as devoluções são agrupadas e gravadas em
+     * lotes de uma única transação, o que reduz as idas ao banco nos picos de
+     * devolução. Substitui a fila anterior, gravando as pendentes.
+     *
+     * @param config configuração da fila.
+     * @throws IllegalArgumentException caso a configuração seja inválida.
+     */
+    public synchronized void enableWriteBehind(WriteBehindConfig config) {
+        LoanWriteBehindQueue previous = writeBehind;
+        writeBehind = new LoanWriteBehindQueue(loanRepository, config, this::loanReturned);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Desabilita a gravação adiada, gravando as devoluções pendentes.
+     */
+    public synchronized void disableWriteBehind() {
+        LoanWriteBehindQueue previous = writeBehind;
+        writeBehind = null;
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Retorna a fila de gravação adiada das devoluções.
+     *
+     * @return fila atual, ou null caso a gravação adiada esteja desabilitada.
+     */
+    public LoanWriteBehindQueue getWriteBehindQueue() {
+        return writeBehind;
+    }
+
+    /**
+     * Registra a devolução de um empréstimo com a data de hoje. Com a gravação
+     * adiada habilitada, a devolução é enfileirada e gravada em lote; sem ela,
+     * é gravada imediatamente, como em {@link #returnLoan(Long)}.
+     *
+     * @param id id do empréstimo.
+     * @throws IllegalArgumentException   caso o id seja inválido.
+     * @throws java.util.concurrent.RejectedExecutionException caso a fila
+     *         continue cheia após o tempo de espera configurado.
+     * @return futuro completado quando a devolução estiver gravada, ou
+     *         excepcionalmente com {@link ResourceNotFoundException} caso o
+     *         empréstimo não exista ou já tenha sido devolvido.
+     */
+    public CompletableFuture<Void> submitReturn(Long id) {
+        validateId(id);
+
+        LoanWriteBehindQueue queue = writeBehind;
+        if (queue != null) {
+            return queue.submit(id, LocalDate.now());
+        }
+        try {
+            returnLoan(id);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Grava imediatamente as devoluções pendentes da gravação adiada e aguarda
+     * a conclusão. Não faz nada caso ela esteja desabilitada.
+     */
+    public void flushReturns() {
+        LoanWriteBehindQueue queue = writeBehind;
+        if (queue != null) {
+            queue.flush();
+        }
     }
 
     /**
@@ -46,11 +219,7 @@ public class LoanService {
      * @throws ResourceNotFoundException caso o empréstimo não exista.
      */
     public Loan findLoanById(Long id) {
-        Loan loan = loanDAO.findById(id);
-        if (loan == null) {
-            throw new ResourceNotFoundException("Empréstimo com ID " + id + " não encontrado.");
-        }
-        return loan;
+        return loadLoan(id);
     }
 
     /**
@@ -60,7 +229,7 @@ public class LoanService {
      * @throws ResourceNotFoundException caso não existam empréstimos.
      */
     public List<Loan> findAllLoans() {
-        List<Loan> loans = loanDAO.findAll();
+        List<Loan> loans = loanRepository.findAll();
 
         if (loans == null || loans.isEmpty()) {
             throw new ResourceNotFoundException("Nenhum empréstimo encontrado.");
@@ -68,6 +237,29 @@ public class LoanService {
         return loans;
     }
 
+    /**
+     * Busca uma página de empréstimos ordenada por id.
+     *
+     * @param cursor cursor retornado pela página anterior, ou null para a primeira.
+     * @param size   quantidade de empréstimos por página.
+     * @return Página de empréstimos.
+     * @throws IllegalArgumentException caso o tamanho da página ou o cursor sejam inválidos.
+     */
+    public Page<Loan> findLoansPage(String cursor, int size) {
+        validatePageSize(size);
+
+        return loanRepository.findPage(cursor, size);
+    }
+
+    /**
+     * Retorna a quantidade de empréstimos registrados.
+     *
+     * @return Quantidade de empréstimos.
+     */
+    public long countLoans() {
+        return loanRepository.count();
+    }
+
     /**
      * Atualiza um empréstimo.
      *
@@ -75,13 +267,21 @@ public class LoanService {
      * @param loan empréstimo com os novos dados.
      * @throws ResourceNotFoundException caso o empréstimo não exista.
      * @throws IllegalArgumentException  caso os dados do empréstimo sejam inválidos.
+     * @throws BookUnavailableException  caso o empréstimo passe a ocupar um
+     *                                   exemplar de um livro sem exemplares
+     *                                   disponíveis.
      */
     public void updateLoan(Long id, Loan loan) {
         validateId(id);
-        findLoanById(id);
+        Loan previous = loadLoan(id);
         validateLoan(loan);
 
-        loanDAO.update(id, loan);
+        loanRepository.update(id, loan);
+        bookChanged(previous.getBookId());
+        if (!previous.getBookId().equals(loan.getBookId())) {
+            bookChanged(loan.getBookId());
+        }
+        notifySaved(loan.toBuilder().id(String.valueOf(id)).build());
     }
 
     /**
@@ -93,9 +293,55 @@ public class LoanService {
      */
     public void deleteLoan(Long id) {
         validateId(id);
-        findLoanById(id);
+        Loan loan = loadLoan(id);
+
+        loanRepository.delete(id);
+        bookChanged(loan.getBookId());
+        for (LoanChangeListener listener : listeners) {
+            listener.onLoanDeleted(String.valueOf(id));
+        }
+    }
+
+    /**
+     * Busca um empréstimo direto no repositório, sem passar pelos métodos
+     * públicos que subclasses instrumentadas medem.
+     *
+     * @param id id do empréstimo.
+     * @return Empréstimo encontrado.
+     * @throws ResourceNotFoundException caso o empréstimo não exista.
+     */
+    private Loan loadLoan(Long id) {
+        Loan loan = loanRepository.findById(id);
+        if (loan == null) {
+            throw new ResourceNotFoundException("Empréstimo com ID " + id + " não encontrado.");
+        }
+        return loan;
+    }
 
-        loanDAO.delete(id);
+    private void loanReturned(Loan previous) {
+        bookChanged(previous.getBookId());
+        for (LoanChangeListener listener : listeners) {
+            listener.onLoanReturned(previous.getId());
+        }
+    }
+
+    private void bookChanged(Long bookId) {
+        bookRepository.invalidate(bookId);
+        if (bookListeners.isEmpty()) {
+            return;
+        }
+        Book book = bookRepository.findById(bookId);
+        if (book != null) {
+            for (BookChangeListener listener : bookListeners) {
+                listener.onBookSaved(book);
+            }
+        }
+    }
+
+    private void notifySaved(Loan loan) {
+        for (LoanChangeListener listener : listeners) {
+            listener.onLoanSaved(loan);
+        }
     }
 
     private void validateId(Long id) {
@@ -104,6 +350,12 @@ public class LoanService {
         }
     }
 
+    private void validatePageSize(int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE + ".");
+        }
+    }
+
     private void validateLoan(Loan loan) {
         if (loan == null) {
             throw new IllegalArgumentException("O empréstimo não pode ser nulo.");
@@ -115,10 +367,10 @@ public class LoanService {
             throw new IllegalArgumentException("O ID do livro é obrigatório.");
         }
 
-        if (userDAO.findById(loan.getUserId()) == null) {
+        if (!userRepository.existsById(loan.getUserId())) {
             throw new ResourceNotFoundException("Usuário com ID " + loan.getUserId() + " não encontrado.");
         }
-        if (bookDAO.findById(loan.getBookId()) == null) {
+        if (!bookRepository.existsById(loan.getBookId())) {
             throw new ResourceNotFoundException("Livro com ID " + loan.getBookId() + " não encontrado.");
         }
 
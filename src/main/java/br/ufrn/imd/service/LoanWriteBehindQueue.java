@@ -0,0 +1,375 @@
+package br.ufrn.imd.service;
+
+import br.ufrn.imd.dao.LoanRepository;
+import br.ufrn.imd.exception.ResourceNotFoundException;
+import br.ufrn.imd.logging.Logger;
+import br.ufrn.imd.model.Loan;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Fila de gravação adiada das devoluções de empréstimos.
+ * <p>
+ * As devoluções entram em uma fila limitada e são agrupadas por id de
+ * empréstimo: devolver de novo um empréstimo ainda pendente apenas troca a
+ * data e compartilha o resultado da mesma gravação. Uma thread daemon grava os pendentes
+ * em lotes de uma única transação ({@link LoanRepository#returnLoans(Map)}) quando o
+ * lote atinge {@link WriteBehindConfig#getMaxBatchSize()} devoluções ou quando
+ * a mais antiga espera {@link WriteBehindConfig#getMaxDelayMillis()} ms.
+ * <p>
+ * Cada devolução recebe um {@link CompletableFuture} completado depois do
+ * commit do seu lote, ou excepcionalmente caso o empréstimo não exista, já
+ * esteja devolvido ou a transação falhe. Com a fila cheia, {@link #submit(Long, LocalDate)} bloqueia
+ * o chamador até haver espaço. Caso a thread de gravação termine por um erro,
+ * a fila é fechada e as devoluções pendentes são concluídas com esse erro.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class LoanWriteBehindQueue implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(LoanWriteBehindQueue.class);
+
+    private final LoanRepository loanRepository;
+    private final WriteBehindConfig config;
+    private final Consumer<Loan> onReturned;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition ready = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition idle = lock.newCondition();
+    private final LinkedHashMap<Long, Pending> pending = new LinkedHashMap<>();
+    private final Thread flusher;
+    private boolean flushing;
+    private boolean flushRequested;
+    private boolean closed;
+
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder coalescedCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder writtenCount = new LongAdder();
+
+    /**
+     * Cria a fila e inicia a thread de gravação.
+     *
+     * @param loanRepository repositório usado para gravar os lotes.
+     * @param config         configuração da fila.
+     * @param onReturned     chamado na thread de gravação, depois do commit, com o
+     *                       estado anterior de cada empréstimo devolvido.
+     * @throws IllegalArgumentException caso a configuração seja inválida.
+     */
+    public LoanWriteBehindQueue(LoanRepository loanRepository, WriteBehindConfig config, Consumer<Loan> onReturned) {
+        config.validate();
+        this.loanRepository = loanRepository;
+        this.config = config;
+        this.onReturned = onReturned;
+        this.flusher = new Thread(this::run, "loan-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Enfileira a devolução de um empréstimo.
+     *
+     * @param id         id do empréstimo.
+     * @param returnDate data da devolução.
+     * @throws IllegalStateException      caso a fila esteja fechada ou a thread
+     *                                    seja interrompida enquanto aguarda.
+     * @throws RejectedExecutionException caso a fila continue cheia após o
+     *                                    tempo de espera configurado.
+     * @return futuro completado quando a devolução estiver gravada.
+     */
+    public CompletableFuture<Void> submit(Long id, LocalDate returnDate) {
+        lock.lock();
+        try {
+            ensureOpen();
+            submittedCount.increment();
+            Pending existing = pending.get(id);
+            if (existing != null) {
+                existing.returnDate = returnDate;
+                coalescedCount.increment();
+                return existing.future.copy();
+            }
+
+            long nanos = TimeUnit.MILLISECONDS.toNanos(config.getOfferTimeoutMillis());
+            while (pending.size() >= config.getCapacity()) {
+                if (nanos <= 0) {
+                    throw new RejectedExecutionException("Fila de devoluções cheia ("
+                            + config.getCapacity() + " pendentes).");
+                }
+                nanos = notFull.awaitNanos(nanos);
+                ensureOpen();
+            }
+
+            Pending created = new Pending(returnDate, System.nanoTime());
+            pending.put(id, created);
+            if (pending.size() == 1 || pending.size() >= config.getMaxBatchSize()) {
+                ready.signal();
+            }
+            return created.future.copy();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido enquanto aguardava espaço na fila de devoluções.", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Grava imediatamente as devoluções pendentes e aguarda a conclusão.
+     *
+     * @throws IllegalStateException caso a thread seja interrompida.
+     */
+    public void flush() {
+        lock.lock();
+        try {
+            while (!pending.isEmpty() || flushing) {
+                flushRequested = true;
+                ready.signal();
+                idle.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido enquanto aguardava a gravação das devoluções.", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Quantidade de empréstimos aguardando gravação.
+     *
+     * @return empréstimos pendentes.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Quantidade de devoluções recebidas, inclusive as agrupadas.
+     *
+     * @return devoluções recebidas.
+     */
+    public long getSubmittedCount() {
+        return submittedCount.sum();
+    }
+
+    /**
+     * Quantidade de devoluções agrupadas a uma devolução pendente do mesmo
+     * empréstimo.
+     *
+     * @return devoluções agrupadas.
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * Quantidade de lotes gravados.
+     *
+     * @return lotes gravados.
+     */
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    /**
+     * Quantidade de empréstimos gravados, somando todos os lotes.
+     *
+     * @return empréstimos gravados.
+     */
+    public long getWrittenCount() {
+        return writtenCount.sum();
+    }
+
+    /**
+     * Recusa novas devoluções, grava as pendentes e encerra a thread de
+     * gravação.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            ready.signal();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("A fila de devoluções está fechada.");
+        }
+    }
+
+    private void run() {
+        Map<Long, Pending> batch = null;
+        try {
+            while ((batch = takeBatch()) != null) {
+                write(batch);
+                lock.lock();
+                try {
+                    flushing = false;
+                    idle.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (Throwable e) {
+            // inclui Errors: sem a thread de gravação, os pendentes nunca
+            // seriam gravados e flush() e os futuros aguardariam para sempre
+            LOG.error("A thread de gravação das devoluções foi encerrada por um erro", e);
+            abandon(batch, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Fecha a fila depois que a thread de gravação termina por um erro,
+     * concluindo excepcionalmente o lote em gravação e as devoluções
+     * pendentes e liberando quem aguarda espaço ou a gravação.
+     *
+     * @param batch lote em gravação, ou null.
+     * @param cause erro que encerrou a thread de gravação.
+     */
+    private void abandon(Map<Long, Pending> batch, Throwable cause) {
+        List<Pending> failed = new ArrayList<>();
+        lock.lock();
+        try {
+            closed = true;
+            if (batch != null) {
+                failed.addAll(batch.values());
+            }
+            failed.addAll(pending.values());
+            pending.clear();
+            flushing = false;
+            idle.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        for (Pending change : failed) {
+            change.future.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Aguarda um lote completo, o prazo da devolução mais antiga, um pedido
+     * de {@link #flush()} ou o fechamento, e retira o lote da fila.
+     *
+     * @return lote a gravar, ou null caso a fila esteja fechada e vazia.
+     */
+    private Map<Long, Pending> takeBatch() {
+        lock.lock();
+        try {
+            while (true) {
+                if (pending.isEmpty()) {
+                    flushRequested = false;
+                    if (closed) {
+                        return null;
+                    }
+                    ready.awaitUninterruptibly();
+                    continue;
+                }
+                long waited = System.nanoTime() - pending.values().iterator().next().enqueuedAt;
+                long remaining = TimeUnit.MILLISECONDS.toNanos(config.getMaxDelayMillis()) - waited;
+                if (closed || flushRequested || remaining <= 0 || pending.size() >= config.getMaxBatchSize()) {
+                    break;
+                }
+                try {
+                    ready.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    // a thread de gravação só termina pelo close()
+                }
+            }
+
+            Map<Long, Pending> batch = new LinkedHashMap<>();
+            Iterator<Map.Entry<Long, Pending>> it = pending.entrySet().iterator();
+            while (it.hasNext() && batch.size() < config.getMaxBatchSize()) {
+                Map.Entry<Long, Pending> entry = it.next();
+                batch.put(entry.getKey(), entry.getValue());
+                it.remove();
+            }
+            flushing = true;
+            notFull.signalAll();
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(Map<Long, Pending> batch) {
+        Map<Long, LocalDate> returns = new LinkedHashMap<>();
+        batch.forEach((id, change) -> returns.put(id, change.returnDate));
+
+        Map<Long, Loan> previous;
+        try {
+            previous = loanRepository.returnLoans(returns);
+        } catch (RuntimeException e) {
+            LOG.error("Erro ao gravar lote de {} devoluções", batch.size(), e);
+            for (Pending change : batch.values()) {
+                change.future.completeExceptionally(e);
+            }
+            return;
+        }
+        batchCount.increment();
+        writtenCount.add(previous.size());
+
+        for (Loan loan : previous.values()) {
+            try {
+                onReturned.accept(loan);
+            } catch (RuntimeException e) {
+                LOG.error("Erro ao notificar a devolução do empréstimo {}", loan.getId(), e);
+            }
+        }
+
+        for (Map.Entry<Long, Pending> entry : batch.entrySet()) {
+            if (previous.containsKey(entry.getKey())) {
+                entry.getValue().future.complete(null);
+            } else {
+                entry.getValue().future.completeExceptionally(
+                        new ResourceNotFoundException("Empréstimo em aberto com ID " + entry.getKey() + " não encontrado."));
+            }
+        }
+    }
+
+    /** Devolução pendente de um empréstimo. */
+    private static final class Pending {
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final long enqueuedAt;
+        private LocalDate returnDate;
+
+        private Pending(LocalDate returnDate, long enqueuedAt) {
+            this.returnDate = returnDate;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
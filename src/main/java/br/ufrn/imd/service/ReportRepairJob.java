@@ -0,0 +1,73 @@
+package br.ufrn.imd.service;
+
+import br.ufrn.imd.exception.DatabaseException;
+import br.ufrn.imd.logging.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tarefa periódica que recalcula as tabelas de resumo dos relatórios, corrigindo
+ * qualquer divergência causada por escritas feitas fora da aplicação.
+ * <p>
+ * Roda em uma única thread daemon; uma falha é registrada e a próxima execução
+ * acontece normalmente.
+ * 
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class ReportRepairJob implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(ReportRepairJob.class);
+
+    private final ReportService reportService;
+    private final ScheduledExecutorService scheduler;
+
+    public ReportRepairJob(ReportService reportService) {
+        this.reportService = reportService;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "report-repair");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Agenda o recálculo periódico. A primeira execução ocorre após um intervalo.
+     *
+     * @param interval intervalo entre execuções.
+     * @throws IllegalArgumentException caso o intervalo não seja positivo.
+     */
+    public void start(Duration interval) {
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("O intervalo deve ser positivo.");
+        }
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::runOnce, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Executa um recálculo imediatamente, na thread chamadora.
+     *
+     * @return true caso o recálculo tenha sido concluído.
+     */
+    public boolean runOnce() {
+        try {
+            reportService.rebuildReports();
+            return true;
+        } catch (DatabaseException e) {
+            LOG.error("Erro ao reparar relatórios", e);
+            return false;
+        }
+    }
+
+    /**
+     * Cancela as execuções agendadas.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,144 @@
+package br.ufrn.imd.service;
+
+import br.ufrn.imd.dao.BookRepository;
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.dao.ReportDAO;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.BookRanking;
+import br.ufrn.imd.model.UserRanking;
+
+import java.util.List;
+
+/**
+ * Classe de serviço para os relatórios da biblioteca: livros disponíveis,
+ * livros mais emprestados e usuários com mais empréstimos.
+ * <p>
+ * Os relatórios são lidos das tabelas de resumo mantidas pelas escritas de
+ * empréstimos; {@link #rebuildReports()} as recalcula do zero, junto com o
+ * estoque disponível dos livros.
+ * 
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class ReportService {
+
+    /** Tamanho máximo de uma página ou ranking. */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /** Quantidade padrão de posições em um ranking. */
+    public static final int DEFAULT_RANKING_SIZE = 10;
+
+    private final ReportDAO reportDAO;
+    private final BookRepository bookRepository;
+    private final BookChangeListener changeListener;
+
+    public ReportService(ReportDAO reportDAO) {
+        this(reportDAO, null, null);
+    }
+
+    /**
+     * Cria o serviço de relatórios. Como {@link #rebuildReports()} recalcula
+     * o estoque de todos os livros, depois dele o cache do repositório de
+     * livros é esvaziado e cada livro é repassado ao ouvinte.
+     *
+     * @param reportDAO      DAO dos relatórios.
+     * @param bookRepository repositório de livros cujo cache é descartado após
+     *                       o recálculo; pode ser nulo.
+     * @param changeListener ouvinte notificado de cada livro após o recálculo,
+     *                       como {@link BookService#changeNotifier()}; pode ser
+     *                       nulo.
+     */
+    public ReportService(ReportDAO reportDAO, BookRepository bookRepository, BookChangeListener changeListener) {
+        this.reportDAO = reportDAO;
+        this.bookRepository = bookRepository;
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Busca uma página dos livros disponíveis para empréstimo.
+     *
+     * @param cursor cursor retornado pela página anterior, ou null para a primeira.
+     * @param size   quantidade de livros por página.
+     * @return Página de livros com ao menos um exemplar disponível.
+     * @throws IllegalArgumentException caso o tamanho da página ou o cursor sejam inválidos.
+     */
+    public Page<Book> findAvailableBooksPage(String cursor, int size) {
+        validatePageSize(size);
+
+        return reportDAO.findAvailableBooksPage(cursor, size);
+    }
+
+    /**
+     * Retorna a quantidade de livros disponíveis para empréstimo.
+     *
+     * @return Quantidade de livros com ao menos um exemplar disponível.
+     */
+    public long countAvailableBooks() {
+        return reportDAO.countAvailableBooks();
+    }
+
+    /**
+     * Busca os {@value #DEFAULT_RANKING_SIZE} livros mais emprestados.
+     *
+     * @return Livros do mais para o menos emprestado.
+     */
+    public List<BookRanking> findMostBorrowedBooks() {
+        return findMostBorrowedBooks(DEFAULT_RANKING_SIZE);
+    }
+
+    /**
+     * Busca os livros mais emprestados.
+     *
+     * @param limit quantidade máxima de livros.
+     * @return Livros do mais para o menos emprestado.
+     * @throws IllegalArgumentException caso o limite seja inválido.
+     */
+    public List<BookRanking> findMostBorrowedBooks(int limit) {
+        validatePageSize(limit);
+
+        return reportDAO.findMostBorrowedBooks(limit);
+    }
+
+    /**
+     * Busca os {@value #DEFAULT_RANKING_SIZE} usuários com mais empréstimos.
+     *
+     * @return Usuários do que mais emprestou para o que menos emprestou.
+     */
+    public List<UserRanking> findTopBorrowers() {
+        return findTopBorrowers(DEFAULT_RANKING_SIZE);
+    }
+
+    /**
+     * Busca os usuários com mais empréstimos.
+     *
+     * @param limit quantidade máxima de usuários.
+     * @return Usuários do que mais emprestou para o que menos emprestou.
+     * @throws IllegalArgumentException caso o limite seja inválido.
+     */
+    public List<UserRanking> findTopBorrowers(int limit) {
+        validatePageSize(limit);
+
+        return reportDAO.findTopBorrowers(limit);
+    }
+
+    /**
+     * Recalcula as tabelas de resumo a partir de todos os empréstimos. Usado
+     * para reparar divergências e ao adotar os relatórios em um banco existente.
+     */
+    public void rebuildReports() {
+        reportDAO.rebuild();
+        if (bookRepository == null) {
+            return;
+        }
+        bookRepository.invalidateAll();
+        if (changeListener != null) {
+            bookRepository.forEach(changeListener::onBookSaved);
+        }
+    }
+
+    private void validatePageSize(int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE + ".");
+        }
+    }
+}
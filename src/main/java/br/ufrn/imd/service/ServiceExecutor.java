@@ -0,0 +1,137 @@
+package br.ufrn.imd.service;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor das operações assíncronas dos serviços.
+ * <p>
+ * Por padrão cada operação roda em uma thread virtual própria: uma operação
+ * bloqueada no JDBC ou aguardando uma conexão do pool não ocupa uma thread de
+ * plataforma, de modo que milhares de operações simultâneas custam apenas o
+ * tamanho do pool de conexões.
+ * <p>
+ * Cancelar o {@link CompletableFuture} devolvido, ou deixá-lo expirar pelo
+ * tempo limite, interrompe a thread que executa a operação.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class ServiceExecutor implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final Duration defaultTimeout;
+
+    /**
+     * Cria um executor com uma thread virtual por operação e sem tempo limite.
+     */
+    public ServiceExecutor() {
+        this(Executors.newVirtualThreadPerTaskExecutor(), null);
+    }
+
+    /**
+     * Cria um executor sobre o {@link ExecutorService} informado.
+     *
+     * @param executor       executor das operações; será encerrado por
+     *                       {@link #close()}.
+     * @param defaultTimeout tempo limite de cada operação; nulo para nenhum.
+     */
+    public ServiceExecutor(ExecutorService executor, Duration defaultTimeout) {
+        if (executor == null) {
+            throw new IllegalArgumentException("O executor é obrigatório.");
+        }
+        if (defaultTimeout != null && (defaultTimeout.isNegative() || defaultTimeout.isZero())) {
+            throw new IllegalArgumentException("O tempo limite deve ser positivo.");
+        }
+        this.executor = executor;
+        this.defaultTimeout = defaultTimeout;
+    }
+
+    /**
+     * Executa uma operação com o tempo limite padrão.
+     *
+     * @param task operação a ser executada.
+     * @return futuro com o resultado da operação.
+     */
+    public <T> CompletableFuture<T> supply(Callable<T> task) {
+        return supply(task, defaultTimeout);
+    }
+
+    /**
+     * Executa uma operação com o tempo limite informado.
+     * <p>
+     * Exceções lançadas pela operação completam o futuro excepcionalmente com a
+     * própria exceção; ao expirar, o futuro é completado com
+     * {@link java.util.concurrent.TimeoutException}.
+     *
+     * @param task    operação a ser executada.
+     * @param timeout tempo limite; nulo para nenhum.
+     * @return futuro com o resultado da operação.
+     */
+    public <T> CompletableFuture<T> supply(Callable<T> task, Duration timeout) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> running;
+        try {
+            running = executor.submit(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                try {
+                    result.complete(task.call());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                running.cancel(true);
+            }
+        });
+        if (timeout != null) {
+            result.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        return result;
+    }
+
+    /**
+     * Executa uma operação sem resultado com o tempo limite padrão.
+     *
+     * @param task operação a ser executada.
+     * @return futuro completado ao fim da operação.
+     */
+    public CompletableFuture<Void> run(ThrowingRunnable task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Recusa novas operações e aguarda as que estão em andamento.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    /**
+     * Operação sem resultado que pode lançar exceções verificadas.
+     */
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+
+        void run() throws Exception;
+
+    }
+}
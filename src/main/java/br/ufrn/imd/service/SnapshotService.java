@@ -0,0 +1,207 @@
+package br.ufrn.imd.service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import br.ufrn.imd.dao.BookRepository;
+import br.ufrn.imd.dao.LoanRepository;
+import br.ufrn.imd.dao.UserRepository;
+import br.ufrn.imd.exception.DatabaseException;
+import br.ufrn.imd.logging.Logger;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.Loan;
+import br.ufrn.imd.model.User;
+import br.ufrn.imd.snapshot.SnapshotData;
+import br.ufrn.imd.snapshot.SnapshotInfo;
+import br.ufrn.imd.snapshot.SnapshotReader;
+import br.ufrn.imd.snapshot.SnapshotWriter;
+
+/**
+ * Serviço de exportação e restauração do acervo em snapshots binários.
+ * <p>
+ * A exportação lê as tabelas em streaming, com memória constante. A
+ * restauração grava livros e usuários em paralelo, cada tabela em lotes
+ * inseridos com os ids originais, e os empréstimos depois deles, por
+ * dependerem dos dois. Deve ser feita em um armazenamento vazio: um id já
+ * existente interrompe a restauração, e os lotes anteriores permanecem
+ * gravados.
+ * <p>
+ * A exportação pelo JDBC lê cada tabela em uma conexão, então deve ser feita
+ * sem escritas concorrentes para que os empréstimos não apontem para livros
+ * ou usuários ausentes do snapshot.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class SnapshotService {
+
+    private static final Logger LOG = Logger.getLogger(SnapshotService.class);
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final BookRepository bookRepository;
+    private final UserRepository userRepository;
+    private final LoanRepository loanRepository;
+    private final int batchSize;
+    private final BookChangeListener changeListener;
+
+    public SnapshotService(BookRepository bookRepository, UserRepository userRepository,
+            LoanRepository loanRepository) {
+        this(bookRepository, userRepository, loanRepository, DEFAULT_BATCH_SIZE, null);
+    }
+
+    /**
+     * Cria o serviço de snapshots.
+     *
+     * @param bookRepository repositório de livros.
+     * @param userRepository repositório de usuários.
+     * @param loanRepository repositório de empréstimos.
+     * @param batchSize      quantidade de linhas gravadas por transação na
+     *                       restauração.
+     * @param changeListener ouvinte notificado de cada livro restaurado, como
+     *                       {@link BookService#changeNotifier()}; pode ser nulo.
+     */
+    public SnapshotService(BookRepository bookRepository, UserRepository userRepository,
+            LoanRepository loanRepository, int batchSize, BookChangeListener changeListener) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("O tamanho do lote deve ser positivo.");
+        }
+        this.bookRepository = bookRepository;
+        this.userRepository = userRepository;
+        this.loanRepository = loanRepository;
+        this.batchSize = batchSize;
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Exporta livros, usuários e empréstimos para um snapshot, substituindo o
+     * arquivo caso ele exista.
+     *
+     * @param file arquivo de destino.
+     * @throws IOException       caso ocorra um erro ao gravar o arquivo.
+     * @throws DatabaseException caso ocorra um erro ao ler as tabelas.
+     * @return resumo do snapshot gravado.
+     */
+    public SnapshotInfo export(Path file) throws IOException {
+        try (Stream<Book> books = bookRepository.streamAll();
+                Stream<User> users = userRepository.streamAll();
+                Stream<Loan> loans = loanRepository.streamAll()) {
+            return SnapshotWriter.write(file, 0, books::iterator, users::iterator, loans::iterator);
+        }
+    }
+
+    /**
+     * Restaura um snapshot no armazenamento, mantendo os ids gravados.
+     *
+     * @param file arquivo do snapshot.
+     * @throws IOException       caso o arquivo não possa ser lido ou esteja
+     *                           corrompido; os checksums são conferidos antes
+     *                           de qualquer gravação.
+     * @throws DatabaseException caso ocorra um erro ao gravar um lote.
+     * @return resumo do snapshot restaurado.
+     */
+    public SnapshotInfo restore(Path file) throws IOException {
+        long start = System.nanoTime();
+        try (SnapshotReader reader = SnapshotReader.open(file);
+                ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            reader.verify();
+            Future<?> books = executor.submit(() -> {
+                restore(reader::readBooks, batch -> {
+                    bookRepository.restoreAll(batch);
+                    notifySaved(batch);
+                });
+                return null;
+            });
+            Future<?> users = executor.submit(() -> {
+                restore(reader::readUsers, userRepository::restoreAll);
+                return null;
+            });
+            await(books);
+            await(users);
+            restore(reader::readLoans, loanRepository::restoreAll);
+
+            SnapshotInfo info = reader.getInfo();
+            LOG.info("Snapshot {} restaurado em {} ms: {} livros, {} usuários, {} empréstimos", file,
+                    (System.nanoTime() - start) / 1_000_000, info.getBooks(), info.getUsers(), info.getLoans());
+            return info;
+        }
+    }
+
+    /**
+     * Carrega um snapshot em memória, sem gravá-lo no armazenamento, com as
+     * tabelas decodificadas em paralelo. Serve para alimentar índices e
+     * caches, como {@link br.ufrn.imd.search.BookSearchIndex#rebuild}, sem
+     * consultar o banco.
+     *
+     * @param file arquivo do snapshot.
+     * @throws IOException caso o arquivo não possa ser lido ou esteja
+     *                     corrompido.
+     * @return conteúdo do snapshot.
+     */
+    public SnapshotData load(Path file) throws IOException {
+        try (SnapshotReader reader = SnapshotReader.open(file)) {
+            return reader.readAll();
+        }
+    }
+
+    /**
+     * Lê uma tabela do snapshot e grava as linhas em lotes.
+     *
+     * @param table  leitura da tabela.
+     * @param writer gravação de um lote.
+     * @param <T>    tipo das linhas.
+     * @throws IOException caso a tabela não possa ser lida.
+     */
+    private <T> void restore(TableReader<T> table, Consumer<List<T>> writer) throws IOException {
+        List<T> batch = new ArrayList<>(batchSize);
+        table.read(row -> {
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                writer.accept(batch);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            writer.accept(batch);
+        }
+    }
+
+    private void notifySaved(List<Book> books) {
+        if (changeListener != null) {
+            for (Book book : books) {
+                changeListener.onBookSaved(book);
+            }
+        }
+    }
+
+    private static void await(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Restauração do snapshot interrompida");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    @FunctionalInterface
+    private interface TableReader<T> {
+        void read(Consumer<T> action) throws IOException;
+    }
+}
@@ -1,6 +1,9 @@
 package br.ufrn.imd.service;
 
-import br.ufrn.imd.dao.UserDAO;
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.dao.QueryHandle;
+import br.ufrn.imd.dao.UserRepository;
+import br.ufrn.imd.exception.QueryCancelledException;
 import br.ufrn.imd.exception.ResourceNotFoundException;
 import br.ufrn.imd.model.User;
 
@@ -15,10 +18,17 @@ import java.util.regex.Pattern;
  */
 public class UserService {
 
-    private final UserDAO userDAO;
+    /** Tamanho máximo de uma página de resultados. */
+    public static final int MAX_PAGE_SIZE = 500;
 
-    public UserService(UserDAO userDAO) {
-        this.userDAO = userDAO;
+    private static final Pattern EMAIL_PATTERN = Pattern
+            .compile("^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$");
+    private static final Pattern PHONE_PATTERN = Pattern.compile("^\\+?\\d{1,4}?\\d{6,14}$");
+
+    private final UserRepository userRepository;
+
+    public UserService(UserRepository userRepository) {
+        this.userRepository = userRepository;
     }
 
     /**
@@ -29,7 +39,7 @@ public class UserService {
      */
     public void createUser(User user) {
         validateUser(user);
-        userDAO.create(user);
+        userRepository.create(user);
     }
 
     /**
@@ -43,9 +53,9 @@ public class UserService {
     public void updateUser(Long id, User user) {
         validateId(id);
         validateUser(user);
-        findUserById(id);
+        ensureExists(id);
 
-        userDAO.update(id, user);
+        userRepository.update(id, user);
     }
 
     /**
@@ -58,7 +68,7 @@ public class UserService {
      */
     public User findUserById(Long id) {
         validateId(id);
-        User user = userDAO.findById(id);
+        User user = userRepository.findById(id);
 
         if (user == null) {
             throw new ResourceNotFoundException("Usuário não encontrado.");
@@ -74,7 +84,7 @@ public class UserService {
      * @return a lista de usuários
      */
     public List<User> findAllUsers() {
-        List<User> users = userDAO.findAll();
+        List<User> users = userRepository.findAll();
 
         if (users.isEmpty()) {
             throw new ResourceNotFoundException("Nenhum usuário encontrado.");
@@ -96,7 +106,7 @@ public class UserService {
             throw new IllegalArgumentException("A consulta não pode ser vazia.");
         }
 
-        List<User> user = userDAO.searchUsers(query);
+        List<User> user = userRepository.searchUsers(query);
 
         if (user.isEmpty()) {
             throw new ResourceNotFoundException("Nenhum usuário encontrado.");
@@ -105,6 +115,75 @@ public class UserService {
         return user;
     }
 
+    /**
+     * Retorna uma página de usuários ordenada por ID.
+     *
+     * @param cursor o cursor retornado pela página anterior, ou null para a primeira
+     * @param size   a quantidade de usuários por página
+     * @throws IllegalArgumentException se o tamanho da página ou o cursor forem inválidos
+     * @return a página de usuários
+     */
+    public Page<User> findUsersPage(String cursor, int size) {
+        validatePageSize(size);
+
+        return userRepository.findPage(cursor, size);
+    }
+
+    /**
+     * Realiza uma busca paginada por usuários com base em um texto de pesquisa.
+     *
+     * @param query  a string de pesquisa
+     * @param cursor o cursor retornado pela página anterior, ou null para a primeira
+     * @param size   a quantidade de usuários por página
+     * @throws IllegalArgumentException se a string de pesquisa, o tamanho da página
+     *                                  ou o cursor forem inválidos
+     * @return a página de usuários encontrados
+     */
+    public Page<User> searchUsersPage(String query, String cursor, int size) {
+        return searchUsersPage(query, cursor, size, null);
+    }
+
+    /**
+     * Realiza uma busca paginada por usuários sob o controle de um
+     * {@link QueryHandle}, que pode cancelar a busca de outra thread e limita
+     * o seu tempo.
+     *
+     * @param query  a string de pesquisa
+     * @param cursor o cursor retornado pela página anterior, ou null para a primeira
+     * @param size   a quantidade de usuários por página
+     * @param handle o controle da busca, ou null para nenhum
+     * @throws IllegalArgumentException se a string de pesquisa, o tamanho da página
+     *                                  ou o cursor forem inválidos
+     * @throws QueryCancelledException  se a busca for cancelada
+     * @return a página de usuários encontrados
+     */
+    public Page<User> searchUsersPage(String query, String cursor, int size, QueryHandle handle) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new IllegalArgumentException("A consulta não pode ser vazia.");
+        }
+        validatePageSize(size);
+
+        return userRepository.searchUsersPage(query, cursor, size, handle);
+    }
+
+    /**
+     * Retorna a quantidade de usuários cadastrados.
+     *
+     * @return a quantidade de usuários
+     */
+    public long countUsers() {
+        return userRepository.count();
+    }
+
+    /**
+     * Indica se existe algum usuário cadastrado.
+     *
+     * @return true se existir ao menos um usuário
+     */
+    public boolean hasUsers() {
+        return userRepository.exists();
+    }
+
     /**
      * Deleta um usuário pelo seu ID.
      *
@@ -113,9 +192,9 @@ public class UserService {
      */
     public void deleteUser(Long id) {
         validateId(id);
-        findUserById(id);
+        ensureExists(id);
 
-        userDAO.delete(id);
+        userRepository.delete(id);
     }
 
     private void validateId(Long id) {
@@ -124,6 +203,24 @@ public class UserService {
         }
     }
 
+    /**
+     * Verifica se um usuário existe sem carregá-lo.
+     *
+     * @param id o ID do usuário
+     * @throws ResourceNotFoundException se o usuário não for encontrado
+     */
+    private void ensureExists(Long id) {
+        if (!userRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Usuário não encontrado.");
+        }
+    }
+
+    private void validatePageSize(int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE + ".");
+        }
+    }
+
     /**
      * Valida os dados de um usuário.
      *
@@ -156,9 +253,7 @@ public class UserService {
      * @return true se o e-mail for válido, false caso contrário
      */
     private boolean isValidEmail(String email) {
-        String emailRegex = "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$";
-        Pattern pattern = Pattern.compile(emailRegex);
-        return pattern.matcher(email).matches();
+        return EMAIL_PATTERN.matcher(email).matches();
     }
 
     /**
@@ -168,8 +263,6 @@ public class UserService {
      * @return true se o número de telefone for válido, false caso contrário
      */
     private boolean isValidPhoneNumber(String phoneNumber) {
-        String phoneRegex = "^\\+?\\d{1,4}?\\d{6,14}$";
-        Pattern pattern = Pattern.compile(phoneRegex);
-        return pattern.matcher(phoneNumber).matches();
+        return PHONE_PATTERN.matcher(phoneNumber).matches();
     }
 }
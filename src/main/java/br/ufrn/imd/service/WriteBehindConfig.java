@@ -0,0 +1,59 @@
+package br.ufrn.imd.service;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Configuração da gravação adiada das devoluções de empréstimos.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public class WriteBehindConfig {
+
+    /**
+     * Quantidade máxima de empréstimos aguardando gravação. Com a fila cheia,
+     * novas devoluções aguardam espaço.
+     */
+    @Builder.Default
+    private final int capacity = 4096;
+
+    /** Quantidade de devoluções que dispara a gravação imediata de um lote. */
+    @Builder.Default
+    private final int maxBatchSize = 256;
+
+    /**
+     * Tempo máximo que uma devolução aguarda na fila antes de ser gravada, em
+     * milissegundos.
+     */
+    @Builder.Default
+    private final long maxDelayMillis = 50;
+
+    /**
+     * Tempo máximo que uma nova devolução aguarda espaço na fila cheia, em
+     * milissegundos.
+     */
+    @Builder.Default
+    private final long offerTimeoutMillis = 5_000;
+
+    /**
+     * Valida os valores da configuração.
+     *
+     * @throws IllegalArgumentException caso algum valor seja inválido.
+     */
+    void validate() {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("A capacidade da fila deve ser positiva.");
+        }
+        if (maxBatchSize <= 0 || maxBatchSize > capacity) {
+            throw new IllegalArgumentException("O lote deve ter entre 1 e " + capacity + " devoluções.");
+        }
+        if (maxDelayMillis < 0 || offerTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Tempos da gravação adiada inválidos.");
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package br.ufrn.imd.snapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.Loan;
+import br.ufrn.imd.model.User;
+import br.ufrn.imd.model.enums.Genre;
+
+/**
+ * Codificação das linhas de um snapshot.
+ * <p>
+ * Cada linha começa com o id e um byte de presença, um bit por campo na ordem
+ * de declaração, seguido apenas dos campos não nulos. Textos são gravados em
+ * UTF-8 precedidos do tamanho em um {@code short} sem sinal, gêneros pelo nome
+ * e datas como dias desde 1970-01-01.
+ * <p>
+ * A decodificação reaproveita um buffer de texto, então cada instância deve
+ * ser usada por uma thread de cada vez.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+final class SnapshotCodec {
+
+    private static final int MAX_STRING_BYTES = 0xFFFF;
+
+    /** Tamanho máximo de uma linha: quatro textos no limite e os demais campos. */
+    static final int MAX_ROW_SIZE = 4 * (2 + MAX_STRING_BYTES) + 32;
+
+    private final byte[] text = new byte[MAX_STRING_BYTES];
+
+    static void encode(ByteBuffer out, Book book) {
+        out.putLong(book.getId());
+        out.put(presence(book.getTitle(), book.getAuthor(), book.getGenre(), book.getPublicationYear(),
+                book.getIsbn(), book.getIsAvailable(), book.getTotalCopies(), book.getAvailableCopies()));
+        putString(out, book.getTitle());
+        putString(out, book.getAuthor());
+        putString(out, book.getGenre() != null ? book.getGenre().name() : null);
+        putInt(out, book.getPublicationYear());
+        putString(out, book.getIsbn());
+        putBoolean(out, book.getIsAvailable());
+        putInt(out, book.getTotalCopies());
+        putInt(out, book.getAvailableCopies());
+    }
+
+    static void encode(ByteBuffer out, User user) {
+        out.putLong(user.getId());
+        out.put(presence(user.getName(), user.getEmail(), user.getPhoneNumber()));
+        putString(out, user.getName());
+        putString(out, user.getEmail());
+        putString(out, user.getPhoneNumber());
+    }
+
+    static void encode(ByteBuffer out, Loan loan) {
+        out.putLong(Long.parseLong(loan.getId()));
+        out.put(presence(loan.getUserId(), loan.getBookId(), loan.getLoanDate(), loan.getDueDate(),
+                loan.getReturnDate(), loan.getIsReturned()));
+        putLong(out, loan.getUserId());
+        putLong(out, loan.getBookId());
+        putDate(out, loan.getLoanDate());
+        putDate(out, loan.getDueDate());
+        putDate(out, loan.getReturnDate());
+        putBoolean(out, loan.getIsReturned());
+    }
+
+    Book decodeBook(ByteBuffer in) {
+        Book book = new Book();
+        book.setId(in.getLong());
+        int presence = in.get();
+        if (has(presence, 0)) {
+            book.setTitle(getString(in));
+        }
+        if (has(presence, 1)) {
+            book.setAuthor(getString(in));
+        }
+        if (has(presence, 2)) {
+            book.setGenre(Genre.valueOf(getString(in)));
+        }
+        if (has(presence, 3)) {
+            book.setPublicationYear(in.getInt());
+        }
+        if (has(presence, 4)) {
+            book.setIsbn(getString(in));
+        }
+        if (has(presence, 5)) {
+            book.setIsAvailable(in.get() != 0);
+        }
+        if (has(presence, 6)) {
+            book.setTotalCopies(in.getInt());
+        }
+        if (has(presence, 7)) {
+            book.setAvailableCopies(in.getInt());
+        }
+        return book;
+    }
+
+    User decodeUser(ByteBuffer in) {
+        User user = new User();
+        user.setId(in.getLong());
+        int presence = in.get();
+        if (has(presence, 0)) {
+            user.setName(getString(in));
+        }
+        if (has(presence, 1)) {
+            user.setEmail(getString(in));
+        }
+        if (has(presence, 2)) {
+            user.setPhoneNumber(getString(in));
+        }
+        return user;
+    }
+
+    Loan decodeLoan(ByteBuffer in) {
+        Loan loan = new Loan();
+        loan.setId(String.valueOf(in.getLong()));
+        int presence = in.get();
+        if (has(presence, 0)) {
+            loan.setUserId(in.getLong());
+        }
+        if (has(presence, 1)) {
+            loan.setBookId(in.getLong());
+        }
+        if (has(presence, 2)) {
+            loan.setLoanDate(LocalDate.ofEpochDay(in.getInt()));
+        }
+        if (has(presence, 3)) {
+            loan.setDueDate(LocalDate.ofEpochDay(in.getInt()));
+        }
+        if (has(presence, 4)) {
+            loan.setReturnDate(LocalDate.ofEpochDay(in.getInt()));
+        }
+        if (has(presence, 5)) {
+            loan.setIsReturned(in.get() != 0);
+        }
+        return loan;
+    }
+
+    private String getString(ByteBuffer in) {
+        int length = Short.toUnsignedInt(in.getShort());
+        in.get(text, 0, length);
+        return new String(text, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static byte presence(Object... fields) {
+        int bits = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] != null) {
+                bits |= 1 << i;
+            }
+        }
+        return (byte) bits;
+    }
+
+    private static boolean has(int presence, int field) {
+        return (presence & (1 << field)) != 0;
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("Texto longo demais para o snapshot: " + bytes.length + " bytes");
+        }
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    private static void putInt(ByteBuffer out, Integer value) {
+        if (value != null) {
+            out.putInt(value);
+        }
+    }
+
+    private static void putLong(ByteBuffer out, Long value) {
+        if (value != null) {
+            out.putLong(value);
+        }
+    }
+
+    private static void putBoolean(ByteBuffer out, Boolean value) {
+        if (value != null) {
+            out.put((byte) (value ? 1 : 0));
+        }
+    }
+
+    private static void putDate(ByteBuffer out, LocalDate value) {
+        if (value != null) {
+            out.putInt((int) value.toEpochDay());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package br.ufrn.imd.snapshot;
+
+import java.util.List;
+
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.Loan;
+import br.ufrn.imd.model.User;
+import lombok.Value;
+
+/**
+ * Conteúdo de um snapshot carregado em memória, com as linhas na ordem
+ * gravada.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Value
+public class SnapshotData {
+
+    SnapshotInfo info;
+    List<Book> books;
+    List<User> users;
+    List<Loan> loans;
+
+}
@@ -0,0 +1,75 @@
+package br.ufrn.imd.snapshot;
+
+import java.io.IOException;
+
+import br.ufrn.imd.journal.EntityType;
+
+/**
+ * Layout do arquivo de snapshot.
+ * <p>
+ * O arquivo começa com um cabeçalho de {@value #HEADER_SIZE} bytes:
+ * {@code [mágico:int][versão:short][seções:short][criação:long][posição:long]},
+ * seguido de uma entrada por seção,
+ * {@code [tabela:int][crc32c:int][linhas:long][início:long][tamanho:long]}, e
+ * do CRC32C dos bytes anteriores nos últimos quatro bytes. As seções vêm
+ * depois do cabeçalho, uma por tabela, com as linhas na ordem em que foram
+ * entregues ao {@link SnapshotWriter}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+final class SnapshotFormat {
+
+    /** Bytes "LBSP" no início de todo snapshot. */
+    static final int MAGIC = 0x4C425350;
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 128;
+    static final int SECTIONS_OFFSET = 24;
+    static final int SECTION_ENTRY_SIZE = 32;
+    static final int HEADER_CRC_OFFSET = HEADER_SIZE - 4;
+
+    /** Tabelas na ordem em que são gravadas, que respeita as chaves estrangeiras. */
+    static final EntityType[] TABLES = { EntityType.BOOK, EntityType.USER, EntityType.LOAN };
+
+    private SnapshotFormat() {
+    }
+
+    /**
+     * Código gravado para a tabela; não muda entre versões.
+     *
+     * @param table tabela.
+     * @return código da tabela.
+     */
+    static int code(EntityType table) {
+        switch (table) {
+            case BOOK:
+                return 1;
+            case USER:
+                return 2;
+            case LOAN:
+                return 3;
+            default:
+                throw new IllegalArgumentException("Tabela sem código no snapshot: " + table);
+        }
+    }
+
+    /**
+     * Retorna a tabela de um código gravado.
+     *
+     * @param code código lido do cabeçalho.
+     * @throws IOException caso o código seja desconhecido.
+     * @return tabela correspondente.
+     */
+    static EntityType table(int code) throws IOException {
+        switch (code) {
+            case 1:
+                return EntityType.BOOK;
+            case 2:
+                return EntityType.USER;
+            case 3:
+                return EntityType.LOAN;
+            default:
+                throw new IOException("Snapshot inválido: tabela desconhecida " + code);
+        }
+    }
+}
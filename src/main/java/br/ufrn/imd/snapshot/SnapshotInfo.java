@@ -0,0 +1,34 @@
+package br.ufrn.imd.snapshot;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+import lombok.Value;
+
+/**
+ * Resumo de um arquivo de snapshot, lido do cabeçalho.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Value
+public class SnapshotInfo {
+
+    Path file;
+    int version;
+    Instant createdAt;
+
+    /**
+     * Posição no log de mutações correspondente ao estado gravado, ou zero
+     * quando o snapshot não acompanha um log.
+     */
+    long position;
+
+    long books;
+    long users;
+    long loans;
+
+    /** Tamanho do arquivo, em bytes. */
+    long size;
+
+}
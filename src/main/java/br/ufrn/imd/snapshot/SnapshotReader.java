@@ -0,0 +1,265 @@
+package br.ufrn.imd.snapshot;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+import br.ufrn.imd.journal.EntityType;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.Loan;
+import br.ufrn.imd.model.User;
+
+/**
+ * Lê um arquivo gravado por {@link SnapshotWriter}.
+ * <p>
+ * A abertura valida o cabeçalho; cada seção é mapeada em memória somente
+ * para leitura e tem o CRC32C conferido antes de qualquer linha ser entregue,
+ * então um arquivo corrompido nunca carrega dados pela metade. As seções são
+ * independentes e podem ser lidas em paralelo, cada uma por uma thread.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public final class SnapshotReader implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final SnapshotInfo info;
+    private final long[] offsets = new long[SnapshotFormat.TABLES.length];
+    private final long[] lengths = new long[SnapshotFormat.TABLES.length];
+    private final long[] rows = new long[SnapshotFormat.TABLES.length];
+    private final int[] checksums = new int[SnapshotFormat.TABLES.length];
+
+    private SnapshotReader(Path file, FileChannel channel) throws IOException {
+        this.channel = channel;
+        long size = channel.size();
+        if (size < SnapshotFormat.HEADER_SIZE) {
+            throw new IOException("Snapshot inválido: arquivo menor que o cabeçalho");
+        }
+        ByteBuffer header = ByteBuffer.allocate(SnapshotFormat.HEADER_SIZE);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("Snapshot inválido: cabeçalho incompleto");
+            }
+        }
+        header.flip();
+
+        if (header.getInt() != SnapshotFormat.MAGIC) {
+            throw new IOException("Arquivo não é um snapshot: " + file);
+        }
+        short version = header.getShort();
+        if (version != SnapshotFormat.VERSION) {
+            throw new IOException("Versão de snapshot não suportada: " + version);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(header.array(), 0, SnapshotFormat.HEADER_CRC_OFFSET);
+        if ((int) crc.getValue() != header.getInt(SnapshotFormat.HEADER_CRC_OFFSET)) {
+            throw new IOException("Snapshot corrompido: checksum do cabeçalho inválido");
+        }
+        if (header.getShort() != SnapshotFormat.TABLES.length) {
+            throw new IOException("Snapshot inválido: quantidade de seções inesperada");
+        }
+        Instant createdAt = Instant.ofEpochMilli(header.getLong());
+        long position = header.getLong();
+
+        boolean[] seen = new boolean[SnapshotFormat.TABLES.length];
+        for (int i = 0; i < SnapshotFormat.TABLES.length; i++) {
+            int index = indexOf(SnapshotFormat.table(header.getInt()));
+            if (seen[index]) {
+                throw new IOException("Snapshot inválido: seção repetida");
+            }
+            seen[index] = true;
+            checksums[index] = header.getInt();
+            rows[index] = header.getLong();
+            offsets[index] = header.getLong();
+            lengths[index] = header.getLong();
+            if (rows[index] < 0 || offsets[index] < SnapshotFormat.HEADER_SIZE || lengths[index] < 0
+                    || lengths[index] > Integer.MAX_VALUE || offsets[index] + lengths[index] > size) {
+                throw new IOException("Snapshot inválido: seção fora dos limites do arquivo");
+            }
+        }
+        this.info = new SnapshotInfo(file, version, createdAt, position, rows[0], rows[1], rows[2], size);
+    }
+
+    /**
+     * Abre um snapshot e valida o cabeçalho.
+     *
+     * @param file arquivo do snapshot.
+     * @throws IOException caso o arquivo não possa ser lido ou não seja um
+     *                     snapshot válido.
+     * @return leitor aberto.
+     */
+    public static SnapshotReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new SnapshotReader(file, channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Resumo do snapshot, lido do cabeçalho.
+     *
+     * @return resumo do snapshot.
+     */
+    public SnapshotInfo getInfo() {
+        return info;
+    }
+
+    /**
+     * Confere o CRC32C de todas as seções, sem decodificar as linhas.
+     *
+     * @throws IOException caso alguma seção não possa ser lida ou esteja
+     *                     corrompida.
+     */
+    public void verify() throws IOException {
+        for (EntityType table : SnapshotFormat.TABLES) {
+            map(table);
+        }
+    }
+
+    /**
+     * Entrega os livros do snapshot, na ordem gravada.
+     *
+     * @param action ação executada para cada livro.
+     * @throws IOException caso a seção não possa ser lida ou esteja corrompida.
+     */
+    public void readBooks(Consumer<Book> action) throws IOException {
+        read(EntityType.BOOK, SnapshotCodec::decodeBook, action);
+    }
+
+    /**
+     * Entrega os usuários do snapshot, na ordem gravada.
+     *
+     * @param action ação executada para cada usuário.
+     * @throws IOException caso a seção não possa ser lida ou esteja corrompida.
+     */
+    public void readUsers(Consumer<User> action) throws IOException {
+        read(EntityType.USER, SnapshotCodec::decodeUser, action);
+    }
+
+    /**
+     * Entrega os empréstimos do snapshot, na ordem gravada.
+     *
+     * @param action ação executada para cada empréstimo.
+     * @throws IOException caso a seção não possa ser lida ou esteja corrompida.
+     */
+    public void readLoans(Consumer<Loan> action) throws IOException {
+        read(EntityType.LOAN, SnapshotCodec::decodeLoan, action);
+    }
+
+    /**
+     * Carrega as três tabelas em memória, cada uma decodificada em uma thread.
+     *
+     * @throws IOException caso alguma seção não possa ser lida ou esteja
+     *                     corrompida.
+     * @return conteúdo do snapshot.
+     */
+    public SnapshotData readAll() throws IOException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<Book>> books = executor.submit(() -> collect(EntityType.BOOK, this::readBooks));
+            Future<List<User>> users = executor.submit(() -> collect(EntityType.USER, this::readUsers));
+            Future<List<Loan>> loans = executor.submit(() -> collect(EntityType.LOAN, this::readLoans));
+            return new SnapshotData(info, await(books), await(users), await(loans));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private <T> void read(EntityType table, BiFunction<SnapshotCodec, ByteBuffer, T> decoder, Consumer<T> action)
+            throws IOException {
+        int index = indexOf(table);
+        MappedByteBuffer buffer = map(table);
+        SnapshotCodec codec = new SnapshotCodec();
+        try {
+            for (long i = 0; i < rows[index]; i++) {
+                action.accept(decoder.apply(codec, buffer));
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Snapshot corrompido: linha inválida na seção " + table, e);
+        }
+        if (buffer.hasRemaining()) {
+            throw new IOException("Snapshot corrompido: bytes além das linhas na seção " + table);
+        }
+    }
+
+    /**
+     * Mapeia a seção da tabela e confere o seu CRC32C.
+     *
+     * @param table tabela da seção.
+     * @throws IOException caso a seção não possa ser mapeada ou esteja
+     *                     corrompida.
+     * @return seção mapeada, posicionada no início.
+     */
+    private MappedByteBuffer map(EntityType table) throws IOException {
+        int index = indexOf(table);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offsets[index], lengths[index]);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate());
+        if ((int) crc.getValue() != checksums[index]) {
+            throw new IOException("Snapshot corrompido: checksum inválido na seção " + table);
+        }
+        return buffer;
+    }
+
+    private <T> List<T> collect(EntityType table, SectionReader<T> reader) throws IOException {
+        List<T> items = new ArrayList<>((int) Math.min(rows[indexOf(table)], Integer.MAX_VALUE - 8));
+        reader.read(items::add);
+        return items;
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Leitura do snapshot interrompida");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private static int indexOf(EntityType table) {
+        for (int i = 0; i < SnapshotFormat.TABLES.length; i++) {
+            if (SnapshotFormat.TABLES[i] == table) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Tabela sem seção no snapshot: " + table);
+    }
+
+    @FunctionalInterface
+    private interface SectionReader<T> {
+        void read(Consumer<T> action) throws IOException;
+    }
+}
@@ -0,0 +1,149 @@
+package br.ufrn.imd.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32C;
+
+import br.ufrn.imd.journal.EntityType;
+import br.ufrn.imd.logging.Logger;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.Loan;
+import br.ufrn.imd.model.User;
+
+/**
+ * Grava as tabelas de livros, usuários e empréstimos em um arquivo de
+ * snapshot binário.
+ * <p>
+ * As linhas são codificadas em um buffer direto e gravadas no
+ * {@link FileChannel} em blocos de {@value #BUFFER_SIZE} bytes, com o CRC32C de
+ * cada seção calculado sobre os mesmos blocos. O cabeçalho é gravado por
+ * último, e o arquivo é montado ao lado do destino e movido para o lugar
+ * apenas depois de forçado ao disco, então um snapshot existente nunca fica
+ * pela metade.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public final class SnapshotWriter {
+
+    private static final Logger LOG = Logger.getLogger(SnapshotWriter.class);
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private SnapshotWriter() {
+    }
+
+    /**
+     * Grava um snapshot com as entidades informadas, que devem ter id,
+     * substituindo o arquivo caso ele exista.
+     *
+     * @param file     arquivo de destino.
+     * @param position posição do log de mutações correspondente ao estado
+     *                 gravado, ou zero caso não haja log.
+     * @param books    livros a gravar.
+     * @param users    usuários a gravar.
+     * @param loans    empréstimos a gravar.
+     * @throws IOException caso ocorra um erro ao gravar o arquivo.
+     * @return resumo do snapshot gravado.
+     */
+    public static SnapshotInfo write(Path file, long position, Iterable<Book> books, Iterable<User> users,
+            Iterable<Loan> loans) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Instant createdAt = Instant.ofEpochMilli(System.currentTimeMillis());
+        Section[] sections = new Section[SnapshotFormat.TABLES.length];
+        long size;
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            channel.position(SnapshotFormat.HEADER_SIZE);
+            sections[0] = writeSection(channel, buffer, EntityType.BOOK, books, SnapshotCodec::encode);
+            sections[1] = writeSection(channel, buffer, EntityType.USER, users, SnapshotCodec::encode);
+            sections[2] = writeSection(channel, buffer, EntityType.LOAN, loans, SnapshotCodec::encode);
+            size = channel.position();
+
+            ByteBuffer header = header(createdAt, position, sections);
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        SnapshotInfo info = new SnapshotInfo(file, SnapshotFormat.VERSION, createdAt, position, sections[0].rows,
+                sections[1].rows, sections[2].rows, size);
+        LOG.debug("Snapshot gravado em {}: {} livros, {} usuários, {} empréstimos, {} bytes", file, info.getBooks(),
+                info.getUsers(), info.getLoans(), size);
+        return info;
+    }
+
+    private static <T> Section writeSection(FileChannel channel, ByteBuffer buffer, EntityType table,
+            Iterable<T> rows, BiConsumer<ByteBuffer, T> encoder) throws IOException {
+        Section section = new Section(table, channel.position());
+        CRC32C crc = new CRC32C();
+        buffer.clear();
+        for (T row : rows) {
+            if (buffer.remaining() < SnapshotCodec.MAX_ROW_SIZE) {
+                flush(channel, buffer, crc);
+            }
+            encoder.accept(buffer, row);
+            section.rows++;
+        }
+        flush(channel, buffer, crc);
+        section.length = channel.position() - section.offset;
+        section.crc = (int) crc.getValue();
+        return section;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer, CRC32C crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static ByteBuffer header(Instant createdAt, long position, Section[] sections) {
+        ByteBuffer header = ByteBuffer.allocate(SnapshotFormat.HEADER_SIZE);
+        header.putInt(SnapshotFormat.MAGIC);
+        header.putShort(SnapshotFormat.VERSION);
+        header.putShort((short) sections.length);
+        header.putLong(createdAt.toEpochMilli());
+        header.putLong(position);
+        for (Section section : sections) {
+            header.putInt(SnapshotFormat.code(section.table));
+            header.putInt(section.crc);
+            header.putLong(section.rows);
+            header.putLong(section.offset);
+            header.putLong(section.length);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(header.array(), 0, SnapshotFormat.HEADER_CRC_OFFSET);
+        header.putInt(SnapshotFormat.HEADER_CRC_OFFSET, (int) crc.getValue());
+        return header.clear();
+    }
+
+    private static final class Section {
+
+        private final EntityType table;
+        private final long offset;
+        private long rows;
+        private long length;
+        private int crc;
+
+        private Section(EntityType table, long offset) {
+            this.table = table;
+            this.offset = offset;
+        }
+    }
+}
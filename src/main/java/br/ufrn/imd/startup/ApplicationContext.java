@@ -0,0 +1,302 @@
+package br.ufrn.imd.startup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import br.ufrn.imd.cache.CacheConfig;
+import br.ufrn.imd.dao.BookDAO;
+import br.ufrn.imd.dao.LoanDAO;
+import br.ufrn.imd.dao.UserDAO;
+import br.ufrn.imd.database.DatabaseConnection;
+import br.ufrn.imd.exception.DatabaseException;
+import br.ufrn.imd.logging.Logger;
+import br.ufrn.imd.metrics.MeteredBookImportService;
+import br.ufrn.imd.metrics.MeteredBookService;
+import br.ufrn.imd.metrics.MeteredLoanService;
+import br.ufrn.imd.metrics.MeteredReportDAO;
+import br.ufrn.imd.metrics.MeteredReportService;
+import br.ufrn.imd.metrics.MeteredStorageEngine;
+import br.ufrn.imd.metrics.MeteredUserService;
+import br.ufrn.imd.metrics.MetricsRegistry;
+import br.ufrn.imd.search.BookFacetIndex;
+import br.ufrn.imd.search.BookSearchIndex;
+import br.ufrn.imd.service.BookImportService;
+import br.ufrn.imd.service.BookService;
+import br.ufrn.imd.service.LoanService;
+import br.ufrn.imd.service.ReportService;
+import br.ufrn.imd.service.UserService;
+import br.ufrn.imd.storage.JdbcStorageEngine;
+import br.ufrn.imd.storage.StorageEngine;
+
+/**
+ * Componentes compartilhados da aplicação: o mecanismo de armazenamento, com
+ * os DAOs e seus caches, e os serviços.
+ * <p>
+ * Nada é criado no construtor. Cada componente é criado no primeiro uso ou,
+ * depois de {@link #start()}, antecipadamente em segundo plano, em paralelo: a
+ * primeira conexão com o banco, o mecanismo de armazenamento e os serviços,
+ * que constroem seus índices. Assim a janela pode ser exibida sem esperar o
+ * banco, e quem pedir um serviço ainda em criação apenas aguarda a criação em
+ * andamento. Cada criação é registrada na {@link StartupTimeline}.
+ * <p>
+ * Os repositórios e os serviços são instrumentados e registram suas operações,
+ * assim como os caches dos DAOs, no {@link MetricsRegistry#getDefault()
+ * registro padrão de métricas}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class ApplicationContext implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(ApplicationContext.class);
+
+    private final StartupConfig config;
+    private final StartupTimeline timeline;
+    private final MetricsRegistry metrics = MetricsRegistry.getDefault();
+    private final ExecutorService executor;
+    private final Lazy<Boolean> database;
+    private final Lazy<StorageEngine> storage;
+    private final Lazy<BookService> bookService;
+    private final Lazy<UserService> userService;
+    private final Lazy<LoanService> loanService;
+    private final Lazy<ReportService> reportService;
+    private final Lazy<BookImportService> importService;
+
+    /**
+     * Cria o contexto sem iniciar nenhum componente.
+     *
+     * @param config   configuração da inicialização.
+     * @param timeline linha do tempo onde as criações são registradas.
+     * @throws IllegalArgumentException caso a configuração seja inválida.
+     */
+    public ApplicationContext(StartupConfig config, StartupTimeline timeline) {
+        config.validate();
+        this.config = config;
+        this.timeline = timeline;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "startup-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.database = new Lazy<>("database", this::connect, timeline);
+        this.storage = new Lazy<>("storage", this::openStorage, timeline);
+        this.bookService = new Lazy<>("book-service", this::createBookService, timeline);
+        this.userService = new Lazy<>("user-service",
+                () -> new MeteredUserService(getStorage().users(), metrics), timeline);
+        this.loanService = new Lazy<>("loan-service", this::createLoanService, timeline);
+        this.reportService = new Lazy<>("report-service", this::createReportService, timeline);
+        this.importService = new Lazy<>("import-service", () -> new MeteredBookImportService(getStorage().books(),
+                BookImportService.DEFAULT_BATCH_SIZE, getBookService().changeNotifier(), metrics), timeline);
+    }
+
+    /**
+     * Inicia em segundo plano a criação de todos os componentes, sem
+     * bloquear a thread chamadora.
+     *
+     * @return futuro completado quando todos os componentes estiverem
+     *         prontos, ou com a primeira falha.
+     */
+    public CompletableFuture<Void> start() {
+        List<CompletableFuture<?>> tasks = new ArrayList<>();
+        if (usesSharedPool()) {
+            tasks.add(database.prefetch(executor));
+        }
+        tasks.add(storage.prefetch(executor));
+        tasks.add(bookService.prefetch(executor));
+        tasks.add(userService.prefetch(executor));
+        tasks.add(loanService.prefetch(executor));
+        return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Executa uma tarefa de inicialização em segundo plano, registrada como
+     * uma fase da linha do tempo.
+     *
+     * @param phase nome da fase.
+     * @param task  tarefa executada.
+     * @return futuro completado ao fim da tarefa.
+     */
+    public CompletableFuture<Void> runInBackground(String phase, Runnable task) {
+        return CompletableFuture.runAsync(() -> timeline.run(phase, task), executor);
+    }
+
+    /**
+     * Linha do tempo onde as criações são registradas.
+     *
+     * @return linha do tempo da inicialização.
+     */
+    public StartupTimeline getTimeline() {
+        return timeline;
+    }
+
+    /**
+     * Retorna o mecanismo de armazenamento, aguardando ou executando a sua
+     * criação.
+     *
+     * @throws DatabaseException caso o mecanismo não possa ser aberto.
+     * @return mecanismo de armazenamento.
+     */
+    public StorageEngine getStorage() {
+        return storage.get();
+    }
+
+    /**
+     * Retorna o serviço de livros, aguardando ou executando a sua criação.
+     *
+     * @throws DatabaseException caso o serviço não possa ser criado.
+     * @return serviço de livros.
+     */
+    public BookService getBookService() {
+        return bookService.get();
+    }
+
+    /**
+     * Retorna o serviço de usuários, aguardando ou executando a sua criação.
+     *
+     * @throws DatabaseException caso o serviço não possa ser criado.
+     * @return serviço de usuários.
+     */
+    public UserService getUserService() {
+        return userService.get();
+    }
+
+    /**
+     * Retorna o serviço de empréstimos, aguardando ou executando a sua
+     * criação.
+     *
+     * @throws DatabaseException caso o serviço não possa ser criado.
+     * @return serviço de empréstimos.
+     */
+    public LoanService getLoanService() {
+        return loanService.get();
+    }
+
+    /**
+     * Retorna o serviço de relatórios, aguardando ou executando a sua
+     * criação. Os relatórios são lidos de tabelas de resumo do banco e só
+     * existem no mecanismo {@value JdbcStorageEngine#NAME}.
+     *
+     * @throws IllegalStateException caso o mecanismo não seja JDBC.
+     * @throws DatabaseException     caso o serviço não possa ser criado.
+     * @return serviço de relatórios.
+     */
+    public ReportService getReportService() {
+        return reportService.get();
+    }
+
+    /**
+     * Retorna o serviço de importação de livros, aguardando ou executando a
+     * sua criação.
+     *
+     * @throws DatabaseException caso o serviço não possa ser criado.
+     * @return serviço de importação.
+     */
+    public BookImportService getBookImportService() {
+        return importService.get();
+    }
+
+    /**
+     * Interrompe as criações em andamento e fecha o mecanismo de
+     * armazenamento, caso tenha sido aberto.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        StorageEngine engine = storage.getIfCreated();
+        if (engine != null) {
+            engine.close();
+        }
+    }
+
+    /**
+     * Indica se o armazenamento usa o pool de {@link DatabaseConnection}, cuja
+     * primeira conexão pode ser aberta antes de qualquer consulta.
+     *
+     * @return true caso o mecanismo seja JDBC sem {@code DataSource} próprio.
+     */
+    private boolean usesSharedPool() {
+        return usesJdbc() && config.getStorage().getDataSource() == null;
+    }
+
+    private boolean usesJdbc() {
+        return JdbcStorageEngine.NAME.equals(config.getStorage().getEngine().trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Abre e devolve a primeira conexão do pool, o que carrega o driver e faz
+     * a autenticação no servidor antes da primeira consulta.
+     *
+     * @throws DatabaseException caso não seja possível conectar.
+     * @return sempre true.
+     */
+    private Boolean connect() {
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            return Boolean.TRUE;
+        } catch (SQLException e) {
+            LOG.error("Erro ao abrir a primeira conexão", e);
+            throw new DatabaseException("Erro ao abrir a primeira conexão: " + e.getMessage());
+        }
+    }
+
+    private StorageEngine openStorage() {
+        StorageEngine engine = StorageEngine.open(config.getStorage());
+        CacheConfig cache = config.getCache();
+        if (cache != null) {
+            if (engine.books() instanceof BookDAO) {
+                ((BookDAO) engine.books()).enableCache(cache);
+            }
+            if (engine.users() instanceof UserDAO) {
+                ((UserDAO) engine.users()).enableCache(cache);
+            }
+            if (engine.loans() instanceof LoanDAO) {
+                ((LoanDAO) engine.loans()).enableCache(cache);
+            }
+        }
+        // os repositórios instrumentados publicam os caches dos DAOs
+        return new MeteredStorageEngine(engine, metrics);
+    }
+
+    private BookService createBookService() {
+        if (!config.isBookIndexes()) {
+            return new MeteredBookService(getStorage().books(), null, null, metrics);
+        }
+        return new MeteredBookService(getStorage().books(), new BookSearchIndex(), new BookFacetIndex(), metrics);
+    }
+
+    /**
+     * Cria o serviço de empréstimos ligado ao serviço de livros, para que os
+     * índices de livros acompanhem a disponibilidade depois de cada retirada,
+     * devolução ou remoção.
+     */
+    private LoanService createLoanService() {
+        LoanService service = new MeteredLoanService(getStorage().loans(), getStorage().books(), getStorage().users(),
+                metrics);
+        service.addBookChangeListener(getBookService().changeNotifier());
+        return service;
+    }
+
+    /**
+     * Cria o serviço de relatórios sobre o banco do mecanismo JDBC. Depois de
+     * recalcular o estoque, ele descarta o cache de livros e atualiza os
+     * índices do serviço de livros.
+     */
+    private ReportService createReportService() {
+        if (!usesJdbc()) {
+            throw new IllegalStateException("Os relatórios exigem o mecanismo " + JdbcStorageEngine.NAME + ".");
+        }
+        DataSource dataSource = config.getStorage().getDataSource() != null ? config.getStorage().getDataSource()
+                : DatabaseConnection.getDataSource();
+        return new MeteredReportService(new MeteredReportDAO(dataSource, metrics), getStorage().books(),
+                getBookService().changeNotifier(), metrics);
+    }
+}
@@ -0,0 +1,90 @@
+package br.ufrn.imd.startup;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Componente criado uma única vez, no primeiro uso ou antecipadamente em
+ * segundo plano. A criação é registrada como uma fase da
+ * {@link StartupTimeline}.
+ * <p>
+ * Quem pede o componente enquanto ele é criado em outra thread aguarda a
+ * criação em andamento, sem iniciar outra. Uma falha na criação é relançada a
+ * todos que pedirem o componente.
+ *
+ * @param <T> tipo do componente.
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+final class Lazy<T> {
+
+    private final String name;
+    private final Supplier<T> factory;
+    private final StartupTimeline timeline;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    Lazy(String name, Supplier<T> factory, StartupTimeline timeline) {
+        this.name = name;
+        this.factory = factory;
+        this.timeline = timeline;
+    }
+
+    /**
+     * Retorna o componente, criando-o na thread chamadora caso a criação ainda
+     * não tenha começado.
+     *
+     * @return componente criado.
+     */
+    T get() {
+        if (started.compareAndSet(false, true)) {
+            create();
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Inicia a criação no executor, caso ainda não tenha começado.
+     *
+     * @param executor executor da criação.
+     * @return futuro completado com o componente.
+     */
+    CompletableFuture<T> prefetch(Executor executor) {
+        if (started.compareAndSet(false, true)) {
+            executor.execute(this::create);
+        }
+        return result;
+    }
+
+    /**
+     * Retorna o componente caso já tenha sido criado com sucesso, sem
+     * iniciar a criação.
+     *
+     * @return componente, ou null caso ainda não exista.
+     */
+    T getIfCreated() {
+        return result.isDone() && !result.isCompletedExceptionally() ? result.join() : null;
+    }
+
+    private void create() {
+        try {
+            result.complete(timeline.time(name, factory));
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package br.ufrn.imd.startup;
+
+import java.nio.file.Path;
+
+import br.ufrn.imd.cache.CacheConfig;
+import br.ufrn.imd.storage.StorageConfig;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Configuração da inicialização da aplicação.
+ * <p>
+ * Sem valores explícitos, o arquivo do relatório e a saída após a
+ * inicialização vêm das propriedades de sistema {@value #REPORT_PROPERTY} e
+ * {@value #EXIT_PROPERTY}. A segunda é usada pela execução de treino que gera
+ * o arquivo de classes compartilhadas (AppCDS) no build.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public class StartupConfig {
+
+    /** Propriedade de sistema com o arquivo do relatório de inicialização. */
+    public static final String REPORT_PROPERTY = "library.startup.report";
+
+    /** Propriedade de sistema que encerra a aplicação depois da inicialização. */
+    public static final String EXIT_PROPERTY = "library.startup.exit";
+
+    /** Mecanismo de armazenamento dos serviços. */
+    @Builder.Default
+    private final StorageConfig storage = StorageConfig.builder().build();
+
+    /** Cache dos DAOs no mecanismo JDBC; nulo para desabilitar. */
+    @Builder.Default
+    private final CacheConfig cache = CacheConfig.builder().build();
+
+    /** Constrói os índices de busca e de facetas do serviço de livros. */
+    @Builder.Default
+    private final boolean bookIndexes = true;
+
+    /** Arquivo do relatório de inicialização; nulo para não gravar. */
+    @Builder.Default
+    private final Path reportFile = Path.of(System.getProperty(REPORT_PROPERTY, "logs/startup.txt"));
+
+    /** Encerra a aplicação assim que a janela e os serviços estiverem prontos. */
+    @Builder.Default
+    private final boolean exitAfterStart = Boolean.getBoolean(EXIT_PROPERTY);
+
+    void validate() {
+        if (storage == null) {
+            throw new IllegalArgumentException("A configuração de armazenamento é obrigatória.");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package br.ufrn.imd.startup;
+
+import lombok.Value;
+
+/**
+ * Fase ou marco registrado em uma {@link StartupTimeline}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Value
+public class StartupPhase {
+
+    String name;
+
+    /** Thread que executou a fase, ou null para a carga da JVM. */
+    String thread;
+
+    /** Início da fase, em nanossegundos desde o início do processo. */
+    long startNanos;
+
+    /** Duração da fase; zero para marcos. */
+    long durationNanos;
+
+    /** Indica um marco instantâneo, como a primeira janela desenhada. */
+    boolean milestone;
+
+}
@@ -0,0 +1,170 @@
+package br.ufrn.imd.startup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+import br.ufrn.imd.logging.Logger;
+
+/**
+ * Linha do tempo da inicialização da aplicação.
+ * <p>
+ * Registra a duração de cada fase, em qualquer thread, e marcos instantâneos
+ * como a primeira janela desenhada. Os tempos são contados a partir do início
+ * do processo, quando o sistema operacional o informa, então a primeira fase,
+ * {@value #JVM_PHASE}, cobre a carga da JVM até a criação da linha do tempo.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class StartupTimeline {
+
+    /** Fase que vai do início do processo até a criação da linha do tempo. */
+    public static final String JVM_PHASE = "jvm";
+
+    private static final Logger LOG = Logger.getLogger(StartupTimeline.class);
+
+    private final Instant origin;
+    private final long originNanos;
+    private final long jvmNanos;
+    private final ConcurrentLinkedQueue<StartupPhase> phases = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Cria a linha do tempo. Deve ser criada o mais cedo possível, de
+     * preferência na inicialização estática da classe principal.
+     */
+    public StartupTimeline() {
+        this.originNanos = System.nanoTime();
+        this.origin = Instant.now();
+        this.jvmNanos = ProcessHandle.current().info().startInstant()
+                .map(start -> Math.max(0, Duration.between(start, origin).toNanos()))
+                .orElse(0L);
+        phases.add(new StartupPhase(JVM_PHASE, null, 0, jvmNanos, false));
+    }
+
+    /**
+     * Inicia uma fase, encerrada ao fechar o objeto devolvido.
+     *
+     * @param name nome da fase.
+     * @return fase em andamento.
+     */
+    public Phase begin(String name) {
+        return new Phase(name, System.nanoTime());
+    }
+
+    /**
+     * Executa uma ação como uma fase.
+     *
+     * @param name   nome da fase.
+     * @param action ação executada.
+     */
+    public void run(String name, Runnable action) {
+        try (Phase phase = begin(name)) {
+            action.run();
+        }
+    }
+
+    /**
+     * Executa uma ação como uma fase e devolve o seu resultado.
+     *
+     * @param name   nome da fase.
+     * @param action ação executada.
+     * @param <T>    tipo do resultado.
+     * @return resultado da ação.
+     */
+    public <T> T time(String name, Supplier<T> action) {
+        try (Phase phase = begin(name)) {
+            return action.get();
+        }
+    }
+
+    /**
+     * Registra um marco instantâneo.
+     *
+     * @param name nome do marco.
+     */
+    public void mark(String name) {
+        phases.add(new StartupPhase(name, Thread.currentThread().getName(), offset(System.nanoTime()), 0, true));
+    }
+
+    /**
+     * Retorna as fases registradas, ordenadas pelo início.
+     *
+     * @return fases e marcos registrados.
+     */
+    public List<StartupPhase> getPhases() {
+        List<StartupPhase> sorted = new ArrayList<>(phases);
+        sorted.sort(Comparator.comparingLong(StartupPhase::getStartNanos));
+        return sorted;
+    }
+
+    /**
+     * Monta o relatório das fases, uma por linha, com início e duração em
+     * milissegundos desde o início do processo.
+     *
+     * @return relatório em texto.
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append("Inicialização em ").append(origin).append(System.lineSeparator());
+        report.append(String.format(Locale.ROOT, "%-24s %12s %12s  %s%n", "fase", "início (ms)", "duração (ms)",
+                "thread"));
+        for (StartupPhase phase : getPhases()) {
+            report.append(String.format(Locale.ROOT, "%-24s %12.1f %12s  %s%n", phase.getName(),
+                    phase.getStartNanos() / 1e6,
+                    phase.isMilestone() ? "-" : String.format(Locale.ROOT, "%.1f", phase.getDurationNanos() / 1e6),
+                    phase.getThread() != null ? phase.getThread() : "-"));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Grava o relatório no arquivo, criando os diretórios necessários, e o
+     * registra no log da aplicação.
+     *
+     * @param file arquivo do relatório.
+     * @throws IOException caso o arquivo não possa ser gravado.
+     */
+    public void writeReport(Path file) throws IOException {
+        String report = report();
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(file, report, StandardCharsets.UTF_8);
+        LOG.info("Tempos de inicialização:{}{}", System.lineSeparator(), report);
+    }
+
+    private long offset(long nanos) {
+        return jvmNanos + (nanos - originNanos);
+    }
+
+    /**
+     * Fase em andamento; registrada ao ser fechada.
+     */
+    public final class Phase implements AutoCloseable {
+
+        private final String name;
+        private final long start;
+
+        private Phase(String name, long start) {
+            this.name = name;
+            this.start = start;
+        }
+
+        @Override
+        public void close() {
+            phases.add(new StartupPhase(name, Thread.currentThread().getName(), offset(start),
+                    System.nanoTime() - start, false));
+        }
+    }
+}
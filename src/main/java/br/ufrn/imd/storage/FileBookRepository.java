@@ -0,0 +1,343 @@
+package br.ufrn.imd.storage;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import br.ufrn.imd.dao.BookRepository;
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.dao.QueryHandle;
+import br.ufrn.imd.exception.DatabaseException;
+import br.ufrn.imd.journal.EntityType;
+import br.ufrn.imd.journal.MutationType;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.Loan;
+
+/**
+ * Repositório de livros do {@link FileStorageEngine}.
+ * <p>
+ * Segue as regras do banco: ISBN único, exemplares disponíveis entre zero e o
+ * total e nenhum livro removido enquanto tiver empréstimos. Os livros
+ * devolvidos são cópias, então alterá-los não altera o armazenamento.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+class FileBookRepository implements BookRepository {
+
+    private final FileStorageEngine engine;
+
+    FileBookRepository(FileStorageEngine engine) {
+        this.engine = engine;
+    }
+
+    @Override
+    public void create(Book book) {
+        engine.lock.writeLock().lock();
+        try {
+            if (book.getIsbn() != null && engine.booksByIsbn.containsKey(book.getIsbn())) {
+                throw new DatabaseException("Erro ao inserir livro: ISBN " + book.getIsbn() + " já cadastrado.");
+            }
+            Book stored = toInsert(book, engine.nextBookId());
+            engine.write(MutationType.CREATE, stored);
+            book.setId(stored.getId());
+        } finally {
+            engine.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int createAll(List<Book> books) {
+        engine.lock.writeLock().lock();
+        try {
+            Set<String> isbns = new HashSet<>();
+            for (Book book : books) {
+                if (book.getIsbn() != null
+                        && (engine.booksByIsbn.containsKey(book.getIsbn()) || !isbns.add(book.getIsbn()))) {
+                    throw new DatabaseException("Erro ao inserir lote de livros: ISBN " + book.getIsbn()
+                            + " já cadastrado.");
+                }
+            }
+
+            List<Book> stored = new ArrayList<>(books.size());
+            for (Book book : books) {
+                stored.add(toInsert(book, engine.nextBookId()));
+            }
+            writeAll(stored);
+            for (int i = 0; i < books.size(); i++) {
+                books.get(i).setId(stored.get(i).getId());
+            }
+            return books.size();
+        } finally {
+            engine.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int restoreAll(List<Book> books) {
+        engine.lock.writeLock().lock();
+        try {
+            Set<Long> ids = new HashSet<>();
+            Set<String> isbns = new HashSet<>();
+            for (Book book : books) {
+                if (engine.books.containsKey(book.getId()) || !ids.add(book.getId())) {
+                    throw new DatabaseException("Erro ao restaurar lote de livros: ID " + book.getId()
+                            + " já cadastrado.");
+                }
+                if (book.getIsbn() != null
+                        && (engine.booksByIsbn.containsKey(book.getIsbn()) || !isbns.add(book.getIsbn()))) {
+                    throw new DatabaseException("Erro ao restaurar lote de livros: ISBN " + book.getIsbn()
+                            + " já cadastrado.");
+                }
+            }
+
+            List<Book> stored = new ArrayList<>(books.size());
+            for (Book book : books) {
+                stored.add(toInsert(book, book.getId()));
+            }
+            writeAll(stored);
+            return books.size();
+        } finally {
+            engine.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Book findById(Long id) {
+        engine.lock.readLock().lock();
+        try {
+            return copy(engine.books.get(id));
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Book findByIsbn(String isbn) {
+        engine.lock.readLock().lock();
+        try {
+            Long id = engine.booksByIsbn.get(isbn);
+            return id != null ? copy(engine.books.get(id)) : null;
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Book> findAll() {
+        engine.lock.readLock().lock();
+        try {
+            List<Book> books = new ArrayList<>(engine.books.size());
+            for (Book book : engine.books.values()) {
+                books.add(copy(book));
+            }
+            return books;
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<Book> streamAll() {
+        return findAll().stream();
+    }
+
+    @Override
+    public void forEach(Consumer<Book> action) {
+        findAll().forEach(action);
+    }
+
+    @Override
+    public List<Book> searchBooks(String query) {
+        String term = query.toLowerCase(Locale.ROOT);
+        engine.lock.readLock().lock();
+        try {
+            List<Book> books = new ArrayList<>();
+            for (Book book : engine.books.values()) {
+                if (matches(book, term)) {
+                    books.add(copy(book));
+                }
+            }
+            return books;
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<Book> findPage(String cursor, int size) {
+        engine.lock.readLock().lock();
+        try {
+            return FileStorageEngine.page(engine.books, cursor, size, null, FileBookRepository::copy);
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String cursorAt(long position) {
+        engine.lock.readLock().lock();
+        try {
+            return FileStorageEngine.cursorAt(engine.books, position);
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<Book> searchBooksPage(String query, String cursor, int size, QueryHandle handle) {
+        String term = query.toLowerCase(Locale.ROOT);
+        engine.lock.readLock().lock();
+        try {
+            return FileStorageEngine.page(engine.books, cursor, size, book -> {
+                if (handle != null) {
+                    handle.checkActive();
+                }
+                return matches(book, term);
+            },
+                    FileBookRepository::copy);
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        engine.lock.readLock().lock();
+        try {
+            return engine.books.size();
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean exists() {
+        return count() > 0;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        engine.lock.readLock().lock();
+        try {
+            return engine.books.containsKey(id);
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(Long id, Book book) {
+        engine.lock.writeLock().lock();
+        try {
+            Book current = engine.books.get(id);
+            if (current == null) {
+                throw new DatabaseException("Nenhum livro foi atualizado.");
+            }
+            Long owner = book.getIsbn() != null ? engine.booksByIsbn.get(book.getIsbn()) : null;
+            if (owner != null && !owner.equals(id)) {
+                throw new DatabaseException("Erro ao atualizar livro: ISBN " + book.getIsbn() + " já cadastrado.");
+            }
+            int total = book.getTotalCopies() != null ? book.getTotalCopies() : current.getTotalCopies();
+            int available = current.getAvailableCopies() + (total - current.getTotalCopies());
+            if (available < 0) {
+                throw new DatabaseException("Erro ao atualizar livro: o total não pode ser menor que os exemplares emprestados.");
+            }
+
+            engine.write(MutationType.UPDATE, current.toBuilder()
+                    .title(book.getTitle())
+                    .author(book.getAuthor())
+                    .genre(book.getGenre())
+                    .publicationYear(book.getPublicationYear())
+                    .isbn(book.getIsbn())
+                    .totalCopies(total)
+                    .availableCopies(available)
+                    .isAvailable(available > 0)
+                    .build());
+        } finally {
+            engine.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        engine.lock.writeLock().lock();
+        try {
+            if (!engine.books.containsKey(id)) {
+                throw new DatabaseException("Nenhum livro foi deletado.");
+            }
+            for (Loan loan : engine.loans.values()) {
+                if (id.equals(loan.getBookId())) {
+                    throw new DatabaseException("Erro ao deletar livro: o livro possui empréstimos.");
+                }
+            }
+            engine.delete(EntityType.BOOK, id);
+        } finally {
+            engine.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Grava um lote de livros novos. Deve ser chamado com o bloqueio de
+     * escrita.
+     *
+     * @param stored livros a gravar, já validados.
+     * @throws DatabaseException caso ocorra um erro ao gravar o log; nenhum
+     *                           livro do lote permanece gravado.
+     */
+    private void writeAll(List<Book> stored) {
+        int written = 0;
+        try {
+            for (Book book : stored) {
+                engine.write(MutationType.CREATE, book);
+                written++;
+            }
+        } catch (DatabaseException e) {
+            // desfaz o que já foi gravado para manter o lote atômico
+            for (Book book : stored.subList(0, written)) {
+                engine.delete(EntityType.BOOK, book.getId());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Monta o livro a ser gravado na inclusão, com as mesmas regras do INSERT
+     * de {@link br.ufrn.imd.dao.BookDAO}: sem total informado, o livro tem um
+     * exemplar; sem quantidade disponível, todos os exemplares ficam
+     * disponíveis, a menos que o livro esteja marcado como indisponível.
+     *
+     * @param book livro informado.
+     * @param id   id gerado.
+     * @throws DatabaseException caso os exemplares sejam inválidos.
+     * @return livro a ser gravado.
+     */
+    private static Book toInsert(Book book, long id) {
+        int total = book.getTotalCopies() != null ? book.getTotalCopies() : 1;
+        int available = book.getAvailableCopies() != null
+                ? book.getAvailableCopies()
+                : Boolean.FALSE.equals(book.getIsAvailable()) ? 0 : total;
+        if (available < 0 || available > total) {
+            throw new DatabaseException("Erro ao inserir livro: exemplares disponíveis devem estar entre 0 e "
+                    + total + ".");
+        }
+        return book.toBuilder()
+                .id(id)
+                .totalCopies(total)
+                .availableCopies(available)
+                .isAvailable(available > 0)
+                .build();
+    }
+
+    private static boolean matches(Book book, String term) {
+        return FileStorageEngine.contains(book.getTitle(), term) || FileStorageEngine.contains(book.getAuthor(), term);
+    }
+
+    private static Book copy(Book book) {
+        return book != null ? book.toBuilder().build() : null;
+    }
+}
@@ -0,0 +1,359 @@
+package br.ufrn.imd.storage;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import br.ufrn.imd.dao.LoanRepository;
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.exception.BookUnavailableException;
+import br.ufrn.imd.exception.DatabaseException;
+import br.ufrn.imd.exception.ResourceNotFoundException;
+import br.ufrn.imd.journal.EntityType;
+import br.ufrn.imd.journal.MutationType;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.Loan;
+
+/**
+ * Repositório de empréstimos do {@link FileStorageEngine}.
+ * <p>
+ * Retiradas, devoluções e remoções alteram o estoque do livro sob o mesmo
+ * bloqueio de escrita, então nunca são reservados mais exemplares do que
+ * existem. Os empréstimos devolvidos são cópias.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+class FileLoanRepository implements LoanRepository {
+
+    private final FileStorageEngine engine;
+
+    FileLoanRepository(FileStorageEngine engine) {
+        this.engine = engine;
+    }
+
+    @Override
+    public void create(Loan loan) {
+        if (!Boolean.TRUE.equals(loan.getIsReturned())) {
+            checkout(loan);
+            return;
+        }
+
+        engine.lock.writeLock().lock();
+        try {
+            ensureReferences(loan, "Erro ao inserir empréstimo");
+            Loan stored = loan.toBuilder()
+                    .id(String.valueOf(engine.nextLoanId()))
+                    .build();
+            engine.write(MutationType.CREATE, stored);
+            loan.setId(stored.getId());
+        } finally {
+            engine.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int restoreAll(List<Loan> loans) {
+        engine.lock.writeLock().lock();
+        try {
+            Set<Long> ids = new HashSet<>();
+            for (Loan loan : loans) {
+                long id = Long.parseLong(loan.getId());
+                if (engine.loans.containsKey(id) || !ids.add(id)) {
+                    throw new DatabaseException("Erro ao restaurar lote de empréstimos: ID " + id + " já cadastrado.");
+                }
+                ensureReferences(loan, "Erro ao restaurar lote de empréstimos");
+            }
+
+            int written = 0;
+            try {
+                for (Loan loan : loans) {
+                    engine.write(MutationType.CREATE, loan.toBuilder()
+                            .isReturned(Boolean.TRUE.equals(loan.getIsReturned()))
+                            .build());
+                    written++;
+                }
+            } catch (DatabaseException e) {
+                // desfaz o que já foi gravado para manter o lote atômico
+                for (Loan loan : loans.subList(0, written)) {
+                    engine.delete(EntityType.LOAN, Long.parseLong(loan.getId()));
+                }
+                throw e;
+            }
+            return loans.size();
+        } finally {
+            engine.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void checkout(Loan loan) {
+        engine.lock.writeLock().lock();
+        try {
+            Book book = engine.books.get(loan.getBookId());
+            if (book == null || book.getAvailableCopies() <= 0) {
+                throw new BookUnavailableException("Livro com ID " + loan.getBookId() + " sem exemplares disponíveis.");
+            }
+            ensureReferences(loan, "Erro ao registrar empréstimo");
+
+            Loan stored = loan.toBuilder()
+                    .id(String.valueOf(engine.nextLoanId()))
+                    .returnDate(null)
+                    .isReturned(false)
+                    .build();
+            engine.write(MutationType.CREATE, stored);
+            engine.write(MutationType.UPDATE, withAvailable(book, book.getAvailableCopies() - 1));
+            loan.setId(stored.getId());
+            loan.setReturnDate(null);
+            loan.setIsReturned(false);
+        } finally {
+            engine.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Long returnLoan(Long id, LocalDate returnDate) {
+        engine.lock.writeLock().lock();
+        try {
+            Loan current = engine.loans.get(id);
+            if (current == null || Boolean.TRUE.equals(current.getIsReturned())) {
+                throw new ResourceNotFoundException("Empréstimo em aberto com ID " + id + " não encontrado.");
+            }
+            close(current, returnDate);
+            return current.getBookId();
+        } finally {
+            engine.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<Long, Loan> returnLoans(Map<Long, LocalDate> returns) {
+        Map<Long, Loan> previous = new LinkedHashMap<>();
+        engine.lock.writeLock().lock();
+        try {
+            for (Map.Entry<Long, LocalDate> entry : new TreeMap<>(returns).entrySet()) {
+                Loan current = engine.loans.get(entry.getKey());
+                if (current != null && !Boolean.TRUE.equals(current.getIsReturned())) {
+                    close(current, entry.getValue());
+                    previous.put(entry.getKey(), copy(current));
+                }
+            }
+            return previous;
+        } finally {
+            engine.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Loan findById(Long id) {
+        engine.lock.readLock().lock();
+        try {
+            return copy(engine.loans.get(id));
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Loan> findAll() {
+        return find(false);
+    }
+
+    @Override
+    public Stream<Loan> streamAll() {
+        return find(false).stream();
+    }
+
+    @Override
+    public Stream<Loan> streamOpen() {
+        return find(true).stream();
+    }
+
+    @Override
+    public void forEach(Consumer<Loan> action) {
+        find(false).forEach(action);
+    }
+
+    @Override
+    public Page<Loan> findPage(String cursor, int size) {
+        engine.lock.readLock().lock();
+        try {
+            return FileStorageEngine.page(engine.loans, cursor, size, null, FileLoanRepository::copy);
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String cursorAt(long position) {
+        engine.lock.readLock().lock();
+        try {
+            return FileStorageEngine.cursorAt(engine.loans, position);
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        engine.lock.readLock().lock();
+        try {
+            return engine.loans.size();
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean exists() {
+        return count() > 0;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        engine.lock.readLock().lock();
+        try {
+            return engine.loans.containsKey(id);
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(Long id, Loan loan) {
+        engine.lock.writeLock().lock();
+        try {
+            Loan previous = engine.loans.get(id);
+            if (previous == null) {
+                throw new DatabaseException("Nenhum empréstimo foi atualizado.");
+            }
+            ensureReferences(loan, "Erro ao atualizar empréstimo");
+            moveCopies(previous, loan);
+            engine.write(MutationType.UPDATE, loan.toBuilder()
+                    .id(String.valueOf(id))
+                    .isReturned(Boolean.TRUE.equals(loan.getIsReturned()))
+                    .build());
+        } finally {
+            engine.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        engine.lock.writeLock().lock();
+        try {
+            Loan current = engine.loans.get(id);
+            if (current == null) {
+                throw new DatabaseException("Nenhum empréstimo foi deletado.");
+            }
+            engine.delete(EntityType.LOAN, id);
+            if (!Boolean.TRUE.equals(current.getIsReturned())) {
+                releaseCopy(current.getBookId());
+            }
+        } finally {
+            engine.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Marca o empréstimo como devolvido e devolve o exemplar ao estoque. Deve
+     * ser chamado com o bloqueio de escrita.
+     *
+     * @param current    empréstimo em aberto.
+     * @param returnDate data da devolução.
+     */
+    private void close(Loan current, LocalDate returnDate) {
+        engine.write(MutationType.UPDATE, current.toBuilder().returnDate(returnDate).isReturned(true).build());
+        releaseCopy(current.getBookId());
+    }
+
+    /**
+     * Ajusta o estoque quando a atualização reabre, devolve ou troca o livro
+     * do empréstimo, como o {@code LoanDAO}: reserva um exemplar do livro
+     * novo, se o empréstimo passa a ficar em aberto nele, e devolve o do
+     * livro anterior, se deixa de ficar. Deve ser chamado com o bloqueio de
+     * escrita, antes de gravar o empréstimo.
+     *
+     * @param previous empréstimo gravado.
+     * @param loan     novos dados do empréstimo.
+     * @throws BookUnavailableException caso o livro novo não tenha exemplares
+     *                                  disponíveis.
+     */
+    private void moveCopies(Loan previous, Loan loan) {
+        boolean wasOpen = !Boolean.TRUE.equals(previous.getIsReturned());
+        boolean isOpen = !Boolean.TRUE.equals(loan.getIsReturned());
+        boolean sameBook = previous.getBookId().equals(loan.getBookId());
+        boolean release = wasOpen && (!isOpen || !sameBook);
+        boolean reserve = isOpen && (!wasOpen || !sameBook);
+        if (reserve) {
+            Book book = engine.books.get(loan.getBookId());
+            if (book.getAvailableCopies() <= 0) {
+                throw new BookUnavailableException(
+                        "Livro com ID " + loan.getBookId() + " sem exemplares disponíveis.");
+            }
+            engine.write(MutationType.UPDATE, withAvailable(book, book.getAvailableCopies() - 1));
+        }
+        if (release) {
+            releaseCopy(previous.getBookId());
+        }
+    }
+
+    /**
+     * Devolve um exemplar do livro ao estoque, sem ultrapassar o total.
+     *
+     * @param bookId id do livro.
+     */
+    private void releaseCopy(Long bookId) {
+        Book book = engine.books.get(bookId);
+        if (book != null && book.getAvailableCopies() < book.getTotalCopies()) {
+            engine.write(MutationType.UPDATE, withAvailable(book, book.getAvailableCopies() + 1));
+        }
+    }
+
+    /**
+     * Verifica se o usuário e o livro do empréstimo existem, como as chaves
+     * estrangeiras do banco.
+     *
+     * @param loan    empréstimo a ser gravado.
+     * @param message início da mensagem de erro.
+     * @throws DatabaseException caso o usuário ou o livro não existam.
+     */
+    private void ensureReferences(Loan loan, String message) {
+        if (!engine.users.containsKey(loan.getUserId())) {
+            throw new DatabaseException(message + ": usuário com ID " + loan.getUserId() + " não existe.");
+        }
+        if (!engine.books.containsKey(loan.getBookId())) {
+            throw new DatabaseException(message + ": livro com ID " + loan.getBookId() + " não existe.");
+        }
+    }
+
+    private List<Loan> find(boolean openOnly) {
+        engine.lock.readLock().lock();
+        try {
+            List<Loan> loans = new ArrayList<>();
+            for (Loan loan : engine.loans.values()) {
+                if (!openOnly || !Boolean.TRUE.equals(loan.getIsReturned())) {
+                    loans.add(copy(loan));
+                }
+            }
+            return loans;
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    private static Book withAvailable(Book book, int available) {
+        return book.toBuilder().availableCopies(available).isAvailable(available > 0).build();
+    }
+
+    private static Loan copy(Loan loan) {
+        return loan != null ? loan.toBuilder().build() : null;
+    }
+}
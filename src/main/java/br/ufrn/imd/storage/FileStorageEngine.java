@@ -0,0 +1,461 @@
+package br.ufrn.imd.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+import br.ufrn.imd.dao.BookRepository;
+import br.ufrn.imd.dao.LoanRepository;
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.dao.UserRepository;
+import br.ufrn.imd.exception.DatabaseException;
+import br.ufrn.imd.journal.EntityType;
+import br.ufrn.imd.journal.JournalConfig;
+import br.ufrn.imd.journal.JournalRecord;
+import br.ufrn.imd.journal.MutationJournal;
+import br.ufrn.imd.journal.MutationType;
+import br.ufrn.imd.logging.Logger;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.Loan;
+import br.ufrn.imd.model.User;
+import br.ufrn.imd.snapshot.SnapshotData;
+import br.ufrn.imd.snapshot.SnapshotInfo;
+import br.ufrn.imd.snapshot.SnapshotReader;
+import br.ufrn.imd.snapshot.SnapshotWriter;
+
+/**
+ * Mecanismo de armazenamento embarcado, sem servidor de banco de dados.
+ * <p>
+ * As tabelas ficam em memória, em árvores ordenadas por id, que atendem as
+ * buscas por id e a paginação por chave, com índices de hash únicos para o
+ * ISBN dos livros e o e-mail dos usuários. A durabilidade vem de um
+ * {@link MutationJournal} em {@code <diretório>/log}: cada escrita grava o
+ * estado completo das entidades alteradas antes de alterá-las em memória, e a
+ * abertura reconstrói as tabelas relendo o log.
+ * <p>
+ * Para o log não crescer sem limite, o mecanismo grava periodicamente um
+ * checkpoint: o estado de todas as entidades é gravado em um snapshot binário
+ * em {@code <diretório>/snapshot}, com a posição do log correspondente, e os
+ * segmentos anteriores a essa posição são removidos. A abertura carrega o
+ * snapshot, com as tabelas decodificadas em paralelo, e relê apenas o log
+ * gravado depois dele. O checkpoint ocorre quando o log passa do dobro do
+ * tamanho do último snapshot, ou ao chamar {@link #compact()}.
+ * <p>
+ * As leituras rodam em paralelo; as escritas são serializadas. Operações que
+ * alteram mais de uma entidade, como a retirada de um livro, gravam um
+ * registro por entidade, o empréstimo antes do livro; uma falha de E/S entre
+ * eles pode deixar apenas parte da operação gravada no log.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class FileStorageEngine implements StorageEngine {
+
+    /** Nome do mecanismo em arquivo. */
+    public static final String NAME = "file";
+
+    private static final Logger LOG = Logger.getLogger(FileStorageEngine.class);
+    private static final String LOG_DIRECTORY = "log";
+    private static final String SNAPSHOT_FILE = "snapshot";
+
+    final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    final TreeMap<Long, Book> books = new TreeMap<>();
+    final Map<String, Long> booksByIsbn = new HashMap<>();
+    final TreeMap<Long, User> users = new TreeMap<>();
+    final Map<String, Long> usersByEmail = new HashMap<>();
+    final TreeMap<Long, Loan> loans = new TreeMap<>();
+
+    private final StorageConfig config;
+    private final Path snapshotFile;
+    private final MutationJournal journal;
+    private final FileBookRepository bookRepository;
+    private final FileUserRepository userRepository;
+    private final FileLoanRepository loanRepository;
+    private long lastBookId;
+    private long lastUserId;
+    private long lastLoanId;
+    private long checkpointOffset;
+    private long compactThreshold;
+
+    /**
+     * Abre o mecanismo no diretório configurado, criando-o caso não exista, e
+     * carrega as tabelas a partir do snapshot e do log.
+     *
+     * @param config configuração do armazenamento.
+     * @throws DatabaseException caso os arquivos não possam ser abertos ou
+     *                           lidos.
+     */
+    public FileStorageEngine(StorageConfig config) {
+        this.config = config;
+        this.snapshotFile = config.getDirectory().resolve(SNAPSHOT_FILE);
+        try {
+            this.journal = new MutationJournal(JournalConfig.builder()
+                    .directory(config.getDirectory().resolve(LOG_DIRECTORY))
+                    .segmentSize(config.getSegmentSize())
+                    .forceOnAppend(config.isForceOnWrite())
+                    .build());
+        } catch (UncheckedIOException e) {
+            LOG.error("Erro ao abrir o armazenamento em {}", config.getDirectory(), e);
+            throw new DatabaseException("Erro ao abrir o armazenamento em " + config.getDirectory() + ": "
+                    + e.getMessage());
+        }
+        try {
+            load();
+        } catch (RuntimeException e) {
+            journal.close();
+            LOG.error("Erro ao carregar o armazenamento em {}", config.getDirectory(), e);
+            throw new DatabaseException("Erro ao carregar o armazenamento em " + config.getDirectory() + ": "
+                    + e.getMessage());
+        }
+        this.bookRepository = new FileBookRepository(this);
+        this.userRepository = new FileUserRepository(this);
+        this.loanRepository = new FileLoanRepository(this);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public BookRepository books() {
+        return bookRepository;
+    }
+
+    @Override
+    public UserRepository users() {
+        return userRepository;
+    }
+
+    @Override
+    public LoanRepository loans() {
+        return loanRepository;
+    }
+
+    /**
+     * Grava um checkpoint imediatamente, removendo do log os segmentos que
+     * deixaram de ser necessários.
+     *
+     * @throws DatabaseException caso ocorra um erro ao gravar o checkpoint.
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            checkpoint();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Força as escritas ao disco e fecha o log.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            journal.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    long nextBookId() {
+        return ++lastBookId;
+    }
+
+    long nextUserId() {
+        return ++lastUserId;
+    }
+
+    long nextLoanId() {
+        return ++lastLoanId;
+    }
+
+    /**
+     * Grava no log o estado de um livro e o aplica à tabela. Deve ser chamado
+     * com o bloqueio de escrita.
+     *
+     * @param mutation tipo da mutação.
+     * @param book     estado completo do livro.
+     * @throws DatabaseException caso ocorra um erro ao gravar o log.
+     */
+    void write(MutationType mutation, Book book) {
+        try {
+            journal.append(mutation, book);
+        } catch (RuntimeException e) {
+            throw writeFailed(e);
+        }
+        putBook(book);
+        written();
+    }
+
+    /**
+     * Grava no log o estado de um usuário e o aplica à tabela. Deve ser
+     * chamado com o bloqueio de escrita.
+     *
+     * @param mutation tipo da mutação.
+     * @param user     estado completo do usuário.
+     * @throws DatabaseException caso ocorra um erro ao gravar o log.
+     */
+    void write(MutationType mutation, User user) {
+        try {
+            journal.append(mutation, user);
+        } catch (RuntimeException e) {
+            throw writeFailed(e);
+        }
+        putUser(user);
+        written();
+    }
+
+    /**
+     * Grava no log o estado de um empréstimo e o aplica à tabela. Deve ser
+     * chamado com o bloqueio de escrita.
+     *
+     * @param mutation tipo da mutação.
+     * @param loan     estado completo do empréstimo.
+     * @throws DatabaseException caso ocorra um erro ao gravar o log.
+     */
+    void write(MutationType mutation, Loan loan) {
+        try {
+            journal.append(mutation, loan);
+        } catch (RuntimeException e) {
+            throw writeFailed(e);
+        }
+        putLoan(loan);
+        written();
+    }
+
+    /**
+     * Grava no log a remoção de uma entidade e a aplica à tabela. Deve ser
+     * chamado com o bloqueio de escrita.
+     *
+     * @param entity tabela alterada.
+     * @param id     id da entidade removida.
+     * @throws DatabaseException caso ocorra um erro ao gravar o log.
+     */
+    void delete(EntityType entity, long id) {
+        try {
+            journal.appendDelete(entity, id);
+        } catch (RuntimeException e) {
+            throw writeFailed(e);
+        }
+        remove(entity, id);
+        written();
+    }
+
+    /**
+     * Busca uma página por chave em uma tabela ordenada por id.
+     *
+     * @param table  tabela consultada.
+     * @param cursor cursor da página anterior, ou null para a primeira.
+     * @param size   quantidade máxima de itens.
+     * @param filter filtro dos itens, ou null para todos.
+     * @param copy   cria a cópia devolvida de cada item.
+     * @param <T>    tipo dos itens.
+     * @throws IllegalArgumentException caso o cursor seja inválido.
+     * @return página encontrada.
+     */
+    static <T> Page<T> page(NavigableMap<Long, T> table, String cursor, int size, Predicate<T> filter,
+            UnaryOperator<T> copy) {
+        long afterId = Page.decodeCursor(cursor);
+        List<T> items = new ArrayList<>(size);
+        long lastId = 0;
+        for (Map.Entry<Long, T> entry : table.tailMap(afterId, false).entrySet()) {
+            if (filter != null && !filter.test(entry.getValue())) {
+                continue;
+            }
+            if (items.size() == size) {
+                return new Page<>(items, Page.encodeCursor(lastId));
+            }
+            items.add(copy.apply(entry.getValue()));
+            lastId = entry.getKey();
+        }
+        return new Page<>(items, null);
+    }
+
+    /**
+     * Calcula o cursor da página que começa na posição informada de uma
+     * tabela ordenada por id. Percorre as chaves pela ponta mais próxima da
+     * posição.
+     *
+     * @param table    tabela consultada.
+     * @param position posição do primeiro item da página, a partir de zero.
+     * @throws IllegalArgumentException caso a posição seja negativa.
+     * @return cursor da página, null para a primeira página ou um cursor de
+     *         página vazia caso a posição passe do fim.
+     */
+    static String cursorAt(NavigableMap<Long, ?> table, long position) {
+        if (position < 0) {
+            throw new IllegalArgumentException("A posição não pode ser negativa.");
+        }
+        if (position == 0) {
+            return null;
+        }
+        if (position > table.size()) {
+            return Page.encodeCursor(Long.MAX_VALUE);
+        }
+        boolean fromStart = position <= table.size() / 2;
+        long steps = fromStart ? position - 1 : table.size() - position;
+        Iterator<Long> ids = fromStart ? table.navigableKeySet().iterator()
+                : table.descendingKeySet().iterator();
+        for (long i = 0; i < steps; i++) {
+            ids.next();
+        }
+        return Page.encodeCursor(ids.next());
+    }
+
+    /**
+     * Verifica se o texto contém o termo buscado, sem diferenciar maiúsculas,
+     * como o {@code LIKE '%termo%'} do banco.
+     *
+     * @param text  texto do campo, possivelmente nulo.
+     * @param query termo já convertido para minúsculas.
+     * @return true caso o texto contenha o termo.
+     */
+    static boolean contains(String text, String query) {
+        return text != null && text.toLowerCase(Locale.ROOT).contains(query);
+    }
+
+    private void load() {
+        long start = journal.getStartOffset();
+        long snapshotSize = 0;
+        if (Files.exists(snapshotFile)) {
+            try (SnapshotReader reader = SnapshotReader.open(snapshotFile)) {
+                SnapshotData data = reader.readAll();
+                data.getBooks().forEach(this::putBook);
+                data.getUsers().forEach(this::putUser);
+                data.getLoans().forEach(this::putLoan);
+                start = Math.max(start, data.getInfo().getPosition());
+                snapshotSize = data.getInfo().getSize();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        journal.replay(start, this::apply);
+        checkpointOffset = start;
+        compactThreshold = Math.max(config.getSegmentSize(), 2 * snapshotSize);
+        LOG.debug("Armazenamento carregado de {}: {} livros, {} usuários, {} empréstimos", config.getDirectory(),
+                books.size(), users.size(), loans.size());
+    }
+
+    private void apply(JournalRecord record) {
+        if (record.getMutation() == MutationType.DELETE) {
+            remove(record.getEntity(), record.getEntityId());
+            return;
+        }
+        switch (record.getEntity()) {
+            case BOOK:
+                putBook(record.toBook());
+                break;
+            case USER:
+                putUser(record.toUser());
+                break;
+            case LOAN:
+                putLoan(record.toLoan());
+                break;
+        }
+    }
+
+    private void putBook(Book book) {
+        Book previous = books.put(book.getId(), book);
+        if (previous != null && previous.getIsbn() != null) {
+            booksByIsbn.remove(previous.getIsbn(), previous.getId());
+        }
+        if (book.getIsbn() != null) {
+            booksByIsbn.put(book.getIsbn(), book.getId());
+        }
+        lastBookId = Math.max(lastBookId, book.getId());
+    }
+
+    private void putUser(User user) {
+        User previous = users.put(user.getId(), user);
+        if (previous != null && previous.getEmail() != null) {
+            usersByEmail.remove(previous.getEmail(), previous.getId());
+        }
+        if (user.getEmail() != null) {
+            usersByEmail.put(user.getEmail(), user.getId());
+        }
+        lastUserId = Math.max(lastUserId, user.getId());
+    }
+
+    private void putLoan(Loan loan) {
+        long id = Long.parseLong(loan.getId());
+        loans.put(id, loan);
+        lastLoanId = Math.max(lastLoanId, id);
+    }
+
+    private void remove(EntityType entity, long id) {
+        switch (entity) {
+            case BOOK:
+                Book book = books.remove(id);
+                if (book != null && book.getIsbn() != null) {
+                    booksByIsbn.remove(book.getIsbn(), id);
+                }
+                break;
+            case USER:
+                User user = users.remove(id);
+                if (user != null && user.getEmail() != null) {
+                    usersByEmail.remove(user.getEmail(), id);
+                }
+                break;
+            case LOAN:
+                loans.remove(id);
+                break;
+        }
+    }
+
+    /**
+     * Grava um checkpoint caso o log tenha crescido o bastante desde o
+     * último. A escrita que o disparou já está gravada, então uma falha é
+     * apenas registrada no log da aplicação.
+     */
+    private void written() {
+        if (journal.getEndOffset() - checkpointOffset <= compactThreshold) {
+            return;
+        }
+        try {
+            checkpoint();
+        } catch (RuntimeException e) {
+            LOG.error("Erro ao gravar checkpoint do armazenamento", e);
+            compactThreshold *= 2;
+        }
+    }
+
+    /**
+     * Grava o estado atual em um snapshot, com a posição atual do log, e
+     * remove os segmentos anteriores a ela. O snapshot substitui o anterior
+     * apenas depois de forçado ao disco, então uma falha no meio mantém o
+     * checkpoint anterior e o log que o acompanha.
+     */
+    private void checkpoint() {
+        long position = journal.getEndOffset();
+        SnapshotInfo info;
+        try {
+            info = SnapshotWriter.write(snapshotFile, position, books.values(), users.values(), loans.values());
+        } catch (IOException | RuntimeException e) {
+            throw writeFailed(e);
+        }
+        checkpointOffset = position;
+        compactThreshold = Math.max(config.getSegmentSize(), 2 * info.getSize());
+        int deleted = journal.deleteSegmentsBefore(position);
+        LOG.debug("Checkpoint do armazenamento na posição {}; {} segmentos removidos", position, deleted);
+    }
+
+    private DatabaseException writeFailed(Exception e) {
+        LOG.error("Erro ao gravar no armazenamento em {}", config.getDirectory(), e);
+        return new DatabaseException("Erro ao gravar no armazenamento: " + e.getMessage());
+    }
+}
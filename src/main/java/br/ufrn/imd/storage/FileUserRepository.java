@@ -0,0 +1,261 @@
+package br.ufrn.imd.storage;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.dao.QueryHandle;
+import br.ufrn.imd.dao.UserRepository;
+import br.ufrn.imd.exception.DatabaseException;
+import br.ufrn.imd.journal.EntityType;
+import br.ufrn.imd.journal.MutationType;
+import br.ufrn.imd.model.Loan;
+import br.ufrn.imd.model.User;
+
+/**
+ * Repositório de usuários do {@link FileStorageEngine}.
+ * <p>
+ * Segue as regras do banco: e-mail único e nenhum usuário removido enquanto
+ * tiver empréstimos. Os usuários devolvidos são cópias.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+class FileUserRepository implements UserRepository {
+
+    private final FileStorageEngine engine;
+
+    FileUserRepository(FileStorageEngine engine) {
+        this.engine = engine;
+    }
+
+    @Override
+    public void create(User user) {
+        engine.lock.writeLock().lock();
+        try {
+            if (user.getEmail() != null && engine.usersByEmail.containsKey(user.getEmail())) {
+                throw new DatabaseException("Erro ao inserir usuário: e-mail " + user.getEmail() + " já cadastrado.");
+            }
+            User stored = user.toBuilder().id(engine.nextUserId()).build();
+            engine.write(MutationType.CREATE, stored);
+            user.setId(stored.getId());
+        } finally {
+            engine.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int restoreAll(List<User> users) {
+        engine.lock.writeLock().lock();
+        try {
+            Set<Long> ids = new HashSet<>();
+            Set<String> emails = new HashSet<>();
+            for (User user : users) {
+                if (engine.users.containsKey(user.getId()) || !ids.add(user.getId())) {
+                    throw new DatabaseException("Erro ao restaurar lote de usuários: ID " + user.getId()
+                            + " já cadastrado.");
+                }
+                if (user.getEmail() != null
+                        && (engine.usersByEmail.containsKey(user.getEmail()) || !emails.add(user.getEmail()))) {
+                    throw new DatabaseException("Erro ao restaurar lote de usuários: e-mail " + user.getEmail()
+                            + " já cadastrado.");
+                }
+            }
+
+            int written = 0;
+            try {
+                for (User user : users) {
+                    engine.write(MutationType.CREATE, user.toBuilder().build());
+                    written++;
+                }
+            } catch (DatabaseException e) {
+                // desfaz o que já foi gravado para manter o lote atômico
+                for (User user : users.subList(0, written)) {
+                    engine.delete(EntityType.USER, user.getId());
+                }
+                throw e;
+            }
+            return users.size();
+        } finally {
+            engine.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public User findById(Long id) {
+        engine.lock.readLock().lock();
+        try {
+            return copy(engine.users.get(id));
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public User findByEmail(String email) {
+        engine.lock.readLock().lock();
+        try {
+            Long id = engine.usersByEmail.get(email);
+            return id != null ? copy(engine.users.get(id)) : null;
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<User> findAll() {
+        engine.lock.readLock().lock();
+        try {
+            List<User> users = new ArrayList<>(engine.users.size());
+            for (User user : engine.users.values()) {
+                users.add(copy(user));
+            }
+            return users;
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<User> streamAll() {
+        return findAll().stream();
+    }
+
+    @Override
+    public void forEach(Consumer<User> action) {
+        findAll().forEach(action);
+    }
+
+    @Override
+    public List<User> searchUsers(String query) {
+        String term = query.toLowerCase(Locale.ROOT);
+        engine.lock.readLock().lock();
+        try {
+            List<User> users = new ArrayList<>();
+            for (User user : engine.users.values()) {
+                if (matches(user, term)) {
+                    users.add(copy(user));
+                }
+            }
+            return users;
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<User> findPage(String cursor, int size) {
+        engine.lock.readLock().lock();
+        try {
+            return FileStorageEngine.page(engine.users, cursor, size, null, FileUserRepository::copy);
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String cursorAt(long position) {
+        engine.lock.readLock().lock();
+        try {
+            return FileStorageEngine.cursorAt(engine.users, position);
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<User> searchUsersPage(String query, String cursor, int size, QueryHandle handle) {
+        String term = query.toLowerCase(Locale.ROOT);
+        engine.lock.readLock().lock();
+        try {
+            return FileStorageEngine.page(engine.users, cursor, size, user -> {
+                if (handle != null) {
+                    handle.checkActive();
+                }
+                return matches(user, term);
+            },
+                    FileUserRepository::copy);
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long count() {
+        engine.lock.readLock().lock();
+        try {
+            return engine.users.size();
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean exists() {
+        return count() > 0;
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        engine.lock.readLock().lock();
+        try {
+            return engine.users.containsKey(id);
+        } finally {
+            engine.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(Long id, User user) {
+        engine.lock.writeLock().lock();
+        try {
+            User current = engine.users.get(id);
+            if (current == null) {
+                throw new DatabaseException("Nenhum usuário foi atualizado.");
+            }
+            Long owner = user.getEmail() != null ? engine.usersByEmail.get(user.getEmail()) : null;
+            if (owner != null && !owner.equals(id)) {
+                throw new DatabaseException("Erro ao atualizar usuário: e-mail " + user.getEmail() + " já cadastrado.");
+            }
+            engine.write(MutationType.UPDATE, current.toBuilder()
+                    .name(user.getName())
+                    .email(user.getEmail())
+                    .phoneNumber(user.getPhoneNumber())
+                    .build());
+        } finally {
+            engine.lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(Long id) {
+        engine.lock.writeLock().lock();
+        try {
+            if (!engine.users.containsKey(id)) {
+                throw new DatabaseException("Nenhum usuário foi deletado.");
+            }
+            for (Loan loan : engine.loans.values()) {
+                if (id.equals(loan.getUserId())) {
+                    throw new DatabaseException("Erro ao deletar usuário: o usuário possui empréstimos.");
+                }
+            }
+            engine.delete(EntityType.USER, id);
+        } finally {
+            engine.lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean matches(User user, String term) {
+        return FileStorageEngine.contains(user.getName(), term) || FileStorageEngine.contains(user.getEmail(), term)
+                || FileStorageEngine.contains(user.getPhoneNumber(), term);
+    }
+
+    private static User copy(User user) {
+        return user != null ? user.toBuilder().build() : null;
+    }
+}
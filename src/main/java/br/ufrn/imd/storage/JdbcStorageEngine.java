@@ -0,0 +1,73 @@
+package br.ufrn.imd.storage;
+
+import javax.sql.DataSource;
+
+import br.ufrn.imd.dao.BookDAO;
+import br.ufrn.imd.dao.LoanDAO;
+import br.ufrn.imd.dao.UserDAO;
+import br.ufrn.imd.database.DatabaseConnection;
+
+/**
+ * Mecanismo de armazenamento sobre o banco relacional, usando os DAOs JDBC.
+ * <p>
+ * O pool de conexões pertence a quem o criou, então {@link #close()} não o
+ * fecha.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class JdbcStorageEngine implements StorageEngine {
+
+    /** Nome do mecanismo JDBC. */
+    public static final String NAME = "jdbc";
+
+    private final BookDAO books;
+    private final UserDAO users;
+    private final LoanDAO loans;
+
+    /**
+     * Cria o mecanismo a partir da configuração.
+     *
+     * @param config configuração do armazenamento; sem {@code dataSource}, usa
+     *               o pool de {@link DatabaseConnection}.
+     */
+    public JdbcStorageEngine(StorageConfig config) {
+        this(config.getDataSource() != null ? config.getDataSource() : DatabaseConnection.getDataSource());
+    }
+
+    /**
+     * Cria o mecanismo sobre uma origem de conexões.
+     *
+     * @param dataSource origem das conexões.
+     */
+    public JdbcStorageEngine(DataSource dataSource) {
+        this.books = new BookDAO(dataSource);
+        this.users = new UserDAO(dataSource);
+        this.loans = new LoanDAO(dataSource);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public BookDAO books() {
+        return books;
+    }
+
+    @Override
+    public UserDAO users() {
+        return users;
+    }
+
+    @Override
+    public LoanDAO loans() {
+        return loans;
+    }
+
+    @Override
+    public void close() {
+        // o pool de conexões é compartilhado e fechado por quem o criou
+    }
+}
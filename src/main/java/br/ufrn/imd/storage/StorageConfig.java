@@ -0,0 +1,77 @@
+package br.ufrn.imd.storage;
+
+import java.nio.file.Path;
+
+import javax.sql.DataSource;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Configuração do mecanismo de armazenamento.
+ * <p>
+ * Sem valores explícitos, o mecanismo e o diretório vêm das propriedades de
+ * sistema {@value #ENGINE_PROPERTY} e {@value #DIRECTORY_PROPERTY}, por exemplo
+ * {@code -Dlibrary.storage=file -Dlibrary.storage.dir=/var/lib/library}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public class StorageConfig {
+
+    /** Propriedade de sistema com o nome do mecanismo padrão. */
+    public static final String ENGINE_PROPERTY = "library.storage";
+
+    /** Propriedade de sistema com o diretório padrão do mecanismo em arquivo. */
+    public static final String DIRECTORY_PROPERTY = "library.storage.dir";
+
+    /**
+     * Nome do mecanismo: {@value JdbcStorageEngine#NAME}, {@value FileStorageEngine#NAME}
+     * ou o de um {@link StorageEngineProvider} registrado.
+     */
+    @Builder.Default
+    private final String engine = System.getProperty(ENGINE_PROPERTY, JdbcStorageEngine.NAME);
+
+    /**
+     * Origem das conexões do mecanismo JDBC, ou null para usar o pool de
+     * {@link br.ufrn.imd.database.DatabaseConnection}.
+     */
+    private final DataSource dataSource;
+
+    /** Diretório dos arquivos do mecanismo em arquivo. */
+    @Builder.Default
+    private final Path directory = Path.of(System.getProperty(DIRECTORY_PROPERTY, "data"));
+
+    /** Tamanho de cada segmento do log do mecanismo em arquivo, em bytes. */
+    @Builder.Default
+    private final int segmentSize = 16 * 1024 * 1024;
+
+    /**
+     * Indica se cada escrita do mecanismo em arquivo deve ser forçada ao disco
+     * antes de retornar. Sem isso, as escritas sobrevivem a uma falha do
+     * processo, mas não a uma queda do sistema operacional.
+     */
+    @Builder.Default
+    private final boolean forceOnWrite = false;
+
+    /**
+     * Valida os valores da configuração.
+     *
+     * @throws IllegalArgumentException caso algum valor seja inválido.
+     */
+    void validate() {
+        if (engine == null || engine.isBlank()) {
+            throw new IllegalArgumentException("O mecanismo de armazenamento é obrigatório.");
+        }
+        if (directory == null) {
+            throw new IllegalArgumentException("O diretório de armazenamento é obrigatório.");
+        }
+        if (segmentSize < 4096) {
+            throw new IllegalArgumentException("O segmento do log deve ter ao menos 4096 bytes.");
+        }
+    }
+}
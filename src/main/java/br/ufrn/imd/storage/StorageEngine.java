@@ -0,0 +1,86 @@
+package br.ufrn.imd.storage;
+
+import java.util.Locale;
+import java.util.ServiceLoader;
+
+import br.ufrn.imd.dao.BookRepository;
+import br.ufrn.imd.dao.LoanRepository;
+import br.ufrn.imd.dao.UserRepository;
+import br.ufrn.imd.exception.DatabaseException;
+
+/**
+ * Mecanismo de armazenamento: fornece os repositórios de livros, usuários e
+ * empréstimos usados pelos serviços.
+ * <p>
+ * Há dois mecanismos embutidos: {@value JdbcStorageEngine#NAME}, sobre o banco
+ * MySQL, e {@value FileStorageEngine#NAME}, embarcado em arquivos locais.
+ * Outros podem ser registrados como {@link StorageEngineProvider} pelo
+ * {@link ServiceLoader}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public interface StorageEngine extends AutoCloseable {
+
+    /**
+     * Nome do mecanismo, como informado em {@link StorageConfig#getEngine()}.
+     *
+     * @return nome do mecanismo.
+     */
+    String getName();
+
+    /**
+     * Repositório de livros.
+     *
+     * @return repositório de livros.
+     */
+    BookRepository books();
+
+    /**
+     * Repositório de usuários.
+     *
+     * @return repositório de usuários.
+     */
+    UserRepository users();
+
+    /**
+     * Repositório de empréstimos.
+     *
+     * @return repositório de empréstimos.
+     */
+    LoanRepository loans();
+
+    /**
+     * Libera os recursos do mecanismo. Os repositórios não devem ser usados
+     * depois disso.
+     */
+    @Override
+    void close();
+
+    /**
+     * Abre o mecanismo de armazenamento escolhido na configuração.
+     *
+     * @param config configuração do armazenamento.
+     * @throws IllegalArgumentException caso a configuração seja inválida ou o
+     *                                  mecanismo seja desconhecido.
+     * @throws DatabaseException        caso o mecanismo não possa ser aberto.
+     * @return mecanismo aberto.
+     */
+    static StorageEngine open(StorageConfig config) {
+        config.validate();
+        String name = config.getEngine().trim().toLowerCase(Locale.ROOT);
+        switch (name) {
+            case JdbcStorageEngine.NAME:
+                return new JdbcStorageEngine(config);
+            case FileStorageEngine.NAME:
+                return new FileStorageEngine(config);
+            default:
+                for (StorageEngineProvider provider : ServiceLoader.load(StorageEngineProvider.class)) {
+                    if (provider.getName().equalsIgnoreCase(name)) {
+                        return provider.open(config);
+                    }
+                }
+                throw new IllegalArgumentException("Mecanismo de armazenamento desconhecido: " + config.getEngine());
+        }
+    }
+}
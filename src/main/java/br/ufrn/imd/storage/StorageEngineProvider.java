@@ -0,0 +1,27 @@
+package br.ufrn.imd.storage;
+
+/**
+ * Fornecedor de um mecanismo de armazenamento externo, descoberto pelo
+ * {@link java.util.ServiceLoader} quando {@link StorageConfig#getEngine()}
+ * não é um dos mecanismos embutidos.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public interface StorageEngineProvider {
+
+    /**
+     * Nome do mecanismo fornecido, comparado sem diferenciar maiúsculas.
+     *
+     * @return nome do mecanismo.
+     */
+    String getName();
+
+    /**
+     * Abre o mecanismo.
+     *
+     * @param config configuração do armazenamento, já validada.
+     * @return mecanismo aberto.
+     */
+    StorageEngine open(StorageConfig config);
+}
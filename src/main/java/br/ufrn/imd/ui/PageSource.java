@@ -0,0 +1,119 @@
+package br.ufrn.imd.ui;
+
+import br.ufrn.imd.dao.BookRepository;
+import br.ufrn.imd.dao.LoanRepository;
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.dao.UserRepository;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.Loan;
+import br.ufrn.imd.model.User;
+
+/**
+ * Origem das páginas de uma {@link PagedList}: uma tabela ordenada por id,
+ * paginada por chave.
+ *
+ * @param <T> tipo dos itens
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public interface PageSource<T> {
+
+    /**
+     * Conta os itens da tabela.
+     *
+     * @return quantidade de itens
+     */
+    long count();
+
+    /**
+     * Calcula o cursor da página que começa na posição informada.
+     *
+     * @param position posição do primeiro item da página, a partir de zero
+     * @return cursor da página, ou null para a primeira página
+     */
+    String cursorAt(long position);
+
+    /**
+     * Busca uma página ordenada por id.
+     *
+     * @param cursor cursor da página, ou null para a primeira
+     * @param size   quantidade máxima de itens na página
+     * @return página encontrada
+     */
+    Page<T> findPage(String cursor, int size);
+
+    /**
+     * Páginas de livros lidas do repositório.
+     *
+     * @param repository repositório de livros
+     * @return origem das páginas
+     */
+    static PageSource<Book> books(BookRepository repository) {
+        return new PageSource<>() {
+            @Override
+            public long count() {
+                return repository.count();
+            }
+
+            @Override
+            public String cursorAt(long position) {
+                return repository.cursorAt(position);
+            }
+
+            @Override
+            public Page<Book> findPage(String cursor, int size) {
+                return repository.findPage(cursor, size);
+            }
+        };
+    }
+
+    /**
+     * Páginas de usuários lidas do repositório.
+     *
+     * @param repository repositório de usuários
+     * @return origem das páginas
+     */
+    static PageSource<User> users(UserRepository repository) {
+        return new PageSource<>() {
+            @Override
+            public long count() {
+                return repository.count();
+            }
+
+            @Override
+            public String cursorAt(long position) {
+                return repository.cursorAt(position);
+            }
+
+            @Override
+            public Page<User> findPage(String cursor, int size) {
+                return repository.findPage(cursor, size);
+            }
+        };
+    }
+
+    /**
+     * Páginas de empréstimos lidas do repositório.
+     *
+     * @param repository repositório de empréstimos
+     * @return origem das páginas
+     */
+    static PageSource<Loan> loans(LoanRepository repository) {
+        return new PageSource<>() {
+            @Override
+            public long count() {
+                return repository.count();
+            }
+
+            @Override
+            public String cursorAt(long position) {
+                return repository.cursorAt(position);
+            }
+
+            @Override
+            public Page<Loan> findPage(String cursor, int size) {
+                return repository.findPage(cursor, size);
+            }
+        };
+    }
+}
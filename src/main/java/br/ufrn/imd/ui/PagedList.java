@@ -0,0 +1,310 @@
+package br.ufrn.imd.ui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import br.ufrn.imd.dao.Page;
+import br.ufrn.imd.logging.Logger;
+
+/**
+ * Lista observável que carrega sob demanda as linhas de uma tabela grande,
+ * para servir de {@code items} a uma {@code TableView}.
+ * <p>
+ * A lista conhece apenas a quantidade total de linhas. Ao pedir uma linha
+ * ainda não carregada, recebe-se null e a página correspondente é buscada
+ * fora da thread da interface; quando chega, a lista notifica a troca das
+ * linhas e a tabela as redesenha. As páginas seguintes, no sentido da
+ * rolagem, são buscadas antecipadamente, e as páginas mais distantes da
+ * visível são descartadas, de modo que a memória fica limitada por
+ * {@link PagedListConfig} qualquer que seja o tamanho da tabela.
+ * <p>
+ * A rolagem contínua encadeia os cursores da paginação por chave; um salto
+ * para uma página distante usa {@link PageSource#cursorAt(long)}. Buscas de
+ * páginas que deixaram de ser visíveis antes de começar são abandonadas.
+ * <p>
+ * Deve ser usada na thread da JavaFX. Linhas incluídas ou removidas depois da
+ * contagem aparecem após {@link #refresh()}.
+ *
+ * @param <T> tipo dos itens
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class PagedList<T> extends ObservableListBase<T> implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(PagedList.class);
+
+    private final PageSource<T> source;
+    private final int pageSize;
+    private final int prefetchPages;
+    private final int maxPages;
+    private final ExecutorService fetcher;
+    private final boolean ownsFetcher;
+    private final Executor fxThread;
+
+    private final Map<Integer, List<T>> pages = new HashMap<>();
+    private final Map<Integer, String> cursors = new HashMap<>();
+    private final Set<Integer> pending = new HashSet<>();
+    private final Set<Integer> failed = new HashSet<>();
+    private int size;
+    private int generation;
+    private int direction = 1;
+    private volatile int currentPage;
+
+    /**
+     * Cria a lista, com threads próprias para as buscas, e inicia a contagem
+     * das linhas.
+     *
+     * @param source origem das páginas
+     * @param config configuração da lista
+     * @throws IllegalArgumentException caso a configuração seja inválida
+     */
+    public PagedList(PageSource<T> source, PagedListConfig config) {
+        this(source, config, newFetcher(config), true, Platform::runLater);
+    }
+
+    /**
+     * Cria a lista com os executores informados e inicia a contagem das
+     * linhas. O executor das buscas não é encerrado por {@link #close()}.
+     *
+     * @param source   origem das páginas
+     * @param config   configuração da lista
+     * @param fetcher  executor das buscas
+     * @param fxThread executor da thread da interface, onde a lista é alterada
+     * @throws IllegalArgumentException caso a configuração seja inválida
+     */
+    public PagedList(PageSource<T> source, PagedListConfig config, ExecutorService fetcher, Executor fxThread) {
+        this(source, config, fetcher, false, fxThread);
+    }
+
+    private PagedList(PageSource<T> source, PagedListConfig config, ExecutorService fetcher, boolean ownsFetcher,
+            Executor fxThread) {
+        config.validate();
+        this.source = source;
+        this.pageSize = config.getPageSize();
+        this.prefetchPages = config.getPrefetchPages();
+        this.maxPages = config.getMaxPages();
+        this.fetcher = fetcher;
+        this.ownsFetcher = ownsFetcher;
+        this.fxThread = fxThread;
+        refresh();
+    }
+
+    /**
+     * Retorna a linha da posição informada, ou null enquanto a sua página é
+     * carregada.
+     *
+     * @param index posição da linha
+     * @throws IndexOutOfBoundsException caso a posição não exista
+     * @return linha carregada, ou null
+     */
+    @Override
+    public T get(int index) {
+        Objects.checkIndex(index, size);
+        int page = index / pageSize;
+        requestAround(page);
+        List<T> items = pages.get(page);
+        int offset = index - page * pageSize;
+        return items != null && offset < items.size() ? items.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Conta novamente as linhas em segundo plano e, ao terminar, descarta as
+     * páginas carregadas. Também volta a tentar as páginas cuja busca falhou.
+     */
+    public void refresh() {
+        fetcher.execute(() -> {
+            long count;
+            try {
+                count = source.count();
+            } catch (RuntimeException e) {
+                LOG.error("Erro ao contar as linhas da tabela", e);
+                return;
+            }
+            int newSize = (int) Math.min(count, Integer.MAX_VALUE);
+            fxThread.execute(() -> reset(newSize));
+        });
+    }
+
+    /**
+     * Retorna a quantidade de páginas em memória.
+     *
+     * @return páginas carregadas
+     */
+    public int getCachedPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Encerra as threads próprias das buscas.
+     */
+    @Override
+    public void close() {
+        if (ownsFetcher) {
+            fetcher.shutdownNow();
+        }
+    }
+
+    private void requestAround(int page) {
+        if (page != currentPage) {
+            direction = page > currentPage ? 1 : -1;
+            currentPage = page;
+        }
+        request(page);
+        for (int i = 1; i <= prefetchPages; i++) {
+            request(page + direction * i);
+        }
+    }
+
+    private void request(int page) {
+        if (page < 0 || page >= pageCount() || pages.containsKey(page) || pending.contains(page)
+                || failed.contains(page)) {
+            return;
+        }
+        pending.add(page);
+        int fetchGeneration = generation;
+        String cursor = cursors.get(page);
+        boolean cursorKnown = page == 0 || cursor != null;
+        fetcher.execute(() -> fetch(page, fetchGeneration, cursorKnown, cursor));
+    }
+
+    /**
+     * Busca uma página na thread das buscas, a menos que ela já esteja longe
+     * da página visível.
+     */
+    private void fetch(int page, int fetchGeneration, boolean cursorKnown, String cursor) {
+        if (isDistant(page)) {
+            fxThread.execute(() -> abandoned(page, fetchGeneration));
+            return;
+        }
+        try {
+            String start = cursorKnown ? cursor : source.cursorAt((long) page * pageSize);
+            Page<T> result = source.findPage(start, pageSize);
+            fxThread.execute(() -> loaded(page, fetchGeneration, result));
+        } catch (RuntimeException e) {
+            LOG.error("Erro ao carregar a página {} da tabela", page, e);
+            fxThread.execute(() -> failed(page, fetchGeneration));
+        }
+    }
+
+    private void loaded(int page, int fetchGeneration, Page<T> result) {
+        if (fetchGeneration != generation) {
+            return;
+        }
+        pending.remove(page);
+        if (result.hasNext()) {
+            cursors.put(page + 1, result.getNextCursor());
+        }
+        beginChange();
+        pages.put(page, result.getItems());
+        replaced(page, Collections.nCopies(pageSize, null));
+        evictDistantPages();
+        endChange();
+    }
+
+    private void abandoned(int page, int fetchGeneration) {
+        if (fetchGeneration == generation) {
+            pending.remove(page);
+        }
+    }
+
+    private void failed(int page, int fetchGeneration) {
+        if (fetchGeneration == generation) {
+            pending.remove(page);
+            failed.add(page);
+        }
+    }
+
+    private void reset(int newSize) {
+        generation++;
+        pages.clear();
+        cursors.clear();
+        pending.clear();
+        failed.clear();
+        int oldSize = size;
+        size = newSize;
+        beginChange();
+        if (oldSize > 0) {
+            nextRemove(0, Collections.nCopies(oldSize, null));
+        }
+        if (newSize > 0) {
+            nextAdd(0, newSize);
+        }
+        endChange();
+    }
+
+    /**
+     * Descarta as páginas e os cursores mais distantes da página visível além
+     * do limite, notificando que as linhas descartadas voltaram a ser nulas.
+     */
+    private void evictDistantPages() {
+        while (pages.size() > maxPages) {
+            int farthest = farthest(pages.keySet());
+            replaced(farthest, pages.remove(farthest));
+        }
+        while (cursors.size() > maxPages * 4) {
+            cursors.remove(farthest(cursors.keySet()));
+        }
+    }
+
+    private int farthest(Set<Integer> keys) {
+        int farthest = currentPage;
+        for (int key : keys) {
+            if (Math.abs(key - currentPage) > Math.abs(farthest - currentPage)) {
+                farthest = key;
+            }
+        }
+        return farthest;
+    }
+
+    /**
+     * Notifica a troca das linhas de uma página, dentro de uma alteração já
+     * iniciada.
+     */
+    private void replaced(int page, List<T> removed) {
+        int from = page * pageSize;
+        int to = Math.min(size, from + pageSize);
+        if (from < to) {
+            List<T> old = new ArrayList<>(to - from);
+            for (int i = 0; i < to - from; i++) {
+                old.add(i < removed.size() ? removed.get(i) : null);
+            }
+            nextReplace(from, to, old);
+        }
+    }
+
+    private boolean isDistant(int page) {
+        return Math.abs(page - currentPage) > maxPages / 2;
+    }
+
+    private int pageCount() {
+        return (int) ((size + (long) pageSize - 1) / pageSize);
+    }
+
+    private static ExecutorService newFetcher(PagedListConfig config) {
+        config.validate();
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newFixedThreadPool(config.getFetchThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "paged-list-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package br.ufrn.imd.ui;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Configuração de uma {@link PagedList}.
+ * <p>
+ * A memória ocupada é limitada por {@code pageSize * maxPages} itens,
+ * qualquer que seja o tamanho da tabela.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public class PagedListConfig {
+
+    /** Quantidade de linhas de cada página buscada. */
+    @Builder.Default
+    private final int pageSize = 100;
+
+    /** Páginas buscadas antecipadamente além da visível, no sentido da rolagem. */
+    @Builder.Default
+    private final int prefetchPages = 2;
+
+    /** Quantidade máxima de páginas em memória; as mais distantes são descartadas. */
+    @Builder.Default
+    private final int maxPages = 16;
+
+    /** Threads que buscam as páginas, fora da thread da interface. */
+    @Builder.Default
+    private final int fetchThreads = 2;
+
+    void validate() {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("O tamanho da página deve ser positivo.");
+        }
+        if (prefetchPages < 0) {
+            throw new IllegalArgumentException("A quantidade de páginas antecipadas não pode ser negativa.");
+        }
+        if (maxPages < 2 * (prefetchPages + 1) + 1) {
+            throw new IllegalArgumentException(
+                    "A quantidade máxima de páginas deve comportar as páginas antecipadas nos dois sentidos.");
+        }
+        if (fetchThreads <= 0) {
+            throw new IllegalArgumentException("A quantidade de threads deve ser positiva.");
+        }
+    }
+}
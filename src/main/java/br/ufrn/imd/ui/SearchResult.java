@@ -0,0 +1,38 @@
+package br.ufrn.imd.ui;
+
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * Resultado entregue por uma {@link SearchSession}: sempre o do texto mais
+ * recente.
+ *
+ * @param <T> tipo dos itens encontrados
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Value
+public class SearchResult<T> {
+
+    /** Texto buscado, sem espaços nas pontas. */
+    String query;
+
+    /** Itens encontrados; vazio para um texto curto demais ou em caso de erro. */
+    List<T> items;
+
+    /** Erro da busca, ou null caso ela tenha terminado normalmente. */
+    Throwable error;
+
+    /** Tempo entre a última tecla e a entrega do resultado. */
+    long latencyNanos;
+
+    /**
+     * Indica se a busca falhou.
+     *
+     * @return true caso exista um erro
+     */
+    public boolean isFailed() {
+        return error != null;
+    }
+}
@@ -0,0 +1,272 @@
+package br.ufrn.imd.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+
+import br.ufrn.imd.dao.QueryHandle;
+import br.ufrn.imd.exception.QueryCancelledException;
+import br.ufrn.imd.exception.ResourceNotFoundException;
+import br.ufrn.imd.logging.Logger;
+import br.ufrn.imd.metrics.MetricsRegistry;
+import br.ufrn.imd.metrics.OperationMetrics;
+
+/**
+ * Busca enquanto o usuário digita, como em um campo de pesquisa.
+ * <p>
+ * Cada tecla informada por {@link #update(String)} cancela a busca em
+ * andamento, inclusive no servidor do banco, e reagenda a próxima para depois
+ * de uma pausa na digitação. Assim as consultas acompanham as pausas, não as
+ * teclas. Só o resultado do texto mais recente é entregue, na thread da
+ * interface; resultados que chegam depois de uma nova tecla são descartados.
+ * <p>
+ * Métricas registradas com o nome da sessão:
+ * <ul>
+ * <li>{@code <nome>.keystroke}: para cada tecla, o tempo até a entrega do
+ * próximo resultado, ou seja, quanto o usuário esperou por ela;</li>
+ * <li>{@code <nome>.query}: a duração das buscas que terminaram.</li>
+ * </ul>
+ *
+ * @param <T> tipo dos itens encontrados
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+public class SearchSession<T> implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(SearchSession.class);
+
+    private final Searcher<T> searcher;
+    private final SearchSessionConfig config;
+    private final Consumer<SearchResult<T>> listener;
+    private final Executor fxThread;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService queries;
+    private final OperationMetrics keystrokeMetrics;
+    private final OperationMetrics queryMetrics;
+    private final LongAdder cancelledQueries = new LongAdder();
+    private final LongAdder staleResults = new LongAdder();
+
+    private final Object lock = new Object();
+    private final List<Long> keystrokes = new ArrayList<>();
+    private long sequence;
+    private ScheduledFuture<?> timer;
+    private QueryHandle running;
+    private boolean closed;
+
+    /**
+     * Cria a sessão, com as métricas no registro padrão e os resultados
+     * entregues na thread da JavaFX.
+     *
+     * @param name     nome da sessão nas métricas, como {@code SearchSession.books}
+     * @param searcher busca executada
+     * @param config   configuração da sessão
+     * @param listener recebe cada resultado
+     * @throws IllegalArgumentException caso a configuração seja inválida
+     */
+    public SearchSession(String name, Searcher<T> searcher, SearchSessionConfig config,
+            Consumer<SearchResult<T>> listener) {
+        this(name, searcher, config, listener, MetricsRegistry.getDefault(), Platform::runLater);
+    }
+
+    /**
+     * Cria a sessão.
+     *
+     * @param name     nome da sessão nas métricas
+     * @param searcher busca executada
+     * @param config   configuração da sessão
+     * @param listener recebe cada resultado
+     * @param registry registro das métricas
+     * @param fxThread executor da thread da interface, onde os resultados são
+     *                 entregues
+     * @throws IllegalArgumentException caso a configuração seja inválida
+     */
+    public SearchSession(String name, Searcher<T> searcher, SearchSessionConfig config,
+            Consumer<SearchResult<T>> listener, MetricsRegistry registry, Executor fxThread) {
+        config.validate();
+        this.searcher = searcher;
+        this.config = config;
+        this.listener = listener;
+        this.fxThread = fxThread;
+        this.keystrokeMetrics = registry.operation(name + ".keystroke");
+        this.queryMetrics = registry.operation(name + ".query");
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-debounce");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.queries = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-query-", 1).factory());
+    }
+
+    /**
+     * Informa o texto atual do campo de pesquisa, a cada tecla.
+     *
+     * @param text texto digitado
+     */
+    public void update(String text) {
+        long now = System.nanoTime();
+        String query = text == null ? "" : text.trim();
+        boolean tooShort = query.length() < config.getMinQueryLength();
+        long current;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            current = ++sequence;
+            keystrokes.add(now);
+            interrupt();
+            if (!tooShort) {
+                timer = scheduler.schedule(() -> start(current, query), config.getDebounce().toNanos(),
+                        TimeUnit.NANOSECONDS);
+            }
+        }
+        if (tooShort) {
+            deliver(current, query, List.of(), null);
+        }
+    }
+
+    /**
+     * Cancela a busca agendada e a busca em andamento, sem entregar resultado.
+     */
+    public void cancel() {
+        synchronized (lock) {
+            sequence++;
+            keystrokes.clear();
+            interrupt();
+        }
+    }
+
+    /**
+     * Retorna a quantidade de buscas canceladas por uma nova tecla.
+     *
+     * @return buscas canceladas
+     */
+    public long getCancelledQueries() {
+        return cancelledQueries.sum();
+    }
+
+    /**
+     * Retorna a quantidade de resultados descartados por já estarem
+     * desatualizados ao chegar.
+     *
+     * @return resultados descartados
+     */
+    public long getStaleResults() {
+        return staleResults.sum();
+    }
+
+    /**
+     * Cancela as buscas e encerra as threads da sessão.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            sequence++;
+            interrupt();
+        }
+        scheduler.shutdownNow();
+        queries.shutdown();
+    }
+
+    /**
+     * Cancela o agendamento e a busca em andamento. Deve ser chamado com o
+     * lock.
+     */
+    private void interrupt() {
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+        if (running != null) {
+            running.cancel();
+            running = null;
+            cancelledQueries.increment();
+        }
+    }
+
+    /**
+     * Inicia a busca depois da pausa, caso nenhuma tecla tenha chegado nesse
+     * meio-tempo.
+     */
+    private void start(long current, String query) {
+        QueryHandle handle = new QueryHandle(config.getQueryTimeout());
+        synchronized (lock) {
+            if (current != sequence) {
+                return;
+            }
+            timer = null;
+            running = handle;
+        }
+        queries.execute(() -> search(current, query, handle));
+    }
+
+    private void search(long current, String query, QueryHandle handle) {
+        long start = queryMetrics.start();
+        List<T> items;
+        Throwable error = null;
+        try {
+            items = searcher.search(query, config.getLimit(), handle);
+            queryMetrics.success(start);
+        } catch (QueryCancelledException e) {
+            return;
+        } catch (ResourceNotFoundException e) {
+            items = List.of();
+            queryMetrics.success(start);
+        } catch (RuntimeException e) {
+            queryMetrics.failure(start);
+            LOG.warn("Erro na busca por '{}'", query, e);
+            items = List.of();
+            error = e;
+        } finally {
+            synchronized (lock) {
+                if (running == handle) {
+                    running = null;
+                }
+            }
+        }
+        if (handle.isCancelled()) {
+            staleResults.increment();
+            return;
+        }
+        deliver(current, query, items, error);
+    }
+
+    /**
+     * Entrega o resultado na thread da interface, caso ainda seja o do texto
+     * mais recente, e registra a espera de cada tecla atendida por ele.
+     */
+    private void deliver(long current, String query, List<T> items, Throwable error) {
+        fxThread.execute(() -> {
+            List<Long> answered;
+            synchronized (lock) {
+                if (current != sequence) {
+                    staleResults.increment();
+                    return;
+                }
+                answered = new ArrayList<>(keystrokes);
+                keystrokes.clear();
+            }
+            for (long keystroke : answered) {
+                if (error == null) {
+                    keystrokeMetrics.success(keystroke);
+                } else {
+                    keystrokeMetrics.failure(keystroke);
+                }
+            }
+            long latency = answered.isEmpty() ? 0 : System.nanoTime() - answered.get(answered.size() - 1);
+            listener.accept(new SearchResult<>(query, items, error, latency));
+        });
+    }
+}
@@ -0,0 +1,50 @@
+package br.ufrn.imd.ui;
+
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Configuração de uma {@link SearchSession}.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public class SearchSessionConfig {
+
+    /** Pausa na digitação a partir da qual a busca é executada. */
+    @Builder.Default
+    private final Duration debounce = Duration.ofMillis(250);
+
+    /** Tempo limite de cada busca; null para nenhum. */
+    @Builder.Default
+    private final Duration queryTimeout = Duration.ofSeconds(5);
+
+    /** Quantidade máxima de itens de cada resultado. */
+    @Builder.Default
+    private final int limit = 50;
+
+    /** Tamanho mínimo do texto para buscar; textos menores limpam o resultado. */
+    @Builder.Default
+    private final int minQueryLength = 2;
+
+    void validate() {
+        if (debounce == null || debounce.isNegative()) {
+            throw new IllegalArgumentException("A pausa da digitação não pode ser negativa.");
+        }
+        if (queryTimeout != null && (queryTimeout.isNegative() || queryTimeout.isZero())) {
+            throw new IllegalArgumentException("O tempo limite deve ser positivo.");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("O limite de itens deve ser positivo.");
+        }
+        if (minQueryLength < 1) {
+            throw new IllegalArgumentException("O tamanho mínimo do texto deve ser positivo.");
+        }
+    }
+}
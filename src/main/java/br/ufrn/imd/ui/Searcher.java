@@ -0,0 +1,50 @@
+package br.ufrn.imd.ui;
+
+import java.util.List;
+
+import br.ufrn.imd.dao.QueryHandle;
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.User;
+import br.ufrn.imd.service.BookService;
+import br.ufrn.imd.service.UserService;
+
+/**
+ * Busca executada por uma {@link SearchSession} a cada pausa na digitação.
+ *
+ * @param <T> tipo dos itens encontrados
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface Searcher<T> {
+
+    /**
+     * Busca os itens que correspondem ao texto.
+     *
+     * @param query  texto digitado, sem espaços nas pontas
+     * @param limit  quantidade máxima de itens
+     * @param handle controle da busca, cancelado quando o texto muda
+     * @return itens encontrados
+     */
+    List<T> search(String query, int limit, QueryHandle handle);
+
+    /**
+     * Busca livros pelo título ou autor.
+     *
+     * @param service serviço de livros
+     * @return busca de livros
+     */
+    static Searcher<Book> books(BookService service) {
+        return (query, limit, handle) -> service.searchBooksPage(query, null, limit, handle).getItems();
+    }
+
+    /**
+     * Busca usuários pelo nome, e-mail ou telefone.
+     *
+     * @param service serviço de usuários
+     * @return busca de usuários
+     */
+    static Searcher<User> users(UserService service) {
+        return (query, limit, handle) -> service.searchUsersPage(query, null, limit, handle).getItems();
+    }
+}
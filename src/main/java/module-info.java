@@ -4,12 +4,28 @@ module br.ufrn.imd {
     requires static lombok;
     requires transitive javafx.graphics;
     requires transitive java.sql;
+    requires java.management;
+    requires roaringbitmap;
 
     opens br.ufrn.imd to javafx.fxml;
 
+    uses br.ufrn.imd.storage.StorageEngineProvider;
+
     exports br.ufrn.imd;
+    exports br.ufrn.imd.catalog;
     exports br.ufrn.imd.model;
     exports br.ufrn.imd.dao;
+    exports br.ufrn.imd.database;
+    exports br.ufrn.imd.journal;
+    exports br.ufrn.imd.logging;
+    exports br.ufrn.imd.metrics;
     exports br.ufrn.imd.model.enums;
+    exports br.ufrn.imd.scheduler;
+    exports br.ufrn.imd.search;
+    exports br.ufrn.imd.service;
+    exports br.ufrn.imd.snapshot;
+    exports br.ufrn.imd.startup;
+    exports br.ufrn.imd.storage;
+    exports br.ufrn.imd.ui;
 
 }
@@ -0,0 +1,195 @@
+package br.ufrn.imd.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.imd.database.ConnectionPool;
+import br.ufrn.imd.database.PoolConfig;
+import br.ufrn.imd.exception.BookUnavailableException;
+import br.ufrn.imd.model.Loan;
+
+/**
+ * Retiradas simultâneas do mesmo livro, em um banco H2 em memória no modo
+ * MySQL: nunca se reservam mais exemplares do que existem.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+class LoanDAOConcurrencyTest {
+
+    private static final int COPIES = 5;
+    private static final int CHECKOUTS = 64;
+    private static final long BOOK_ID = 1L;
+    private static final long USER_ID = 1L;
+
+    private ConnectionPool pool;
+    private LoanDAO loanDAO;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        pool = new ConnectionPool(PoolConfig.builder()
+                .url("jdbc:h2:mem:loans" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1;NON_KEYWORDS=USER")
+                .username("sa")
+                .password("")
+                .maxSize(16)
+                .build());
+        try (Connection connection = pool.getConnection()) {
+            createSchema(connection);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("INSERT INTO user (id, name, email) VALUES (" + USER_ID + ", 'Ana', 'ana@exemplo.com')");
+                statement.execute("INSERT INTO book (id, title, author, genre, publication_year, isbn, total_copies, "
+                        + "available_copies) VALUES (" + BOOK_ID + ", 'Livro', 'Autor', 'ACTION', 2000, '9780000000001', "
+                        + COPIES + ", " + COPIES + ")");
+            }
+        }
+        loanDAO = new LoanDAO(pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void concurrentCheckoutsReserveExactlyTheAvailableCopies() throws InterruptedException, SQLException {
+        ExecutorService executor = Executors.newFixedThreadPool(CHECKOUTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < CHECKOUTS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    loanDAO.checkout(Loan.builder()
+                            .userId(USER_ID)
+                            .bookId(BOOK_ID)
+                            .loanDate(LocalDate.now())
+                            .dueDate(LocalDate.now().plusDays(14))
+                            .build());
+                    return null;
+                }));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            int unavailable = 0;
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                    succeeded++;
+                } catch (ExecutionException e) {
+                    assertInstanceOf(BookUnavailableException.class, e.getCause());
+                    unavailable++;
+                }
+            }
+
+            assertEquals(COPIES, succeeded);
+            assertEquals(CHECKOUTS - COPIES, unavailable);
+            assertEquals(0, queryInt("SELECT available_copies FROM book WHERE id = " + BOOK_ID));
+            assertEquals(COPIES, queryInt("SELECT COUNT(*) FROM loan WHERE book_id = " + BOOK_ID));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void createReservesACopyForOpenLoans() throws SQLException {
+        loanDAO.create(Loan.builder()
+                .userId(USER_ID)
+                .bookId(BOOK_ID)
+                .loanDate(LocalDate.now())
+                .dueDate(LocalDate.now().plusDays(14))
+                .build());
+        loanDAO.create(Loan.builder()
+                .userId(USER_ID)
+                .bookId(BOOK_ID)
+                .loanDate(LocalDate.now().minusDays(30))
+                .dueDate(LocalDate.now().minusDays(16))
+                .returnDate(LocalDate.now().minusDays(20))
+                .isReturned(true)
+                .build());
+
+        assertEquals(COPIES - 1, queryInt("SELECT available_copies FROM book WHERE id = " + BOOK_ID));
+        assertEquals(2, queryInt("SELECT COUNT(*) FROM loan WHERE book_id = " + BOOK_ID));
+    }
+
+    @Test
+    void updateKeepingALoanOpenKeepsTheActiveCounts() throws SQLException {
+        Loan loan = Loan.builder()
+                .userId(USER_ID)
+                .bookId(BOOK_ID)
+                .loanDate(LocalDate.now())
+                .dueDate(LocalDate.now().plusDays(14))
+                .build();
+        loanDAO.checkout(loan);
+
+        loanDAO.update(Long.valueOf(loan.getId()), loan.toBuilder().dueDate(LocalDate.now().plusDays(21)).build());
+
+        assertEquals(1, queryInt("SELECT active_loans FROM book_loan_stats WHERE book_id = " + BOOK_ID));
+        assertEquals(1, queryInt("SELECT active_loans FROM user_loan_stats WHERE user_id = " + USER_ID));
+        assertEquals(1, queryInt("SELECT loan_count FROM book_loan_stats WHERE book_id = " + BOOK_ID));
+        assertEquals(COPIES - 1, queryInt("SELECT available_copies FROM book WHERE id = " + BOOK_ID));
+    }
+
+    @Test
+    void reopeningAReturnedLoanRaisesTheActiveCounts() throws SQLException {
+        Loan loan = Loan.builder()
+                .userId(USER_ID)
+                .bookId(BOOK_ID)
+                .loanDate(LocalDate.now())
+                .dueDate(LocalDate.now().plusDays(14))
+                .build();
+        loanDAO.checkout(loan);
+        loanDAO.returnLoan(Long.valueOf(loan.getId()), LocalDate.now());
+        assertEquals(0, queryInt("SELECT active_loans FROM book_loan_stats WHERE book_id = " + BOOK_ID));
+        assertEquals(0, queryInt("SELECT active_loans FROM user_loan_stats WHERE user_id = " + USER_ID));
+
+        loanDAO.update(Long.valueOf(loan.getId()), loan.toBuilder().returnDate(null).isReturned(false).build());
+
+        assertEquals(1, queryInt("SELECT active_loans FROM book_loan_stats WHERE book_id = " + BOOK_ID));
+        assertEquals(1, queryInt("SELECT active_loans FROM user_loan_stats WHERE user_id = " + USER_ID));
+        assertEquals(COPIES - 1, queryInt("SELECT available_copies FROM book WHERE id = " + BOOK_ID));
+    }
+
+    private int queryInt(String sql) throws SQLException {
+        try (Connection connection = pool.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static void createSchema(Connection connection) throws SQLException, IOException {
+        String script;
+        try (InputStream in = LoanDAOConcurrencyTest.class.getResourceAsStream("/schema.sql")) {
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : script.replaceAll("(?m)^--.*$", "").split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package br.ufrn.imd.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.imd.dao.LoanRepository;
+import br.ufrn.imd.model.Loan;
+
+/**
+ * Agrupamento, limite de capacidade e falhas da gravação adiada das
+ * devoluções, com um repositório em memória no lugar do banco.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+class LoanWriteBehindQueueTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 10);
+
+    private final List<Map<Long, LocalDate>> batches = new ArrayList<>();
+    private final List<Loan> returned = new ArrayList<>();
+
+    @Test
+    void returnsOfTheSameLoanAreCoalescedIntoOneWrite() throws Exception {
+        WriteBehindConfig config = WriteBehindConfig.builder().maxDelayMillis(60_000).build();
+        try (LoanWriteBehindQueue queue = new LoanWriteBehindQueue(repository(this::returnAll), config,
+                returned::add)) {
+            CompletableFuture<Void> first = queue.submit(1L, TODAY);
+            CompletableFuture<Void> second = queue.submit(1L, TODAY.plusDays(1));
+            CompletableFuture<Void> other = queue.submit(2L, TODAY);
+
+            assertEquals(2, queue.size());
+            assertTimeoutPreemptively(TIMEOUT, queue::flush);
+
+            first.get(1, TimeUnit.SECONDS);
+            second.get(1, TimeUnit.SECONDS);
+            other.get(1, TimeUnit.SECONDS);
+            assertEquals(1, batches.size());
+            assertEquals(Map.of(1L, TODAY.plusDays(1), 2L, TODAY), batches.get(0));
+            assertEquals(2, returned.size());
+            assertEquals(3, queue.getSubmittedCount());
+            assertEquals(1, queue.getCoalescedCount());
+            assertEquals(1, queue.getBatchCount());
+            assertEquals(2, queue.getWrittenCount());
+        }
+    }
+
+    @Test
+    void submitIsRejectedWhileTheQueueIsFull() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WriteBehindConfig config = WriteBehindConfig.builder()
+                .capacity(1)
+                .maxBatchSize(1)
+                .maxDelayMillis(0)
+                .offerTimeoutMillis(50)
+                .build();
+        LoanRepository repository = repository(returns -> {
+            writing.countDown();
+            awaitUninterruptibly(release);
+            return returnAll(returns);
+        });
+
+        try (LoanWriteBehindQueue queue = new LoanWriteBehindQueue(repository, config, returned::add)) {
+            CompletableFuture<Void> inFlight = queue.submit(1L, TODAY);
+            assertTrue(writing.await(10, TimeUnit.SECONDS));
+            CompletableFuture<Void> queued = queue.submit(2L, TODAY);
+
+            assertThrows(RejectedExecutionException.class, () -> queue.submit(3L, TODAY));
+
+            release.countDown();
+            assertTimeoutPreemptively(TIMEOUT, queue::flush);
+            inFlight.get(1, TimeUnit.SECONDS);
+            queued.get(1, TimeUnit.SECONDS);
+            assertEquals(2, queue.getWrittenCount());
+        }
+    }
+
+    @Test
+    void anErrorInTheWriterFailsPendingReturnsAndClosesTheQueue() {
+        Error failure = new Error("falha simulada");
+        LoanRepository repository = repository(returns -> {
+            throw failure;
+        });
+        WriteBehindConfig config = WriteBehindConfig.builder().maxDelayMillis(0).build();
+
+        try (LoanWriteBehindQueue queue = new LoanWriteBehindQueue(repository, config, returned::add)) {
+            CompletableFuture<Void> future = queue.submit(1L, TODAY);
+
+            ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+            assertTimeoutPreemptively(TIMEOUT, queue::flush);
+            assertThrows(IllegalStateException.class, () -> queue.submit(2L, TODAY));
+        }
+    }
+
+    private Map<Long, Loan> returnAll(Map<Long, LocalDate> returns) {
+        batches.add(new LinkedHashMap<>(returns));
+        Map<Long, Loan> previous = new LinkedHashMap<>();
+        for (Long id : returns.keySet()) {
+            previous.put(id, Loan.builder().id(String.valueOf(id)).userId(1L).bookId(id).isReturned(false).build());
+        }
+        return previous;
+    }
+
+    /**
+     * Repositório que implementa apenas as devoluções em lote.
+     */
+    private static LoanRepository repository(Function<Map<Long, LocalDate>, Map<Long, Loan>> returnLoans) {
+        return (LoanRepository) Proxy.newProxyInstance(LoanRepository.class.getClassLoader(),
+                new Class<?>[] { LoanRepository.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("returnLoans")) {
+                        @SuppressWarnings("unchecked")
+                        Map<Long, LocalDate> returns = (Map<Long, LocalDate>) args[0];
+                        return returnLoans.apply(returns);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
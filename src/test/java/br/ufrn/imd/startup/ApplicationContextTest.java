@@ -0,0 +1,100 @@
+package br.ufrn.imd.startup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.ufrn.imd.model.Book;
+import br.ufrn.imd.model.Loan;
+import br.ufrn.imd.model.User;
+import br.ufrn.imd.model.enums.Genre;
+import br.ufrn.imd.search.BookFilter;
+import br.ufrn.imd.service.BookService;
+import br.ufrn.imd.service.LoanService;
+import br.ufrn.imd.storage.FileStorageEngine;
+import br.ufrn.imd.storage.StorageConfig;
+
+/**
+ * Serviços montados pelo contexto sobre o mecanismo em arquivo: os índices de
+ * livros acompanham a disponibilidade alterada pelos empréstimos.
+ *
+ * @author Gabrielly Freire
+ * @version 1.0
+ */
+class ApplicationContextTest {
+
+    private static final BookFilter AVAILABLE_ONLY = BookFilter.builder().availableOnly(true).build();
+
+    private Path directory;
+    private ApplicationContext context;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("library-context");
+        StartupConfig config = StartupConfig.builder()
+                .storage(StorageConfig.builder().engine(FileStorageEngine.NAME).directory(directory).build())
+                .reportFile(null)
+                .build();
+        context = new ApplicationContext(config, new StartupTimeline());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        context.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void availableFilterDropsABookOnceItsLastCopyIsCheckedOut() {
+        BookService bookService = context.getBookService();
+        LoanService loanService = context.getLoanService();
+        Book single = book("Dom Casmurro", "9788535914849", 1);
+        Book shared = book("Memórias Póstumas", "9788535910667", 2);
+        bookService.createBook(single);
+        bookService.createBook(shared);
+        User user = User.builder().name("Ana").email("ana@exemplo.com").phoneNumber("84999990000").build();
+        context.getUserService().createUser(user);
+
+        assertEquals(List.of(single.getId(), shared.getId()), availableIds(bookService));
+
+        Loan returned = loanService.checkout(user.getId(), single.getId());
+        loanService.checkout(user.getId(), shared.getId());
+        assertEquals(List.of(shared.getId()), availableIds(bookService));
+
+        loanService.returnLoan(Long.valueOf(returned.getId()));
+        assertEquals(List.of(single.getId(), shared.getId()), availableIds(bookService));
+
+        Loan deleted = loanService.checkout(user.getId(), single.getId());
+        assertEquals(List.of(shared.getId()), availableIds(bookService));
+        loanService.deleteLoan(Long.valueOf(deleted.getId()));
+        assertEquals(List.of(single.getId(), shared.getId()), availableIds(bookService));
+    }
+
+    private static List<Long> availableIds(BookService bookService) {
+        return bookService.filterBooks(AVAILABLE_ONLY).getIds(0, 10);
+    }
+
+    private static Book book(String title, String isbn, int copies) {
+        return Book.builder()
+                .title(title)
+                .author("Machado de Assis")
+                .genre(Genre.DRAMA)
+                .publicationYear(1899)
+                .isbn(isbn)
+                .totalCopies(copies)
+                .build();
+    }
+}